@@ -0,0 +1,36 @@
+package com.example.cache;
+
+/**
+ * 缓存加载回调接口
+ * <p>
+ * 用于在缓存未命中时加载数据（如查询数据库）的函数式接口
+ * 配合 {@link CacheService#getOrLoad} 使用
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * List&lt;Role&gt; roles = cacheService.getOrLoad("user:roles:" + userId,
+ *         new TypeReference&lt;List&lt;Role&gt;&gt;() {}.getType(), 30, TimeUnit.MINUTES,
+ *         () -> userRoleRepository.findRolesByUserId(userId));
+ * </pre>
+ * </p>
+ *
+ * @param <T> 返回值类型
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface CacheLoadCallback<T> {
+
+    /**
+     * 加载数据
+     * <p>
+     * 在缓存未命中时执行此方法，返回 null 表示数据不存在，不会写入缓存
+     * </p>
+     *
+     * @return 加载到的数据
+     * @throws Exception 加载过程中可能抛出的异常
+     */
+    T load() throws Exception;
+}
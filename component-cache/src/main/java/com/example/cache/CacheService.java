@@ -1,6 +1,10 @@
 package com.example.cache;
 
+import org.springframework.data.util.CloseableIterator;
+
+import java.lang.reflect.Type;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -10,10 +14,12 @@ import java.util.concurrent.TimeUnit;
  * 提供统一的缓存操作接口，支持：
  * <ul>
  *   <li>设置和获取缓存</li>
+ *   <li>获取或加载缓存（防止缓存击穿）</li>
  *   <li>设置过期时间</li>
+ *   <li>批量获取、批量设置、批量判断（一次网络往返）</li>
  *   <li>删除缓存（单个和批量）</li>
  *   <li>判断 key 是否存在</li>
- *   <li>获取匹配的 key</li>
+ *   <li>获取匹配的 key（游标方式遍历，不阻塞 Redis）</li>
  *   <li>数值的递增和递减</li>
  * </ul>
  * </p>
@@ -36,6 +42,10 @@ import java.util.concurrent.TimeUnit;
  * // 获取缓存
  * User user = cacheService.get("user:1", User.class);
  * 
+ * // 获取缓存，不存在时从数据库加载（并发请求只会加载一次）
+ * User user = cacheService.getOrLoad("user:1", User.class, 30, TimeUnit.MINUTES,
+ *         () -> userRepository.findById(1L));
+ * 
  * // 删除缓存
  * cacheService.delete("user:1");
  * 
@@ -79,6 +89,19 @@ public interface CacheService {
      */
     void set(String key, Object value, long timeout, TimeUnit unit);
 
+    /**
+     * key 不存在时设置缓存（不过期）
+     * <p>
+     * 检查和设置是一次原子操作，多个节点同时初始化同一个 key 时只有一个能成功，
+     * 失败的一方应重新读取已写入的值
+     * </p>
+     *
+     * @param key 缓存键
+     * @param value 缓存值
+     * @return true 表示设置成功，false 表示 key 已存在
+     */
+    boolean setIfAbsent(String key, Object value);
+
     /**
      * 获取缓存
      * <p>
@@ -92,6 +115,65 @@ public interface CacheService {
      */
     <T> T get(String key, Class<T> clazz);
 
+    /**
+     * 获取缓存，不存在时加载并写入缓存
+     * <p>
+     * 防止缓存击穿：同一个 key 在当前节点上同一时刻只会执行一次 loader，
+     * 其他并发请求等待并共享加载结果；Redis 实现还可以开启分布式租约（cache.load.lease-enabled），
+     * 使整个集群同一时刻只有一个节点执行 loader
+     * </p>
+     * <p>
+     * loader 返回 null 时不写入缓存；loader 抛出的运行时异常原样抛出，受检异常包装为 RuntimeException
+     * </p>
+     *
+     * @param <T> 返回值的类型
+     * @param key 缓存键
+     * @param type 目标类型，可以是 Class 或泛型类型（如 new TypeReference&lt;List&lt;Role&gt;&gt;() {}.getType()）
+     * @param timeout 过期时间数值
+     * @param unit 过期时间单位
+     * @param loader 缓存未命中时的加载回调
+     * @return 缓存的对象或加载到的对象
+     */
+    <T> T getOrLoad(String key, Type type, long timeout, TimeUnit unit, CacheLoadCallback<T> loader);
+
+    /**
+     * 批量获取缓存
+     * <p>
+     * 一次网络往返获取多个 key（Redis 使用 MGET），返回列表与 keys 顺序一一对应，
+     * 不存在或已过期的 key 对应位置为 null
+     * </p>
+     *
+     * @param <T> 返回值的类型
+     * @param keys 缓存键列表
+     * @param clazz 目标类型
+     * @return 缓存的对象列表，长度与 keys 相同
+     */
+    <T> List<T> multiGet(List<String> keys, Class<T> clazz);
+
+    /**
+     * 批量设置缓存（带过期时间）
+     * <p>
+     * 一次网络往返写入多个 key（Redis 使用管道），所有 key 使用相同的过期时间；
+     * timeout 小于等于 0 时表示不过期（Redis 使用 MSET）
+     * </p>
+     *
+     * @param values 需要写入的 key 和 value
+     * @param timeout 过期时间数值
+     * @param unit 过期时间单位
+     */
+    void multiSet(Map<String, ?> values, long timeout, TimeUnit unit);
+
+    /**
+     * 批量判断 key 是否存在
+     * <p>
+     * 一次网络往返判断多个 key（Redis 使用管道），返回列表与 keys 顺序一一对应
+     * </p>
+     *
+     * @param keys 缓存键列表
+     * @return 是否存在的列表，长度与 keys 相同
+     */
+    List<Boolean> multiExists(List<String> keys);
+
     /**
      * 删除缓存
      * <p>
@@ -133,20 +215,62 @@ public interface CacheService {
      */
     boolean expire(String key, long timeout, TimeUnit unit);
 
+    /**
+     * 获取剩余过期时间
+     * <p>
+     * 返回值约定与 Redis TTL 命令一致：
+     * <ul>
+     *   <li>大于等于 0：剩余过期时间</li>
+     *   <li>-1：key 存在但没有设置过期时间</li>
+     *   <li>-2：key 不存在</li>
+     * </ul>
+     * </p>
+     *
+     * @param key 缓存键
+     * @param unit 返回值的时间单位
+     * @return 剩余过期时间
+     */
+    long ttl(String key, TimeUnit unit);
+
     /**
      * 获取所有匹配的 key
      * <p>
      * 支持通配符匹配，如 "user:*" 匹配所有以 "user:" 开头的 key
      * </p>
      * <p>
-     * 注意：在生产环境中，如果 key 数量很大，此操作可能很慢，建议谨慎使用
+     * 注意：此方法基于 {@link #scan(String, int)} 实现，不会阻塞 Redis，
+     * 但会把所有匹配的 key 放进一个集合，key 数量很大时应直接使用 scan 逐个处理
      * </p>
-     * 
+     *
      * @param pattern 匹配模式，支持通配符 * 和 ?
      * @return 匹配的 key 集合
      */
     Set<String> keys(String pattern);
 
+    /**
+     * 游标方式遍历匹配的 key
+     * <p>
+     * 返回一个惰性迭代器，遍历过程中按批次拉取 key（Redis 使用 SCAN），不会像 KEYS 一样阻塞 Redis，
+     * 也不会一次性把所有 key 放进内存
+     * </p>
+     * <p>
+     * 使用完毕后必须关闭，建议使用 try-with-resources：
+     * <pre>
+     * try (CloseableIterator&lt;String&gt; cursor = cacheService.scan("user:*", 500)) {
+     *     while (cursor.hasNext()) {
+     *         String key = cursor.next();
+     *         // 处理 key
+     *     }
+     * }
+     * </pre>
+     * </p>
+     *
+     * @param pattern 匹配模式，支持通配符 * 和 ?
+     * @param batchSize 每批拉取的 key 数量提示（Redis SCAN 的 COUNT），本地缓存忽略此参数
+     * @return key 迭代器
+     */
+    CloseableIterator<String> scan(String pattern, int batchSize);
+
     /**
      * 递增
      * <p>
@@ -0,0 +1,172 @@
+package com.example.cache;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 响应式缓存服务接口
+ * <p>
+ * {@link CacheService} 的非阻塞版本，所有操作返回 Mono/Flux，基于 Lettuce 的响应式连接实现，
+ * 供网关等运行在 WebFlux/Netty 上的调用方使用，不会在事件循环线程上阻塞等待 Redis
+ * </p>
+ * <p>
+ * 与 {@link CacheService} 使用相同的缓存值编解码器和 key 约定，两者写入的数据可以互相读取
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * // 注入响应式缓存服务
+ * @Autowired
+ * private ReactiveCacheService reactiveCacheService;
+ *
+ * // 获取缓存
+ * Mono&lt;User&gt; user = reactiveCacheService.get("user:1", User.class);
+ *
+ * // 获取缓存，不存在时加载（本节点并发请求只会加载一次）
+ * Mono&lt;User&gt; user = reactiveCacheService.getOrLoad("user:1", User.class, 30, TimeUnit.MINUTES,
+ *         () -&gt; userClient.findById(1L));
+ *
+ * // 判断 key 是否存在
+ * Mono&lt;Boolean&gt; exists = reactiveCacheService.exists("sso:token:" + token);
+ * </pre>
+ * </p>
+ * <p>
+ * 注意：key 不存在时 get 返回空的 Mono（不是 null 值）；Redis 访问失败时以错误信号结束
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public interface ReactiveCacheService {
+
+    /**
+     * 设置缓存（不过期）
+     *
+     * @param key 缓存键
+     * @param value 缓存值，不能为 null
+     * @return true 表示设置成功
+     */
+    Mono<Boolean> set(String key, Object value);
+
+    /**
+     * 设置缓存（带过期时间）
+     *
+     * @param key 缓存键
+     * @param value 缓存值，不能为 null
+     * @param timeout 过期时间数值
+     * @param unit 过期时间单位
+     * @return true 表示设置成功
+     */
+    Mono<Boolean> set(String key, Object value, long timeout, TimeUnit unit);
+
+    /**
+     * 获取缓存
+     *
+     * @param <T> 返回值的类型
+     * @param key 缓存键
+     * @param type 目标类型，可以是 Class 或泛型类型
+     * @return 缓存的对象，不存在时为空
+     */
+    <T> Mono<T> get(String key, Type type);
+
+    /**
+     * 获取缓存，不存在时加载并写入缓存
+     * <p>
+     * 同一个 key 在本节点同一时刻只会订阅一次加载器，其他并发请求共享结果；
+     * 加载器返回空时不写入缓存，写入缓存失败时仍然返回加载到的值
+     * </p>
+     *
+     * @param <T> 返回值的类型
+     * @param key 缓存键
+     * @param type 目标类型
+     * @param timeout 过期时间数值
+     * @param unit 过期时间单位
+     * @param loader 缓存未命中时的加载器
+     * @return 缓存的对象或加载到的对象
+     */
+    <T> Mono<T> getOrLoad(String key, Type type, long timeout, TimeUnit unit, Supplier<Mono<T>> loader);
+
+    /**
+     * 批量获取缓存（一次 MGET）
+     *
+     * @param <T> 返回值的类型
+     * @param keys 缓存键列表
+     * @param type 目标类型
+     * @return 缓存的对象列表，与 keys 顺序一一对应，不存在的 key 对应 null
+     */
+    <T> Mono<List<T>> multiGet(List<String> keys, Type type);
+
+    /**
+     * 删除缓存
+     *
+     * @param key 缓存键
+     * @return true 表示删除成功，false 表示 key 不存在
+     */
+    Mono<Boolean> delete(String key);
+
+    /**
+     * 批量删除缓存
+     *
+     * @param keys 缓存键列表
+     * @return 删除的 key 数量
+     */
+    Mono<Long> deleteBatch(List<String> keys);
+
+    /**
+     * 判断 key 是否存在
+     *
+     * @param key 缓存键
+     * @return true 表示存在
+     */
+    Mono<Boolean> exists(String key);
+
+    /**
+     * 设置过期时间
+     *
+     * @param key 缓存键
+     * @param timeout 过期时间数值
+     * @param unit 过期时间单位
+     * @return true 表示设置成功，false 表示 key 不存在
+     */
+    Mono<Boolean> expire(String key, long timeout, TimeUnit unit);
+
+    /**
+     * 获取剩余过期时间
+     *
+     * @param key 缓存键
+     * @param unit 返回值的时间单位
+     * @return 剩余过期时间，-1 表示不过期，-2 表示 key 不存在
+     */
+    Mono<Long> ttl(String key, TimeUnit unit);
+
+    /**
+     * 遍历匹配的 key（SCAN）
+     *
+     * @param pattern 匹配模式，支持通配符 * 和 ?
+     * @param batchSize 每批数量
+     * @return 匹配的 key
+     */
+    Flux<String> scan(String pattern, int batchSize);
+
+    /**
+     * 递增
+     *
+     * @param key 缓存键
+     * @return 递增后的值
+     */
+    Mono<Long> increment(String key);
+
+    /**
+     * 递减
+     *
+     * @param key 缓存键
+     * @return 递减后的值
+     */
+    Mono<Long> decrement(String key);
+}
@@ -0,0 +1,59 @@
+package com.example.cache.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 删除缓存注解
+ * <p>
+ * 在方法上使用此注解，方法执行成功后删除指定的缓存 key；方法抛出异常时不删除
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * // 更新后删除单个 key
+ * @CacheEvictKey(key = "article:#{#article.id}")
+ * public Article save(Article article) {
+ *     // 更新数据库
+ * }
+ *
+ * // 同时删除多个 key
+ * @CacheEvictKey(key = {"article:#{#id}", "article:list"})
+ * public void delete(Long id) {
+ *     // 删除数据
+ * }
+ * </pre>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheEvictKey {
+
+    /**
+     * 需要删除的缓存 key
+     * <p>
+     * SpEL 模板，语法与 {@link CachedResult#key()} 相同，还可以通过 #result 引用方法返回值
+     * </p>
+     *
+     * @return 缓存 key 列表
+     */
+    String[] key();
+
+    /**
+     * 是否在方法执行前删除
+     * <p>
+     * 默认 false，方法执行成功后删除；为 true 时无论方法是否成功都会删除，此时不能引用 #result
+     * </p>
+     *
+     * @return true 表示执行前删除
+     */
+    boolean beforeInvocation() default false;
+}
@@ -0,0 +1,98 @@
+package com.example.cache.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存方法返回值注解
+ * <p>
+ * 在方法上使用此注解，方法返回值会通过 {@code CacheService.getOrLoad} 缓存：
+ * 命中时不执行方法；未命中时同一个 key 的并发调用只执行一次方法（防止缓存击穿），返回 null 时不缓存
+ * </p>
+ * <p>
+ * key 使用 SpEL 模板，#{...} 中可以引用方法参数（#参数名，或 #p0、#a0 按位置引用）；
+ * 表达式在第一次调用时解析并编译，之后每次调用只做求值
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * // 基本使用
+ * @CachedResult(key = "article:#{#id}", ttl = 10, unit = TimeUnit.MINUTES)
+ * public Article findById(Long id) {
+ *     // 查询数据库
+ * }
+ *
+ * // 泛型返回值按方法声明的返回类型还原
+ * @CachedResult(key = "user:roles:#{#userId}", ttl = 30, unit = TimeUnit.MINUTES)
+ * public List&lt;Role&gt; getUserRoles(Long userId) {
+ *     // 查询数据库
+ * }
+ *
+ * // 满足条件时才使用缓存
+ * @CachedResult(key = "order:#{#orderId}", ttl = 60, condition = "#orderId != null")
+ * public Order getOrderById(Long orderId) {
+ *     // 查询数据库
+ * }
+ * </pre>
+ * </p>
+ * <p>
+ * 注意：
+ * <ul>
+ *   <li>与所有 Spring AOP 注解一样，同一个类内部的方法调用不会经过切面</li>
+ *   <li>未配置 CacheService 或缓存不可用时直接执行方法</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachedResult {
+
+    /**
+     * 缓存 key
+     * <p>
+     * SpEL 模板，例如 key = "article:#{#id}" 会从方法参数 id 中获取值
+     * </p>
+     *
+     * @return 缓存 key
+     */
+    String key();
+
+    /**
+     * 过期时间
+     * <p>
+     * 默认 300
+     * </p>
+     *
+     * @return 过期时间数值
+     */
+    long ttl() default 300;
+
+    /**
+     * 过期时间单位
+     * <p>
+     * 默认秒
+     * </p>
+     *
+     * @return 过期时间单位
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * 使用缓存的条件
+     * <p>
+     * SpEL 表达式，结果为 false 时直接执行方法，不读写缓存；为空表示总是使用缓存
+     * </p>
+     *
+     * @return 条件表达式
+     */
+    String condition() default "";
+}
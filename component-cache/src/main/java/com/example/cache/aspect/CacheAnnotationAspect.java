@@ -0,0 +1,261 @@
+package com.example.cache.aspect;
+
+import com.example.cache.CacheService;
+import com.example.cache.annotation.CacheEvictKey;
+import com.example.cache.annotation.CachedResult;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 缓存注解切面
+ * <p>
+ * 处理 {@link CachedResult} 和 {@link CacheEvictKey}：
+ * <ul>
+ *   <li>@CachedResult：通过 CacheService.getOrLoad 读取或加载方法返回值，自带并发加载合并和缓存指标</li>
+ *   <li>@CacheEvictKey：方法执行成功后（或执行前）删除指定的 key</li>
+ * </ul>
+ * </p>
+ * <p>
+ * SpEL 表达式按文本缓存，第一次使用时解析并以 MIXED 模式编译；方法的参数名和返回类型按方法缓存，
+ * 之后每次调用只做求值
+ * </p>
+ * <p>
+ * 缓存不可用（Redis 连接失败、反序列化失败）时直接执行方法，不影响业务；方法本身抛出的异常原样抛出
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Aspect
+@Component
+public class CacheAnnotationAspect {
+
+    /** SpEL 表达式解析器（MIXED 模式：求值几次后编译为字节码，编译失败时回退为解释执行） */
+    private final SpelExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, CacheAnnotationAspect.class.getClassLoader()));
+
+    /** 参数名解析器 */
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    /** 已解析的 key 模板 */
+    private final Map<String, Expression> templates = new ConcurrentHashMap<>();
+
+    /** 已解析的条件表达式 */
+    private final Map<String, Expression> conditions = new ConcurrentHashMap<>();
+
+    /** 方法参数名 */
+    private final Map<Method, String[]> parameterNames = new ConcurrentHashMap<>();
+
+    /** 方法返回类型（基本类型转换为包装类型） */
+    private final Map<Method, Type> returnTypes = new ConcurrentHashMap<>();
+
+    /** 缓存服务（未配置缓存时为 null） */
+    @Autowired(required = false)
+    private CacheService cacheService;
+
+    /**
+     * 环绕通知：缓存方法返回值
+     *
+     * @param joinPoint 连接点
+     * @param cachedResult 缓存注解
+     * @return 缓存的返回值或方法返回值
+     * @throws Throwable 方法执行异常
+     */
+    @Around("@annotation(cachedResult)")
+    public Object cached(ProceedingJoinPoint joinPoint, CachedResult cachedResult) throws Throwable {
+        if (cacheService == null) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        EvaluationContext context = createContext(method, joinPoint.getArgs(), null);
+        if (!cachedResult.condition().isEmpty()
+                && !Boolean.TRUE.equals(condition(cachedResult.condition()).getValue(context, Boolean.class))) {
+            return joinPoint.proceed();
+        }
+        String key = template(cachedResult.key()).getValue(context, String.class);
+
+        Invocation invocation = new Invocation();
+        try {
+            return cacheService.getOrLoad(key, returnType(method), cachedResult.ttl(), cachedResult.unit(), () -> {
+                invocation.invoked = true;
+                try {
+                    invocation.value = joinPoint.proceed();
+                    return invocation.value;
+                } catch (Exception | Error e) {
+                    invocation.failure = e;
+                    throw e;
+                } catch (Throwable t) {
+                    invocation.failure = t;
+                    throw new UndeclaredThrowableException(t);
+                }
+            });
+        } catch (RuntimeException e) {
+            if (invocation.failure != null) {
+                // 方法本身的异常，原样抛出（getOrLoad 可能包装过受检异常）
+                throw invocation.failure;
+            }
+            if (!(e instanceof DataAccessException || e instanceof SerializationException)) {
+                throw e;
+            }
+            if (invocation.invoked) {
+                log.warn("写入缓存失败，返回方法执行结果: key={}", key, e);
+                return invocation.value;
+            }
+            log.warn("缓存不可用，直接执行方法: key={}", key, e);
+            return joinPoint.proceed();
+        }
+    }
+
+    /**
+     * 环绕通知：删除缓存
+     *
+     * @param joinPoint 连接点
+     * @param cacheEvictKey 删除缓存注解
+     * @return 方法返回值
+     * @throws Throwable 方法执行异常
+     */
+    @Around("@annotation(cacheEvictKey)")
+    public Object evict(ProceedingJoinPoint joinPoint, CacheEvictKey cacheEvictKey) throws Throwable {
+        if (cacheService == null) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        if (cacheEvictKey.beforeInvocation()) {
+            evictKeys(method, joinPoint.getArgs(), null, cacheEvictKey);
+            return joinPoint.proceed();
+        }
+        Object result = joinPoint.proceed();
+        evictKeys(method, joinPoint.getArgs(), result, cacheEvictKey);
+        return result;
+    }
+
+    /**
+     * 解析并删除缓存 key，删除失败只记录日志
+     *
+     * @param method 方法
+     * @param args 方法参数
+     * @param result 方法返回值
+     * @param cacheEvictKey 删除缓存注解
+     */
+    private void evictKeys(Method method, Object[] args, Object result, CacheEvictKey cacheEvictKey) {
+        List<String> keys = new ArrayList<>(cacheEvictKey.key().length);
+        try {
+            EvaluationContext context = createContext(method, args, result);
+            for (String key : cacheEvictKey.key()) {
+                keys.add(template(key).getValue(context, String.class));
+            }
+            if (keys.size() == 1) {
+                cacheService.delete(keys.get(0));
+            } else {
+                cacheService.deleteBatch(keys);
+            }
+            log.debug("删除缓存成功: method={}, keys={}", method.getName(), keys);
+        } catch (Exception e) {
+            log.error("删除缓存失败: method={}, keys={}", method.getName(), keys, e);
+        }
+    }
+
+    /**
+     * 创建求值上下文
+     * <p>
+     * 参数可以通过 #参数名、#p0、#a0 引用，返回值通过 #result 引用
+     * </p>
+     *
+     * @param method 方法
+     * @param args 方法参数
+     * @param result 方法返回值
+     * @return 求值上下文
+     */
+    private EvaluationContext createContext(Method method, Object[] args, Object result) {
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        String[] names = parameterNames.computeIfAbsent(method, m -> {
+            String[] discovered = parameterNameDiscoverer.getParameterNames(m);
+            return discovered != null ? discovered : new String[0];
+        });
+        for (int i = 0; i < args.length; i++) {
+            if (i < names.length) {
+                context.setVariable(names[i], args[i]);
+            }
+            context.setVariable("p" + i, args[i]);
+            context.setVariable("a" + i, args[i]);
+        }
+        context.setVariable("result", result);
+        return context;
+    }
+
+    /**
+     * 获取已解析的 key 模板
+     *
+     * @param template key 模板
+     * @return 表达式
+     */
+    private Expression template(String template) {
+        return templates.computeIfAbsent(template,
+                text -> parser.parseExpression(text, ParserContext.TEMPLATE_EXPRESSION));
+    }
+
+    /**
+     * 获取已解析的条件表达式
+     *
+     * @param condition 条件表达式
+     * @return 表达式
+     */
+    private Expression condition(String condition) {
+        return conditions.computeIfAbsent(condition, parser::parseExpression);
+    }
+
+    /**
+     * 获取方法返回类型，基本类型转换为包装类型
+     *
+     * @param method 方法
+     * @return 返回类型
+     */
+    private Type returnType(Method method) {
+        return returnTypes.computeIfAbsent(method, m -> {
+            Type type = m.getGenericReturnType();
+            return type instanceof Class ? ClassUtils.resolvePrimitiveIfNecessary((Class<?>) type) : type;
+        });
+    }
+
+    /**
+     * 一次调用中方法的执行情况
+     */
+    private static class Invocation {
+
+        /** 方法是否在本线程中执行 */
+        private boolean invoked;
+
+        /** 方法返回值 */
+        private Object value;
+
+        /** 方法抛出的异常 */
+        private Throwable failure;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.cache.codec;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONB;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
+import com.alibaba.fastjson2.SymbolTable;
+import com.alibaba.fastjson2.filter.Filter;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.lang.reflect.Type;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 紧凑二进制编解码器
+ * <p>
+ * 存储格式：
+ * <ul>
+ *   <li>整数（Integer、Long、Short、Byte、BigInteger）：ASCII 十进制文本，与原格式相同，
+ *       保证 INCR/DECR 和 Lua 脚本可以直接操作计数器</li>
+ *   <li>其他对象：2 字节头（魔数 + 标志位）+ JSONB 二进制（写入类名，读取时还原具体类型）；
+ *       JSONB 超过压缩阈值且压缩后更小时，使用 LZ4 压缩，头后追加 4 字节原始长度</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 类型注册：cache.codec.symbols 中登记的类名和字段名在 JSONB 中写为序号而不是字符串，进一步缩小体积。
+ * 所有节点的登记列表（包括顺序）必须完全一致，只能在末尾追加
+ * </p>
+ * <p>
+ * 安全：读取时除 JDK 基础类型和集合外，只允许还原 cache.codec.accept-packages 前缀下的类型，防止反序列化攻击
+ * </p>
+ * <p>
+ * 兼容：没有魔数头的数据按 JSON 解析，因此切换编解码器后原有 JSON 数据仍可读取，过期后自然替换
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class CompactValueCodec implements ValueCodec {
+
+    /** 魔数，不会出现在 JSON 文本和十进制数字的第一个字节 */
+    private static final byte MAGIC = (byte) 0xC7;
+
+    /** 标志位：未压缩 */
+    private static final byte FLAG_PLAIN = 0;
+
+    /** 标志位：LZ4 压缩 */
+    private static final byte FLAG_LZ4 = 1;
+
+    /** 头部长度（魔数 + 标志位） */
+    private static final int HEADER_LENGTH = 2;
+
+    /** 压缩数据中记录原始长度的字节数 */
+    private static final int LENGTH_FIELD_LENGTH = 4;
+
+    /** 写入特性：写入类名，读取时还原具体类型 */
+    private static final JSONWriter.Feature[] WRITE_FEATURES = {
+            JSONWriter.Feature.WriteClassName
+    };
+
+    /** 压缩阈值（字节），JSONB 长度超过此值时尝试压缩 */
+    private final int compressThreshold;
+
+    /** 登记的类名和字段名，为 null 表示未登记 */
+    private final SymbolTable symbolTable;
+
+    /** 类型白名单过滤器 */
+    private final Filter[] readFilters;
+
+    /** LZ4 压缩器 */
+    private final LZ4Compressor compressor;
+
+    /** LZ4 解压器 */
+    private final LZ4FastDecompressor decompressor;
+
+    /**
+     * 构造紧凑二进制编解码器
+     *
+     * @param compressThreshold 压缩阈值（字节）
+     * @param acceptPackages 允许还原的类型前缀，如 com.example
+     * @param symbols 登记的类名和字段名，可以为空
+     */
+    public CompactValueCodec(int compressThreshold, String[] acceptPackages, String[] symbols) {
+        this.compressThreshold = compressThreshold;
+        this.symbolTable = symbols != null && symbols.length > 0 ? JSONB.symbolTable(symbols) : null;
+        this.readFilters = new Filter[]{JSONReader.autoTypeFilter(true, acceptPackages)};
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (isInteger(value)) {
+            return value.toString().getBytes(StandardCharsets.US_ASCII);
+        }
+        try {
+            byte[] jsonb = symbolTable != null
+                    ? JSONB.toBytes(value, symbolTable, WRITE_FEATURES)
+                    : JSONB.toBytes(value, WRITE_FEATURES);
+            return jsonb.length > compressThreshold ? compress(jsonb) : plain(jsonb);
+        } catch (Exception e) {
+            throw new SerializationException("JSONB 编码失败: type=" + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        return deserialize(bytes, Object.class);
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes, Type type) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            if (bytes.length >= HEADER_LENGTH && bytes[0] == MAGIC) {
+                byte[] jsonb = unwrap(bytes);
+                return JSONB.parseObject(jsonb, type, symbolTable, readFilters);
+            }
+            // 十进制计数器或切换前写入的 JSON 数据
+            return JSON.parseObject(bytes, type);
+        } catch (Exception e) {
+            throw new SerializationException("缓存值解码失败: type=" + type.getTypeName(), e);
+        }
+    }
+
+    /**
+     * 判断是否为需要保持十进制文本的整数
+     *
+     * @param value 缓存值
+     * @return true 表示整数
+     */
+    private static boolean isInteger(Object value) {
+        return value instanceof Long || value instanceof Integer
+                || value instanceof Short || value instanceof Byte || value instanceof BigInteger;
+    }
+
+    /**
+     * 加上未压缩的头部
+     *
+     * @param jsonb JSONB 字节
+     * @return 存储字节
+     */
+    private static byte[] plain(byte[] jsonb) {
+        byte[] out = new byte[HEADER_LENGTH + jsonb.length];
+        out[0] = MAGIC;
+        out[1] = FLAG_PLAIN;
+        System.arraycopy(jsonb, 0, out, HEADER_LENGTH, jsonb.length);
+        return out;
+    }
+
+    /**
+     * LZ4 压缩，压缩后没有变小时按未压缩存储
+     *
+     * @param jsonb JSONB 字节
+     * @return 存储字节
+     */
+    private byte[] compress(byte[] jsonb) {
+        int offset = HEADER_LENGTH + LENGTH_FIELD_LENGTH;
+        byte[] out = new byte[offset + compressor.maxCompressedLength(jsonb.length)];
+        int compressedLength = compressor.compress(jsonb, 0, jsonb.length, out, offset);
+        if (compressedLength >= jsonb.length) {
+            return plain(jsonb);
+        }
+        out[0] = MAGIC;
+        out[1] = FLAG_LZ4;
+        out[2] = (byte) (jsonb.length >>> 24);
+        out[3] = (byte) (jsonb.length >>> 16);
+        out[4] = (byte) (jsonb.length >>> 8);
+        out[5] = (byte) jsonb.length;
+        byte[] result = new byte[offset + compressedLength];
+        System.arraycopy(out, 0, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * 去掉头部，必要时解压
+     *
+     * @param bytes 存储字节
+     * @return JSONB 字节
+     */
+    private byte[] unwrap(byte[] bytes) {
+        if (bytes[1] == FLAG_LZ4) {
+            int length = ((bytes[2] & 0xFF) << 24) | ((bytes[3] & 0xFF) << 16)
+                    | ((bytes[4] & 0xFF) << 8) | (bytes[5] & 0xFF);
+            byte[] jsonb = new byte[length];
+            decompressor.decompress(bytes, HEADER_LENGTH + LENGTH_FIELD_LENGTH, jsonb, 0, length);
+            return jsonb;
+        }
+        byte[] jsonb = new byte[bytes.length - HEADER_LENGTH];
+        System.arraycopy(bytes, HEADER_LENGTH, jsonb, 0, jsonb.length);
+        return jsonb;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.cache.codec;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.support.spring.data.redis.FastJsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.lang.reflect.Type;
+
+/**
+ * JSON 编解码器（默认）
+ * <p>
+ * 写入格式与 {@link FastJsonRedisSerializer} 完全一致，可以与未升级的节点共存；
+ * 按类型读取时直接把 JSON 字节解析为目标类型，只解析一次
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class JsonValueCodec implements ValueCodec {
+
+    /** 原有的 FastJSON2 序列化器 */
+    private final FastJsonRedisSerializer<Object> delegate = new FastJsonRedisSerializer<>(Object.class);
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        return delegate.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        return delegate.deserialize(bytes);
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes, Type type) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return JSON.parseObject(bytes, type);
+        } catch (Exception e) {
+            throw new SerializationException("JSON 解码失败: type=" + type.getTypeName(), e);
+        }
+    }
+}
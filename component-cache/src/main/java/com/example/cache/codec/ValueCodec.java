@@ -0,0 +1,39 @@
+package com.example.cache.codec;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.lang.reflect.Type;
+
+/**
+ * 缓存值编解码器
+ * <p>
+ * 作为 RedisTemplate 的值序列化器，同时支持按目标类型直接解码：
+ * {@link com.example.cache.impl.RedisCacheService} 读取时直接拿到原始字节并一次解码为目标类型，
+ * 避免先解码成 JSONObject 再转换一次
+ * </p>
+ * <p>
+ * 通过 cache.codec.type 选择实现：
+ * <ul>
+ *   <li>json（默认）：{@link JsonValueCodec}，与原有 FastJSON2 序列化格式完全一致</li>
+ *   <li>compact：{@link CompactValueCodec}，JSONB 二进制格式 + 超过阈值时 LZ4 压缩</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public interface ValueCodec extends RedisSerializer<Object> {
+
+    /**
+     * 按目标类型解码
+     *
+     * @param <T> 目标类型
+     * @param bytes 原始字节，为 null 时返回 null
+     * @param type 目标类型，可以是 Class 或泛型类型
+     * @return 解码后的对象
+     * @throws SerializationException 解码失败时抛出
+     */
+    <T> T deserialize(byte[] bytes, Type type) throws SerializationException;
+}
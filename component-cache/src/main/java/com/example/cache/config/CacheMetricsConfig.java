@@ -0,0 +1,93 @@
+package com.example.cache.config;
+
+import com.example.cache.impl.TwoLevelCacheService;
+import com.example.cache.offheap.OffHeapStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 缓存指标配置类
+ * <p>
+ * 把 Caffeine 的 recordStats() 统计导出为 Micrometer 指标（cache.gets、cache.evictions、cache.size 等），
+ * 标签 cache 为缓存名称：
+ * <ul>
+ *   <li>local：Caffeine 本地缓存（cache.local.enabled=true 时）</li>
+ *   <li>near：两级缓存的 L1（cache.near.enabled=true 时）</li>
+ * </ul>
+ * 开启堆外存储时，另外导出 cache.offheap.* 指标（占用字节数、值数量、淘汰次数、退回堆内次数）
+ * </p>
+ * <p>
+ * 配置说明：cache.metrics.enabled=false 时不导出
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "cache.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheMetricsConfig {
+
+    /**
+     * 导出 Caffeine 统计指标
+     *
+     * @param caffeineCache Caffeine 本地缓存
+     * @param twoLevelCacheService 两级缓存服务
+     * @return 指标绑定器
+     */
+    @Bean
+    public MeterBinder caffeineCacheMeterBinder(ObjectProvider<Cache<String, Object>> caffeineCache,
+                                                ObjectProvider<TwoLevelCacheService> twoLevelCacheService) {
+        return registry -> {
+            Cache<String, Object> localCache = caffeineCache.getIfUnique();
+            if (localCache != null) {
+                new CaffeineCacheMetrics<>(localCache, "local", Tags.empty()).bindTo(registry);
+                log.info("Caffeine 本地缓存指标导出成功: cache=local");
+            }
+            TwoLevelCacheService twoLevel = twoLevelCacheService.getIfUnique();
+            if (twoLevel != null) {
+                new CaffeineCacheMetrics<>(twoLevel.getLocalCache(), "near", Tags.empty()).bindTo(registry);
+                log.info("两级缓存 L1 指标导出成功: cache=near");
+            }
+        };
+    }
+
+    /**
+     * 导出堆外存储指标
+     *
+     * @param offHeapStore 堆外存储
+     * @return 指标绑定器
+     */
+    @Bean
+    public MeterBinder offHeapStoreMeterBinder(ObjectProvider<OffHeapStore> offHeapStore) {
+        return registry -> {
+            OffHeapStore store = offHeapStore.getIfAvailable();
+            if (store == null) {
+                return;
+            }
+            Gauge.builder("cache.offheap.capacity", store, OffHeapStore::getCapacityBytes)
+                    .baseUnit("bytes").description("堆外缓存容量").register(registry);
+            Gauge.builder("cache.offheap.used", store, OffHeapStore::getUsedBytes)
+                    .baseUnit("bytes").description("堆外缓存已占用（按块计算）").register(registry);
+            Gauge.builder("cache.offheap.stored", store, OffHeapStore::getStoredBytes)
+                    .baseUnit("bytes").description("堆外缓存值的编码总长度").register(registry);
+            Gauge.builder("cache.offheap.entries", store, OffHeapStore::getEntryCount)
+                    .description("堆外缓存值的数量").register(registry);
+            FunctionCounter.builder("cache.offheap.evictions", store, OffHeapStore::getEvictionCount)
+                    .description("堆外缓存容量不足淘汰的次数").register(registry);
+            FunctionCounter.builder("cache.offheap.rejections", store, OffHeapStore::getRejectionCount)
+                    .description("无法写入堆外、退回堆内的次数").register(registry);
+            log.info("堆外缓存指标导出成功");
+        };
+    }
+}
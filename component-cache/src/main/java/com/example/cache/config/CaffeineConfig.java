@@ -1,7 +1,10 @@
 package com.example.cache.config;
 
+import com.example.cache.offheap.OffHeapValue;
+import com.example.cache.support.VariableExpiry;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -19,7 +22,8 @@ import java.util.concurrent.TimeUnit;
  * 配置说明：
  * <ul>
  *   <li>只有当 cache.local.enabled=true 时才会生效（默认不启用）</li>
- *   <li>支持配置最大缓存大小和过期时间</li>
+ *   <li>支持配置最大缓存大小和默认过期时间</li>
+ *   <li>使用可变过期策略，每个条目可以有自己的过期时间（由 Caffeine 时间轮驱动）</li>
  *   <li>使用 LRU 策略自动淘汰过期或最少使用的数据</li>
  * </ul>
  * </p>
@@ -37,7 +41,7 @@ public class CaffeineConfig {
     @Value("${cache.local.max-size:10000}")
     private long maxSize;
 
-    /** 过期时间（秒），默认 3600 秒（1小时） */
+    /** 默认过期时间（秒），默认 3600 秒（1小时），未指定过期时间的条目使用此值 */
     @Value("${cache.local.expire-after-write:3600}")
     private long expireAfterWrite;
 
@@ -47,8 +51,9 @@ public class CaffeineConfig {
      * 配置说明：
      * <ul>
      *   <li>maximumSize: 最大缓存条目数，超过后会使用 LRU 策略淘汰</li>
-     *   <li>expireAfterWrite: 写入后过期时间，超过时间后自动删除</li>
-     *   <li>recordStats: 启用统计功能，可以查看缓存命中率等指标</li>
+     *   <li>expireAfter: 可变过期策略，默认写入后 expireAfterWrite 秒过期，可为单个条目指定过期时间</li>
+     *   <li>recordStats: 启用统计功能，由 CacheMetricsConfig 导出为 Micrometer 指标</li>
+     *   <li>removalListener: 条目被覆盖、删除、过期或淘汰时释放堆外存储占用的块</li>
      * </ul>
      * </p>
      * 
@@ -58,11 +63,16 @@ public class CaffeineConfig {
     public Cache<String, Object> caffeineCache() {
         Cache<String, Object> cache = Caffeine.newBuilder()
                 .maximumSize(maxSize)
-                .expireAfterWrite(expireAfterWrite, TimeUnit.SECONDS)
-                .recordStats()  // 启用统计功能
+                .expireAfter(new VariableExpiry<String, Object>(expireAfterWrite, TimeUnit.SECONDS))
+                .recordStats()  // 启用统计功能，由 CacheMetricsConfig 导出
+                .removalListener((String key, Object value, RemovalCause cause) -> {
+                    if (value instanceof OffHeapValue) {
+                        ((OffHeapValue) value).retire();
+                    }
+                })
                 .build();
         
-        log.info("Caffeine 本地缓存配置成功: maxSize={}, expireAfterWrite={}s", 
+        log.info("Caffeine 本地缓存配置成功: maxSize={}, defaultExpire={}s", 
                 maxSize, expireAfterWrite);
         
         return cache;
@@ -0,0 +1,55 @@
+package com.example.cache.config;
+
+import com.example.cache.impl.TwoLevelCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 两级缓存（近端缓存）配置类
+ * <p>
+ * 订阅 L1 失效消息频道，使各节点在其他节点写入或删除 key 后及时清除本地 L1
+ * </p>
+ * <p>
+ * 配置说明：
+ * <ul>
+ *   <li>只有当 cache.near.enabled=true 时才会生效（默认不启用）</li>
+ *   <li>cache.near.max-size：L1 最大缓存条目数，默认 10000</li>
+ *   <li>cache.near.expire-after-write：L1 默认过期时间（秒），默认 60 秒，也是失效消息丢失时的最大不一致时间</li>
+ *   <li>cache.near.channel：失效消息频道，默认 cache:near:invalidate</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "cache.near.enabled", havingValue = "true", matchIfMissing = false)
+public class NearCacheConfig {
+
+    /**
+     * 创建 L1 失效消息监听容器
+     *
+     * @param connectionFactory Redis 连接工厂
+     * @param twoLevelCacheService 两级缓存服务（同时作为消息监听器）
+     * @return 消息监听容器
+     */
+    @Bean
+    @ConditionalOnBean(TwoLevelCacheService.class)
+    public RedisMessageListenerContainer nearCacheListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                    TwoLevelCacheService twoLevelCacheService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(twoLevelCacheService, new ChannelTopic(twoLevelCacheService.getChannel()));
+
+        log.info("L1 失效消息订阅成功: channel={}", twoLevelCacheService.getChannel());
+        return container;
+    }
+}
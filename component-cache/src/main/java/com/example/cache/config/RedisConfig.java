@@ -1,15 +1,37 @@
 package com.example.cache.config;
 
-import com.alibaba.fastjson2.support.spring.data.redis.FastJsonRedisSerializer;
+import com.example.cache.codec.CompactValueCodec;
+import com.example.cache.codec.JsonValueCodec;
+import com.example.cache.codec.ValueCodec;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisConfiguration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
 
 /**
  * Redis 配置类
@@ -21,19 +43,45 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
  * <ul>
  *   <li>只有当 spring.redis.enabled=true 时才会生效（默认启用）</li>
  *   <li>如果 Spring Boot 的 Redis 自动配置已经创建了 RedisConnectionFactory，则不会重复创建</li>
- *   <li>使用 FastJSON2 作为值的序列化器，支持复杂对象的序列化和反序列化</li>
+ *   <li>值的序列化器由 cache.codec.type 决定：json（默认，FastJSON2）或 compact（JSONB + LZ4 压缩）</li>
  *   <li>使用 StringRedisSerializer 作为 key 的序列化器</li>
  * </ul>
  * </p>
+ * <p>
+ * 部署拓扑（按以下顺序判断，与 Spring Boot 的 spring.redis.* 配置项一致）：
+ * <ul>
+ *   <li>集群：配置了 spring.redis.cluster.nodes，按 spring.redis.lettuce.cluster.refresh.* 定期和自适应刷新拓扑</li>
+ *   <li>哨兵：配置了 spring.redis.sentinel.master 和 spring.redis.sentinel.nodes，主从切换后自动连接新主节点</li>
+ *   <li>单机：其他情况，使用 spring.redis.host 和 spring.redis.port</li>
+ * </ul>
+ * 设置 spring.redis.lettuce.pool.enabled=true 时使用连接池（默认共享一个连接，事务和阻塞命令较多时才需要开启）
+ * </p>
+ * <p>
+ * 副本读取（需显式开启）：cache.redis.read-from 默认 upstream，所有读写都访问主节点。
+ * 集群和哨兵模式下配置为 replicaPreferred 等副本策略时，额外创建按该策略路由的
+ * replicaRedisConnectionFactory 和 replicaRedisTemplate，只供 {@link com.example.cache.impl.RedisCacheService}
+ * 的 get、exists、multiGet 使用，这些读取可能读到复制延迟内的旧值。主 RedisTemplate 始终读写主节点，
+ * 分布式锁、限流、Lua 脚本和 getOrLoad 不受复制延迟影响
+ * </p>
  * 
  * @author system
  * @version 1.0.0
  * @since 1.0.0
  */
+@Slf4j
 @Configuration
 @ConditionalOnProperty(name = "spring.redis.enabled", havingValue = "true", matchIfMissing = true)
 public class RedisConfig {
 
+    /** 副本读取连接工厂的 Bean 名称 */
+    public static final String REPLICA_CONNECTION_FACTORY = "replicaRedisConnectionFactory";
+
+    /** 副本读取 RedisTemplate 的 Bean 名称 */
+    public static final String REPLICA_REDIS_TEMPLATE = "replicaRedisTemplate";
+
+    /** 默认的副本读取策略 */
+    private static final String DEFAULT_READ_FROM = "upstream";
+
     /** Redis 主机地址，默认 localhost */
     @Value("${spring.redis.host:localhost}")
     private String host;
@@ -46,28 +94,225 @@ public class RedisConfig {
     @Value("${spring.redis.password:}")
     private String password;
 
-    /** Redis 数据库索引，默认 0 */
+    /** Redis 数据库索引，默认 0（集群模式只支持 0） */
     @Value("${spring.redis.database:0}")
     private int database;
 
+    /** 命令超时时间，默认 2 秒 */
+    @Value("${spring.redis.timeout:2s}")
+    private Duration timeout;
+
+    /** 集群节点，逗号分隔的 host:port，为空表示不使用集群 */
+    @Value("${spring.redis.cluster.nodes:}")
+    private String clusterNodes;
+
+    /** 集群模式下的最大重定向次数，默认 5 */
+    @Value("${spring.redis.cluster.max-redirects:5}")
+    private int clusterMaxRedirects;
+
+    /** 集群拓扑定期刷新间隔，默认 30 秒，0 表示不定期刷新 */
+    @Value("${spring.redis.lettuce.cluster.refresh.period:30s}")
+    private Duration clusterRefreshPeriod;
+
+    /** 是否在 MOVED、ASK、重连等事件时自适应刷新集群拓扑，默认 true */
+    @Value("${spring.redis.lettuce.cluster.refresh.adaptive:true}")
+    private boolean clusterRefreshAdaptive;
+
+    /** 哨兵监控的主节点名称，为空表示不使用哨兵 */
+    @Value("${spring.redis.sentinel.master:}")
+    private String sentinelMaster;
+
+    /** 哨兵节点，逗号分隔的 host:port */
+    @Value("${spring.redis.sentinel.nodes:}")
+    private String sentinelNodes;
+
+    /** 哨兵密码，默认空 */
+    @Value("${spring.redis.sentinel.password:}")
+    private String sentinelPassword;
+
+    /** 是否使用连接池，默认 false */
+    @Value("${spring.redis.lettuce.pool.enabled:false}")
+    private boolean poolEnabled;
+
+    /** 连接池最大连接数，默认 8 */
+    @Value("${spring.redis.lettuce.pool.max-active:8}")
+    private int poolMaxActive;
+
+    /** 连接池最大空闲连接数，默认 8 */
+    @Value("${spring.redis.lettuce.pool.max-idle:8}")
+    private int poolMaxIdle;
+
+    /** 连接池最小空闲连接数，默认 0 */
+    @Value("${spring.redis.lettuce.pool.min-idle:0}")
+    private int poolMinIdle;
+
+    /** 连接池耗尽时的最大等待时间，默认 -1（一直等待） */
+    @Value("${spring.redis.lettuce.pool.max-wait:-1ms}")
+    private Duration poolMaxWait;
+
+    /** 副本读取策略，取值见 Lettuce ReadFrom，例如 replicaPreferred、replica、nearest、any、upstream */
+    @Value("${cache.redis.read-from:" + DEFAULT_READ_FROM + "}")
+    private String readFrom;
+
     /**
      * 创建 Redis 连接工厂
      * <p>
      * 如果 Spring Boot 的 Redis 自动配置已经创建了 RedisConnectionFactory，则不会重复创建
      * </p>
+     * <p>
+     * 声明为 LettuceConnectionFactory，同时作为 ReactiveRedisConnectionFactory 供响应式缓存服务使用；
+     * 集群和哨兵模式下所有命令都发往主节点
+     * </p>
      * 
      * @return Redis 连接工厂
      */
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
+    @Primary
+    public LettuceConnectionFactory redisConnectionFactory() {
+        RedisConfiguration configuration = redisConfiguration();
+        log.info("Redis 连接配置: topology={}, pool={}", topology(), poolEnabled);
+        return new LettuceConnectionFactory(configuration, clientConfiguration(isReplicated() ? ReadFrom.UPSTREAM : null));
+    }
+
+    /**
+     * 创建副本读取的 Redis 连接工厂
+     * <p>
+     * 只在集群或哨兵模式下、且 cache.redis.read-from 不是主节点时创建
+     * </p>
+     *
+     * @return 副本读取的 Redis 连接工厂
+     */
+    @Bean(REPLICA_CONNECTION_FACTORY)
+    @Conditional(ReplicaReadCondition.class)
+    public LettuceConnectionFactory replicaRedisConnectionFactory() {
+        ReadFrom replicaReadFrom = ReadFrom.valueOf(readFrom);
+        log.info("Redis 副本读取配置: topology={}, readFrom={}", topology(), readFrom);
+        return new LettuceConnectionFactory(redisConfiguration(), clientConfiguration(replicaReadFrom));
+    }
+
+    /**
+     * 按部署拓扑创建连接配置
+     *
+     * @return 集群、哨兵或单机配置
+     */
+    private RedisConfiguration redisConfiguration() {
+        if (StringUtils.hasText(clusterNodes)) {
+            RedisClusterConfiguration config = new RedisClusterConfiguration(
+                    StringUtils.commaDelimitedListToSet(StringUtils.trimAllWhitespace(clusterNodes)));
+            config.setMaxRedirects(clusterMaxRedirects);
+            if (StringUtils.hasText(password)) {
+                config.setPassword(password);
+            }
+            return config;
+        }
+        if (StringUtils.hasText(sentinelMaster)) {
+            RedisSentinelConfiguration config = new RedisSentinelConfiguration(sentinelMaster,
+                    StringUtils.commaDelimitedListToSet(StringUtils.trimAllWhitespace(sentinelNodes)));
+            if (StringUtils.hasText(password)) {
+                config.setPassword(password);
+            }
+            if (StringUtils.hasText(sentinelPassword)) {
+                config.setSentinelPassword(sentinelPassword);
+            }
+            config.setDatabase(database);
+            return config;
+        }
         RedisStandaloneConfiguration config = new RedisStandaloneConfiguration();
         config.setHostName(host);
         config.setPort(port);
-        if (password != null && !password.isEmpty()) {
+        if (StringUtils.hasText(password)) {
             config.setPassword(password);
         }
         config.setDatabase(database);
-        return new LettuceConnectionFactory(config);
+        return config;
+    }
+
+    /**
+     * 创建 Lettuce 客户端配置
+     *
+     * @param clientReadFrom 读取策略，单机模式为 null
+     * @return 客户端配置
+     */
+    private LettuceClientConfiguration clientConfiguration(ReadFrom clientReadFrom) {
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder;
+        if (poolEnabled) {
+            GenericObjectPoolConfig<?> poolConfig = new GenericObjectPoolConfig<>();
+            poolConfig.setMaxTotal(poolMaxActive);
+            poolConfig.setMaxIdle(poolMaxIdle);
+            poolConfig.setMinIdle(poolMinIdle);
+            poolConfig.setMaxWait(poolMaxWait);
+            builder = LettucePoolingClientConfiguration.builder().poolConfig(poolConfig);
+        } else {
+            builder = LettuceClientConfiguration.builder();
+        }
+        builder.commandTimeout(timeout);
+        if (StringUtils.hasText(clusterNodes)) {
+            ClusterTopologyRefreshOptions.Builder refresh = ClusterTopologyRefreshOptions.builder();
+            if (!clusterRefreshPeriod.isZero() && !clusterRefreshPeriod.isNegative()) {
+                refresh.enablePeriodicRefresh(clusterRefreshPeriod);
+            }
+            if (clusterRefreshAdaptive) {
+                refresh.enableAllAdaptiveRefreshTriggers();
+            }
+            builder.clientOptions(ClusterClientOptions.builder()
+                    .topologyRefreshOptions(refresh.build())
+                    .build());
+        }
+        if (clientReadFrom != null) {
+            builder.readFrom(clientReadFrom);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 是否为集群或哨兵模式
+     */
+    private boolean isReplicated() {
+        return StringUtils.hasText(clusterNodes) || StringUtils.hasText(sentinelMaster);
+    }
+
+    /**
+     * 部署拓扑名称（用于日志）
+     */
+    private String topology() {
+        if (StringUtils.hasText(clusterNodes)) {
+            return "cluster" + StringUtils.commaDelimitedListToSet(clusterNodes);
+        }
+        if (StringUtils.hasText(sentinelMaster)) {
+            return "sentinel(" + sentinelMaster + ")";
+        }
+        return "standalone(" + host + ":" + port + ")";
+    }
+
+    /**
+     * 创建缓存值编解码器
+     * <p>
+     * 配置说明：
+     * <ul>
+     *   <li>cache.codec.type：json（默认）或 compact</li>
+     *   <li>cache.codec.compress-threshold：compact 模式下超过此字节数时尝试 LZ4 压缩，默认 1024</li>
+     *   <li>cache.codec.accept-packages：compact 模式下允许还原的类型前缀，默认 com.example</li>
+     *   <li>cache.codec.symbols：compact 模式下登记的类名和字段名，所有节点必须一致，默认不登记</li>
+     * </ul>
+     * </p>
+     *
+     * @param type 编解码器类型
+     * @param compressThreshold 压缩阈值（字节）
+     * @param acceptPackages 允许还原的类型前缀
+     * @param symbols 登记的类名和字段名
+     * @return 缓存值编解码器
+     */
+    @Bean
+    public ValueCodec redisValueCodec(@Value("${cache.codec.type:json}") String type,
+                                      @Value("${cache.codec.compress-threshold:1024}") int compressThreshold,
+                                      @Value("${cache.codec.accept-packages:com.example}") String[] acceptPackages,
+                                      @Value("${cache.codec.symbols:}") String[] symbols) {
+        if ("compact".equalsIgnoreCase(type)) {
+            log.info("使用紧凑二进制编解码器: compressThreshold={}, acceptPackages={}, symbols={}",
+                    compressThreshold, acceptPackages, symbols.length);
+            return new CompactValueCodec(compressThreshold, acceptPackages, symbols);
+        }
+        return new JsonValueCodec();
     }
 
     /**
@@ -76,33 +321,75 @@ public class RedisConfig {
      * 配置说明：
      * <ul>
      *   <li>Key 序列化器：StringRedisSerializer（字符串）</li>
-     *   <li>Value 序列化器：FastJsonRedisSerializer（JSON，支持复杂对象）</li>
+     *   <li>Value 序列化器：缓存值编解码器（默认 JSON，支持复杂对象）</li>
      *   <li>Hash Key 序列化器：StringRedisSerializer</li>
-     *   <li>Hash Value 序列化器：FastJsonRedisSerializer</li>
+     *   <li>Hash Value 序列化器：缓存值编解码器</li>
      * </ul>
      * </p>
      * 
      * @param connectionFactory Redis 连接工厂
+     * @param valueCodec 缓存值编解码器
      * @return RedisTemplate 实例
      */
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    @Primary
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory, ValueCodec valueCodec) {
+        return createRedisTemplate(connectionFactory, valueCodec);
+    }
+
+    /**
+     * 创建副本读取的 RedisTemplate
+     * <p>
+     * 序列化配置与主 RedisTemplate 相同，只用于只读操作，读到的数据可能落后于主节点
+     * </p>
+     *
+     * @param connectionFactory 副本读取的 Redis 连接工厂
+     * @param valueCodec 缓存值编解码器
+     * @return 副本读取的 RedisTemplate
+     */
+    @Bean(REPLICA_REDIS_TEMPLATE)
+    @Conditional(ReplicaReadCondition.class)
+    public RedisTemplate<String, Object> replicaRedisTemplate(
+            @Qualifier(REPLICA_CONNECTION_FACTORY) RedisConnectionFactory connectionFactory, ValueCodec valueCodec) {
+        return createRedisTemplate(connectionFactory, valueCodec);
+    }
+
+    /**
+     * 创建 RedisTemplate 并设置序列化器
+     *
+     * @param connectionFactory Redis 连接工厂
+     * @param valueCodec 缓存值编解码器
+     * @return RedisTemplate 实例
+     */
+    private RedisTemplate<String, Object> createRedisTemplate(RedisConnectionFactory connectionFactory, ValueCodec valueCodec) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
-        // 使用 FastJSON2 序列化器，支持复杂对象
-        FastJsonRedisSerializer<Object> serializer = new FastJsonRedisSerializer<>(Object.class);
         // 使用字符串序列化器作为 key 序列化器
         StringRedisSerializer stringSerializer = new StringRedisSerializer();
 
         // 设置序列化器
         template.setKeySerializer(stringSerializer);
         template.setHashKeySerializer(stringSerializer);
-        template.setValueSerializer(serializer);
-        template.setHashValueSerializer(serializer);
+        template.setValueSerializer(valueCodec);
+        template.setHashValueSerializer(valueCodec);
         template.afterPropertiesSet();
 
         return template;
     }
-}
 
+    /**
+     * 副本读取条件：集群或哨兵模式，且 cache.redis.read-from 不是主节点
+     */
+    static class ReplicaReadCondition implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            Environment environment = context.getEnvironment();
+            boolean replicated = StringUtils.hasText(environment.getProperty("spring.redis.cluster.nodes"))
+                    || StringUtils.hasText(environment.getProperty("spring.redis.sentinel.master"));
+            String readFrom = environment.getProperty("cache.redis.read-from", DEFAULT_READ_FROM);
+            return replicated && !"upstream".equalsIgnoreCase(readFrom) && !"master".equalsIgnoreCase(readFrom);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.cache.hotkey;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min Sketch 频率估计
+ * <p>
+ * 用 depth 行、每行 width 个计数器估计每个 key 的出现次数，内存固定为 depth * width 个 long，
+ * 与 key 的数量无关。估计值只会偏大不会偏小，误差上限约为 总次数 * e / width
+ * </p>
+ * <p>
+ * 计数器使用 {@link AtomicLongArray}，递增和估计都不分配对象，可以被多个线程并发调用
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class CountMinSketch {
+
+    /** 每行哈希的种子 */
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    /** 行数 */
+    private static final int DEPTH = SEEDS.length;
+
+    /** 每行计数器数量减 1（width 为 2 的幂） */
+    private final int mask;
+
+    /** 每行计数器数量 */
+    private final int width;
+
+    /** 计数器，第 i 行第 j 列位于 i * width + j */
+    private final AtomicLongArray table;
+
+    /**
+     * 构造 Count-Min Sketch
+     *
+     * @param width 每行计数器数量，向上取整为 2 的幂
+     */
+    public CountMinSketch(int width) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("width 必须大于 0: " + width);
+        }
+        this.width = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.mask = this.width - 1;
+        this.table = new AtomicLongArray(DEPTH * this.width);
+    }
+
+    /**
+     * 计数加 1 并返回新的估计值
+     *
+     * @param key 键
+     * @return 加 1 后的估计次数
+     */
+    public long increment(String key) {
+        int hash = key.hashCode();
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            min = Math.min(min, table.incrementAndGet(index(hash, i)));
+        }
+        return min;
+    }
+
+    /**
+     * 估计出现次数
+     *
+     * @param key 键
+     * @return 估计次数
+     */
+    public long estimate(String key) {
+        int hash = key.hashCode();
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            min = Math.min(min, table.get(index(hash, i)));
+        }
+        return min;
+    }
+
+    /**
+     * 清空所有计数
+     * <p>
+     * 与并发递增之间没有原子性，清空期间的少量计数可能保留或丢失，对频率估计没有影响
+     * </p>
+     */
+    public void clear() {
+        for (int i = 0; i < table.length(); i++) {
+            table.set(i, 0L);
+        }
+    }
+
+    /**
+     * 获取每行计数器数量
+     *
+     * @return 每行计数器数量
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * 计算第 row 行的计数器下标
+     *
+     * @param hash key 的哈希值
+     * @param row 行号
+     * @return 计数器下标
+     */
+    private int index(int hash, int row) {
+        // MurmurHash3 fmix64，使各行的下标相互独立
+        long h = hash * SEEDS[row];
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return row * width + ((int) h & mask);
+    }
+}
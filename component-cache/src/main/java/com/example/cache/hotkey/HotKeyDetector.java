@@ -0,0 +1,280 @@
+package com.example.cache.hotkey;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 热点 key 探测与本地提升
+ * <p>
+ * 秒杀、热门文章等场景下，单个 Redis key（如 seckill:stock:{id}）的读取集中在一个分片上。
+ * 开启后，每个节点按采样率把读取的 key 计入 {@link CountMinSketch}，
+ * 一个统计窗口内估计读取次数达到阈值的 key 判定为热点：
+ * <ul>
+ *   <li>热点 key 从 Redis 读到的值会提升到本节点的短过期本地缓存，后续读取直接在本地命中</li>
+ *   <li>本节点写入、删除、递增递减时立即清除本地副本；其他节点的写入最多延迟 local-ttl-millis 可见</li>
+ *   <li>热点 key 列表可以通过 actuator 端点 /actuator/hotkeys 查看</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 配置说明：
+ * <ul>
+ *   <li>cache.hot-key.enabled：是否开启，默认 false</li>
+ *   <li>cache.hot-key.sample-rate：采样率，默认 0.1</li>
+ *   <li>cache.hot-key.window-millis：统计窗口（毫秒），默认 1000</li>
+ *   <li>cache.hot-key.threshold：一个窗口内的读取次数达到此值判定为热点，默认 1000</li>
+ *   <li>cache.hot-key.sketch-width：Count-Min Sketch 每行计数器数量，默认 4096</li>
+ *   <li>cache.hot-key.max-hot-keys：最多记录的热点 key 数量，默认 100</li>
+ *   <li>cache.hot-key.hold-seconds：热点 key 最后一次达到阈值后保持热点状态的时间（秒），默认 10</li>
+ *   <li>cache.hot-key.local-ttl-millis：本地副本过期时间（毫秒），默认 1000</li>
+ *   <li>cache.hot-key.exclude-prefixes：不做本地提升的 key 前缀（逗号分隔），要求强一致的 key 放在这里</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 注意：本地副本保存的是对象引用，调用方不应修改从缓存中取出的对象
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class HotKeyDetector {
+
+    /** 是否开启 */
+    private final boolean enabled;
+
+    /** 采样率 */
+    private final double sampleRate;
+
+    /** 统计窗口（毫秒） */
+    private final long windowMillis;
+
+    /** 热点阈值（一个窗口内的读取次数） */
+    private final long threshold;
+
+    /** 换算到采样次数的热点阈值 */
+    private final long sampledThreshold;
+
+    /** 本地副本过期时间（毫秒） */
+    private final long localTtlMillis;
+
+    /** 不做本地提升的 key 前缀 */
+    private final String[] excludePrefixes;
+
+    /** 当前窗口的频率估计 */
+    private final CountMinSketch sketch;
+
+    /** 当前窗口结束时间 */
+    private final AtomicLong windowEnd = new AtomicLong();
+
+    /** 热点 key 及其最近一次估计的窗口读取次数 */
+    private final Cache<String, Long> hotKeys;
+
+    /** 热点 key 的本地副本 */
+    private final Cache<String, Object> localValues;
+
+    /**
+     * 构造热点 key 探测器
+     *
+     * @param enabled 是否开启
+     * @param sampleRate 采样率
+     * @param windowMillis 统计窗口（毫秒）
+     * @param threshold 热点阈值
+     * @param sketchWidth Count-Min Sketch 每行计数器数量
+     * @param maxHotKeys 最多记录的热点 key 数量
+     * @param holdSeconds 热点状态保持时间（秒）
+     * @param localTtlMillis 本地副本过期时间（毫秒）
+     * @param excludePrefixes 不做本地提升的 key 前缀
+     */
+    public HotKeyDetector(@Value("${cache.hot-key.enabled:false}") boolean enabled,
+                          @Value("${cache.hot-key.sample-rate:0.1}") double sampleRate,
+                          @Value("${cache.hot-key.window-millis:1000}") long windowMillis,
+                          @Value("${cache.hot-key.threshold:1000}") long threshold,
+                          @Value("${cache.hot-key.sketch-width:4096}") int sketchWidth,
+                          @Value("${cache.hot-key.max-hot-keys:100}") long maxHotKeys,
+                          @Value("${cache.hot-key.hold-seconds:10}") long holdSeconds,
+                          @Value("${cache.hot-key.local-ttl-millis:1000}") long localTtlMillis,
+                          @Value("${cache.hot-key.exclude-prefixes:}") String[] excludePrefixes) {
+        if (sampleRate <= 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("cache.hot-key.sample-rate 必须在 (0, 1] 之间: " + sampleRate);
+        }
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.windowMillis = windowMillis;
+        this.threshold = threshold;
+        this.sampledThreshold = Math.max(1L, Math.round(threshold * sampleRate));
+        this.localTtlMillis = localTtlMillis;
+        this.excludePrefixes = excludePrefixes;
+        this.sketch = new CountMinSketch(enabled ? sketchWidth : 1);
+        this.hotKeys = Caffeine.newBuilder()
+                .maximumSize(maxHotKeys)
+                .expireAfterWrite(holdSeconds, TimeUnit.SECONDS)
+                .build();
+        this.localValues = Caffeine.newBuilder()
+                .maximumSize(maxHotKeys)
+                .expireAfterWrite(localTtlMillis, TimeUnit.MILLISECONDS)
+                .build();
+        if (enabled) {
+            log.info("热点 key 探测已开启: sampleRate={}, windowMillis={}, threshold={}, sketchWidth={}, localTtlMillis={}",
+                    sampleRate, windowMillis, threshold, sketch.getWidth(), localTtlMillis);
+        }
+    }
+
+    /**
+     * 是否开启
+     *
+     * @return true 表示开启
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 记录一次读取，并返回本地副本
+     * <p>
+     * 按采样率计数，估计次数达到阈值时标记为热点
+     * </p>
+     *
+     * @param key 缓存键
+     * @return 本地副本，不是热点或副本已过期时返回 null
+     */
+    public Object access(String key) {
+        if (!enabled) {
+            return null;
+        }
+        if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            rotateWindow();
+            long sampled = sketch.increment(key);
+            if (sampled >= sampledThreshold) {
+                if (hotKeys.getIfPresent(key) == null) {
+                    log.info("探测到热点 key: key={}", key);
+                }
+                hotKeys.put(key, Math.round(sampled / sampleRate));
+            }
+        }
+        return localValues.getIfPresent(key);
+    }
+
+    /**
+     * 把从 Redis 读到的热点 key 的值提升到本地
+     *
+     * @param key 缓存键
+     * @param value 缓存值
+     */
+    public void promote(String key, Object value) {
+        if (!enabled || value == null || hotKeys.getIfPresent(key) == null || isExcluded(key)) {
+            return;
+        }
+        localValues.put(key, value);
+    }
+
+    /**
+     * 清除本地副本（本节点写入、删除 key 时调用）
+     *
+     * @param key 缓存键
+     */
+    public void invalidate(String key) {
+        if (enabled) {
+            localValues.invalidate(key);
+        }
+    }
+
+    /**
+     * 批量清除本地副本
+     *
+     * @param keys 缓存键列表
+     */
+    public void invalidateAll(Collection<String> keys) {
+        if (enabled && keys != null) {
+            localValues.invalidateAll(keys);
+        }
+    }
+
+    /**
+     * 获取当前热点 key 列表，按估计读取次数降序
+     *
+     * @return 热点 key 列表
+     */
+    public List<HotKey> getHotKeys() {
+        List<HotKey> result = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : hotKeys.asMap().entrySet()) {
+            result.add(new HotKey(entry.getKey(), entry.getValue(),
+                    localValues.getIfPresent(entry.getKey()) != null));
+        }
+        result.sort((a, b) -> Long.compare(b.getEstimatedCount(), a.getEstimatedCount()));
+        return result;
+    }
+
+    /**
+     * 获取探测配置
+     *
+     * @return 配置项
+     */
+    public Map<String, Object> getSettings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("enabled", enabled);
+        settings.put("sampleRate", sampleRate);
+        settings.put("windowMillis", windowMillis);
+        settings.put("threshold", threshold);
+        settings.put("localTtlMillis", localTtlMillis);
+        return settings;
+    }
+
+    /**
+     * 窗口结束时清空计数，开始新的窗口
+     */
+    private void rotateWindow() {
+        long now = System.currentTimeMillis();
+        long end = windowEnd.get();
+        if (now >= end && windowEnd.compareAndSet(end, now + windowMillis)) {
+            sketch.clear();
+        }
+    }
+
+    /**
+     * 判断 key 是否在排除列表中
+     *
+     * @param key 缓存键
+     * @return true 表示不做本地提升
+     */
+    private boolean isExcluded(String key) {
+        for (String prefix : excludePrefixes) {
+            if (!prefix.isEmpty() && key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 热点 key
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class HotKey {
+
+        /** 缓存键 */
+        private final String key;
+
+        /** 最近一个窗口的估计读取次数（本节点） */
+        private final long estimatedCount;
+
+        /** 是否已有本地副本 */
+        private final boolean promoted;
+    }
+}
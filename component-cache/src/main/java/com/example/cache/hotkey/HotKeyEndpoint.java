@@ -0,0 +1,40 @@
+package com.example.cache.hotkey;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 热点 key 端点
+ * <p>
+ * 通过 /actuator/hotkeys 查看本节点当前的热点 key 列表，需要在 management.endpoints.web.exposure.include 中暴露 hotkeys
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Component
+@Endpoint(id = "hotkeys")
+@RequiredArgsConstructor
+public class HotKeyEndpoint {
+
+    /** 热点 key 探测器 */
+    private final HotKeyDetector hotKeyDetector;
+
+    /**
+     * 查看热点 key
+     *
+     * @return 探测配置和热点 key 列表
+     */
+    @ReadOperation
+    public Map<String, Object> hotKeys() {
+        Map<String, Object> result = new LinkedHashMap<>(hotKeyDetector.getSettings());
+        result.put("keys", hotKeyDetector.getHotKeys());
+        return result;
+    }
+}
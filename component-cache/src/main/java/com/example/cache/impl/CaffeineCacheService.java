@@ -1,19 +1,35 @@
 package com.example.cache.impl;
 
+import com.example.cache.CacheLoadCallback;
 import com.example.cache.CacheService;
+import com.example.cache.offheap.OffHeapStore;
+import com.example.cache.offheap.OffHeapValue;
+import com.example.cache.support.CacheValueConverter;
+import com.example.cache.support.GlobMatcher;
+import com.example.cache.support.LocalCounterStore;
+import com.example.cache.support.RefreshAhead;
+import com.example.cache.support.SingleFlight;
 import com.github.benmanes.caffeine.cache.Cache;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Policy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Service;
 
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Caffeine 本地缓存服务实现
@@ -25,7 +41,7 @@ import java.util.stream.Collectors;
  * 特性：
  * <ul>
  *   <li>高性能：基于内存的本地缓存，访问速度快</li>
- *   <li>自动过期：支持基于时间和基于大小的过期策略</li>
+ *   <li>自动过期：支持基于时间和基于大小的过期策略，每个 key 可以有自己的过期时间</li>
  *   <li>自动淘汰：使用 LRU 策略自动淘汰过期或最少使用的数据</li>
  *   <li>线程安全：支持并发访问</li>
  * </ul>
@@ -35,8 +51,11 @@ import java.util.stream.Collectors;
  * <ul>
  *   <li>本地缓存只存在于当前 JVM 实例中，不适用于分布式环境</li>
  *   <li>不支持跨进程共享数据</li>
- *   <li>keys() 方法使用正则表达式匹配，性能可能不如 Redis</li>
- *   <li>increment() 和 decrement() 方法使用 ConcurrentHashMap 实现</li>
+ *   <li>keys() 和 scan() 需要遍历本地所有 key 逐个匹配</li>
+ *   <li>increment() 和 decrement() 使用独立的有界计数器存储（{@link LocalCounterStore}），
+ *       计数器与普通缓存共用 key 空间：对已有整数值递增时从该值开始，set() 会覆盖计数器</li>
+ *   <li>开启 cache.local.off-heap.enabled 后，编码后较大的值保存在堆外（{@link OffHeapStore}），
+ *       缓存中只保存索引，读取时按目标类型解码，每次返回新对象；堆外淘汰的值视为未命中</li>
  * </ul>
  * </p>
  * 
@@ -46,16 +65,54 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 @ConditionalOnProperty(name = "cache.local.enabled", havingValue = "true", matchIfMissing = false)
 @ConditionalOnBean(Cache.class)
 public class CaffeineCacheService implements CacheService {
 
     /** Caffeine 缓存实例 */
     private final Cache<String, Object> cache;
+
+    /** 可变过期策略，用于为单个 key 设置过期时间；缓存未启用可变过期时为 null */
+    private final Policy.VarExpiration<String, Object> varExpiration;
     
-    /** 计数器缓存（用于 increment 和 decrement） */
-    private final ConcurrentHashMap<String, Long> counters = new ConcurrentHashMap<>();
+    /** 提前刷新 */
+    private final RefreshAhead refreshAhead;
+
+    /** 加载请求合并 */
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    /** 计数器存储（用于 increment 和 decrement） */
+    private final LocalCounterStore counters;
+
+    /** 堆外存储，未开启时为 null */
+    private final OffHeapStore offHeapStore;
+
+    /**
+     * 构造本地缓存服务
+     *
+     * @param cache Caffeine 缓存实例
+     * @param refreshAhead 提前刷新
+     * @param offHeapStoreProvider 堆外存储（cache.local.off-heap.enabled=true 时存在）
+     * @param counterMaxSize 最大计数器数量，默认 100000
+     * @param counterExpireSeconds 未设置过期时间的计数器的默认过期时间（秒），默认 3600
+     */
+    public CaffeineCacheService(Cache<String, Object> cache, RefreshAhead refreshAhead,
+                                ObjectProvider<OffHeapStore> offHeapStoreProvider,
+                                @Value("${cache.local.counter-max-size:100000}") long counterMaxSize,
+                                @Value("${cache.local.counter-expire-seconds:3600}") long counterExpireSeconds) {
+        this.cache = cache;
+        this.refreshAhead = refreshAhead;
+        this.counters = new LocalCounterStore(counterMaxSize, counterExpireSeconds);
+        this.varExpiration = cache.policy().expireVariably().orElse(null);
+        if (varExpiration == null) {
+            log.warn("Caffeine 缓存未启用可变过期策略，set/expire 指定的过期时间将被忽略");
+        }
+        this.offHeapStore = offHeapStoreProvider.getIfAvailable();
+        if (offHeapStore != null) {
+            // 堆外容量不足淘汰时，同时移除缓存中的索引
+            offHeapStore.setEvictionHandler((key, value) -> cache.asMap().remove(key, value));
+        }
+    }
 
     /**
      * 设置缓存（不过期）
@@ -69,7 +126,8 @@ public class CaffeineCacheService implements CacheService {
     @Override
     public void set(String key, Object value) {
         try {
-            cache.put(key, value);
+            cache.put(key, store(key, value));
+            counters.remove(key);
             log.debug("设置本地缓存成功: key={}", key);
         } catch (Exception e) {
             log.error("设置本地缓存失败: key={}", key, e);
@@ -77,24 +135,57 @@ public class CaffeineCacheService implements CacheService {
         }
     }
 
+    /**
+     * key 不存在时设置缓存（不过期）
+     * <p>
+     * 计数器中已有该 key 时同样视为已存在
+     * </p>
+     *
+     * @param key 缓存键
+     * @param value 缓存值
+     * @return true 表示设置成功，false 表示 key 已存在
+     */
+    @Override
+    public boolean setIfAbsent(String key, Object value) {
+        try {
+            if (counters.contains(key)) {
+                return false;
+            }
+            Object stored = store(key, value);
+            boolean set = cache.asMap().putIfAbsent(key, stored) == null;
+            if (!set && stored instanceof OffHeapValue) {
+                ((OffHeapValue) stored).retire();
+            }
+            log.debug("设置本地缓存（不存在时）: key={}, set={}", key, set);
+            return set;
+        } catch (Exception e) {
+            log.error("设置本地缓存失败: key={}", key, e);
+            throw e;
+        }
+    }
+
     /**
      * 设置缓存（带过期时间）
      * <p>
-     * 注意：Caffeine 不支持为单个 key 设置不同的过期时间
-     * 此方法会设置缓存，但过期时间由全局配置决定
+     * 通过可变过期策略为当前 key 单独设置过期时间
      * </p>
      * 
      * @param key 缓存键
      * @param value 缓存值
-     * @param timeout 过期时间数值（会被忽略，使用全局配置）
-     * @param unit 过期时间单位（会被忽略，使用全局配置）
+     * @param timeout 过期时间数值
+     * @param unit 过期时间单位
      */
     @Override
     public void set(String key, Object value, long timeout, TimeUnit unit) {
         try {
-            // Caffeine 不支持为单个 key 设置过期时间，使用全局配置
-            cache.put(key, value);
-            log.debug("设置本地缓存成功: key={}, timeout={} {} (使用全局过期时间)", key, timeout, unit);
+            Object stored = store(key, value);
+            if (varExpiration != null) {
+                varExpiration.put(key, stored, timeout, unit);
+            } else {
+                cache.put(key, stored);
+            }
+            counters.remove(key);
+            log.debug("设置本地缓存成功: key={}, timeout={} {}", key, timeout, unit);
         } catch (Exception e) {
             log.error("设置本地缓存失败: key={}, timeout={} {}", key, timeout, unit, e);
             throw e;
@@ -112,8 +203,12 @@ public class CaffeineCacheService implements CacheService {
     @Override
     public <T> T get(String key, Class<T> clazz) {
         try {
-            Object value = cache.getIfPresent(key);
+            Object value = load(cache.getIfPresent(key), clazz);
             if (value == null) {
+                AtomicLong cell = counters.getIfPresent(key);
+                if (cell != null) {
+                    return CacheValueConverter.convert(cell.get(), clazz);
+                }
                 log.debug("本地缓存不存在: key={}", key);
                 return null;
             }
@@ -132,6 +227,171 @@ public class CaffeineCacheService implements CacheService {
         }
     }
 
+    /**
+     * 获取缓存，不存在时加载并写入缓存
+     * <p>
+     * 通过单飞执行器合并并发请求，同一个 key 同一时刻只执行一次 loader；
+     * 开启提前刷新时，命中的 key 在接近过期时会按概率在后台重新加载
+     * </p>
+     *
+     * @param <T> 返回值的类型
+     * @param key 缓存键
+     * @param type 目标类型
+     * @param timeout 过期时间数值
+     * @param unit 过期时间单位
+     * @param loader 缓存未命中时的加载回调
+     * @return 缓存的对象或加载到的对象
+     */
+    @Override
+    public <T> T getOrLoad(String key, Type type, long timeout, TimeUnit unit, CacheLoadCallback<T> loader) {
+        T cached = CacheValueConverter.convert(load(cache.getIfPresent(key), type), type);
+        if (cached != null) {
+            if (refreshAhead.isEnabled() && varExpiration != null) {
+                long ttlMillis = varExpiration.getExpiresAfter(key, TimeUnit.MILLISECONDS).orElse(-1L);
+                if (refreshAhead.shouldRefresh(key, ttlMillis)) {
+                    refreshAhead.refreshAsync(key, () -> loadAndSet(key, timeout, unit, loader));
+                }
+            }
+            return cached;
+        }
+        try {
+            return singleFlight.execute(key, () -> {
+                T current = CacheValueConverter.convert(load(cache.getIfPresent(key), type), type);
+                if (current != null) {
+                    return current;
+                }
+                return loadAndSet(key, timeout, unit, loader);
+            });
+        } catch (RuntimeException e) {
+            log.error("加载本地缓存数据失败: key={}", key, e);
+            throw e;
+        } catch (Exception e) {
+            log.error("加载本地缓存数据失败: key={}", key, e);
+            throw new RuntimeException("加载缓存数据失败: " + key, e);
+        }
+    }
+
+    /**
+     * 执行加载回调并写入缓存
+     *
+     * @param <T> 返回值的类型
+     * @param key 缓存键
+     * @param timeout 过期时间数值
+     * @param unit 过期时间单位
+     * @param loader 加载回调
+     * @return 加载到的对象
+     * @throws Exception 加载回调抛出的异常
+     */
+    private <T> T loadAndSet(String key, long timeout, TimeUnit unit, CacheLoadCallback<T> loader) throws Exception {
+        T value = refreshAhead.load(key, loader);
+        if (value != null) {
+            set(key, value, timeout, unit);
+        }
+        log.debug("加载本地缓存数据成功: key={}, found={}", key, value != null);
+        return value;
+    }
+
+    /**
+     * 批量获取缓存
+     * <p>
+     * 使用 getAllPresent 一次性获取所有存在的 key，不在缓存中的 key 再查计数器（与 get 一致）
+     * </p>
+     * 
+     * @param <T> 返回值的类型
+     * @param keys 缓存键列表
+     * @param clazz 目标类型
+     * @return 缓存的对象列表，与 keys 顺序一一对应，不存在或类型不匹配的 key 对应 null
+     */
+    @Override
+    public <T> List<T> multiGet(List<String> keys, Class<T> clazz) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            Map<String, Object> present = cache.getAllPresent(keys);
+            List<T> result = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                Object value = load(present.get(key), clazz);
+                if (value == null) {
+                    AtomicLong cell = counters.getIfPresent(key);
+                    result.add(cell != null ? CacheValueConverter.convert(cell.get(), clazz) : null);
+                    continue;
+                }
+                result.add(clazz.isInstance(value) ? clazz.cast(value) : null);
+            }
+            log.debug("批量获取本地缓存成功: count={}, hit={}", keys.size(), present.size());
+            return result;
+        } catch (Exception e) {
+            log.error("批量获取本地缓存失败: keys={}", keys, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 批量设置缓存（带过期时间）
+     * <p>
+     * 不过期时使用 putAll（受默认过期时间约束）；带过期时间时逐个通过可变过期策略写入；
+     * 与 set 一致，写入后删除同名的计数器
+     * </p>
+     * 
+     * @param values 需要写入的 key 和 value
+     * @param timeout 过期时间数值，小于等于 0 表示使用默认过期时间
+     * @param unit 过期时间单位
+     */
+    @Override
+    public void multiSet(Map<String, ?> values, long timeout, TimeUnit unit) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        try {
+            if (timeout <= 0 || varExpiration == null) {
+                if (offHeapStore == null) {
+                    cache.putAll(values);
+                } else {
+                    for (Map.Entry<String, ?> entry : values.entrySet()) {
+                        cache.put(entry.getKey(), store(entry.getKey(), entry.getValue()));
+                    }
+                }
+            } else {
+                for (Map.Entry<String, ?> entry : values.entrySet()) {
+                    varExpiration.put(entry.getKey(), store(entry.getKey(), entry.getValue()), timeout, unit);
+                }
+            }
+            counters.removeAll(values.keySet());
+            log.debug("批量设置本地缓存成功: count={}, timeout={} {}", values.size(), timeout, unit);
+        } catch (Exception e) {
+            log.error("批量设置本地缓存失败: keys={}", values.keySet(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * 批量判断 key 是否存在
+     * <p>
+     * 计数器中的 key 同样视为存在
+     * </p>
+     * 
+     * @param keys 缓存键列表
+     * @return 是否存在的列表，与 keys 顺序一一对应
+     */
+    @Override
+    public List<Boolean> multiExists(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            Map<String, Object> present = cache.getAllPresent(keys);
+            List<Boolean> exists = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                exists.add(present.containsKey(key) || counters.contains(key));
+            }
+            return exists;
+        } catch (Exception e) {
+            log.error("批量判断 key 是否存在失败: keys={}", keys, e);
+            throw e;
+        }
+    }
+
     /**
      * 删除缓存
      * 
@@ -159,7 +419,7 @@ public class CaffeineCacheService implements CacheService {
         try {
             if (keys != null && !keys.isEmpty()) {
                 cache.invalidateAll(keys);
-                keys.forEach(counters::remove);  // 同时删除计数器
+                counters.removeAll(keys);  // 同时删除计数器
                 log.debug("批量删除本地缓存成功: count={}", keys.size());
             }
         } catch (Exception e) {
@@ -177,7 +437,7 @@ public class CaffeineCacheService implements CacheService {
     @Override
     public boolean exists(String key) {
         try {
-            boolean exists = cache.getIfPresent(key) != null;
+            boolean exists = cache.getIfPresent(key) != null || counters.contains(key);
             log.debug("判断 key 是否存在: key={}, exists={}", key, exists);
             return exists;
         } catch (Exception e) {
@@ -189,26 +449,62 @@ public class CaffeineCacheService implements CacheService {
     /**
      * 设置过期时间
      * <p>
-     * 注意：Caffeine 不支持为单个 key 设置过期时间
-     * 此方法会返回 false，因为无法为已存在的 key 设置过期时间
+     * 通过可变过期策略修改已存在 key 的过期时间
      * </p>
      * 
      * @param key 缓存键
      * @param timeout 过期时间数值
      * @param unit 过期时间单位
-     * @return false（Caffeine 不支持此操作）
+     * @return true 表示设置成功，false 表示 key 不存在或缓存未启用可变过期策略
      */
     @Override
     public boolean expire(String key, long timeout, TimeUnit unit) {
-        log.warn("Caffeine 不支持为单个 key 设置过期时间: key={}, timeout={} {}", key, timeout, unit);
-        return false;
+        try {
+            if (counters.expire(key, timeout, unit)) {
+                log.debug("设置计数器过期时间成功: key={}, timeout={} {}", key, timeout, unit);
+                return true;
+            }
+            if (varExpiration == null || !cache.asMap().containsKey(key)) {
+                log.debug("设置过期时间失败，key 不存在或未启用可变过期: key={}", key);
+                return false;
+            }
+            varExpiration.setExpiresAfter(key, timeout, unit);
+            log.debug("设置过期时间成功: key={}, timeout={} {}", key, timeout, unit);
+            return true;
+        } catch (Exception e) {
+            log.error("设置过期时间失败: key={}, timeout={} {}", key, timeout, unit, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 获取剩余过期时间
+     * 
+     * @param key 缓存键
+     * @param unit 返回值的时间单位
+     * @return 剩余过期时间，-1 表示没有设置过期时间，-2 表示 key 不存在
+     */
+    @Override
+    public long ttl(String key, TimeUnit unit) {
+        try {
+            if (!cache.asMap().containsKey(key)) {
+                return counters.ttl(key, unit);
+            }
+            if (varExpiration == null) {
+                return -1L;
+            }
+            return varExpiration.getExpiresAfter(key, unit).orElse(-2L);
+        } catch (Exception e) {
+            log.error("获取剩余过期时间失败: key={}", key, e);
+            throw e;
+        }
     }
 
     /**
      * 获取所有匹配的 key
      * <p>
-     * 使用正则表达式匹配，将通配符模式转换为正则表达式
-     * 注意：此操作需要遍历所有 key，性能可能不如 Redis
+     * 基于 {@link #scan(String, int)} 逐个匹配收集
+     * 注意：此操作需要遍历所有 key
      * </p>
      * 
      * @param pattern 匹配模式，支持通配符 * 和 ?
@@ -216,19 +512,11 @@ public class CaffeineCacheService implements CacheService {
      */
     @Override
     public Set<String> keys(String pattern) {
-        try {
-            // 将通配符模式转换为正则表达式
-            String regex = pattern
-                    .replace(".", "\\.")
-                    .replace("*", ".*")
-                    .replace("?", ".");
-            Pattern compiledPattern = Pattern.compile(regex);
-            
-            // 遍历所有 key 进行匹配
-            Set<String> matchedKeys = cache.asMap().keySet().stream()
-                    .filter(key -> compiledPattern.matcher(key).matches())
-                    .collect(Collectors.toSet());
-            
+        Set<String> matchedKeys = new HashSet<>();
+        try (CloseableIterator<String> cursor = scan(pattern, 0)) {
+            while (cursor.hasNext()) {
+                matchedKeys.add(cursor.next());
+            }
             log.debug("获取匹配的 key: pattern={}, count={}", pattern, matchedKeys.size());
             return matchedKeys;
         } catch (Exception e) {
@@ -237,10 +525,59 @@ public class CaffeineCacheService implements CacheService {
         }
     }
 
+    /**
+     * 游标方式遍历匹配的 key
+     * <p>
+     * 直接在缓存和计数器的 key 视图上惰性迭代，使用 {@link GlobMatcher} 逐个匹配，
+     * 不编译正则表达式，也不复制 key 集合；迭代过程中缓存的并发修改不会抛出异常
+     * </p>
+     *
+     * @param pattern 匹配模式，支持通配符 * 和 ?
+     * @param batchSize 本地缓存忽略此参数
+     * @return key 迭代器
+     */
+    @Override
+    public CloseableIterator<String> scan(String pattern, int batchSize) {
+        GlobMatcher matcher = new GlobMatcher(pattern);
+        Iterator<String> cacheKeys = cache.asMap().keySet().iterator();
+        Iterator<String> counterKeys = counters.keyIterator();
+        return new CloseableIterator<String>() {
+
+            /** 下一个匹配的 key，为 null 表示尚未查找或已遍历完 */
+            private String next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && (cacheKeys.hasNext() || counterKeys.hasNext())) {
+                    String key = cacheKeys.hasNext() ? cacheKeys.next() : counterKeys.next();
+                    if (matcher.matches(key)) {
+                        next = key;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String key = next;
+                next = null;
+                return key;
+            }
+
+            @Override
+            public void close() {
+                next = null;
+            }
+        };
+    }
+
     /**
      * 递增
      * <p>
-     * 使用 ConcurrentHashMap 实现计数器功能
+     * 在计数单元上原子递增，不替换缓存条目，计数器的过期时间保持不变
      * </p>
      * 
      * @param key 缓存键
@@ -249,7 +586,7 @@ public class CaffeineCacheService implements CacheService {
     @Override
     public Long increment(String key) {
         try {
-            Long value = counters.compute(key, (k, v) -> (v == null ? 0L : v) + 1);
+            long value = counterCell(key).incrementAndGet();
             log.debug("递增成功: key={}, value={}", key, value);
             return value;
         } catch (Exception e) {
@@ -261,7 +598,7 @@ public class CaffeineCacheService implements CacheService {
     /**
      * 递减
      * <p>
-     * 使用 ConcurrentHashMap 实现计数器功能
+     * 在计数单元上原子递减，不替换缓存条目，计数器的过期时间保持不变
      * </p>
      * 
      * @param key 缓存键
@@ -270,7 +607,7 @@ public class CaffeineCacheService implements CacheService {
     @Override
     public Long decrement(String key) {
         try {
-            Long value = counters.compute(key, (k, v) -> (v == null ? 0L : v) - 1);
+            long value = counterCell(key).decrementAndGet();
             log.debug("递减成功: key={}, value={}", key, value);
             return value;
         } catch (Exception e) {
@@ -278,5 +615,81 @@ public class CaffeineCacheService implements CacheService {
             throw e;
         }
     }
-}
 
+    /**
+     * 获取计数单元，不存在时创建
+     * <p>
+     * 普通缓存中已有同名整数值时（如先 set 库存再 decrement），以该值和剩余过期时间创建计数单元，
+     * 并从普通缓存中移除，与 Redis 对已有值执行 INCR/DECR 的行为一致
+     * </p>
+     *
+     * @param key 缓存键
+     * @return 计数单元
+     */
+    private AtomicLong counterCell(String key) {
+        AtomicLong cell = counters.getIfPresent(key);
+        if (cell != null) {
+            return cell;
+        }
+        Object current = cache.getIfPresent(key);
+        long initialValue = 0L;
+        long ttlMillis = -1L;
+        if (current != null) {
+            initialValue = toLong(key, current);
+            if (varExpiration != null) {
+                ttlMillis = varExpiration.getExpiresAfter(key, TimeUnit.MILLISECONDS).orElse(-1L);
+            }
+        }
+        cell = counters.create(key, initialValue, ttlMillis);
+        if (current != null) {
+            cache.invalidate(key);
+        }
+        return cell;
+    }
+
+    /**
+     * 开启堆外存储时，尝试把值写入堆外
+     *
+     * @param key 缓存键
+     * @param value 缓存值
+     * @return 写入缓存的对象：堆外索引或原值
+     */
+    private Object store(String key, Object value) {
+        return offHeapStore != null ? offHeapStore.store(key, value) : value;
+    }
+
+    /**
+     * 读取缓存中的对象，堆外索引按目标类型解码
+     *
+     * @param value 缓存中的对象
+     * @param type 目标类型
+     * @return 缓存值，堆外的值已被释放时返回 null
+     */
+    private Object load(Object value, Type type) {
+        if (value instanceof OffHeapValue) {
+            return offHeapStore.load((OffHeapValue) value, type);
+        }
+        return value;
+    }
+
+    /**
+     * 把已有缓存值转换为计数器初始值
+     *
+     * @param key 缓存键
+     * @param value 缓存值
+     * @return 整数值
+     */
+    private static long toLong(String key, Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Long.parseLong((String) value);
+            } catch (NumberFormatException e) {
+                // 与下面的异常一致
+            }
+        }
+        throw new IllegalStateException("缓存值不是整数，不能递增或递减: key=" + key);
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.cache.impl;
+
+import com.example.cache.ReactiveCacheService;
+import com.example.cache.codec.ValueCodec;
+import com.example.cache.hotkey.HotKeyDetector;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 响应式 Redis 缓存服务实现
+ * <p>
+ * 基于 Lettuce 响应式连接的 {@link ReactiveRedisTemplate}，值以原始字节读写，
+ * 由与 {@link RedisCacheService} 相同的 {@link ValueCodec} 编解码，因此两者写入的数据可以互相读取
+ * </p>
+ * <p>
+ * 说明：
+ * <ul>
+ *   <li>写入、删除、递增递减后清除本节点热点 key 的本地副本，与 RedisCacheService 保持一致</li>
+ *   <li>不广播两级缓存的 L1 失效消息，其他节点的 L1 在 cache.near.expire-after-write 内过期</li>
+ *   <li>getOrLoad 在本节点合并同一个 key 的并发加载；读取缓存失败时直接加载，写入缓存失败时仍返回加载到的值</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 注意：只有当 RedisTemplate 存在时才会创建此 Bean
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@ConditionalOnBean(RedisTemplate.class)
+public class ReactiveRedisCacheService implements ReactiveCacheService {
+
+    /** 响应式 Redis 模板，值为原始字节 */
+    private final ReactiveRedisTemplate<String, byte[]> template;
+
+    /** 缓存值编解码器 */
+    private final ValueCodec valueCodec;
+
+    /** 热点 key 探测与本地提升 */
+    private final HotKeyDetector hotKeyDetector;
+
+    /** 正在加载中的 key，同一个 key 的并发请求共享同一次加载 */
+    private final Map<String, Mono<Object>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * 构造响应式 Redis 缓存服务
+     *
+     * @param connectionFactory 响应式 Redis 连接工厂
+     * @param valueCodec 缓存值编解码器
+     * @param hotKeyDetector 热点 key 探测与本地提升
+     */
+    public ReactiveRedisCacheService(ReactiveRedisConnectionFactory connectionFactory,
+                                     ValueCodec valueCodec,
+                                     HotKeyDetector hotKeyDetector) {
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(StringRedisSerializer.UTF_8)
+                .value(RedisSerializer.byteArray())
+                .build();
+        this.template = new ReactiveRedisTemplate<>(connectionFactory, context);
+        this.valueCodec = valueCodec;
+        this.hotKeyDetector = hotKeyDetector;
+    }
+
+    @Override
+    public Mono<Boolean> set(String key, Object value) {
+        return Mono.fromCallable(() -> valueCodec.serialize(value))
+                .flatMap(raw -> template.opsForValue().set(key, raw))
+                .doOnSuccess(result -> hotKeyDetector.invalidate(key))
+                .doOnError(e -> log.error("设置缓存失败: key={}", key, e));
+    }
+
+    @Override
+    public Mono<Boolean> set(String key, Object value, long timeout, TimeUnit unit) {
+        return Mono.fromCallable(() -> valueCodec.serialize(value))
+                .flatMap(raw -> template.opsForValue().set(key, raw, Duration.ofMillis(unit.toMillis(timeout))))
+                .doOnSuccess(result -> hotKeyDetector.invalidate(key))
+                .doOnError(e -> log.error("设置缓存失败: key={}, timeout={} {}", key, timeout, unit, e));
+    }
+
+    @Override
+    public <T> Mono<T> get(String key, Type type) {
+        return template.opsForValue().get(key)
+                .flatMap(raw -> Mono.justOrEmpty(valueCodec.<T>deserialize(raw, type)))
+                .doOnError(e -> log.error("获取缓存失败: key={}", key, e));
+    }
+
+    @Override
+    public <T> Mono<T> getOrLoad(String key, Type type, long timeout, TimeUnit unit, Supplier<Mono<T>> loader) {
+        return this.<T>get(key, type)
+                .onErrorResume(e -> {
+                    log.warn("读取缓存失败，直接加载: key={}", key);
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.defer(() -> load(key, timeout, unit, loader)));
+    }
+
+    /**
+     * 加载并写入缓存，同一个 key 的并发请求共享同一次加载
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> load(String key, long timeout, TimeUnit unit, Supplier<Mono<T>> loader) {
+        return (Mono<T>) loading.computeIfAbsent(key, k -> Mono.defer(loader)
+                .flatMap(value -> set(k, value, timeout, unit)
+                        .onErrorResume(e -> {
+                            log.warn("写入缓存失败，返回加载结果: key={}", k);
+                            return Mono.just(false);
+                        })
+                        .thenReturn((Object) value))
+                .doFinally(signal -> loading.remove(k))
+                .cache());
+    }
+
+    @Override
+    public <T> Mono<List<T>> multiGet(List<String> keys, Type type) {
+        if (keys == null || keys.isEmpty()) {
+            return Mono.just(Collections.emptyList());
+        }
+        return template.opsForValue().multiGet(keys)
+                .map(raws -> {
+                    List<T> values = new ArrayList<>(raws.size());
+                    for (byte[] raw : raws) {
+                        values.add(raw != null ? valueCodec.<T>deserialize(raw, type) : null);
+                    }
+                    return values;
+                })
+                .doOnError(e -> log.error("批量获取缓存失败: keys={}", keys.size(), e));
+    }
+
+    @Override
+    public Mono<Boolean> delete(String key) {
+        return template.delete(key)
+                .map(count -> count > 0)
+                .doOnSuccess(result -> hotKeyDetector.invalidate(key))
+                .doOnError(e -> log.error("删除缓存失败: key={}", key, e));
+    }
+
+    @Override
+    public Mono<Long> deleteBatch(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return template.delete(keys.toArray(new String[0]))
+                .doOnSuccess(result -> hotKeyDetector.invalidateAll(keys))
+                .doOnError(e -> log.error("批量删除缓存失败: keys={}", keys.size(), e));
+    }
+
+    @Override
+    public Mono<Boolean> exists(String key) {
+        return template.hasKey(key)
+                .doOnError(e -> log.error("判断 key 是否存在失败: key={}", key, e));
+    }
+
+    @Override
+    public Mono<Boolean> expire(String key, long timeout, TimeUnit unit) {
+        return template.expire(key, Duration.ofMillis(unit.toMillis(timeout)))
+                .doOnSuccess(result -> hotKeyDetector.invalidate(key))
+                .doOnError(e -> log.error("设置过期时间失败: key={}, timeout={} {}", key, timeout, unit, e));
+    }
+
+    @Override
+    public Mono<Long> ttl(String key, TimeUnit unit) {
+        ByteBuffer rawKey = ByteBuffer.wrap(key.getBytes(StandardCharsets.UTF_8));
+        return template.createMono(connection -> connection.keyCommands().pTtl(rawKey))
+                .map(millis -> millis < 0 ? millis : unit.convert(millis, TimeUnit.MILLISECONDS))
+                .defaultIfEmpty(-2L)
+                .doOnError(e -> log.error("获取剩余过期时间失败: key={}", key, e));
+    }
+
+    @Override
+    public Flux<String> scan(String pattern, int batchSize) {
+        return template.scan(ScanOptions.scanOptions().match(pattern).count(batchSize).build())
+                .doOnError(e -> log.error("遍历 key 失败: pattern={}", pattern, e));
+    }
+
+    @Override
+    public Mono<Long> increment(String key) {
+        return template.opsForValue().increment(key)
+                .doOnSuccess(value -> hotKeyDetector.invalidate(key))
+                .doOnError(e -> log.error("递增失败: key={}", key, e));
+    }
+
+    @Override
+    public Mono<Long> decrement(String key) {
+        return template.opsForValue().decrement(key)
+                .doOnSuccess(value -> hotKeyDetector.invalidate(key))
+                .doOnError(e -> log.error("递减失败: key={}", key, e));
+    }
+}
@@ -1,27 +1,67 @@
 package com.example.cache.impl;
 
-import com.alibaba.fastjson2.JSON;
+import com.example.cache.CacheLoadCallback;
 import com.example.cache.CacheService;
+import com.example.cache.codec.ValueCodec;
+import com.example.cache.config.RedisConfig;
+import com.example.cache.hotkey.HotKeyDetector;
+import com.example.cache.metrics.CacheMetrics;
+import com.example.cache.support.CacheValueConverter;
+import com.example.cache.support.RefreshAhead;
+import com.example.cache.support.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Service;
 
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Redis 缓存服务实现
  * <p>
  * 基于 Redis 和 Spring Data Redis 实现的缓存服务
- * 使用 FastJSON2 进行对象序列化和反序列化
+ * 使用 RedisTemplate 配置的缓存值编解码器（{@link ValueCodec}）进行对象序列化和反序列化
  * </p>
  * <p>
  * 注意：只有当 RedisTemplate 存在时才会创建此 Bean
  * 如果 Redis 未配置，此服务不会被创建，使用此服务的代码需要处理 null 的情况
  * </p>
+ * <p>
+ * 开启热点 key 探测（cache.hot-key.enabled=true）时，get 和 getOrLoad 读取的热点 key
+ * 会提升到本节点的短过期本地副本，见 {@link HotKeyDetector}
+ * </p>
+ * <p>
+ * Redis 为集群或哨兵模式时，get、exists、multiGet 通过副本读取的 RedisTemplate 发往副本节点
+ * （见 {@link RedisConfig}），可能读到落后于主节点的数据；其他操作（包括 getOrLoad）始终访问主节点
+ * </p>
  * 
  * @author system
  * @version 1.0.0
@@ -33,9 +73,49 @@ import java.util.concurrent.TimeUnit;
 @ConditionalOnBean(RedisTemplate.class)
 public class RedisCacheService implements CacheService {
 
+    /** keys() 使用的 SCAN 每批数量 */
+    private static final int DEFAULT_SCAN_COUNT = 1000;
+
+    /** 加载租约 key 前缀 */
+    private static final String LEASE_KEY_PREFIX = "cache:lease:";
+
+    /** 释放租约脚本：只有租约仍由自己持有时才删除 */
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
     /** Redis 模板，用于操作 Redis */
     private final RedisTemplate<String, Object> redisTemplate;
 
+    /** 提前刷新 */
+    private final RefreshAhead refreshAhead;
+
+    /** 副本读取的 Redis 模板，单机模式下为 null */
+    @Autowired(required = false)
+    @Qualifier(RedisConfig.REPLICA_REDIS_TEMPLATE)
+    private RedisTemplate<String, Object> replicaRedisTemplate;
+
+    /** 热点 key 探测与本地提升 */
+    private final HotKeyDetector hotKeyDetector;
+
+    /** 缓存指标 */
+    private final CacheMetrics cacheMetrics;
+
+    /** 本节点的加载请求合并 */
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    /** 是否开启跨节点加载租约，默认不开启 */
+    @Value("${cache.load.lease-enabled:false}")
+    private boolean leaseEnabled;
+
+    /** 加载租约时长（毫秒），也是其他节点的最长等待时间，默认 3000 */
+    @Value("${cache.load.lease-millis:3000}")
+    private long leaseMillis;
+
+    /** 等待租约持有者加载时的轮询间隔（毫秒），默认 50 */
+    @Value("${cache.load.lease-poll-millis:50}")
+    private long leasePollMillis;
+
     /**
      * 设置缓存（不过期）
      * 
@@ -46,6 +126,7 @@ public class RedisCacheService implements CacheService {
     public void set(String key, Object value) {
         try {
             redisTemplate.opsForValue().set(key, value);
+            hotKeyDetector.invalidate(key);
             log.debug("设置缓存成功: key={}", key);
         } catch (Exception e) {
             log.error("设置缓存失败: key={}", key, e);
@@ -53,6 +134,31 @@ public class RedisCacheService implements CacheService {
         }
     }
 
+    /**
+     * key 不存在时设置缓存（不过期）
+     * <p>
+     * 使用 SET NX，始终在主节点执行
+     * </p>
+     *
+     * @param key 缓存键
+     * @param value 缓存值
+     * @return true 表示设置成功，false 表示 key 已存在
+     */
+    @Override
+    public boolean setIfAbsent(String key, Object value) {
+        try {
+            boolean set = Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value));
+            if (set) {
+                hotKeyDetector.invalidate(key);
+            }
+            log.debug("设置缓存（不存在时）: key={}, set={}", key, set);
+            return set;
+        } catch (Exception e) {
+            log.error("设置缓存失败: key={}", key, e);
+            throw e;
+        }
+    }
+
     /**
      * 设置缓存（带过期时间）
      * 
@@ -65,6 +171,7 @@ public class RedisCacheService implements CacheService {
     public void set(String key, Object value, long timeout, TimeUnit unit) {
         try {
             redisTemplate.opsForValue().set(key, value, timeout, unit);
+            hotKeyDetector.invalidate(key);
             log.debug("设置缓存成功: key={}, timeout={} {}", key, timeout, unit);
         } catch (Exception e) {
             log.error("设置缓存失败: key={}, timeout={} {}", key, timeout, unit, e);
@@ -75,7 +182,7 @@ public class RedisCacheService implements CacheService {
     /**
      * 获取缓存
      * <p>
-     * 如果缓存的值类型与目标类型匹配，直接返回；否则使用 FastJSON2 进行转换
+     * 读取原始字节后由缓存值编解码器直接解码为目标类型，只解码一次
      * </p>
      * 
      * @param <T> 返回值的类型
@@ -86,21 +193,233 @@ public class RedisCacheService implements CacheService {
     @Override
     public <T> T get(String key, Class<T> clazz) {
         try {
-            Object value = redisTemplate.opsForValue().get(key);
+            T value = getTyped(key, clazz);
             if (value == null) {
                 log.debug("缓存不存在: key={}", key);
+            }
+            return value;
+        } catch (Exception e) {
+            log.error("获取缓存失败: key={}", key, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 获取缓存，不存在时加载并写入缓存
+     * <p>
+     * 加载流程：
+     * <ol>
+     *   <li>先查缓存，命中直接返回</li>
+     *   <li>未命中时通过单飞执行器合并本节点的并发请求，同一个 key 只有一个线程继续</li>
+     *   <li>开启租约时（cache.load.lease-enabled=true），使用 SET NX PX 抢占短租约，
+     *       抢到的节点执行 loader，其他节点轮询缓存等待结果，租约过期仍未等到时自行加载</li>
+     *   <li>加载结果不为 null 时写入缓存</li>
+     * </ol>
+     * </p>
+     * <p>
+     * 开启提前刷新（cache.refresh-ahead.enabled=true）时，命中的热点 key 在接近过期时
+     * 会按概率在后台重新加载，调用方直接拿到旧值
+     * </p>
+     *
+     * @param <T> 返回值的类型
+     * @param key 缓存键
+     * @param type 目标类型
+     * @param timeout 过期时间数值
+     * @param unit 过期时间单位
+     * @param loader 缓存未命中时的加载回调
+     * @return 缓存的对象或加载到的对象
+     */
+    @Override
+    public <T> T getOrLoad(String key, Type type, long timeout, TimeUnit unit, CacheLoadCallback<T> loader) {
+        Object local = hotKeyDetector.access(key);
+        if (local != null) {
+            return CacheValueConverter.convert(local, type);
+        }
+        if (refreshAhead.isEnabled()) {
+            // 同一次网络往返取回值和剩余过期时间，命中时按 XFetch 判断是否需要后台提前刷新
+            byte[] rawKey = rawKey(key);
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.get(rawKey);
+                connection.pTtl(rawKey, TimeUnit.MILLISECONDS);
                 return null;
+            }, RedisSerializer.byteArray());
+            byte[] raw = (byte[]) results.get(0);
+            recordPayload(key, raw);
+            T cached = decode(raw, type);
+            if (cached != null) {
+                hotKeyDetector.promote(key, cached);
+                Long ttlMillis = (Long) results.get(1);
+                if (ttlMillis != null && refreshAhead.shouldRefresh(key, ttlMillis)) {
+                    refreshAhead.refreshAsync(key, () -> refresh(key, timeout, unit, loader));
+                }
+                return cached;
             }
-            
-            // 如果类型匹配，直接返回
-            if (clazz.isInstance(value)) {
-                return clazz.cast(value);
+        } else {
+            T cached = getRemote(key, type);
+            if (cached != null) {
+                return cached;
             }
-            
-            // 否则使用 JSON 转换
-            return JSON.parseObject(JSON.toJSONString(value), clazz);
+        }
+        try {
+            return singleFlight.execute(key, () -> loadWithLease(key, type, timeout, unit, loader));
+        } catch (RuntimeException e) {
+            log.error("加载缓存数据失败: key={}", key, e);
+            throw e;
         } catch (Exception e) {
-            log.error("获取缓存失败: key={}", key, e);
+            log.error("加载缓存数据失败: key={}", key, e);
+            throw new RuntimeException("加载缓存数据失败: " + key, e);
+        }
+    }
+
+    /**
+     * 批量获取缓存
+     * <p>
+     * 使用 MGET 一次网络往返获取所有 key
+     * </p>
+     * 
+     * @param <T> 返回值的类型
+     * @param keys 缓存键列表
+     * @param clazz 目标类型
+     * @return 缓存的对象列表，与 keys 顺序一一对应，不存在的 key 对应 null
+     */
+    @Override
+    public <T> List<T> multiGet(List<String> keys, Class<T> clazz) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            byte[][] rawKeys = new byte[keys.size()][];
+            for (int i = 0; i < rawKeys.length; i++) {
+                rawKeys[i] = rawKey(keys.get(i));
+            }
+            List<byte[]> values = readTemplate().execute((RedisCallback<List<byte[]>>) connection -> connection.mGet(rawKeys));
+            List<T> result = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                byte[] value = values != null ? values.get(i) : null;
+                recordPayload(keys.get(i), value);
+                result.add(decode(value, clazz));
+            }
+            log.debug("批量获取缓存成功: count={}", keys.size());
+            return result;
+        } catch (Exception e) {
+            log.error("批量获取缓存失败: keys={}", keys, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 批量获取缓存及剩余过期时间
+     * <p>
+     * 在同一个管道中为每个 key 发送 GET 和 PTTL，只产生一次网络往返；
+     * 供两级缓存回填 L1 时把 L1 过期时间限制在 L2 的剩余过期时间内。
+     * 不读取热点 key 的本地副本（L1 已经承担了这一职责）
+     * </p>
+     *
+     * @param <T> 返回值的类型
+     * @param keys 缓存键列表
+     * @param clazz 目标类型
+     * @return 值和剩余过期时间（毫秒，-1 表示不过期，-2 表示不存在）的列表，与 keys 顺序一一对应
+     */
+    <T> List<TimedValue<T>> multiGetWithTtl(List<String> keys, Class<T> clazz) {
+        try {
+            List<byte[]> rawKeys = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                rawKeys.add(rawKey(key));
+            }
+            List<Object> results = readTemplate().executePipelined((RedisCallback<Object>) connection -> {
+                for (byte[] rawKey : rawKeys) {
+                    connection.get(rawKey);
+                    connection.pTtl(rawKey, TimeUnit.MILLISECONDS);
+                }
+                return null;
+            }, RedisSerializer.byteArray());
+            List<TimedValue<T>> values = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                byte[] raw = (byte[]) results.get(2 * i);
+                recordPayload(keys.get(i), raw);
+                Long ttlMillis = (Long) results.get(2 * i + 1);
+                values.add(new TimedValue<>(decode(raw, clazz), ttlMillis != null ? ttlMillis : -2L));
+            }
+            return values;
+        } catch (Exception e) {
+            log.error("批量获取缓存及过期时间失败: keys={}", keys, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 批量设置缓存（带过期时间）
+     * <p>
+     * 不过期时使用 MSET；带过期时间时在同一个管道中发送多个 SET EX，只产生一次网络往返
+     * </p>
+     * 
+     * @param values 需要写入的 key 和 value
+     * @param timeout 过期时间数值，小于等于 0 表示不过期
+     * @param unit 过期时间单位
+     */
+    @Override
+    public void multiSet(Map<String, ?> values, long timeout, TimeUnit unit) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        try {
+            if (timeout <= 0) {
+                redisTemplate.opsForValue().multiSet(values);
+            } else {
+                redisTemplate.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                        RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                        for (Map.Entry<String, ?> entry : values.entrySet()) {
+                            ops.opsForValue().set(entry.getKey(), entry.getValue(), timeout, unit);
+                        }
+                        return null;
+                    }
+                });
+            }
+            hotKeyDetector.invalidateAll(values.keySet());
+            log.debug("批量设置缓存成功: count={}, timeout={} {}", values.size(), timeout, unit);
+        } catch (Exception e) {
+            log.error("批量设置缓存失败: keys={}", values.keySet(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * 批量判断 key 是否存在
+     * <p>
+     * 在同一个管道中发送多个 EXISTS，只产生一次网络往返
+     * </p>
+     * 
+     * @param keys 缓存键列表
+     * @return 是否存在的列表，与 keys 顺序一一对应
+     */
+    @Override
+    public List<Boolean> multiExists(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    for (String key : keys) {
+                        ops.hasKey(key);
+                    }
+                    return null;
+                }
+            });
+            List<Boolean> exists = new ArrayList<>(keys.size());
+            for (Object result : results) {
+                exists.add(Boolean.TRUE.equals(result));
+            }
+            log.debug("批量判断 key 是否存在: count={}", keys.size());
+            return exists;
+        } catch (Exception e) {
+            log.error("批量判断 key 是否存在失败: keys={}", keys, e);
             throw e;
         }
     }
@@ -114,6 +433,7 @@ public class RedisCacheService implements CacheService {
     public void delete(String key) {
         try {
             redisTemplate.delete(key);
+            hotKeyDetector.invalidate(key);
             log.debug("删除缓存成功: key={}", key);
         } catch (Exception e) {
             log.error("删除缓存失败: key={}", key, e);
@@ -131,6 +451,7 @@ public class RedisCacheService implements CacheService {
         try {
             if (keys != null && !keys.isEmpty()) {
                 redisTemplate.delete(keys);
+                hotKeyDetector.invalidateAll(keys);
                 log.debug("批量删除缓存成功: count={}", keys.size());
             }
         } catch (Exception e) {
@@ -148,7 +469,7 @@ public class RedisCacheService implements CacheService {
     @Override
     public boolean exists(String key) {
         try {
-            return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+            return Boolean.TRUE.equals(readTemplate().hasKey(key));
         } catch (Exception e) {
             log.error("判断 key 是否存在失败: key={}", key, e);
             throw e;
@@ -166,27 +487,51 @@ public class RedisCacheService implements CacheService {
     @Override
     public boolean expire(String key, long timeout, TimeUnit unit) {
         try {
-            return Boolean.TRUE.equals(redisTemplate.expire(key, timeout, unit));
+            boolean result = Boolean.TRUE.equals(redisTemplate.expire(key, timeout, unit));
+            hotKeyDetector.invalidate(key);
+            return result;
         } catch (Exception e) {
             log.error("设置过期时间失败: key={}, timeout={} {}", key, timeout, unit, e);
             throw e;
         }
     }
 
+    /**
+     * 获取剩余过期时间
+     *
+     * @param key 缓存键
+     * @param unit 返回值的时间单位
+     * @return 剩余过期时间，-1 表示没有设置过期时间，-2 表示 key 不存在
+     */
+    @Override
+    public long ttl(String key, TimeUnit unit) {
+        try {
+            Long ttl = redisTemplate.getExpire(key, unit);
+            return ttl != null ? ttl : -2L;
+        } catch (Exception e) {
+            log.error("获取剩余过期时间失败: key={}", key, e);
+            throw e;
+        }
+    }
+
     /**
      * 获取所有匹配的 key
      * <p>
-     * 注意：在生产环境中，如果 key 数量很大，此操作可能很慢，建议谨慎使用
+     * 使用 SCAN 分批遍历，每批最多 {@value #DEFAULT_SCAN_COUNT} 个，不会像 KEYS 一样阻塞 Redis；
+     * 集群模式下依次遍历每个主节点，见 {@link #scan(String, int)}
      * </p>
-     * 
+     *
      * @param pattern 匹配模式，支持通配符 * 和 ?
      * @return 匹配的 key 集合
      */
     @Override
     public Set<String> keys(String pattern) {
-        try {
-            Set<String> keys = redisTemplate.keys(pattern);
-            log.debug("获取匹配的 key: pattern={}, count={}", pattern, keys != null ? keys.size() : 0);
+        Set<String> keys = new HashSet<>();
+        try (CloseableIterator<String> cursor = scan(pattern, DEFAULT_SCAN_COUNT)) {
+            while (cursor.hasNext()) {
+                keys.add(cursor.next());
+            }
+            log.debug("获取匹配的 key: pattern={}, count={}", pattern, keys.size());
             return keys;
         } catch (Exception e) {
             log.error("获取匹配的 key 失败: pattern={}", pattern, e);
@@ -194,6 +539,40 @@ public class RedisCacheService implements CacheService {
         }
     }
 
+    /**
+     * 游标方式遍历匹配的 key
+     * <p>
+     * 基于 SCAN 命令，迭代过程中按需向 Redis 拉取下一批 key；
+     * SCAN 可能返回重复的 key，调用方需要自行去重
+     * </p>
+     * <p>
+     * 集群模式下 SCAN 只遍历单个节点（RedisTemplate.scan 会直接拒绝），
+     * 这里取一次集群拓扑，依次对每个主节点执行 SCAN；遍历期间发生槽迁移时，迁移中的 key 可能遗漏或重复
+     * </p>
+     *
+     * @param pattern 匹配模式，支持通配符 * 和 ?
+     * @param batchSize 每批拉取的 key 数量提示（SCAN 的 COUNT）
+     * @return key 迭代器，使用完毕后必须关闭以释放连接
+     */
+    @Override
+    public CloseableIterator<String> scan(String pattern, int batchSize) {
+        try {
+            ScanOptions options = ScanOptions.scanOptions()
+                    .match(pattern)
+                    .count(batchSize > 0 ? batchSize : DEFAULT_SCAN_COUNT)
+                    .build();
+            RedisConnectionFactory connectionFactory = redisTemplate.getRequiredConnectionFactory();
+            if (connectionFactory instanceof LettuceConnectionFactory
+                    && ((LettuceConnectionFactory) connectionFactory).isClusterAware()) {
+                return new ClusterScanCursor(connectionFactory.getClusterConnection(), options, keySerializer());
+            }
+            return redisTemplate.scan(options);
+        } catch (Exception e) {
+            log.error("遍历匹配的 key 失败: pattern={}", pattern, e);
+            throw e;
+        }
+    }
+
     /**
      * 递增
      * 
@@ -204,6 +583,7 @@ public class RedisCacheService implements CacheService {
     public Long increment(String key) {
         try {
             Long value = redisTemplate.opsForValue().increment(key);
+            hotKeyDetector.invalidate(key);
             log.debug("递增成功: key={}, value={}", key, value);
             return value;
         } catch (Exception e) {
@@ -222,6 +602,7 @@ public class RedisCacheService implements CacheService {
     public Long decrement(String key) {
         try {
             Long value = redisTemplate.opsForValue().decrement(key);
+            hotKeyDetector.invalidate(key);
             log.debug("递减成功: key={}, value={}", key, value);
             return value;
         } catch (Exception e) {
@@ -229,5 +610,334 @@ public class RedisCacheService implements CacheService {
             throw e;
         }
     }
-}
 
+    /**
+     * 按目标类型获取缓存
+     * <p>
+     * 热点 key 优先读取本地副本
+     * </p>
+     *
+     * @param <T> 目标类型
+     * @param key 缓存键
+     * @param type 目标类型
+     * @return 缓存的对象，如果不存在返回 null
+     */
+    private <T> T getTyped(String key, Type type) {
+        Object local = hotKeyDetector.access(key);
+        if (local != null) {
+            return CacheValueConverter.convert(local, type);
+        }
+        return getRemote(key, type, readTemplate());
+    }
+
+    /**
+     * 从 Redis 按目标类型获取缓存，热点 key 的结果提升到本地
+     *
+     * @param <T> 目标类型
+     * @param key 缓存键
+     * @param type 目标类型
+     * @return 缓存的对象，如果不存在返回 null
+     */
+    private <T> T getRemote(String key, Type type) {
+        return getRemote(key, type, redisTemplate);
+    }
+
+    /**
+     * 通过指定的 Redis 模板按目标类型获取缓存，热点 key 的结果提升到本地
+     *
+     * @param <T> 目标类型
+     * @param key 缓存键
+     * @param type 目标类型
+     * @param template 主节点或副本读取的 Redis 模板
+     * @return 缓存的对象，如果不存在返回 null
+     */
+    private <T> T getRemote(String key, Type type, RedisTemplate<String, Object> template) {
+        byte[] rawKey = rawKey(key);
+        byte[] raw = template.execute((RedisCallback<byte[]>) connection -> connection.get(rawKey));
+        recordPayload(key, raw);
+        T value = decode(raw, type);
+        hotKeyDetector.promote(key, value);
+        return value;
+    }
+
+    /**
+     * 只读操作使用的 Redis 模板：有副本读取模板时使用副本，否则使用主节点
+     *
+     * @return Redis 模板
+     */
+    private RedisTemplate<String, Object> readTemplate() {
+        return replicaRedisTemplate != null ? replicaRedisTemplate : redisTemplate;
+    }
+
+    /**
+     * 按目标类型解码原始字节
+     * <p>
+     * 值序列化器是 {@link ValueCodec} 时直接解码为目标类型；否则先反序列化再转换
+     * </p>
+     *
+     * @param <T> 目标类型
+     * @param raw 原始字节
+     * @param type 目标类型
+     * @return 解码后的对象，raw 为 null 时返回 null
+     */
+    private <T> T decode(byte[] raw, Type type) {
+        if (raw == null) {
+            return null;
+        }
+        RedisSerializer<?> valueSerializer = redisTemplate.getValueSerializer();
+        if (valueSerializer instanceof ValueCodec) {
+            return ((ValueCodec) valueSerializer).deserialize(raw, type);
+        }
+        return CacheValueConverter.convert(valueSerializer.deserialize(raw), type);
+    }
+
+    /**
+     * 记录读取到的缓存值大小
+     *
+     * @param key 缓存键
+     * @param raw 原始字节，为 null 时不记录
+     */
+    private void recordPayload(String key, byte[] raw) {
+        if (raw != null) {
+            cacheMetrics.recordPayload(key, raw.length);
+        }
+    }
+
+    /**
+     * 序列化 key
+     *
+     * @param key 缓存键
+     * @return key 的原始字节
+     */
+    private byte[] rawKey(String key) {
+        return keySerializer().serialize(key);
+    }
+
+    /**
+     * key 序列化器
+     *
+     * @return RedisTemplate 的 key 序列化器
+     */
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<String> keySerializer() {
+        return (RedisSerializer<String>) redisTemplate.getKeySerializer();
+    }
+
+    /**
+     * 在租约保护下加载数据（由单飞执行器中的唯一线程调用）
+     *
+     * @param <T> 返回值的类型
+     * @param key 缓存键
+     * @param type 目标类型
+     * @param timeout 过期时间数值
+     * @param unit 过期时间单位
+     * @param loader 加载回调
+     * @return 加载到的对象
+     * @throws Exception 加载回调抛出的异常
+     */
+    private <T> T loadWithLease(String key, Type type, long timeout, TimeUnit unit,
+                                CacheLoadCallback<T> loader) throws Exception {
+        // 成为执行者之前，上一个执行者可能刚刚写入缓存
+        T cached = getRemote(key, type);
+        if (cached != null) {
+            return cached;
+        }
+        if (!leaseEnabled) {
+            return loadAndSet(key, timeout, unit, loader);
+        }
+
+        String leaseKey = LEASE_KEY_PREFIX + key;
+        String token = UUID.randomUUID().toString();
+        if (Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(leaseKey, token, leaseMillis, TimeUnit.MILLISECONDS))) {
+            try {
+                return loadAndSet(key, timeout, unit, loader);
+            } finally {
+                releaseLease(leaseKey, token);
+            }
+        }
+
+        // 其他节点正在加载，轮询等待其写入缓存
+        long deadline = System.currentTimeMillis() + leaseMillis;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(leasePollMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+            cached = getRemote(key, type);
+            if (cached != null) {
+                log.debug("等待其他节点加载完成: key={}", key);
+                return cached;
+            }
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(leaseKey))) {
+                // 租约已释放但缓存仍为空（加载结果为 null 或加载失败），不再等待
+                break;
+            }
+        }
+        log.debug("未等到其他节点的加载结果，自行加载: key={}", key);
+        return loadAndSet(key, timeout, unit, loader);
+    }
+
+    /**
+     * 执行加载回调并写入缓存
+     *
+     * @param <T> 返回值的类型
+     * @param key 缓存键
+     * @param timeout 过期时间数值
+     * @param unit 过期时间单位
+     * @param loader 加载回调
+     * @return 加载到的对象
+     * @throws Exception 加载回调抛出的异常
+     */
+    private <T> T loadAndSet(String key, long timeout, TimeUnit unit, CacheLoadCallback<T> loader) throws Exception {
+        T value = refreshAhead.load(key, loader);
+        if (value != null) {
+            set(key, value, timeout, unit);
+        }
+        log.debug("加载缓存数据成功: key={}, found={}", key, value != null);
+        return value;
+    }
+
+    /**
+     * 后台提前刷新
+     * <p>
+     * 开启租约时只有抢到租约的节点刷新，其他节点继续使用旧值
+     * </p>
+     *
+     * @param <T> 返回值的类型
+     * @param key 缓存键
+     * @param timeout 过期时间数值
+     * @param unit 过期时间单位
+     * @param loader 加载回调
+     * @return 加载到的对象，未抢到租约时返回 null
+     * @throws Exception 加载回调抛出的异常
+     */
+    private <T> T refresh(String key, long timeout, TimeUnit unit, CacheLoadCallback<T> loader) throws Exception {
+        if (!leaseEnabled) {
+            return loadAndSet(key, timeout, unit, loader);
+        }
+        String leaseKey = LEASE_KEY_PREFIX + key;
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(leaseKey, token, leaseMillis, TimeUnit.MILLISECONDS))) {
+            log.debug("其他节点正在刷新，跳过: key={}", key);
+            return null;
+        }
+        try {
+            return loadAndSet(key, timeout, unit, loader);
+        } finally {
+            releaseLease(leaseKey, token);
+        }
+    }
+
+    /**
+     * 释放加载租约，只删除自己持有的租约
+     *
+     * @param leaseKey 租约键
+     * @param token 租约持有者标识
+     */
+    private void releaseLease(String leaseKey, String token) {
+        try {
+            redisTemplate.execute(RELEASE_LEASE_SCRIPT, Collections.singletonList(leaseKey), token);
+        } catch (Exception e) {
+            log.warn("释放加载租约失败，等待其自动过期: leaseKey={}", leaseKey, e);
+        }
+    }
+
+    /**
+     * 集群模式的 key 游标：依次对每个主节点执行 SCAN
+     * <p>
+     * 创建时取一次主节点列表，当前节点遍历完后再打开下一个节点的游标；关闭时释放当前游标和集群连接
+     * </p>
+     */
+    static final class ClusterScanCursor implements CloseableIterator<String> {
+
+        /** 集群连接 */
+        private final RedisClusterConnection connection;
+
+        /** SCAN 参数 */
+        private final ScanOptions options;
+
+        /** key 序列化器 */
+        private final RedisSerializer<String> keySerializer;
+
+        /** 尚未遍历的主节点 */
+        private final Iterator<RedisClusterNode> masters;
+
+        /** 当前主节点的游标 */
+        private Cursor<byte[]> current;
+
+        ClusterScanCursor(RedisClusterConnection connection, ScanOptions options, RedisSerializer<String> keySerializer) {
+            this.connection = connection;
+            this.options = options;
+            this.keySerializer = keySerializer;
+            try {
+                List<RedisClusterNode> nodes = new ArrayList<>();
+                for (RedisClusterNode node : connection.clusterGetNodes()) {
+                    if (node.isMaster()) {
+                        nodes.add(node);
+                    }
+                }
+                this.masters = nodes.iterator();
+            } catch (RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (current == null || !current.hasNext()) {
+                if (current != null) {
+                    current.close();
+                    current = null;
+                }
+                if (!masters.hasNext()) {
+                    return false;
+                }
+                current = connection.scan(masters.next(), options);
+            }
+            return true;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return keySerializer.deserialize(current.next());
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (current != null) {
+                    current.close();
+                }
+            } finally {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * 缓存值及其剩余过期时间
+     *
+     * @param <T> 值的类型
+     */
+    static final class TimedValue<T> {
+
+        /** 缓存值，不存在时为 null */
+        final T value;
+
+        /** 剩余过期时间（毫秒），-1 表示不过期，-2 表示不存在 */
+        final long ttlMillis;
+
+        TimedValue(T value, long ttlMillis) {
+            this.value = value;
+            this.ttlMillis = ttlMillis;
+        }
+    }
+}
@@ -0,0 +1,572 @@
+package com.example.cache.impl;
+
+import com.alibaba.fastjson2.JSON;
+import com.example.cache.CacheLoadCallback;
+import com.example.cache.CacheService;
+import com.example.cache.support.CacheInvalidationMessage;
+import com.example.cache.support.CacheValueConverter;
+import com.example.cache.support.VariableExpiry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 两级缓存服务实现（Caffeine L1 + Redis L2）
+ * <p>
+ * 在 Redis 前面加一层有界的 Caffeine 本地缓存，读多写少的 key 绝大多数请求在本地命中，
+ * 不再产生 Redis 网络往返
+ * </p>
+ * <p>
+ * 一致性说明：
+ * <ul>
+ *   <li>写入和删除先落 L2（Redis），再更新本节点 L1</li>
+ *   <li>每次写入、删除、递增递减都会通过 Redis pub/sub 广播失效消息，其他节点收到后清除各自的 L1</li>
+ *   <li>L1 条目有较短的过期时间（cache.near.expire-after-write），即使失效消息丢失，脏数据也只会存在有限时间</li>
+ *   <li>带过期时间写入时，L1 过期时间取 min(L2 过期时间, L1 过期时间)</li>
+ *   <li>从 L2 读取后回填 L1 时，同一次网络往返取回 L2 的剩余过期时间（PTTL），L1 过期时间取两者的较小值，
+ *       L1 条目不会比 L2 活得更久</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 注意：
+ * <ul>
+ *   <li>只有当 cache.near.enabled=true 且 RedisTemplate 存在时才会创建此 Bean</li>
+ *   <li>启用后标记为 @Primary，注入 CacheService 时优先使用两级缓存</li>
+ *   <li>L1 中保存的是对象引用，调用方不应修改从缓存中取出的对象</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@Primary
+@ConditionalOnProperty(name = "cache.near.enabled", havingValue = "true", matchIfMissing = false)
+@ConditionalOnBean(RedisTemplate.class)
+public class TwoLevelCacheService implements CacheService, MessageListener {
+
+    /** L2 缓存（Redis） */
+    private final RedisCacheService redisCacheService;
+
+    /** Redis 模板，用于发布失效消息 */
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    /** L1 缓存（Caffeine） */
+    private final Cache<String, Object> localCache;
+
+    /** L1 可变过期策略，用于为单个条目设置过期时间 */
+    private final Policy.VarExpiration<String, Object> localExpiration;
+
+    /** L1 默认过期时间（毫秒） */
+    private final long localExpireMillis;
+
+    /** 失效消息频道 */
+    private final String channel;
+
+    /** 当前节点ID，用于忽略自身发出的失效消息 */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 构造两级缓存服务
+     *
+     * @param redisCacheService L2 缓存服务
+     * @param redisTemplate Redis 模板
+     * @param maxSize L1 最大缓存条目数，默认 10000
+     * @param expireAfterWrite L1 默认过期时间（秒），默认 60 秒
+     * @param channel 失效消息频道，默认 cache:near:invalidate
+     */
+    public TwoLevelCacheService(RedisCacheService redisCacheService,
+                                RedisTemplate<String, Object> redisTemplate,
+                                @Value("${cache.near.max-size:10000}") long maxSize,
+                                @Value("${cache.near.expire-after-write:60}") long expireAfterWrite,
+                                @Value("${cache.near.channel:cache:near:invalidate}") String channel) {
+        this.redisCacheService = redisCacheService;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.localExpireMillis = TimeUnit.SECONDS.toMillis(expireAfterWrite);
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new VariableExpiry<String, Object>(expireAfterWrite, TimeUnit.SECONDS))
+                .recordStats()
+                .build();
+        this.localExpiration = localCache.policy().expireVariably()
+                .orElseThrow(() -> new IllegalStateException("L1 缓存未启用可变过期策略"));
+
+        log.info("两级缓存配置成功: nodeId={}, maxSize={}, expireAfterWrite={}s, channel={}",
+                nodeId, maxSize, expireAfterWrite, channel);
+    }
+
+    /**
+     * 设置缓存（不过期）
+     * <p>
+     * L2 不过期，L1 使用默认过期时间
+     * </p>
+     *
+     * @param key 缓存键
+     * @param value 缓存值
+     */
+    @Override
+    public void set(String key, Object value) {
+        redisCacheService.set(key, value);
+        localCache.put(key, value);
+        publishInvalidation(Collections.singletonList(key));
+    }
+
+    /**
+     * key 不存在时设置缓存（不过期）
+     * <p>
+     * 只在 L2 上执行 SET NX；成功时清除各节点 L1 中可能残留的旧值，下次读取从 L2 回填
+     * </p>
+     *
+     * @param key 缓存键
+     * @param value 缓存值
+     * @return true 表示设置成功，false 表示 key 已存在
+     */
+    @Override
+    public boolean setIfAbsent(String key, Object value) {
+        boolean set = redisCacheService.setIfAbsent(key, value);
+        if (set) {
+            evict(Collections.singletonList(key));
+        }
+        return set;
+    }
+
+    /**
+     * 设置缓存（带过期时间）
+     *
+     * @param key 缓存键
+     * @param value 缓存值
+     * @param timeout 过期时间数值
+     * @param unit 过期时间单位
+     */
+    @Override
+    public void set(String key, Object value, long timeout, TimeUnit unit) {
+        redisCacheService.set(key, value, timeout, unit);
+        long localMillis = Math.min(unit.toMillis(timeout), localExpireMillis);
+        localExpiration.put(key, value, localMillis, TimeUnit.MILLISECONDS);
+        publishInvalidation(Collections.singletonList(key));
+    }
+
+    /**
+     * 获取缓存
+     * <p>
+     * 先查 L1，未命中再查 L2（GET 与 PTTL 一次往返），L2 命中后按剩余过期时间回填 L1
+     * </p>
+     *
+     * @param <T> 返回值的类型
+     * @param key 缓存键
+     * @param clazz 目标类型
+     * @return 缓存的对象，如果不存在返回 null
+     */
+    @Override
+    public <T> T get(String key, Class<T> clazz) {
+        Object localValue = localCache.getIfPresent(key);
+        if (localValue != null) {
+            if (clazz.isInstance(localValue)) {
+                log.debug("L1 缓存命中: key={}", key);
+                return clazz.cast(localValue);
+            }
+            T converted = JSON.parseObject(JSON.toJSONString(localValue), clazz);
+            // 保存转换后的对象，保留原条目的剩余过期时间
+            localExpiration.getExpiresAfter(key, TimeUnit.MILLISECONDS).ifPresent(
+                    remaining -> localExpiration.put(key, converted, remaining, TimeUnit.MILLISECONDS));
+            return converted;
+        }
+
+        RedisCacheService.TimedValue<T> remote =
+                redisCacheService.multiGetWithTtl(Collections.singletonList(key), clazz).get(0);
+        if (remote.value != null) {
+            backfill(key, remote.value, remote.ttlMillis);
+            log.debug("L2 缓存命中，回填 L1: key={}", key);
+        }
+        return remote.value;
+    }
+
+    /**
+     * 获取缓存，不存在时加载并写入缓存
+     * <p>
+     * 先查 L1，未命中交给 L2 的 getOrLoad（本节点请求合并 + 可选的跨节点租约），结果回填 L1，
+     * L1 过期时间取 min(调用方 timeout, L2 剩余过期时间, L1 默认过期时间)，L2 中已不存在时不回填
+     * </p>
+     *
+     * @param <T> 返回值的类型
+     * @param key 缓存键
+     * @param type 目标类型
+     * @param timeout 过期时间数值
+     * @param unit 过期时间单位
+     * @param loader 缓存未命中时的加载回调
+     * @return 缓存的对象或加载到的对象
+     */
+    @Override
+    public <T> T getOrLoad(String key, Type type, long timeout, TimeUnit unit, CacheLoadCallback<T> loader) {
+        Object localValue = localCache.getIfPresent(key);
+        if (localValue != null) {
+            log.debug("L1 缓存命中: key={}", key);
+            return CacheValueConverter.convert(localValue, type);
+        }
+
+        T value = redisCacheService.getOrLoad(key, type, timeout, unit, loader);
+        if (value != null) {
+            // 值可能是 L2 中已有的旧值，剩余过期时间短于调用方给的 timeout，需按 PTTL 再收紧一次
+            long remoteMillis = redisCacheService.ttl(key, TimeUnit.MILLISECONDS);
+            long callerMillis = unit.toMillis(timeout);
+            boolean callerShorter = callerMillis > 0 && (remoteMillis == -1 || remoteMillis > callerMillis);
+            backfill(key, value, callerShorter ? callerMillis : remoteMillis);
+        }
+        return value;
+    }
+
+    /**
+     * 批量获取缓存
+     * <p>
+     * 先从 L1 批量获取，只有 L1 未命中的 key 才通过一次管道（GET 与 PTTL）访问 L2，并按剩余过期时间回填 L1
+     * </p>
+     *
+     * @param <T> 返回值的类型
+     * @param keys 缓存键列表
+     * @param clazz 目标类型
+     * @return 缓存的对象列表，与 keys 顺序一一对应，不存在的 key 对应 null
+     */
+    @Override
+    public <T> List<T> multiGet(List<String> keys, Class<T> clazz) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, Object> present = localCache.getAllPresent(keys);
+        List<T> result = new ArrayList<>(keys.size());
+        List<String> missedKeys = new ArrayList<>();
+        List<Integer> missedIndexes = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            Object localValue = present.get(keys.get(i));
+            if (clazz.isInstance(localValue)) {
+                result.add(clazz.cast(localValue));
+            } else {
+                result.add(null);
+                missedKeys.add(keys.get(i));
+                missedIndexes.add(i);
+            }
+        }
+        if (missedKeys.isEmpty()) {
+            log.debug("L1 批量命中: count={}", keys.size());
+            return result;
+        }
+
+        List<RedisCacheService.TimedValue<T>> remoteValues = redisCacheService.multiGetWithTtl(missedKeys, clazz);
+        for (int i = 0; i < missedKeys.size(); i++) {
+            RedisCacheService.TimedValue<T> remote = remoteValues.get(i);
+            if (remote.value != null) {
+                result.set(missedIndexes.get(i), remote.value);
+                backfill(missedKeys.get(i), remote.value, remote.ttlMillis);
+            }
+        }
+        log.debug("批量获取缓存: count={}, l1Hit={}", keys.size(), keys.size() - missedKeys.size());
+        return result;
+    }
+
+    /**
+     * 批量设置缓存（带过期时间）
+     * <p>
+     * 先通过一次管道写入 L2，再写入本节点 L1，最后用一条消息通知其他节点失效
+     * </p>
+     *
+     * @param values 需要写入的 key 和 value
+     * @param timeout 过期时间数值，小于等于 0 表示 L2 不过期
+     * @param unit 过期时间单位
+     */
+    @Override
+    public void multiSet(Map<String, ?> values, long timeout, TimeUnit unit) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        redisCacheService.multiSet(values, timeout, unit);
+        long localMillis = timeout <= 0 ? localExpireMillis : Math.min(unit.toMillis(timeout), localExpireMillis);
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            localExpiration.put(entry.getKey(), entry.getValue(), localMillis, TimeUnit.MILLISECONDS);
+        }
+        publishInvalidation(new ArrayList<>(values.keySet()));
+    }
+
+    /**
+     * 批量判断 key 是否存在
+     * <p>
+     * L1 中存在的 key 直接返回 true，其余 key 通过一次管道查询 L2
+     * </p>
+     *
+     * @param keys 缓存键列表
+     * @return 是否存在的列表，与 keys 顺序一一对应
+     */
+    @Override
+    public List<Boolean> multiExists(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, Object> present = localCache.getAllPresent(keys);
+        if (present.size() == keys.size()) {
+            return Collections.nCopies(keys.size(), Boolean.TRUE);
+        }
+        List<String> missedKeys = new ArrayList<>();
+        for (String key : keys) {
+            if (!present.containsKey(key)) {
+                missedKeys.add(key);
+            }
+        }
+        List<Boolean> remoteExists = redisCacheService.multiExists(missedKeys);
+        Map<String, Boolean> remoteResult = new HashMap<>(missedKeys.size() * 2);
+        for (int i = 0; i < missedKeys.size(); i++) {
+            remoteResult.put(missedKeys.get(i), remoteExists.get(i));
+        }
+        List<Boolean> exists = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            exists.add(present.containsKey(key) || Boolean.TRUE.equals(remoteResult.get(key)));
+        }
+        return exists;
+    }
+
+    /**
+     * 删除缓存
+     *
+     * @param key 缓存键
+     */
+    @Override
+    public void delete(String key) {
+        redisCacheService.delete(key);
+        evict(Collections.singletonList(key));
+    }
+
+    /**
+     * 批量删除缓存
+     *
+     * @param keys 缓存键列表
+     */
+    @Override
+    public void deleteBatch(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+        redisCacheService.deleteBatch(keys);
+        evict(keys);
+    }
+
+    /**
+     * 判断 key 是否存在
+     * <p>
+     * L1 命中直接返回 true，否则查询 L2
+     * </p>
+     *
+     * @param key 缓存键
+     * @return true 表示 key 存在，false 表示不存在
+     */
+    @Override
+    public boolean exists(String key) {
+        if (localCache.getIfPresent(key) != null) {
+            return true;
+        }
+        return redisCacheService.exists(key);
+    }
+
+    /**
+     * 设置过期时间
+     * <p>
+     * 修改 L2 的过期时间，并清除各节点 L1，避免 L1 条目比 L2 活得更久
+     * </p>
+     *
+     * @param key 缓存键
+     * @param timeout 过期时间数值
+     * @param unit 过期时间单位
+     * @return true 表示设置成功，false 表示 key 不存在或设置失败
+     */
+    @Override
+    public boolean expire(String key, long timeout, TimeUnit unit) {
+        boolean result = redisCacheService.expire(key, timeout, unit);
+        evict(Collections.singletonList(key));
+        return result;
+    }
+
+    /**
+     * 获取剩余过期时间
+     * <p>
+     * 以 L2 为准
+     * </p>
+     *
+     * @param key 缓存键
+     * @param unit 返回值的时间单位
+     * @return 剩余过期时间，-1 表示没有设置过期时间，-2 表示 key 不存在
+     */
+    @Override
+    public long ttl(String key, TimeUnit unit) {
+        return redisCacheService.ttl(key, unit);
+    }
+
+    /**
+     * 获取所有匹配的 key
+     * <p>
+     * 以 L2 为准
+     * </p>
+     *
+     * @param pattern 匹配模式，支持通配符 * 和 ?
+     * @return 匹配的 key 集合
+     */
+    @Override
+    public Set<String> keys(String pattern) {
+        return redisCacheService.keys(pattern);
+    }
+
+    /**
+     * 游标方式遍历匹配的 key
+     * <p>
+     * 以 L2 为准，使用 SCAN 遍历
+     * </p>
+     *
+     * @param pattern 匹配模式，支持通配符 * 和 ?
+     * @param batchSize 每批拉取的 key 数量提示
+     * @return key 迭代器
+     */
+    @Override
+    public CloseableIterator<String> scan(String pattern, int batchSize) {
+        return redisCacheService.scan(pattern, batchSize);
+    }
+
+    /**
+     * 递增
+     * <p>
+     * 在 L2 上原子递增，并清除各节点 L1 中的旧值
+     * </p>
+     *
+     * @param key 缓存键
+     * @return 递增后的值
+     */
+    @Override
+    public Long increment(String key) {
+        Long value = redisCacheService.increment(key);
+        evict(Collections.singletonList(key));
+        return value;
+    }
+
+    /**
+     * 递减
+     * <p>
+     * 在 L2 上原子递减，并清除各节点 L1 中的旧值
+     * </p>
+     *
+     * @param key 缓存键
+     * @return 递减后的值
+     */
+    @Override
+    public Long decrement(String key) {
+        Long value = redisCacheService.decrement(key);
+        evict(Collections.singletonList(key));
+        return value;
+    }
+
+    /**
+     * 接收其他节点广播的失效消息
+     * <p>
+     * 忽略本节点发出的消息，其余消息中的 key 从 L1 中清除
+     * </p>
+     *
+     * @param message Redis 消息
+     * @param pattern 订阅模式
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            CacheInvalidationMessage invalidation =
+                    JSON.parseObject(message.getBody(), CacheInvalidationMessage.class);
+            if (invalidation == null || nodeId.equals(invalidation.getNodeId())
+                    || invalidation.getKeys() == null) {
+                return;
+            }
+            localCache.invalidateAll(invalidation.getKeys());
+            log.debug("收到 L1 失效消息: from={}, count={}",
+                    invalidation.getNodeId(), invalidation.getKeys().size());
+        } catch (Exception e) {
+            log.error("处理 L1 失效消息失败", e);
+        }
+    }
+
+    /**
+     * 获取 L1 缓存，用于导出统计指标
+     *
+     * @return L1 缓存
+     */
+    public Cache<String, Object> getLocalCache() {
+        return localCache;
+    }
+
+    /**
+     * 获取失效消息频道
+     *
+     * @return 频道名称
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * 把从 L2 读到的值回填 L1，L1 过期时间取 min(L2 剩余过期时间, L1 默认过期时间)
+     *
+     * @param key 缓存键
+     * @param value 缓存值
+     * @param ttlMillis L2 剩余过期时间（毫秒），-1 表示不过期，-2 表示已不存在（不回填）
+     */
+    private void backfill(String key, Object value, long ttlMillis) {
+        if (ttlMillis == -2 || ttlMillis == 0) {
+            return;
+        }
+        long localMillis = ttlMillis < 0 ? localExpireMillis : Math.min(ttlMillis, localExpireMillis);
+        localExpiration.put(key, value, localMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 清除本节点 L1 并通知其他节点
+     *
+     * @param keys 缓存键列表
+     */
+    private void evict(List<String> keys) {
+        localCache.invalidateAll(keys);
+        publishInvalidation(keys);
+    }
+
+    /**
+     * 广播失效消息
+     * <p>
+     * 直接发布 JSON 字节，不依赖 RedisTemplate 的值序列化器；发布失败只记录日志，
+     * 其他节点的 L1 会在过期时间到达后自动失效
+     * </p>
+     *
+     * @param keys 需要失效的 key 列表
+     */
+    private void publishInvalidation(List<String> keys) {
+        try {
+            final byte[] channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+            final byte[] body = JSON.toJSONBytes(new CacheInvalidationMessage(nodeId, new ArrayList<>(keys)));
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channelBytes, body));
+        } catch (Exception e) {
+            log.warn("发布 L1 失效消息失败: keys={}", keys, e);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.cache.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存指标
+ * <p>
+ * 按 key 前缀（如 user:roles、seckill:stock、sso:token）统计 CacheService 各操作的指标：
+ * <ul>
+ *   <li>cache.service.operations：操作耗时（Timer），标签 layer、operation、prefix、outcome</li>
+ *   <li>cache.service.gets：读取次数（Counter），标签 layer、prefix、result（hit/miss）</li>
+ *   <li>cache.service.hit.ratio：累计命中率（Gauge），标签 layer、prefix</li>
+ *   <li>cache.service.loads：getOrLoad 加载回调耗时（Timer），标签 layer、prefix、outcome</li>
+ *   <li>cache.service.payload：从 Redis 读取的缓存值大小（DistributionSummary，字节），标签 prefix</li>
+ * </ul>
+ * layer 为缓存实现（redis、caffeine、twolevel），两级缓存的 L2 访问会同时出现在 twolevel 和 redis 下
+ * </p>
+ * <p>
+ * 前缀规则：取 key 中最多 cache.metrics.prefix-depth 段（以冒号分隔），不包含最后一段和以数字开头的段，
+ * 如 user:roles:1 → user:roles，article:123 → article；没有冒号的 key 归入 default。
+ * 不同前缀超过 cache.metrics.max-prefixes 个后，新的前缀归入 other，避免标签数量失控
+ * </p>
+ * <p>
+ * 配置说明：
+ * <ul>
+ *   <li>cache.metrics.enabled：是否开启，默认 true（没有 MeterRegistry 时自动关闭）</li>
+ *   <li>cache.metrics.prefix-depth：前缀最多包含的段数，默认 2</li>
+ *   <li>cache.metrics.max-prefixes：最多统计的前缀数量，默认 200</li>
+ *   <li>cache.metrics.histogram：是否发布耗时和大小的百分位直方图，默认 false（每个前缀每个指标会多出几十个桶的时间序列，按需开启）</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class CacheMetrics {
+
+    /** 没有冒号的 key 的前缀 */
+    private static final String DEFAULT_PREFIX = "default";
+
+    /** 超出数量上限的前缀 */
+    private static final String OTHER_PREFIX = "other";
+
+    /** 指标注册表，未开启时为 null */
+    private final MeterRegistry registry;
+
+    /** 前缀最多包含的段数 */
+    private final int prefixDepth;
+
+    /** 最多统计的前缀数量 */
+    private final int maxPrefixes;
+
+    /** 是否发布百分位直方图 */
+    private final boolean histogram;
+
+    /** 已统计的前缀 */
+    private final ConcurrentHashMap<String, Boolean> prefixes = new ConcurrentHashMap<>();
+
+    /** 已注册的指标，key 为指标名称和标签值拼接 */
+    private final ConcurrentHashMap<String, Object> meters = new ConcurrentHashMap<>();
+
+    /**
+     * 构造缓存指标
+     *
+     * @param registryProvider 指标注册表
+     * @param enabled 是否开启
+     * @param prefixDepth 前缀最多包含的段数
+     * @param maxPrefixes 最多统计的前缀数量
+     * @param histogram 是否发布百分位直方图
+     */
+    public CacheMetrics(ObjectProvider<MeterRegistry> registryProvider,
+                        @Value("${cache.metrics.enabled:true}") boolean enabled,
+                        @Value("${cache.metrics.prefix-depth:2}") int prefixDepth,
+                        @Value("${cache.metrics.max-prefixes:200}") int maxPrefixes,
+                        @Value("${cache.metrics.histogram:false}") boolean histogram) {
+        this.registry = enabled ? registryProvider.getIfAvailable() : null;
+        this.prefixDepth = prefixDepth;
+        this.maxPrefixes = maxPrefixes;
+        this.histogram = histogram;
+        if (registry != null) {
+            log.info("缓存指标已开启: prefixDepth={}, maxPrefixes={}, histogram={}", prefixDepth, maxPrefixes, histogram);
+        }
+    }
+
+    /**
+     * 是否开启
+     *
+     * @return true 表示开启
+     */
+    public boolean isEnabled() {
+        return registry != null;
+    }
+
+    /**
+     * 记录一次操作耗时
+     *
+     * @param layer 缓存实现
+     * @param operation 操作名称
+     * @param key 缓存键（批量操作取第一个 key）
+     * @param nanos 耗时（纳秒）
+     * @param success 是否成功
+     */
+    public void recordOperation(String layer, String operation, String key, long nanos, boolean success) {
+        if (registry == null) {
+            return;
+        }
+        String prefix = prefixOf(key);
+        String outcome = success ? "success" : "failure";
+        Timer timer = (Timer) meters.computeIfAbsent("op|" + layer + "|" + operation + "|" + prefix + "|" + outcome,
+                id -> Timer.builder("cache.service.operations")
+                        .description("缓存操作耗时")
+                        .tag("layer", layer)
+                        .tag("operation", operation)
+                        .tag("prefix", prefix)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram(histogram)
+                        .register(registry));
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次读取的命中情况
+     *
+     * @param layer 缓存实现
+     * @param key 缓存键
+     * @param hit 是否命中
+     */
+    public void recordGet(String layer, String key, boolean hit) {
+        if (registry == null) {
+            return;
+        }
+        HitCounters counters = hitCounters(layer, prefixOf(key));
+        (hit ? counters.hits : counters.misses).increment();
+    }
+
+    /**
+     * 记录一次加载回调耗时
+     *
+     * @param layer 缓存实现
+     * @param key 缓存键
+     * @param nanos 耗时（纳秒）
+     * @param success 是否成功
+     */
+    public void recordLoad(String layer, String key, long nanos, boolean success) {
+        if (registry == null) {
+            return;
+        }
+        String prefix = prefixOf(key);
+        String outcome = success ? "success" : "failure";
+        Timer timer = (Timer) meters.computeIfAbsent("load|" + layer + "|" + prefix + "|" + outcome,
+                id -> Timer.builder("cache.service.loads")
+                        .description("缓存加载回调耗时")
+                        .tag("layer", layer)
+                        .tag("prefix", prefix)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram(histogram)
+                        .register(registry));
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录读取到的缓存值大小
+     *
+     * @param key 缓存键
+     * @param bytes 字节数
+     */
+    public void recordPayload(String key, int bytes) {
+        if (registry == null) {
+            return;
+        }
+        String prefix = prefixOf(key);
+        DistributionSummary summary = (DistributionSummary) meters.computeIfAbsent("payload|" + prefix,
+                id -> DistributionSummary.builder("cache.service.payload")
+                        .description("缓存值大小")
+                        .baseUnit("bytes")
+                        .tag("prefix", prefix)
+                        .publishPercentileHistogram(histogram)
+                        .register(registry));
+        summary.record(bytes);
+    }
+
+    /**
+     * 计算 key 的前缀标签
+     *
+     * @param key 缓存键
+     * @return 前缀
+     */
+    String prefixOf(String key) {
+        if (key == null) {
+            return DEFAULT_PREFIX;
+        }
+        int end = -1;
+        int start = 0;
+        for (int i = 0; i < prefixDepth; i++) {
+            int next = key.indexOf(':', start);
+            // 最后一段通常是ID，以数字开头的段也是ID
+            if (next < 0 || (next > start && Character.isDigit(key.charAt(start)))) {
+                break;
+            }
+            end = next;
+            start = next + 1;
+        }
+        if (end <= 0) {
+            return DEFAULT_PREFIX;
+        }
+        String prefix = key.substring(0, end);
+        if (prefixes.containsKey(prefix)) {
+            return prefix;
+        }
+        if (prefixes.size() >= maxPrefixes) {
+            return OTHER_PREFIX;
+        }
+        prefixes.putIfAbsent(prefix, Boolean.TRUE);
+        return prefix;
+    }
+
+    /**
+     * 获取或注册命中计数器和命中率
+     *
+     * @param layer 缓存实现
+     * @param prefix 前缀
+     * @return 命中计数器
+     */
+    private HitCounters hitCounters(String layer, String prefix) {
+        return (HitCounters) meters.computeIfAbsent("get|" + layer + "|" + prefix, id -> {
+            HitCounters counters = new HitCounters(
+                    Counter.builder("cache.service.gets").description("缓存读取次数")
+                            .tag("layer", layer).tag("prefix", prefix).tag("result", "hit").register(registry),
+                    Counter.builder("cache.service.gets").description("缓存读取次数")
+                            .tag("layer", layer).tag("prefix", prefix).tag("result", "miss").register(registry));
+            Gauge.builder("cache.service.hit.ratio", counters, HitCounters::ratio)
+                    .description("缓存累计命中率")
+                    .tag("layer", layer)
+                    .tag("prefix", prefix)
+                    .register(registry);
+            return counters;
+        });
+    }
+
+    /**
+     * 命中和未命中计数器
+     */
+    private static class HitCounters {
+
+        /** 命中次数 */
+        private final Counter hits;
+
+        /** 未命中次数 */
+        private final Counter misses;
+
+        HitCounters(Counter hits, Counter misses) {
+            this.hits = hits;
+            this.misses = misses;
+        }
+
+        /**
+         * 累计命中率
+         *
+         * @return 命中率，没有读取时为 0
+         */
+        double ratio() {
+            double hit = hits.count();
+            double total = hit + misses.count();
+            return total == 0 ? 0 : hit / total;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.cache.metrics;
+
+import com.example.cache.CacheLoadCallback;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 缓存指标切面
+ * <p>
+ * 拦截所有 CacheService 实现的接口方法，记录操作耗时；
+ * get、multiGet 按返回值记录命中和未命中，getOrLoad 按加载回调是否执行记录命中和未命中，并记录加载耗时
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class CacheMetricsAspect {
+
+    /** getOrLoad 中加载回调参数的位置 */
+    private static final int LOADER_ARG_INDEX = 4;
+
+    /** 缓存指标 */
+    private final CacheMetrics cacheMetrics;
+
+    /** 实现类对应的 layer 标签 */
+    private final Map<Class<?>, String> layers = new ConcurrentHashMap<>();
+
+    /**
+     * 环绕通知：记录缓存操作指标
+     *
+     * @param joinPoint 连接点
+     * @return 方法执行结果
+     * @throws Throwable 方法执行异常
+     */
+    @Around("execution(* com.example.cache.CacheService.*(..))")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!cacheMetrics.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        String layer = layers.computeIfAbsent(joinPoint.getTarget().getClass(), CacheMetricsAspect::layerOf);
+        String operation = joinPoint.getSignature().getName();
+        Object[] args = joinPoint.getArgs();
+        String key = firstKey(args);
+
+        AtomicBoolean loaded = null;
+        if ("getOrLoad".equals(operation) && args.length > LOADER_ARG_INDEX
+                && args[LOADER_ARG_INDEX] instanceof CacheLoadCallback) {
+            loaded = new AtomicBoolean();
+            args[LOADER_ARG_INDEX] = timedLoader(layer, key, (CacheLoadCallback<?>) args[LOADER_ARG_INDEX], loaded);
+        }
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = loaded != null ? joinPoint.proceed(args) : joinPoint.proceed();
+            success = true;
+            recordGets(layer, operation, args, result, loaded);
+            return result;
+        } finally {
+            cacheMetrics.recordOperation(layer, operation, key, System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * 记录读取操作的命中情况
+     *
+     * @param layer 缓存实现
+     * @param operation 操作名称
+     * @param args 方法参数
+     * @param result 方法返回值
+     * @param loaded getOrLoad 的加载回调是否已执行
+     */
+    private void recordGets(String layer, String operation, Object[] args, Object result, AtomicBoolean loaded) {
+        switch (operation) {
+            case "get":
+                cacheMetrics.recordGet(layer, (String) args[0], result != null);
+                break;
+            case "getOrLoad":
+                // 合并到其他线程加载结果的请求也计为命中：本次调用没有回源
+                cacheMetrics.recordGet(layer, (String) args[0], loaded == null || !loaded.get());
+                break;
+            case "multiGet":
+                List<?> keys = (List<?>) args[0];
+                List<?> values = (List<?>) result;
+                if (keys != null && values != null) {
+                    for (int i = 0; i < keys.size() && i < values.size(); i++) {
+                        cacheMetrics.recordGet(layer, (String) keys.get(i), values.get(i) != null);
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 包装加载回调，记录加载耗时和是否执行
+     *
+     * @param layer 缓存实现
+     * @param key 缓存键
+     * @param loader 原加载回调
+     * @param loaded 是否执行标记
+     * @return 包装后的加载回调
+     */
+    private CacheLoadCallback<Object> timedLoader(String layer, String key, CacheLoadCallback<?> loader,
+                                                  AtomicBoolean loaded) {
+        return () -> {
+            loaded.set(true);
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                Object value = loader.load();
+                success = true;
+                return value;
+            } finally {
+                cacheMetrics.recordLoad(layer, key, System.nanoTime() - start, success);
+            }
+        };
+    }
+
+    /**
+     * 取第一个参数中的 key，批量操作取第一个 key
+     *
+     * @param args 方法参数
+     * @return 缓存键，没有时返回 null
+     */
+    private static String firstKey(Object[] args) {
+        if (args.length == 0) {
+            return null;
+        }
+        Object first = args[0];
+        if (first instanceof String) {
+            return (String) first;
+        }
+        if (first instanceof List && !((List<?>) first).isEmpty()) {
+            Object key = ((List<?>) first).get(0);
+            return key instanceof String ? (String) key : null;
+        }
+        if (first instanceof Map && !((Map<?, ?>) first).isEmpty()) {
+            Object key = ((Map<?, ?>) first).keySet().iterator().next();
+            return key instanceof String ? (String) key : null;
+        }
+        return null;
+    }
+
+    /**
+     * 由实现类名得到 layer 标签，如 RedisCacheService → redis
+     *
+     * @param type 实现类
+     * @return layer 标签
+     */
+    private static String layerOf(Class<?> type) {
+        String name = type.getSimpleName();
+        if (name.endsWith("CacheService") && name.length() > "CacheService".length()) {
+            name = name.substring(0, name.length() - "CacheService".length());
+        }
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
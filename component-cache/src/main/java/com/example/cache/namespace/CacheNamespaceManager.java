@@ -0,0 +1,157 @@
+package com.example.cache.namespace;
+
+import com.example.cache.CacheService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存命名空间版本
+ * <p>
+ * 需要成组失效的缓存（例如某个角色的权限变化后，所有用户的权限缓存）不再通过 keys(pattern) + deleteBatch 删除，
+ * 而是在 key 中嵌入命名空间的版本号：
+ * <pre>
+ * {命名空间}:{版本号}:{key}    例如 user:permissions:1718000000000:42
+ * </pre>
+ * 递增版本号后，旧版本的 key 不会再被读取，由各自的过期时间自然淘汰；一次失效只需要一次 INCR，与 key 数量无关
+ * </p>
+ * <p>
+ * 说明：
+ * <ul>
+ *   <li>版本号保存在缓存 key cache:ns:{命名空间} 中，不过期</li>
+ *   <li>版本号不存在时以当前毫秒时间戳为初始值，版本 key 丢失后也不会重新用到旧版本号</li>
+ *   <li>本节点缓存读取到的版本号 cache.namespace.local-ttl-millis 毫秒（默认 1000），
+ *       本节点递增后立即生效，其他节点最多延迟该时间</li>
+ *   <li>使用命名空间的缓存必须设置过期时间，否则旧版本的 key 不会被淘汰</li>
+ *   <li>未配置 CacheService 时不做版本化，版本号固定为 0</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * // 读取
+ * String key = cacheNamespaceManager.key("user:permissions", userId);
+ * List&lt;Permission&gt; permissions = cacheService.getOrLoad(key, PERMISSION_LIST_TYPE, 30, TimeUnit.MINUTES, loader);
+ *
+ * // 角色权限变化后，所有用户的权限缓存一次失效
+ * cacheNamespaceManager.invalidate("user:permissions");
+ * </pre>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class CacheNamespaceManager {
+
+    /** 版本号 key 前缀 */
+    private static final String VERSION_KEY_PREFIX = "cache:ns:";
+
+    /** 本地缓存的版本号 */
+    private final Cache<String, Long> localVersions;
+
+    /** 缓存服务（未配置缓存时为 null） */
+    @Autowired(required = false)
+    private CacheService cacheService;
+
+    /**
+     * 构造缓存命名空间版本
+     *
+     * @param localTtlMillis 本地缓存版本号的时间（毫秒）
+     * @param maxNamespaces 本地缓存的最大命名空间数量
+     */
+    public CacheNamespaceManager(@Value("${cache.namespace.local-ttl-millis:1000}") long localTtlMillis,
+                                 @Value("${cache.namespace.max-namespaces:10000}") long maxNamespaces) {
+        this.localVersions = Caffeine.newBuilder()
+                .maximumSize(maxNamespaces)
+                .expireAfterWrite(localTtlMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * 生成带版本号的缓存 key
+     *
+     * @param namespace 命名空间，例如 user:permissions
+     * @param key 命名空间内的 key，例如用户ID
+     * @return 缓存 key，格式为 {命名空间}:{版本号}:{key}
+     */
+    public String key(String namespace, Object key) {
+        return namespace + ":" + version(namespace) + ":" + key;
+    }
+
+    /**
+     * 获取命名空间当前版本号
+     *
+     * @param namespace 命名空间
+     * @return 版本号，未配置缓存服务时返回 0
+     */
+    public long version(String namespace) {
+        if (cacheService == null) {
+            return 0L;
+        }
+        return localVersions.get(namespace, this::loadVersion);
+    }
+
+    /**
+     * 使命名空间下的所有 key 失效
+     * <p>
+     * 递增版本号，O(1)，可以在高负载时执行；版本号不存在时先以 SET NX 写入当前时间戳，
+     * 多个节点同时失效时只有一个时间戳生效，其余节点在其基础上递增
+     * </p>
+     *
+     * @param namespace 命名空间
+     * @return 新版本号，未配置缓存服务时返回 0
+     */
+    public long invalidate(String namespace) {
+        if (cacheService == null) {
+            return 0L;
+        }
+        String versionKey = VERSION_KEY_PREFIX + namespace;
+        try {
+            // 版本号不存在时以时间戳初始化，避免与丢失前的版本号重复
+            long timestamp = System.currentTimeMillis();
+            Long version = cacheService.setIfAbsent(versionKey, timestamp)
+                    ? Long.valueOf(timestamp)
+                    : cacheService.increment(versionKey);
+            localVersions.put(namespace, version);
+            log.info("缓存命名空间已失效: namespace={}, version={}", namespace, version);
+            return version;
+        } catch (Exception e) {
+            log.error("缓存命名空间失效失败: namespace={}", namespace, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 从缓存中读取版本号，不存在时以当前时间戳初始化
+     * <p>
+     * 使用 SET NX 初始化，多个节点同时初始化时只有一个时间戳生效，其余节点重新读取已写入的版本号
+     * </p>
+     */
+    private Long loadVersion(String namespace) {
+        String versionKey = VERSION_KEY_PREFIX + namespace;
+        try {
+            Long version = cacheService.get(versionKey, Long.class);
+            if (version != null) {
+                return version;
+            }
+            long timestamp = System.currentTimeMillis();
+            if (cacheService.setIfAbsent(versionKey, timestamp)) {
+                log.debug("初始化缓存命名空间版本: namespace={}, version={}", namespace, timestamp);
+                return timestamp;
+            }
+            Long current = cacheService.get(versionKey, Long.class);
+            return current != null ? current : timestamp;
+        } catch (Exception e) {
+            log.error("读取缓存命名空间版本失败: namespace={}", namespace, e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.example.cache.offheap;
+
+import com.example.cache.codec.JsonValueCodec;
+import com.example.cache.codec.ValueCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * 堆外缓存存储
+ * <p>
+ * 菜单树、权限树、文章正文等大对象常驻本地缓存会撑大老年代、拉长 GC 停顿。开启后，
+ * {@link com.example.cache.impl.CaffeineCacheService} 把编码后不小于 min-value-bytes 的值写入堆外内存，
+ * Caffeine 中只保存很小的索引对象 {@link OffHeapValue}，读取时再解码
+ * </p>
+ * <p>
+ * 内存布局：
+ * <ul>
+ *   <li>堆外内存由若干 64MB 的 DirectByteBuffer 分段组成，按需分配，总量不超过 capacity-mb</li>
+ *   <li>每个分段切成固定大小的块（block-size），一个值占用若干个块（不要求连续），空闲块保存在空闲栈中，
+ *       分配和释放都是 O(块数)，不会产生碎片</li>
+ *   <li>容量不足时按 CLOCK（近似 LRU）淘汰：最近读取过的值获得第二次机会，其余的从 Caffeine 中移除并释放块</li>
+ *   <li>值过大或淘汰后仍无法分配时，不写入堆外，退回堆内保存</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 配置说明：
+ * <ul>
+ *   <li>cache.local.off-heap.enabled：是否开启，默认 false（需要同时开启 cache.local.enabled）</li>
+ *   <li>cache.local.off-heap.capacity-mb：堆外内存上限（MB），默认 256，受 -XX:MaxDirectMemorySize 限制</li>
+ *   <li>cache.local.off-heap.block-size：块大小（字节），默认 1024</li>
+ *   <li>cache.local.off-heap.min-value-bytes：编码后不小于此值才写入堆外，默认 4096</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 注意：开启后每次写入本地缓存都会先编码一次以判断大小；读取堆外的值每次都会解码出新对象
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cache.local.off-heap.enabled", havingValue = "true", matchIfMissing = false)
+public class OffHeapStore {
+
+    /** 分段大小 */
+    private static final int CHUNK_SIZE = 64 * 1024 * 1024;
+
+    /** 块大小 */
+    private final int blockSize;
+
+    /** 每个分段的块数 */
+    private final int blocksPerChunk;
+
+    /** 总块数 */
+    private final int totalBlocks;
+
+    /** 堆外分段，按需分配 */
+    private final ByteBuffer[] chunks;
+
+    /** 空闲块栈 */
+    private final int[] freeBlocks;
+
+    /** 空闲块栈中的块数 */
+    private int freeCount;
+
+    /** 尚未分配过的最小块编号 */
+    private int highWater;
+
+    /** 写入堆外的最小编码长度 */
+    private final int minValueBytes;
+
+    /** 值编解码器 */
+    private final ValueCodec valueCodec;
+
+    /** CLOCK 队列 */
+    private final ConcurrentLinkedQueue<OffHeapValue> clock = new ConcurrentLinkedQueue<>();
+
+    /** CLOCK 队列长度 */
+    private final AtomicInteger clockSize = new AtomicInteger();
+
+    /** 未释放的值数量 */
+    private final AtomicInteger entries = new AtomicInteger();
+
+    /** 未释放的值的编码总长度 */
+    private final AtomicLong storedBytes = new AtomicLong();
+
+    /** 淘汰次数 */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /** 无法写入堆外、退回堆内的次数 */
+    private final AtomicLong rejections = new AtomicLong();
+
+    /** 淘汰回调，用于从缓存中移除被淘汰的索引 */
+    private volatile BiConsumer<String, OffHeapValue> evictionHandler = (key, value) -> { };
+
+    /**
+     * 构造堆外缓存存储
+     *
+     * @param capacityMb 堆外内存上限（MB）
+     * @param blockSize 块大小（字节）
+     * @param minValueBytes 写入堆外的最小编码长度
+     * @param valueCodecProvider 值编解码器
+     */
+    public OffHeapStore(@Value("${cache.local.off-heap.capacity-mb:256}") int capacityMb,
+                        @Value("${cache.local.off-heap.block-size:1024}") int blockSize,
+                        @Value("${cache.local.off-heap.min-value-bytes:4096}") int minValueBytes,
+                        ObjectProvider<ValueCodec> valueCodecProvider) {
+        if (blockSize <= 0 || CHUNK_SIZE % blockSize != 0) {
+            throw new IllegalArgumentException("块大小必须能整除 64MB: " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.blocksPerChunk = CHUNK_SIZE / blockSize;
+        this.totalBlocks = (int) Math.min(Integer.MAX_VALUE, (long) capacityMb * 1024 * 1024 / blockSize);
+        this.chunks = new ByteBuffer[(totalBlocks + blocksPerChunk - 1) / blocksPerChunk];
+        this.freeBlocks = new int[totalBlocks];
+        this.minValueBytes = minValueBytes;
+        this.valueCodec = valueCodecProvider.getIfAvailable(JsonValueCodec::new);
+
+        log.info("堆外缓存已开启: capacity={}MB, blockSize={}, minValueBytes={}", capacityMb, blockSize, minValueBytes);
+    }
+
+    /**
+     * 设置淘汰回调
+     *
+     * @param evictionHandler 淘汰回调，参数为缓存键和被淘汰的索引
+     */
+    public void setEvictionHandler(BiConsumer<String, OffHeapValue> evictionHandler) {
+        this.evictionHandler = evictionHandler;
+    }
+
+    /**
+     * 尝试把值写入堆外
+     *
+     * @param key 缓存键
+     * @param value 缓存值
+     * @return 写入成功时返回索引，值太小、编码失败或容量不足时返回原值
+     */
+    public Object store(String key, Object value) {
+        if (value == null || value instanceof OffHeapValue) {
+            return value;
+        }
+        byte[] bytes;
+        try {
+            bytes = valueCodec.serialize(value);
+        } catch (Exception e) {
+            log.debug("缓存值编码失败，保存在堆内: key={}", key, e);
+            return value;
+        }
+        if (bytes == null || bytes.length < minValueBytes) {
+            return value;
+        }
+
+        int[] blocks = allocate((bytes.length + blockSize - 1) / blockSize);
+        if (blocks == null) {
+            rejections.incrementAndGet();
+            log.debug("堆外缓存容量不足，保存在堆内: key={}, size={}", key, bytes.length);
+            return value;
+        }
+        write(blocks, bytes);
+
+        OffHeapValue offHeapValue = new OffHeapValue(this, key, blocks, bytes.length, value.getClass().getName());
+        entries.incrementAndGet();
+        storedBytes.addAndGet(bytes.length);
+        clock.offer(offHeapValue);
+        if (clockSize.incrementAndGet() > 2 * entries.get() + 1024) {
+            sweep();
+        }
+        return offHeapValue;
+    }
+
+    /**
+     * 读取并解码为目标类型
+     *
+     * @param <T> 目标类型
+     * @param value 索引
+     * @param type 目标类型
+     * @return 解码后的对象，值已被释放时返回 null
+     */
+    public <T> T load(OffHeapValue value, Type type) {
+        byte[] bytes = value.read();
+        return bytes != null ? valueCodec.deserialize(bytes, type) : null;
+    }
+
+    /**
+     * 分配块，空闲块不足时按 CLOCK 淘汰
+     */
+    private int[] allocate(int count) {
+        if (count > totalBlocks) {
+            return null;
+        }
+        int[] blocks = tryAllocate(count);
+        if (blocks == null) {
+            evict(count);
+            blocks = tryAllocate(count);
+        }
+        return blocks;
+    }
+
+    /**
+     * 从空闲栈和未分配区域中分配块
+     */
+    private synchronized int[] tryAllocate(int count) {
+        if (freeCount + (totalBlocks - highWater) < count) {
+            return null;
+        }
+        int[] blocks = new int[count];
+        for (int i = 0; i < count; i++) {
+            if (freeCount > 0) {
+                blocks[i] = freeBlocks[--freeCount];
+            } else {
+                int block = highWater++;
+                int chunk = block / blocksPerChunk;
+                if (chunks[chunk] == null) {
+                    int size = (int) Math.min(CHUNK_SIZE, (long) (totalBlocks - chunk * blocksPerChunk) * blockSize);
+                    chunks[chunk] = ByteBuffer.allocateDirect(size);
+                }
+                blocks[i] = block;
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * 按 CLOCK 淘汰，直到空闲块足够或转完两圈
+     */
+    private void evict(int count) {
+        int budget = 2 * clockSize.get();
+        while (budget-- > 0 && availableBlocks() < count) {
+            OffHeapValue candidate = clock.poll();
+            if (candidate == null) {
+                break;
+            }
+            if (candidate.isRetired()) {
+                clockSize.decrementAndGet();
+            } else if (candidate.clearReferenced()) {
+                clock.offer(candidate);
+            } else {
+                clockSize.decrementAndGet();
+                candidate.retire();
+                evictions.incrementAndGet();
+                evictionHandler.accept(candidate.getKey(), candidate);
+            }
+        }
+    }
+
+    /**
+     * 从 CLOCK 队列中清理已经移除的索引
+     */
+    private void sweep() {
+        Iterator<OffHeapValue> iterator = clock.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isRetired()) {
+                iterator.remove();
+                clockSize.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 把字节写入块
+     */
+    private void write(int[] blocks, byte[] bytes) {
+        int offset = 0;
+        for (int block : blocks) {
+            int length = Math.min(blockSize, bytes.length - offset);
+            ByteBuffer buffer = chunks[block / blocksPerChunk].duplicate();
+            buffer.position((block % blocksPerChunk) * blockSize);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * 从块中复制字节
+     *
+     * @param blocks 块编号
+     * @param length 字节长度
+     * @return 字节
+     */
+    byte[] copy(int[] blocks, int length) {
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        for (int block : blocks) {
+            int size = Math.min(blockSize, length - offset);
+            ByteBuffer buffer = chunks[block / blocksPerChunk].duplicate();
+            buffer.position((block % blocksPerChunk) * blockSize);
+            buffer.get(bytes, offset, size);
+            offset += size;
+        }
+        return bytes;
+    }
+
+    /**
+     * 释放块
+     *
+     * @param blocks 块编号
+     * @param length 字节长度
+     */
+    void free(int[] blocks, int length) {
+        synchronized (this) {
+            for (int block : blocks) {
+                freeBlocks[freeCount++] = block;
+            }
+        }
+        entries.decrementAndGet();
+        storedBytes.addAndGet(-length);
+    }
+
+    /**
+     * 可分配的块数
+     */
+    private synchronized int availableBlocks() {
+        return freeCount + (totalBlocks - highWater);
+    }
+
+    /**
+     * 获取堆外内存上限（字节）
+     *
+     * @return 堆外内存上限
+     */
+    public long getCapacityBytes() {
+        return (long) totalBlocks * blockSize;
+    }
+
+    /**
+     * 获取已占用的堆外内存（字节，按块计算）
+     *
+     * @return 已占用的堆外内存
+     */
+    public synchronized long getUsedBytes() {
+        return (long) (highWater - freeCount) * blockSize;
+    }
+
+    /**
+     * 获取保存的值的编码总长度（字节）
+     *
+     * @return 编码总长度
+     */
+    public long getStoredBytes() {
+        return storedBytes.get();
+    }
+
+    /**
+     * 获取保存的值的数量
+     *
+     * @return 值的数量
+     */
+    public int getEntryCount() {
+        return entries.get();
+    }
+
+    /**
+     * 获取淘汰次数
+     *
+     * @return 淘汰次数
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * 获取退回堆内的次数
+     *
+     * @return 退回堆内的次数
+     */
+    public long getRejectionCount() {
+        return rejections.get();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.cache.offheap;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 堆外缓存值的索引
+ * <p>
+ * 保存在 Caffeine 缓存中代替原始对象，只记录编码后字节所在的块编号、长度和类名，值本身保存在 {@link OffHeapStore} 的堆外内存中
+ * </p>
+ * <p>
+ * 通过引用计数保证块在读取过程中不会被释放和复用：缓存持有一个引用，每次读取临时持有一个引用；
+ * 从缓存移除（覆盖、删除、过期、淘汰）时释放缓存的引用，引用归零时把块还给存储
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class OffHeapValue {
+
+    /** 所属存储 */
+    private final OffHeapStore store;
+
+    /** 缓存键 */
+    private final String key;
+
+    /** 占用的块编号 */
+    private final int[] blocks;
+
+    /** 编码后的字节长度 */
+    private final int length;
+
+    /** 值的类名 */
+    private final String type;
+
+    /** 引用计数，初始为 1（缓存持有） */
+    private final AtomicInteger refs = new AtomicInteger(1);
+
+    /** 是否已从缓存移除 */
+    private final AtomicBoolean retired = new AtomicBoolean();
+
+    /** 最近是否被读取过（CLOCK 淘汰使用） */
+    private volatile boolean referenced;
+
+    OffHeapValue(OffHeapStore store, String key, int[] blocks, int length, String type) {
+        this.store = store;
+        this.key = key;
+        this.blocks = blocks;
+        this.length = length;
+        this.type = type;
+    }
+
+    /**
+     * 读取编码后的字节
+     *
+     * @return 编码后的字节，已被释放时返回 null
+     */
+    public byte[] read() {
+        int current;
+        do {
+            current = refs.get();
+            if (current == 0) {
+                return null;
+            }
+        } while (!refs.compareAndSet(current, current + 1));
+        try {
+            referenced = true;
+            return store.copy(blocks, length);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * 从缓存移除，释放缓存持有的引用（可以重复调用）
+     */
+    public void retire() {
+        if (retired.compareAndSet(false, true)) {
+            release();
+        }
+    }
+
+    /**
+     * 释放一个引用，归零时把块还给存储
+     */
+    private void release() {
+        if (refs.decrementAndGet() == 0) {
+            store.free(blocks, length);
+        }
+    }
+
+    /**
+     * 是否已从缓存移除
+     *
+     * @return true 表示已移除
+     */
+    public boolean isRetired() {
+        return retired.get();
+    }
+
+    /**
+     * 检查并清除最近读取标记
+     *
+     * @return 清除前的标记
+     */
+    boolean clearReferenced() {
+        boolean value = referenced;
+        referenced = false;
+        return value;
+    }
+
+    /**
+     * 获取缓存键
+     *
+     * @return 缓存键
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * 获取值的类名
+     *
+     * @return 类名
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * 获取编码后的字节长度
+     *
+     * @return 字节长度
+     */
+    public int getLength() {
+        return length;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.cache.penetration;
+
+import java.util.List;
+
+/**
+ * 布隆过滤器重建数据源
+ * <p>
+ * 按主键升序分页返回实体ID，重建时以上一页的最后一个ID作为游标拉取下一页，
+ * 不会一次性把所有ID加载进内存
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * penetrationGuard.rebuild("article",
+ *         (lastId, pageSize) -> articleRepository.findIdsAfter((Long) lastId, pageSize));
+ * </pre>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface BloomIdSource {
+
+    /**
+     * 拉取下一页ID
+     *
+     * @param lastId 上一页的最后一个ID，第一页为 null
+     * @param pageSize 每页数量
+     * @return 按升序排列的ID列表，返回空列表表示已经拉取完毕
+     */
+    List<?> nextPage(Object lastId, int pageSize);
+}
@@ -0,0 +1,204 @@
+package com.example.cache.penetration;
+
+import com.example.cache.CacheLoadCallback;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存穿透防护
+ * <p>
+ * 查询不存在的ID时，请求会穿过缓存直接打到数据库。此组件在调用加载回调之前做两层拦截：
+ * <ol>
+ *   <li>布隆过滤器：每种实体一个 Redis 位图，判断为不存在时直接返回 null</li>
+ *   <li>空值标记：加载结果为 null 时写入短过期时间的空值标记 cache:null:{实体类型}:{ID}，
+ *       过期前的重复查询直接返回 null，用于拦截布隆过滤器的误判和重建之前的查询</li>
+ * </ol>
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * // 查询
+ * Article article = penetrationGuard.load("article", id, () -> articleRepository.findById(id));
+ *
+ * // 新增实体后登记，同时清除空值标记
+ * penetrationGuard.markExists("article", article.getId());
+ *
+ * // 启动或定时重建
+ * penetrationGuard.rebuild("article", (lastId, pageSize) -> articleRepository.findIdsAfter((Long) lastId, pageSize));
+ * </pre>
+ * </p>
+ * <p>
+ * 配置说明：
+ * <ul>
+ *   <li>cache.penetration.null-ttl-seconds：空值标记过期时间（秒），默认 60</li>
+ *   <li>cache.bloom.expected-insertions：每种实体的预期数量，默认 1000000</li>
+ *   <li>cache.bloom.fpp：误判率，默认 0.01</li>
+ *   <li>cache.bloom.rebuild-page-size：重建时每页数量，默认 1000</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnBean(RedisTemplate.class)
+public class CachePenetrationGuard {
+
+    /** 空值标记 key 前缀 */
+    private static final String NULL_KEY_PREFIX = "cache:null:";
+
+    /** Redis 模板 */
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    /** 各实体类型的布隆过滤器 */
+    private final ConcurrentHashMap<String, RedisBloomFilter> bloomFilters = new ConcurrentHashMap<>();
+
+    /** 空值标记过期时间（秒） */
+    private final long nullTtlSeconds;
+
+    /** 默认预期数量 */
+    private final long expectedInsertions;
+
+    /** 默认误判率 */
+    private final double fpp;
+
+    /** 重建时每页数量 */
+    private final int rebuildPageSize;
+
+    /**
+     * 构造缓存穿透防护
+     *
+     * @param redisTemplate Redis 模板
+     * @param nullTtlSeconds 空值标记过期时间（秒）
+     * @param expectedInsertions 默认预期数量
+     * @param fpp 默认误判率
+     * @param rebuildPageSize 重建时每页数量
+     */
+    public CachePenetrationGuard(RedisTemplate<String, Object> redisTemplate,
+                                 @Value("${cache.penetration.null-ttl-seconds:60}") long nullTtlSeconds,
+                                 @Value("${cache.bloom.expected-insertions:1000000}") long expectedInsertions,
+                                 @Value("${cache.bloom.fpp:0.01}") double fpp,
+                                 @Value("${cache.bloom.rebuild-page-size:1000}") int rebuildPageSize) {
+        this.redisTemplate = redisTemplate;
+        this.nullTtlSeconds = nullTtlSeconds;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.rebuildPageSize = rebuildPageSize;
+    }
+
+    /**
+     * 注册实体类型的布隆过滤器（使用非默认参数时调用）
+     *
+     * @param entityType 实体类型
+     * @param expectedInsertions 预期数量
+     * @param fpp 误判率
+     * @return 布隆过滤器
+     */
+    public RedisBloomFilter register(String entityType, long expectedInsertions, double fpp) {
+        return bloomFilters.computeIfAbsent(entityType,
+                name -> new RedisBloomFilter(name, expectedInsertions, fpp, redisTemplate));
+    }
+
+    /**
+     * 获取实体类型的布隆过滤器，未注册时使用默认参数创建
+     *
+     * @param entityType 实体类型
+     * @return 布隆过滤器
+     */
+    public RedisBloomFilter bloomFilter(String entityType) {
+        return register(entityType, expectedInsertions, fpp);
+    }
+
+    /**
+     * 带穿透防护的加载
+     * <p>
+     * 布隆过滤器判断不存在或存在空值标记时直接返回 null，不调用加载回调；
+     * 加载结果为 null 时写入空值标记
+     * </p>
+     *
+     * @param <T> 返回值类型
+     * @param entityType 实体类型，如 article
+     * @param id 实体ID
+     * @param loader 加载回调（如查询数据库）
+     * @return 加载结果，不存在时返回 null
+     */
+    public <T> T load(String entityType, Object id, CacheLoadCallback<T> loader) {
+        String element = String.valueOf(id);
+        String nullKey = NULL_KEY_PREFIX + entityType + ":" + element;
+        try {
+            if (!bloomFilter(entityType).mightContain(element)) {
+                log.debug("布隆过滤器拦截: entityType={}, id={}", entityType, element);
+                return null;
+            }
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(nullKey))) {
+                log.debug("空值标记拦截: entityType={}, id={}", entityType, element);
+                return null;
+            }
+        } catch (Exception e) {
+            // 防护层不可用时不影响正常查询
+            log.warn("缓存穿透防护检查失败，直接加载: entityType={}, id={}", entityType, element, e);
+        }
+
+        T value;
+        try {
+            value = loader.load();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("加载数据失败: " + entityType + ":" + element, e);
+        }
+
+        if (value == null && nullTtlSeconds > 0) {
+            try {
+                redisTemplate.opsForValue().set(nullKey, 1, nullTtlSeconds, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                log.warn("写入空值标记失败: entityType={}, id={}", entityType, element, e);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 登记新增的实体
+     * <p>
+     * 写入布隆过滤器并删除空值标记，新增实体后必须调用，否则在空值标记过期前会被误判为不存在
+     * </p>
+     *
+     * @param entityType 实体类型
+     * @param id 实体ID
+     */
+    public void markExists(String entityType, Object id) {
+        String element = String.valueOf(id);
+        try {
+            bloomFilter(entityType).put(element);
+            redisTemplate.delete(NULL_KEY_PREFIX + entityType + ":" + element);
+        } catch (Exception e) {
+            log.error("登记新增实体失败: entityType={}, id={}", entityType, element, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 重建实体类型的布隆过滤器
+     *
+     * @param entityType 实体类型
+     * @param source ID 数据源
+     * @return 写入的元素数量
+     */
+    public long rebuild(String entityType, BloomIdSource source) {
+        try {
+            return bloomFilter(entityType).rebuild(source, rebuildPageSize);
+        } catch (Exception e) {
+            log.error("重建布隆过滤器失败: entityType={}", entityType, e);
+            throw e;
+        }
+    }
+}
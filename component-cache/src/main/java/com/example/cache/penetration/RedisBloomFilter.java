@@ -0,0 +1,247 @@
+package com.example.cache.penetration;
+
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.xxhash.XXHash64;
+import net.jpountz.xxhash.XXHashFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 基于 Redis 位图的布隆过滤器
+ * <p>
+ * 每种实体一个位图，key 为 bloom:{实体类型}（花括号是集群 hash tag，保证位图和重建中的临时位图在同一个槽）：
+ * <ul>
+ *   <li>位数 m 和哈希次数 k 由预期元素数量和误判率计算</li>
+ *   <li>使用 xxHash64 双哈希（h1 + i * h2）生成 k 个位偏移</li>
+ *   <li>第 m 位是"已构建"标记，只有完整重建过的位图才会用于判断，避免只有增量数据时误判为不存在</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 重建流程：分页把所有ID写入临时位图 bloom:{实体类型}:rebuilding，写完后设置"已构建"标记并 RENAME 覆盖正式位图；
+ * 重建期间新增的ID会同时写入两个位图，不会丢失
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+public class RedisBloomFilter {
+
+    /** 位图 key 前缀 */
+    private static final String KEY_PREFIX = "bloom:";
+
+    /** 第二个哈希的种子 */
+    private static final long SEED = 0x9747b28cL;
+
+    /** Redis 位图最大位数（512MB） */
+    private static final long MAX_BITS = 1L << 32;
+
+    /** 判断是否可能存在：未构建时一律返回 1 */
+    private static final RedisScript<Long> CONTAINS_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('getbit', KEYS[1], ARGV[1]) == 0 then return 1 end "
+                    + "for i = 2, #ARGV do "
+                    + "if redis.call('getbit', KEYS[1], ARGV[i]) == 0 then return 0 end "
+                    + "end "
+                    + "return 1",
+            Long.class);
+
+    /** 写入：重建进行中时同时写入临时位图 */
+    private static final RedisScript<Long> PUT_SCRIPT = new DefaultRedisScript<>(
+            "local rebuilding = redis.call('exists', KEYS[2]) == 1 "
+                    + "for i = 1, #ARGV do "
+                    + "redis.call('setbit', KEYS[1], ARGV[i], 1) "
+                    + "if rebuilding then redis.call('setbit', KEYS[2], ARGV[i], 1) end "
+                    + "end "
+                    + "return #ARGV",
+            Long.class);
+
+    /** xxHash64 */
+    private static final XXHash64 HASH = XXHashFactory.fastestInstance().hash64();
+
+    /** 实体类型 */
+    private final String name;
+
+    /** 正式位图 key */
+    private final String key;
+
+    /** 重建中的临时位图 key */
+    private final String rebuildingKey;
+
+    /** 位数 m */
+    private final long bitSize;
+
+    /** 哈希次数 k */
+    private final int hashCount;
+
+    /** Redis 模板 */
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    /** 脚本参数和结果使用字符串序列化，与值序列化器无关 */
+    private final StringRedisSerializer stringSerializer = StringRedisSerializer.UTF_8;
+
+    /**
+     * 构造布隆过滤器
+     *
+     * @param name 实体类型，如 article
+     * @param expectedInsertions 预期元素数量
+     * @param fpp 期望误判率，如 0.01
+     * @param redisTemplate Redis 模板
+     */
+    public RedisBloomFilter(String name, long expectedInsertions, double fpp, RedisTemplate<String, Object> redisTemplate) {
+        if (expectedInsertions <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("布隆过滤器参数错误: expectedInsertions=" + expectedInsertions + ", fpp=" + fpp);
+        }
+        this.name = name;
+        this.key = KEY_PREFIX + "{" + name + "}";
+        this.rebuildingKey = key + ":rebuilding";
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.bitSize = Math.min(Math.max(bits, 64L), MAX_BITS - 1);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+        this.redisTemplate = redisTemplate;
+        log.info("布隆过滤器配置成功: name={}, bitSize={}, hashCount={}", name, bitSize, hashCount);
+    }
+
+    /**
+     * 判断元素是否可能存在
+     * <p>
+     * 返回 false 时元素一定不存在；位图尚未构建时总是返回 true
+     * </p>
+     *
+     * @param element 元素（实体ID）
+     * @return true 表示可能存在
+     */
+    public boolean mightContain(String element) {
+        long[] offsets = offsets(element);
+        Object[] args = new Object[offsets.length + 1];
+        args[0] = String.valueOf(bitSize);
+        for (int i = 0; i < offsets.length; i++) {
+            args[i + 1] = String.valueOf(offsets[i]);
+        }
+        Long result = redisTemplate.execute(CONTAINS_SCRIPT, stringSerializer, resultSerializer(),
+                Collections.singletonList(key), args);
+        return result == null || result != 0L;
+    }
+
+    /**
+     * 写入元素
+     *
+     * @param element 元素（实体ID）
+     */
+    public void put(String element) {
+        putAll(Collections.singletonList(element));
+    }
+
+    /**
+     * 批量写入元素
+     *
+     * @param elements 元素列表
+     */
+    public void putAll(Collection<String> elements) {
+        if (elements == null || elements.isEmpty()) {
+            return;
+        }
+        List<Object> args = new ArrayList<>(elements.size() * hashCount);
+        for (String element : elements) {
+            for (long offset : offsets(element)) {
+                args.add(String.valueOf(offset));
+            }
+        }
+        redisTemplate.execute(PUT_SCRIPT, stringSerializer, resultSerializer(),
+                Arrays.asList(key, rebuildingKey), args.toArray());
+    }
+
+    /**
+     * 分页重建位图
+     *
+     * @param source ID 数据源
+     * @param pageSize 每页数量
+     * @return 写入的元素数量
+     */
+    public long rebuild(BloomIdSource source, int pageSize) {
+        byte[] rawRebuildingKey = stringSerializer.serialize(rebuildingKey);
+        byte[] rawKey = stringSerializer.serialize(key);
+        // 先创建临时位图，使重建期间的增量写入同时进入临时位图
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.del(rawRebuildingKey);
+            connection.setBit(rawRebuildingKey, bitSize, false);
+            return null;
+        });
+
+        long count = 0;
+        Object lastId = null;
+        List<?> page = source.nextPage(null, pageSize);
+        while (page != null && !page.isEmpty()) {
+            final List<?> ids = page;
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Object id : ids) {
+                    for (long offset : offsets(String.valueOf(id))) {
+                        connection.setBit(rawRebuildingKey, offset, true);
+                    }
+                }
+                return null;
+            });
+            count += ids.size();
+            lastId = ids.get(ids.size() - 1);
+            if (ids.size() < pageSize) {
+                break;
+            }
+            page = source.nextPage(lastId, pageSize);
+        }
+
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.setBit(rawRebuildingKey, bitSize, true);
+            connection.rename(rawRebuildingKey, rawKey);
+            return null;
+        });
+        log.info("布隆过滤器重建完成: name={}, count={}", name, count);
+        return count;
+    }
+
+    /**
+     * 获取实体类型
+     *
+     * @return 实体类型
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 计算元素的 k 个位偏移
+     *
+     * @param element 元素
+     * @return 位偏移数组
+     */
+    private long[] offsets(String element) {
+        byte[] bytes = element.getBytes(StandardCharsets.UTF_8);
+        long h1 = HASH.hash(bytes, 0, bytes.length, 0L);
+        long h2 = HASH.hash(bytes, 0, bytes.length, SEED);
+        long[] offsets = new long[hashCount];
+        for (int i = 0; i < hashCount; i++) {
+            offsets[i] = Math.floorMod(h1 + i * h2, bitSize);
+        }
+        return offsets;
+    }
+
+    /**
+     * 脚本结果序列化器（脚本返回整数，不会真正反序列化）
+     *
+     * @return 结果序列化器
+     */
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<Long> resultSerializer() {
+        return (RedisSerializer<Long>) (RedisSerializer<?>) stringSerializer;
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.cache.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 缓存快照文件
+ * <p>
+ * 通过内存映射读写紧凑的长度前缀二进制文件，格式（大端）：
+ * <pre>
+ * 文件头: magic(int) version(int) createdAt(long) count(int) crc32(int)
+ * 条目:   keyLength(int) key(UTF-8) expireAt(long) typeLength(int) type(UTF-8) valueLength(int) value
+ * </pre>
+ * expireAt 为过期时刻（毫秒时间戳），0 表示不过期；type 为值的类名；value 为编解码器编码后的字节；
+ * crc32 为所有条目字节的校验和，用于识别写入中断或损坏的文件
+ * </p>
+ * <p>
+ * 写入时先写临时文件，刷盘后再原子替换正式文件，进程在写入过程中退出也不会留下半个快照
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class CacheSnapshotFile {
+
+    /** 文件标识 "CSNP" */
+    private static final int MAGIC = 0x43534E50;
+
+    /** 文件格式版本 */
+    private static final int VERSION = 1;
+
+    /** 文件头长度 */
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4;
+
+    private CacheSnapshotFile() {
+    }
+
+    /**
+     * 写入快照文件
+     *
+     * @param path 快照文件路径
+     * @param createdAt 快照时间（毫秒时间戳）
+     * @param entries 快照条目
+     * @throws IOException 写入失败时抛出
+     */
+    public static void write(Path path, long createdAt, List<Entry> entries) throws IOException {
+        List<byte[]> keys = new ArrayList<>(entries.size());
+        List<byte[]> types = new ArrayList<>(entries.size());
+        long size = HEADER_SIZE;
+        for (Entry entry : entries) {
+            byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            byte[] type = entry.getType().getBytes(StandardCharsets.UTF_8);
+            keys.add(key);
+            types.add(type);
+            size += 4 + key.length + 8 + 4 + type.length + 4 + entry.getValue().length;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("快照文件过大: size=" + size);
+        }
+
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.position(HEADER_SIZE);
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                buffer.putInt(keys.get(i).length).put(keys.get(i));
+                buffer.putLong(entry.getExpireAt());
+                buffer.putInt(types.get(i).length).put(types.get(i));
+                buffer.putInt(entry.getValue().length).put(entry.getValue());
+            }
+            buffer.putInt(0, MAGIC)
+                    .putInt(4, VERSION)
+                    .putLong(8, createdAt)
+                    .putInt(16, entries.size())
+                    .putInt(20, checksum(buffer, HEADER_SIZE, (int) size));
+            buffer.force();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 读取快照文件
+     *
+     * @param path 快照文件路径
+     * @return 快照，文件不存在时返回 null
+     * @throws IOException 读取失败或文件格式不正确时抛出
+     */
+    public static Snapshot read(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("快照文件长度不正确: size=" + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("快照文件格式不正确");
+            }
+            long createdAt = buffer.getLong(8);
+            int count = buffer.getInt(16);
+            if (buffer.getInt(20) != checksum(buffer, HEADER_SIZE, (int) size)) {
+                throw new IOException("快照文件校验失败");
+            }
+
+            List<Entry> entries = new ArrayList<>(Math.min(count, 16384));
+            buffer.position(HEADER_SIZE);
+            try {
+                for (int i = 0; i < count; i++) {
+                    String key = new String(readBytes(buffer), StandardCharsets.UTF_8);
+                    long expireAt = buffer.getLong();
+                    String type = new String(readBytes(buffer), StandardCharsets.UTF_8);
+                    entries.add(new Entry(key, expireAt, type, readBytes(buffer)));
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IOException("快照文件条目不完整", e);
+            }
+            return new Snapshot(createdAt, entries);
+        }
+    }
+
+    /**
+     * 读取长度前缀的字节数组
+     */
+    private static byte[] readBytes(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("长度不正确: " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * 计算 [from, to) 范围内字节的 CRC32
+     */
+    private static int checksum(MappedByteBuffer buffer, int from, int to) {
+        ByteBuffer body = buffer.duplicate();
+        body.limit(to);
+        body.position(from);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 快照
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Snapshot {
+
+        /** 快照时间（毫秒时间戳） */
+        private final long createdAt;
+
+        /** 快照条目 */
+        private final List<Entry> entries;
+    }
+
+    /**
+     * 快照条目
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+
+        /** 缓存键 */
+        private final String key;
+
+        /** 过期时刻（毫秒时间戳），0 表示不过期 */
+        private final long expireAt;
+
+        /** 值的类名 */
+        private final String type;
+
+        /** 编码后的值 */
+        private final byte[] value;
+    }
+}
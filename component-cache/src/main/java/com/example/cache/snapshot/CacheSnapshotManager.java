@@ -0,0 +1,359 @@
+package com.example.cache.snapshot;
+
+import com.example.cache.codec.JsonValueCodec;
+import com.example.cache.codec.ValueCodec;
+import com.example.cache.offheap.OffHeapStore;
+import com.example.cache.offheap.OffHeapValue;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 本地缓存快照
+ * <p>
+ * 滚动发布后每个节点的 Caffeine 缓存都是空的，菜单、权限树、专题列表等热点数据会同时回源 Redis 和数据库。
+ * 开启后定期把本地缓存中最热的条目写入本地快照文件（见 {@link CacheSnapshotFile}），
+ * 应用启动时在所有单例初始化完成后、对外提供服务之前恢复这些条目
+ * </p>
+ * <p>
+ * 快照范围只有 Caffeine 本地缓存（cache.local.enabled=true），它本身就是数据的唯一副本。
+ * 两级缓存的 L1 不快照：节点停机期间错过的失效消息无法补收，恢复的 L1 条目可能与 Redis 不一致；
+ * L1 未命中时会从 Redis 回填，冷启动的代价只是一次 Redis 读取
+ * </p>
+ * <p>
+ * 按 Caffeine 的访问频率取最热的 max-entries 个条目；记录每个条目的过期时刻，恢复时跳过已经过期或剩余时间过短的条目，
+ * 并按剩余时间写回，恢复的条目不会比原来活得更久
+ * </p>
+ * <p>
+ * 配置说明：
+ * <ul>
+ *   <li>cache.snapshot.enabled：是否开启，默认 false</li>
+ *   <li>cache.snapshot.dir：快照目录，默认 ${java.io.tmpdir}/cache-snapshot/${spring.application.name}</li>
+ *   <li>cache.snapshot.interval-seconds：定期快照间隔（秒），默认 300；应用正常关闭时也会写一次快照</li>
+ *   <li>cache.snapshot.max-entries：每个缓存最多快照的条目数，默认 1000</li>
+ *   <li>cache.snapshot.max-age-seconds：快照超过此时间不再恢复，默认 3600</li>
+ *   <li>cache.snapshot.min-remaining-millis：剩余过期时间小于此值的条目不恢复，默认 1000</li>
+ *   <li>cache.snapshot.include-prefixes：只快照这些前缀的 key，逗号分隔，为空表示全部</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 值通过 {@link ValueCodec} 编码（未配置 Redis 时使用 JSON 格式），编码失败或恢复时找不到类的条目会被跳过；
+ * 保存在堆外的值直接写入已编码的字节，恢复到 local 缓存时同样按大小重新写入堆外
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cache.snapshot.enabled", havingValue = "true", matchIfMissing = false)
+public class CacheSnapshotManager implements SmartInitializingSingleton, DisposableBean {
+
+    /** 快照文件扩展名 */
+    private static final String FILE_SUFFIX = ".snapshot";
+
+    /** 关闭时等待定期快照完成的最长时间（秒） */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    /** Caffeine 本地缓存 */
+    private final ObjectProvider<Cache<String, Object>> localCacheProvider;
+
+    /** 值编解码器 */
+    private final ObjectProvider<ValueCodec> valueCodecProvider;
+
+    /** 堆外存储 */
+    private final ObjectProvider<OffHeapStore> offHeapStoreProvider;
+
+    /** 快照目录 */
+    private final Path dir;
+
+    /** 定期快照间隔（秒） */
+    private final long intervalSeconds;
+
+    /** 每个缓存最多快照的条目数 */
+    private final int maxEntries;
+
+    /** 快照最大有效时间（毫秒） */
+    private final long maxAgeMillis;
+
+    /** 恢复条目的最小剩余过期时间（毫秒） */
+    private final long minRemainingMillis;
+
+    /** 只快照这些前缀的 key，为空表示全部 */
+    private final List<String> includePrefixes;
+
+    /** 需要快照的缓存，按名称 */
+    private final Map<String, Cache<String, Object>> caches = new LinkedHashMap<>();
+
+    /** 值编解码器，初始化后确定 */
+    private volatile ValueCodec valueCodec;
+
+    /** 定期快照线程 */
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * 构造本地缓存快照
+     *
+     * @param localCacheProvider Caffeine 本地缓存
+     * @param valueCodecProvider 值编解码器
+     * @param offHeapStoreProvider 堆外存储
+     * @param dir 快照目录
+     * @param intervalSeconds 定期快照间隔（秒）
+     * @param maxEntries 每个缓存最多快照的条目数
+     * @param maxAgeSeconds 快照最大有效时间（秒）
+     * @param minRemainingMillis 恢复条目的最小剩余过期时间（毫秒）
+     * @param includePrefixes 只快照这些前缀的 key，逗号分隔
+     */
+    public CacheSnapshotManager(ObjectProvider<Cache<String, Object>> localCacheProvider,
+                                ObjectProvider<ValueCodec> valueCodecProvider,
+                                ObjectProvider<OffHeapStore> offHeapStoreProvider,
+                                @Value("${cache.snapshot.dir:${java.io.tmpdir}/cache-snapshot/${spring.application.name:application}}") String dir,
+                                @Value("${cache.snapshot.interval-seconds:300}") long intervalSeconds,
+                                @Value("${cache.snapshot.max-entries:1000}") int maxEntries,
+                                @Value("${cache.snapshot.max-age-seconds:3600}") long maxAgeSeconds,
+                                @Value("${cache.snapshot.min-remaining-millis:1000}") long minRemainingMillis,
+                                @Value("${cache.snapshot.include-prefixes:}") String includePrefixes) {
+        this.localCacheProvider = localCacheProvider;
+        this.valueCodecProvider = valueCodecProvider;
+        this.offHeapStoreProvider = offHeapStoreProvider;
+        this.dir = Paths.get(dir);
+        this.intervalSeconds = intervalSeconds;
+        this.maxEntries = maxEntries;
+        this.maxAgeMillis = TimeUnit.SECONDS.toMillis(maxAgeSeconds);
+        this.minRemainingMillis = minRemainingMillis;
+        this.includePrefixes = Arrays.stream(StringUtils.commaDelimitedListToStringArray(includePrefixes))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 所有单例初始化完成后恢复快照并开始定期快照
+     * <p>
+     * 在应用上下文刷新过程中同步执行，恢复完成前应用不会进入就绪状态
+     * </p>
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        valueCodec = valueCodecProvider.getIfAvailable(JsonValueCodec::new);
+        Cache<String, Object> localCache = localCacheProvider.getIfUnique();
+        if (localCache != null) {
+            caches.put("local", localCache);
+        }
+        if (caches.isEmpty()) {
+            log.info("未启用本地缓存，跳过缓存快照");
+            return;
+        }
+
+        for (Map.Entry<String, Cache<String, Object>> entry : caches.entrySet()) {
+            restore(entry.getKey(), entry.getValue());
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::snapshotAll, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        log.info("缓存快照已开启: dir={}, caches={}, interval={}s, maxEntries={}",
+                dir.toAbsolutePath(), caches.keySet(), intervalSeconds, maxEntries);
+    }
+
+    /**
+     * 应用关闭时停止定期快照并写入最后一次快照
+     * <p>
+     * 先等待正在执行的定期快照完成，避免两次快照同时写同一个文件；不中断快照线程，
+     * 中断会使文件通道抛出 ClosedByInterruptException。等待超时或被中断时放弃最后一次快照
+     * </p>
+     */
+    @Override
+    public void destroy() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("等待定期快照完成超时，跳过最后一次快照: timeout={}s", SHUTDOWN_TIMEOUT_SECONDS);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("等待定期快照完成时被中断，跳过最后一次快照");
+            return;
+        }
+        snapshotAll();
+    }
+
+    /**
+     * 对所有缓存写入快照
+     */
+    public void snapshotAll() {
+        for (Map.Entry<String, Cache<String, Object>> entry : caches.entrySet()) {
+            snapshot(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * 写入快照
+     *
+     * @param name 缓存名称
+     * @param cache 缓存
+     * @return 写入的条目数，失败时返回 -1
+     */
+    public int snapshot(String name, Cache<String, Object> cache) {
+        long start = System.currentTimeMillis();
+        Optional<Policy.VarExpiration<String, Object>> expiration = cache.policy().expireVariably();
+        Map<String, Object> hottest = cache.policy().eviction()
+                .map(eviction -> eviction.hottest(maxEntries))
+                .orElse(Collections.emptyMap());
+
+        List<CacheSnapshotFile.Entry> entries = new ArrayList<>(hottest.size());
+        for (Map.Entry<String, Object> entry : hottest.entrySet()) {
+            String key = entry.getKey();
+            if (!isIncluded(key)) {
+                continue;
+            }
+            long expireAt = 0;
+            if (expiration.isPresent()) {
+                OptionalLong remaining = expiration.get().getExpiresAfter(key, TimeUnit.MILLISECONDS);
+                if (!remaining.isPresent()) {
+                    continue;
+                }
+                expireAt = start + remaining.getAsLong();
+            }
+            try {
+                Object value = entry.getValue();
+                if (value instanceof OffHeapValue) {
+                    OffHeapValue offHeapValue = (OffHeapValue) value;
+                    byte[] bytes = offHeapValue.read();
+                    if (bytes != null) {
+                        entries.add(new CacheSnapshotFile.Entry(key, expireAt, offHeapValue.getType(), bytes));
+                    }
+                    continue;
+                }
+                entries.add(new CacheSnapshotFile.Entry(key, expireAt,
+                        value.getClass().getName(), valueCodec.serialize(value)));
+            } catch (Exception e) {
+                log.debug("缓存条目编码失败，跳过快照: cache={}, key={}", name, key, e);
+            }
+        }
+
+        try {
+            CacheSnapshotFile.write(dir.resolve(name + FILE_SUFFIX), start, entries);
+            log.debug("写入缓存快照成功: cache={}, entries={}, cost={}ms",
+                    name, entries.size(), System.currentTimeMillis() - start);
+            return entries.size();
+        } catch (Exception e) {
+            log.warn("写入缓存快照失败: cache={}, dir={}", name, dir, e);
+            return -1;
+        }
+    }
+
+    /**
+     * 恢复快照
+     * <p>
+     * 只写入缓存中还不存在的 key，不覆盖启动过程中已经写入的新值
+     * </p>
+     *
+     * @param name 缓存名称
+     * @param cache 缓存
+     * @return 恢复的条目数
+     */
+    public int restore(String name, Cache<String, Object> cache) {
+        long start = System.currentTimeMillis();
+        CacheSnapshotFile.Snapshot snapshot;
+        try {
+            snapshot = CacheSnapshotFile.read(dir.resolve(name + FILE_SUFFIX));
+        } catch (Exception e) {
+            log.warn("读取缓存快照失败，跳过恢复: cache={}, dir={}", name, dir, e);
+            return 0;
+        }
+        if (snapshot == null) {
+            log.info("缓存快照不存在，跳过恢复: cache={}", name);
+            return 0;
+        }
+        if (start - snapshot.getCreatedAt() > maxAgeMillis) {
+            log.info("缓存快照已过期，跳过恢复: cache={}, createdAt={}", name, snapshot.getCreatedAt());
+            return 0;
+        }
+
+        Optional<Policy.VarExpiration<String, Object>> expiration = cache.policy().expireVariably();
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+        // 只有 local 缓存注册了释放堆外块的监听器
+        OffHeapStore offHeapStore = "local".equals(name) ? offHeapStoreProvider.getIfAvailable() : null;
+        int restored = 0;
+        int skipped = 0;
+        for (CacheSnapshotFile.Entry entry : snapshot.getEntries()) {
+            long remaining = entry.getExpireAt() > 0 ? entry.getExpireAt() - start : Long.MAX_VALUE;
+            if (remaining < minRemainingMillis || !isIncluded(entry.getKey())) {
+                skipped++;
+                continue;
+            }
+            try {
+                Object value = valueCodec.deserialize(entry.getValue(), ClassUtils.forName(entry.getType(), classLoader));
+                if (value == null) {
+                    skipped++;
+                    continue;
+                }
+                if (offHeapStore != null) {
+                    value = offHeapStore.store(entry.getKey(), value);
+                }
+                boolean added = expiration.isPresent() && remaining != Long.MAX_VALUE
+                        ? expiration.get().putIfAbsent(entry.getKey(), value, remaining, TimeUnit.MILLISECONDS)
+                        : cache.asMap().putIfAbsent(entry.getKey(), value) == null;
+                if (added) {
+                    restored++;
+                } else if (value instanceof OffHeapValue) {
+                    ((OffHeapValue) value).retire();
+                }
+            } catch (Exception | LinkageError e) {
+                skipped++;
+                log.debug("缓存条目解码失败，跳过恢复: cache={}, key={}", name, entry.getKey(), e);
+            }
+        }
+
+        log.info("恢复缓存快照成功: cache={}, restored={}, skipped={}, cost={}ms",
+                name, restored, skipped, System.currentTimeMillis() - start);
+        return restored;
+    }
+
+    /**
+     * 判断 key 是否在快照范围内
+     */
+    private boolean isIncluded(String key) {
+        if (includePrefixes.isEmpty()) {
+            return true;
+        }
+        for (String prefix : includePrefixes) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
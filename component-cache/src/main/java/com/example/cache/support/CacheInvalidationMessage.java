@@ -0,0 +1,29 @@
+package com.example.cache.support;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 近端缓存失效消息
+ * <p>
+ * 通过 Redis pub/sub 在各节点之间广播，接收方据此清除本地 L1 中的对应 key
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage {
+
+    /** 发送方节点ID，用于忽略自身发出的消息 */
+    private String nodeId;
+
+    /** 需要失效的 key 列表 */
+    private List<String> keys;
+}
@@ -0,0 +1,58 @@
+package com.example.cache.support;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * 缓存值类型转换工具
+ * <p>
+ * 缓存中取出的值可能已经是目标类型（本地缓存、带类型信息的反序列化），
+ * 也可能是 FastJSON2 的 JSONObject/JSONArray，转换规则：
+ * <ul>
+ *   <li>目标类型是 Class 且值是它的实例：直接返回</li>
+ *   <li>目标类型是泛型类型（如 List&lt;Role&gt;）且值是原始类型的实例、不是 JSONObject/JSONArray：直接返回</li>
+ *   <li>其他情况：使用 FastJSON2 转换</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class CacheValueConverter {
+
+    private CacheValueConverter() {
+    }
+
+    /**
+     * 将缓存值转换为目标类型
+     *
+     * @param <T> 目标类型
+     * @param value 缓存的值
+     * @param type 目标类型，可以是 Class 或泛型类型
+     * @return 转换后的对象，value 为 null 时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T convert(Object value, Type type) {
+        if (value == null) {
+            return null;
+        }
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            if (clazz.isInstance(value)) {
+                return (T) value;
+            }
+        } else if (type instanceof ParameterizedType) {
+            Type rawType = ((ParameterizedType) type).getRawType();
+            if (rawType instanceof Class && ((Class<?>) rawType).isInstance(value)
+                    && !(value instanceof JSONObject) && !(value instanceof JSONArray)) {
+                return (T) value;
+            }
+        }
+        return JSON.parseObject(JSON.toJSONString(value), type);
+    }
+}
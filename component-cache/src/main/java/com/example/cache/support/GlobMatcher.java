@@ -0,0 +1,93 @@
+package com.example.cache.support;
+
+/**
+ * 通配符匹配器
+ * <p>
+ * 按 Redis KEYS/SCAN 的通配符语义匹配 key，支持：
+ * <ul>
+ *   <li>* ：匹配任意长度（包括 0）的字符</li>
+ *   <li>? ：匹配任意单个字符</li>
+ *   <li>\ ：转义下一个字符</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 匹配过程只做下标回溯，不编译正则表达式、不创建中间对象，适合在遍历大量 key 时逐个调用
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class GlobMatcher {
+
+    /** 匹配模式 */
+    private final String pattern;
+
+    /** 模式为 "*" 时匹配所有 key，直接跳过匹配过程 */
+    private final boolean matchAll;
+
+    /**
+     * 构造通配符匹配器
+     *
+     * @param pattern 匹配模式，为 null 或空字符串时等同于 "*"
+     */
+    public GlobMatcher(String pattern) {
+        this.pattern = (pattern == null || pattern.isEmpty()) ? "*" : pattern;
+        this.matchAll = "*".equals(this.pattern);
+    }
+
+    /**
+     * 判断 key 是否匹配
+     *
+     * @param key 缓存键
+     * @return true 表示匹配
+     */
+    public boolean matches(String key) {
+        if (matchAll) {
+            return true;
+        }
+        int p = 0;
+        int k = 0;
+        int starP = -1;
+        int starK = -1;
+        int patternLength = pattern.length();
+        int keyLength = key.length();
+        while (k < keyLength) {
+            if (p < patternLength) {
+                char c = pattern.charAt(p);
+                if (c == '*') {
+                    starP = p++;
+                    starK = k;
+                    continue;
+                }
+                if (c == '?') {
+                    p++;
+                    k++;
+                    continue;
+                }
+                if (c == '\\' && p + 1 < patternLength) {
+                    c = pattern.charAt(p + 1);
+                    if (c == key.charAt(k)) {
+                        p += 2;
+                        k++;
+                        continue;
+                    }
+                } else if (c == key.charAt(k)) {
+                    p++;
+                    k++;
+                    continue;
+                }
+            }
+            // 当前字符不匹配，回溯到上一个 * 多吞一个字符
+            if (starP < 0) {
+                return false;
+            }
+            p = starP + 1;
+            k = ++starK;
+        }
+        while (p < patternLength && pattern.charAt(p) == '*') {
+            p++;
+        }
+        return p == patternLength;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.cache.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地计数器存储
+ * <p>
+ * 每个 key 一个 {@link AtomicLong} 计数单元，保存在有界的 Caffeine 缓存中：
+ * <ul>
+ *   <li>递增递减直接修改计数单元，不替换缓存条目，也不装箱新的 Long</li>
+ *   <li>每个 key 有自己的过期时间，可以通过 {@link #expire} 修改；递增递减不会重置过期时间（与 Redis INCR 一致）</li>
+ *   <li>超过最大数量时按 Caffeine 的淘汰策略淘汰，不会无限增长</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 使用 AtomicLong 而不是 LongAdder：递增后需要返回准确的新值（限流判断、库存扣减），
+ * LongAdder 的 sum() 在并发下不能给出某一次递增后的准确值
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class LocalCounterStore {
+
+    /** 计数单元 */
+    private final Cache<String, AtomicLong> cells;
+
+    /** 可变过期策略 */
+    private final Policy.VarExpiration<String, AtomicLong> expiration;
+
+    /**
+     * 构造本地计数器存储
+     *
+     * @param maxSize 最大计数器数量
+     * @param defaultExpireSeconds 未指定过期时间的计数器的默认过期时间（秒）
+     */
+    public LocalCounterStore(long maxSize, long defaultExpireSeconds) {
+        this.cells = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new VariableExpiry<String, AtomicLong>(defaultExpireSeconds, TimeUnit.SECONDS))
+                .build();
+        this.expiration = cells.policy().expireVariably()
+                .orElseThrow(() -> new IllegalStateException("计数器缓存未启用可变过期策略"));
+    }
+
+    /**
+     * 获取计数单元
+     *
+     * @param key 计数器键
+     * @return 计数单元，不存在时返回 null
+     */
+    public AtomicLong getIfPresent(String key) {
+        return cells.getIfPresent(key);
+    }
+
+    /**
+     * 创建计数单元，已存在时返回已有的计数单元
+     *
+     * @param key 计数器键
+     * @param initialValue 初始值
+     * @param ttlMillis 过期时间（毫秒），小于等于 0 表示使用默认过期时间
+     * @return 计数单元
+     */
+    public AtomicLong create(String key, long initialValue, long ttlMillis) {
+        AtomicLong cell = new AtomicLong(initialValue);
+        AtomicLong existing = cells.asMap().putIfAbsent(key, cell);
+        if (existing != null) {
+            return existing;
+        }
+        if (ttlMillis > 0) {
+            expiration.setExpiresAfter(key, ttlMillis, TimeUnit.MILLISECONDS);
+        }
+        return cell;
+    }
+
+    /**
+     * 设置过期时间
+     *
+     * @param key 计数器键
+     * @param timeout 过期时间数值
+     * @param unit 过期时间单位
+     * @return true 表示设置成功，false 表示计数器不存在
+     */
+    public boolean expire(String key, long timeout, TimeUnit unit) {
+        if (!cells.asMap().containsKey(key)) {
+            return false;
+        }
+        expiration.setExpiresAfter(key, timeout, unit);
+        return true;
+    }
+
+    /**
+     * 获取剩余过期时间
+     *
+     * @param key 计数器键
+     * @param unit 返回值的时间单位
+     * @return 剩余过期时间，-2 表示计数器不存在
+     */
+    public long ttl(String key, TimeUnit unit) {
+        return expiration.getExpiresAfter(key, unit).orElse(-2L);
+    }
+
+    /**
+     * 判断计数器是否存在
+     *
+     * @param key 计数器键
+     * @return true 表示存在
+     */
+    public boolean contains(String key) {
+        return cells.asMap().containsKey(key);
+    }
+
+    /**
+     * 删除计数器
+     *
+     * @param key 计数器键
+     */
+    public void remove(String key) {
+        cells.invalidate(key);
+    }
+
+    /**
+     * 批量删除计数器
+     *
+     * @param keys 计数器键列表
+     */
+    public void removeAll(Collection<String> keys) {
+        cells.invalidateAll(keys);
+    }
+
+    /**
+     * 遍历所有计数器键
+     *
+     * @return 计数器键迭代器
+     */
+    public Iterator<String> keyIterator() {
+        return cells.asMap().keySet().iterator();
+    }
+
+    /**
+     * 获取计数器数量（近似值）
+     *
+     * @return 计数器数量
+     */
+    public long size() {
+        return cells.estimatedSize();
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.cache.support;
+
+import com.example.cache.CacheLoadCallback;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 缓存提前刷新（XFetch 概率提前过期）
+ * <p>
+ * 热点 key 在过期瞬间会让大量请求同时回源，造成延迟毛刺。开启后，{@code getOrLoad} 命中缓存时
+ * 按 XFetch 算法判断是否需要提前刷新：
+ * <pre>
+ * delta * beta * -ln(random()) &gt;= 剩余过期时间
+ * </pre>
+ * 其中 delta 为该 key 最近一次加载耗时，beta 为调节系数（越大越早刷新）。
+ * 越接近过期、加载越慢，提前刷新的概率越高；判断为需要刷新时在后台线程重新加载，
+ * 调用方仍然立即拿到旧值
+ * </p>
+ * <p>
+ * 配置说明：
+ * <ul>
+ *   <li>cache.refresh-ahead.enabled：是否开启，默认 false</li>
+ *   <li>cache.refresh-ahead.beta：调节系数，默认 1.0</li>
+ *   <li>cache.refresh-ahead.threads：后台刷新线程数，默认 2</li>
+ *   <li>cache.refresh-ahead.queue-size：后台刷新队列长度，队列满时放弃本次刷新，默认 1000</li>
+ *   <li>cache.refresh-ahead.max-tracked-keys：记录加载耗时的最大 key 数量，默认 10000</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 只有在本节点通过 getOrLoad 加载过的 key 才有加载耗时记录，才会参与提前刷新
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class RefreshAhead {
+
+    /** 是否开启提前刷新 */
+    private final boolean enabled;
+
+    /** XFetch 调节系数 */
+    private final double beta;
+
+    /** 每个 key 最近一次加载耗时（毫秒），按容量淘汰 */
+    private final Cache<String, Long> loadMillis;
+
+    /** 正在刷新中的 key，避免同一个 key 重复提交刷新任务 */
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    /** 后台刷新线程池，未开启时为 null */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 构造提前刷新组件
+     *
+     * @param enabled 是否开启
+     * @param beta 调节系数
+     * @param threads 后台刷新线程数
+     * @param queueSize 后台刷新队列长度
+     * @param maxTrackedKeys 记录加载耗时的最大 key 数量
+     */
+    public RefreshAhead(@Value("${cache.refresh-ahead.enabled:false}") boolean enabled,
+                        @Value("${cache.refresh-ahead.beta:1.0}") double beta,
+                        @Value("${cache.refresh-ahead.threads:2}") int threads,
+                        @Value("${cache.refresh-ahead.queue-size:1000}") int queueSize,
+                        @Value("${cache.refresh-ahead.max-tracked-keys:10000}") long maxTrackedKeys) {
+        this.enabled = enabled;
+        this.beta = beta;
+        this.loadMillis = Caffeine.newBuilder().maximumSize(maxTrackedKeys).build();
+        if (enabled) {
+            AtomicInteger index = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueSize),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "cache-refresh-" + index.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            log.info("缓存提前刷新已开启: beta={}, threads={}, queueSize={}", beta, threads, queueSize);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * 是否开启提前刷新
+     *
+     * @return true 表示开启
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 判断命中的缓存是否需要提前刷新
+     *
+     * @param key 缓存键
+     * @param ttlMillis 剩余过期时间（毫秒），小于 0 表示不过期或不存在
+     * @return true 表示需要提前刷新
+     */
+    public boolean shouldRefresh(String key, long ttlMillis) {
+        if (!enabled || ttlMillis < 0) {
+            return false;
+        }
+        Long delta = loadMillis.getIfPresent(key);
+        if (delta == null) {
+            return false;
+        }
+        // 1 - nextDouble() 的取值范围是 (0, 1]，避免 ln(0)
+        double random = 1.0D - ThreadLocalRandom.current().nextDouble();
+        return delta * beta * -Math.log(random) >= ttlMillis;
+    }
+
+    /**
+     * 执行加载回调并记录加载耗时
+     *
+     * @param <T> 返回值类型
+     * @param key 缓存键
+     * @param loader 加载回调
+     * @return 加载结果
+     * @throws Exception 加载回调抛出的异常
+     */
+    public <T> T load(String key, CacheLoadCallback<T> loader) throws Exception {
+        if (!enabled) {
+            return loader.load();
+        }
+        long start = System.nanoTime();
+        T value = loader.load();
+        // 至少记录 1 毫秒，否则极快的加载永远不会触发提前刷新
+        loadMillis.put(key, Math.max(1L, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        return value;
+    }
+
+    /**
+     * 提交后台刷新任务
+     * <p>
+     * 同一个 key 同一时刻只会有一个刷新任务；队列已满时放弃本次刷新，下一次命中仍有机会再次触发
+     * </p>
+     *
+     * @param key 缓存键
+     * @param task 刷新任务
+     */
+    public void refreshAsync(String key, CacheLoadCallback<?> task) {
+        if (!enabled || !refreshing.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    task.load();
+                    log.debug("提前刷新缓存成功: key={}", key);
+                } catch (Exception e) {
+                    log.warn("提前刷新缓存失败，旧值将在过期后正常回源: key={}", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            log.debug("提前刷新队列已满，放弃本次刷新: key={}", key);
+        }
+    }
+}
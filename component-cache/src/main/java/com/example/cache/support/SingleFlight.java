@@ -0,0 +1,81 @@
+package com.example.cache.support;
+
+import com.example.cache.CacheLoadCallback;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 单飞（请求合并）执行器
+ * <p>
+ * 同一个 key 在同一时刻只执行一次加载，其他并发请求等待并共享这次加载的结果：
+ * <ul>
+ *   <li>第一个到达的线程成为执行者，执行加载回调</li>
+ *   <li>加载期间到达的线程直接等待执行者的结果，不会重复加载</li>
+ *   <li>加载完成（成功或失败）后立即移除，下一次请求会重新加载</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 只在当前 JVM 内生效，跨节点的合并需要配合分布式租约使用
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class SingleFlight {
+
+    /** 正在进行中的加载，key 为缓存键 */
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 执行加载，同一个 key 的并发调用只会执行一次回调
+     *
+     * @param <T> 返回值类型
+     * @param key 缓存键
+     * @param callback 加载回调
+     * @return 加载结果
+     * @throws Exception 加载回调抛出的异常（等待中的线程会收到同一个异常）
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, CacheLoadCallback<T> callback) throws Exception {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return (T) await(existing);
+        }
+        try {
+            T value = callback.load();
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 等待执行者的加载结果
+     *
+     * @param future 执行者的结果
+     * @return 加载结果
+     * @throws Exception 执行者抛出的异常
+     */
+    private Object await(CompletableFuture<Object> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
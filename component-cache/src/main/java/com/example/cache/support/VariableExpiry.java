@@ -0,0 +1,57 @@
+package com.example.cache.support;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caffeine 可变过期策略
+ * <p>
+ * 为每个缓存条目单独计算过期时间，底层由 Caffeine 的时间轮（timer wheel）驱动
+ * </p>
+ * <p>
+ * 过期规则：
+ * <ul>
+ *   <li>新建条目：使用默认过期时间</li>
+ *   <li>普通更新（put）：重置为默认过期时间，与 expireAfterWrite 语义一致</li>
+ *   <li>读取：不改变剩余过期时间</li>
+ *   <li>通过 {@code policy().expireVariably()} 写入时，可以为单个条目指定过期时间</li>
+ * </ul>
+ * </p>
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class VariableExpiry<K, V> implements Expiry<K, V> {
+
+    /** 默认过期时间（纳秒） */
+    private final long defaultNanos;
+
+    /**
+     * 构造可变过期策略
+     *
+     * @param defaultDuration 默认过期时间数值
+     * @param unit 默认过期时间单位
+     */
+    public VariableExpiry(long defaultDuration, TimeUnit unit) {
+        this.defaultNanos = unit.toNanos(defaultDuration);
+    }
+
+    @Override
+    public long expireAfterCreate(K key, V value, long currentTime) {
+        return defaultNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+        return defaultNanos;
+    }
+
+    @Override
+    public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
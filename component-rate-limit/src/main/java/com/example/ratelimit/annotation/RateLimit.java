@@ -65,6 +65,7 @@ public @interface RateLimit {
      * <ul>
      *   <li>空字符串：自动生成</li>
      *   <li>"user:#{#userId}"：使用用户ID作为key</li>
+     *   <li>"user:#{#p0}"：使用第一个参数作为key（编译时未保留参数名时使用）</li>
      *   <li>"api:login"：固定key</li>
      * </ul>
      * </p>
@@ -8,16 +8,21 @@ import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.springframework.expression.EvaluationContext;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.ParserContext;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 限流切面
@@ -28,7 +33,7 @@ import javax.servlet.http.HttpServletRequest;
  * <p>
  * 功能说明：
  * <ul>
- *   <li>自动解析限流 key（支持 SpEL 表达式）</li>
+ *   <li>自动解析限流 key（支持 SpEL 表达式，解析结果按 key 缓存）</li>
  *   <li>在 Web 环境中自动使用 URI + IP 作为 key</li>
  *   <li>在非 Web 环境中使用方法签名作为 key</li>
  *   <li>限流失败时抛出 BusinessException（状态码 429）</li>
@@ -51,6 +56,12 @@ public class RateLimitAspect {
     /** SpEL 表达式解析器 */
     private final ExpressionParser parser = new SpelExpressionParser();
 
+    /** 方法参数名解析器（-parameters 编译选项或调试信息） */
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    /** 已解析的限流 key 表达式，每个注解的 key 只解析一次 */
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
     /**
      * 环绕通知：限流检查
      * <p>
@@ -106,35 +117,24 @@ public class RateLimitAspect {
     private String resolveKey(ProceedingJoinPoint joinPoint, RateLimit rateLimit) {
         String key = rateLimit.key();
         
-        // 如果 key 不为空，尝试解析 SpEL 表达式
+        // 如果 key 不为空，包含 SpEL 表达式时解析表达式，否则直接使用
         if (key != null && !key.isEmpty()) {
-            // 检查是否包含 SpEL 表达式（简单判断，包含 # 或 $）
-            if (key.contains("#") || key.contains("$")) {
-                try {
-                    // 解析 SpEL 表达式
-                    Expression expression = parser.parseExpression(key);
-                    EvaluationContext context = new StandardEvaluationContext();
-                    
-                    // 设置方法参数到上下文
-                    Object[] args = joinPoint.getArgs();
-                    String[] paramNames = getParameterNames(joinPoint);
-                    if (paramNames != null) {
-                        for (int i = 0; i < paramNames.length && i < args.length; i++) {
-                            context.setVariable(paramNames[i], args[i]);
-                        }
-                    }
-                    
-                    // 设置方法参数数组
-                    context.setVariable("args", args);
-                    
-                    // 执行表达式
-                    Object value = expression.getValue(context);
-                    if (value != null) {
-                        key = value.toString();
-                    }
-                } catch (Exception e) {
-                    log.warn("SpEL 表达式解析失败，使用原始 key: key={}", key, e);
+            if (!key.contains("#")) {
+                return key;
+            }
+            try {
+                // 方法参数可以按参数名（#activityId）、#p0/#a0 或 #args[0] 访问
+                MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(null,
+                        ((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getArgs(),
+                        parameterNameDiscoverer);
+                context.setVariable("args", joinPoint.getArgs());
+                
+                Object value = expression(key).getValue(context);
+                if (value != null) {
+                    return value.toString();
                 }
+            } catch (Exception e) {
+                log.warn("SpEL 表达式解析失败，使用原始 key: key={}, error={}", key, e.getMessage());
             }
             return key;
         }
@@ -156,18 +156,19 @@ public class RateLimitAspect {
     }
 
     /**
-     * 获取方法参数名
+     * 获取限流 key 的表达式
      * <p>
-     * 注意：此方法需要编译时保留参数名信息（-parameters 编译选项）
+     * 包含 #{...} 时按模板解析（如 "seckill:#{#activityId}"，模板外的文字原样保留），
+     * 否则整个 key 作为一个表达式解析（如 "#userId"）；解析结果缓存，之后的调用不再解析
      * </p>
      * 
-     * @param joinPoint 连接点
-     * @return 参数名数组，如果无法获取则返回 null
+     * @param key 注解中的限流 key
+     * @return 表达式
      */
-    private String[] getParameterNames(ProceedingJoinPoint joinPoint) {
-        // 注意：AspectJ 无法直接获取参数名，需要配合编译选项 -parameters
-        // 这里返回 null，SpEL 表达式可以使用 args[0]、args[1] 等方式访问参数
-        return null;
+    private Expression expression(String key) {
+        return expressions.computeIfAbsent(key, k -> k.contains(ParserContext.TEMPLATE_EXPRESSION.getExpressionPrefix())
+                ? parser.parseExpression(k, ParserContext.TEMPLATE_EXPRESSION)
+                : parser.parseExpression(k));
     }
 
     /**
@@ -0,0 +1,35 @@
+package com.example.sso;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 响应式单点登录（SSO）服务接口
+ * <p>
+ * 供网关等运行在 WebFlux/Netty 上的调用方使用：JWT 的解析和验签在调用线程上完成（纯计算），
+ * Token 缓存检查通过响应式缓存服务完成，不会阻塞事件循环线程
+ * </p>
+ * <p>
+ * 使用示例：
+ * <pre>
+ * reactiveSSOService.authenticate(token)
+ *         .flatMap(userId -&gt; chain.filter(exchange))
+ * </pre>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public interface ReactiveSSOService {
+
+    /**
+     * 验证 Token 并获取用户ID
+     * <p>
+     * 验证规则与 {@link SSOService#validateToken} 相同，只解析一次 Token
+     * </p>
+     *
+     * @param token JWT Token 字符串
+     * @return 用户ID，Token 无效时为空
+     */
+    Mono<Long> authenticate(String token);
+}
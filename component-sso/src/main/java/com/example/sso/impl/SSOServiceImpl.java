@@ -1,6 +1,8 @@
 package com.example.sso.impl;
 
 import com.example.cache.CacheService;
+import com.example.cache.ReactiveCacheService;
+import com.example.sso.ReactiveSSOService;
 import com.example.sso.SSOService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
@@ -15,6 +17,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
@@ -35,6 +38,7 @@ import java.util.concurrent.TimeUnit;
  *   <li>支持自定义声明（Claims）</li>
  *   <li>支持 Token 过期时间配置</li>
  *   <li>支持缓存服务集成，实现 Token 黑名单功能</li>
+ *   <li>同时实现 {@link ReactiveSSOService}，响应式调用方通过响应式缓存服务检查 Token，不阻塞事件循环线程</li>
  *   <li>完善的异常处理和日志记录</li>
  * </ul>
  * </p>
@@ -54,12 +58,16 @@ import java.util.concurrent.TimeUnit;
  */
 @Slf4j
 @Service
-public class SSOServiceImpl implements SSOService {
+public class SSOServiceImpl implements SSOService, ReactiveSSOService {
 
     /** 缓存服务（可选，用于 Token 黑名单） */
     @Autowired(required = false)
     private CacheService cacheService;
 
+    /** 响应式缓存服务（可选，供 authenticate 使用） */
+    @Autowired(required = false)
+    private ReactiveCacheService reactiveCacheService;
+
     /** JWT 密钥，用于签名和验证 Token */
     @Value("${jwt.secret:springcloud-alibaba-ddd-secret-key-for-jwt-token-generation}")
     private String secret;
@@ -81,6 +89,44 @@ public class SSOServiceImpl implements SSOService {
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
+    /**
+     * 验签并解析 Token 中的用户ID
+     * <p>
+     * validateToken、authenticate 和 getUserIdFromToken 共用；过期、格式错误、签名不匹配
+     * 或不包含用户ID时记录日志并返回 null
+     * </p>
+     *
+     * @param token JWT Token 字符串
+     * @return 用户ID，Token 无效时返回 null
+     */
+    private Long parseUserId(String token) {
+        try {
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            Object userIdObj = claims.get("userId");
+            if (userIdObj == null) {
+                log.warn("Token 中不包含用户ID");
+                return null;
+            }
+            return Long.valueOf(userIdObj.toString());
+        } catch (ExpiredJwtException e) {
+            log.warn("Token 已过期: {}", e.getMessage());
+            return null;
+        } catch (MalformedJwtException e) {
+            log.warn("Token 格式错误: {}", e.getMessage());
+            return null;
+        } catch (UnsupportedJwtException e) {
+            log.warn("不支持的 Token 类型: {}", e.getMessage());
+            return null;
+        } catch (Exception e) {
+            log.error("Token 验证失败", e);
+            return null;
+        }
+    }
+
     /**
      * 生成 SSO Token
      * 
@@ -142,54 +188,78 @@ public class SSOServiceImpl implements SSOService {
             return false;
         }
         
-        try {
-            // 解析并验证 JWT Token
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            // 检查 Token 是否已过期（JWT 库会自动检查，这里再次确认）
-            Date expiration = claims.getExpiration();
-            if (expiration.before(new Date())) {
-                log.warn("Token 已过期: expiration={}", expiration);
-                return false;
-            }
+        Long userId = parseUserId(token);
+        if (userId == null) {
+            return false;
+        }
 
-            // 检查缓存中是否存在（如果缓存服务可用，用于实现 Token 黑名单）
-            // 注意：如果缓存服务未配置或 Token 不在缓存中，仍然允许通过（JWT 本身已验证）
-            // 这样可以避免因为缓存问题导致 Token 验证失败
-            if (cacheService != null) {
-                String tokenKey = "sso:token:" + token;
-                boolean exists = cacheService.exists(tokenKey);
-                if (!exists) {
-                    log.warn("Token 不在缓存中，但 JWT 本身有效，允许通过（可能缓存已过期或未配置）: tokenKey={}, userId={}", 
-                            tokenKey, claims.get("userId"));
-                    // 不返回 false，允许 Token 通过（JWT 本身已验证通过）
-                    // 如果确实需要严格的 Token 黑名单功能，可以取消下面的注释
-                    // return false;
-                } else {
-                    log.debug("Token 验证成功（缓存中存在）: userId={}", claims.get("userId"));
-                }
+        // 检查缓存中是否存在（如果缓存服务可用，用于实现 Token 黑名单）
+        // 注意：如果缓存服务未配置或 Token 不在缓存中，仍然允许通过（JWT 本身已验证）
+        // 这样可以避免因为缓存问题导致 Token 验证失败
+        if (cacheService == null) {
+            log.debug("Token 验证成功（缓存服务未配置，仅验证 JWT 本身）: userId={}", userId);
+            return true;
+        }
+        try {
+            String tokenKey = "sso:token:" + token;
+            boolean exists = cacheService.exists(tokenKey);
+            if (!exists) {
+                log.warn("Token 不在缓存中，但 JWT 本身有效，允许通过（可能缓存已过期或未配置）: tokenKey={}, userId={}", 
+                        tokenKey, userId);
+                // 不返回 false，允许 Token 通过（JWT 本身已验证通过）
+                // 如果确实需要严格的 Token 黑名单功能，可以取消下面的注释
+                // return false;
             } else {
-                log.debug("Token 验证成功（缓存服务未配置，仅验证 JWT 本身）: userId={}", claims.get("userId"));
+                log.debug("Token 验证成功（缓存中存在）: userId={}", userId);
             }
-            
-            return true;
-        } catch (ExpiredJwtException e) {
-            log.warn("Token 已过期: {}", e.getMessage());
-            return false;
-        } catch (MalformedJwtException e) {
-            log.warn("Token 格式错误: {}", e.getMessage());
-            return false;
-        } catch (UnsupportedJwtException e) {
-            log.warn("不支持的 Token 类型: {}", e.getMessage());
-            return false;
         } catch (Exception e) {
             log.error("Token 验证失败", e);
             return false;
         }
+        return true;
+    }
+
+    /**
+     * 验证 Token 并获取用户ID（响应式）
+     * <p>
+     * JWT 验签在调用线程上完成，缓存检查通过响应式缓存服务完成；
+     * 与 validateToken 一样，Token 不在缓存中或缓存访问失败时只记录日志，仍然允许通过
+     * </p>
+     *
+     * @param token JWT Token 字符串
+     * @return 用户ID，Token 无效时为空
+     */
+    @Override
+    public Mono<Long> authenticate(String token) {
+        if (!StringUtils.hasText(token)) {
+            log.warn("Token 为空，验证失败");
+            return Mono.empty();
+        }
+
+        Long userId = parseUserId(token);
+        if (userId == null) {
+            return Mono.empty();
+        }
+
+        if (reactiveCacheService == null) {
+            log.debug("Token 验证成功（响应式缓存服务未配置，仅验证 JWT 本身）: userId={}", userId);
+            return Mono.just(userId);
+        }
+        String tokenKey = "sso:token:" + token;
+        return reactiveCacheService.exists(tokenKey)
+                .onErrorResume(e -> {
+                    log.warn("检查 Token 缓存失败，仅验证 JWT 本身: userId={}", userId);
+                    return Mono.just(true);
+                })
+                .doOnNext(exists -> {
+                    if (exists) {
+                        log.debug("Token 验证成功（缓存中存在）: userId={}", userId);
+                    } else {
+                        log.warn("Token 不在缓存中，但 JWT 本身有效，允许通过（可能缓存已过期或未配置）: tokenKey={}, userId={}",
+                                tokenKey, userId);
+                    }
+                })
+                .thenReturn(userId);
     }
 
     /**
@@ -201,29 +271,13 @@ public class SSOServiceImpl implements SSOService {
     @Override
     public Long getUserIdFromToken(String token) {
         Assert.hasText(token, "Token 不能为空");
-        
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
-            Object userIdObj = claims.get("userId");
-            if (userIdObj == null) {
-                throw new RuntimeException("Token 中不包含用户ID");
-            }
-            
-            Long userId = Long.valueOf(userIdObj.toString());
-            log.debug("从 Token 中提取用户ID: userId={}", userId);
-            return userId;
-        } catch (ExpiredJwtException e) {
-            log.error("Token 已过期，无法提取用户ID", e);
-            throw new RuntimeException("Token 已过期: " + e.getMessage(), e);
-        } catch (Exception e) {
-            log.error("从 Token 中提取用户ID失败", e);
-            throw new RuntimeException("提取用户ID失败: " + e.getMessage(), e);
+
+        Long userId = parseUserId(token);
+        if (userId == null) {
+            throw new RuntimeException("提取用户ID失败: Token 无效、已过期或不包含用户ID");
         }
+        log.debug("从 Token 中提取用户ID: userId={}", userId);
+        return userId;
     }
 
     /**
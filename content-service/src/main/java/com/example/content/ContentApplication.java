@@ -16,7 +16,7 @@ import org.springframework.context.annotation.ComponentScan;
 @SpringBootApplication
 @EnableDiscoveryClient
 @MapperScan("com.example.content.infrastructure.mapper")
-@ComponentScan(basePackages = {"com.example.content", "com.example.common"})
+@ComponentScan(basePackages = {"com.example.content", "com.example.cache", "com.example.common"})
 public class ContentApplication {
     
     public static void main(String[] args) {
@@ -1,11 +1,13 @@
 package com.example.content.application.service;
 
+import com.example.cache.penetration.CachePenetrationGuard;
 import com.example.common.exception.BusinessException;
 import com.example.common.permission.DataPermissionService;
 import com.example.content.domain.model.Article;
 import com.example.content.domain.repository.ArticleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
@@ -28,9 +30,16 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ArticleService {
     
+    /** 布隆过滤器实体类型 */
+    public static final String BLOOM_ENTITY_TYPE = "article";
+    
     private final ArticleRepository articleRepository;
     private final DataPermissionService dataPermissionService;
     
+    /** 缓存穿透防护（未启用 Redis 时为 null） */
+    @Autowired(required = false)
+    private CachePenetrationGuard penetrationGuard;
+    
     /**
      * 创建文章
      */
@@ -74,7 +83,11 @@ public class ArticleService {
                 article.setStatus(1);
             }
             
-            return articleRepository.save(article);
+            Article saved = articleRepository.save(article);
+            if (penetrationGuard != null) {
+                penetrationGuard.markExists(BLOOM_ENTITY_TYPE, saved.getId());
+            }
+            return saved;
         } catch (Exception e) {
             log.error("创建文章失败: userId={}, title={}", article.getUserId(), article.getTitle(), e);
             throw new BusinessException("创建文章失败: " + e.getMessage());
@@ -211,7 +224,10 @@ public class ArticleService {
     public Article getArticleById(Long id, Long currentUserId, List<String> userPermissions) {
         Assert.notNull(id, "文章ID不能为空");
         
-        Article article = articleRepository.findById(id);
+        // 不存在的ID由布隆过滤器和空值标记拦截，不查询数据库；文章详情读取缓存，阅读数最多滞后缓存过期时间
+        Article article = penetrationGuard != null
+            ? penetrationGuard.load(BLOOM_ENTITY_TYPE, id, () -> articleRepository.findCachedById(id))
+            : articleRepository.findCachedById(id);
         if (article == null) {
             throw new BusinessException("文章不存在");
         }
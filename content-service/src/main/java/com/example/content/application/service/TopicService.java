@@ -0,0 +1,96 @@
+package com.example.content.application.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.cache.annotation.CachedResult;
+import com.example.cache.penetration.CachePenetrationGuard;
+import com.example.content.domain.model.Topic;
+import com.example.content.infrastructure.mapper.TopicMapper;
+import com.example.content.infrastructure.po.TopicPO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 专题应用服务
+ * 
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TopicService {
+    
+    /** 布隆过滤器实体类型 */
+    public static final String BLOOM_ENTITY_TYPE = "topic";
+    
+    private final TopicMapper topicMapper;
+    
+    /** 缓存穿透防护（未启用 Redis 时为 null） */
+    @Autowired(required = false)
+    private CachePenetrationGuard penetrationGuard;
+    
+    /**
+     * 获取专题列表
+     * <p>
+     * 查询所有未删除且状态正常的专题，按文章数和创建时间倒序；结果缓存 5 分钟
+     * </p>
+     */
+    @CachedResult(key = "topic:list", ttl = 5, unit = TimeUnit.MINUTES)
+    public List<Topic> getTopicList() {
+        List<TopicPO> pos = topicMapper.selectList(
+            new LambdaQueryWrapper<TopicPO>()
+                .eq(TopicPO::getDeleted, 0)
+                .eq(TopicPO::getStatus, 1)
+                .orderByDesc(TopicPO::getArticleCount)
+                .orderByDesc(TopicPO::getCreateTime)
+        );
+        return pos.stream()
+            .map(this::poToDomain)
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * 根据ID获取专题
+     * 
+     * @param id 专题ID
+     * @return 专题，不存在或已删除时返回 null
+     */
+    public Topic getTopicById(Long id) {
+        Assert.notNull(id, "专题ID不能为空");
+        
+        // 不存在和已删除的专题都按不存在处理，由空值标记拦截重复查询
+        TopicPO po = penetrationGuard != null
+            ? penetrationGuard.load(BLOOM_ENTITY_TYPE, id, () -> findActiveTopic(id))
+            : findActiveTopic(id);
+        return poToDomain(po);
+    }
+    
+    /**
+     * 查询未删除的专题
+     */
+    private TopicPO findActiveTopic(Long id) {
+        TopicPO po = topicMapper.selectById(id);
+        return po == null || po.getDeleted() == 1 ? null : po;
+    }
+    
+    /**
+     * PO转Domain
+     */
+    private Topic poToDomain(TopicPO po) {
+        if (po == null) {
+            return null;
+        }
+        Topic topic = new Topic();
+        BeanUtils.copyProperties(po, topic);
+        return topic;
+    }
+}
@@ -18,6 +18,19 @@ public interface ArticleRepository {
      */
     Article findById(Long id);
     
+    /**
+     * 根据ID查找文章（读取缓存，用于文章详情展示）
+     * <p>
+     * 阅读数可能滞后，修改文章前请使用 {@link #findById} 读取最新数据
+     * </p>
+     */
+    Article findCachedById(Long id);
+    
+    /**
+     * 按ID升序分页查询文章ID（游标分页，用于重建布隆过滤器）
+     */
+    List<Long> findIdsAfter(Long afterId, int limit);
+    
     /**
      * 根据条件查询文章列表
      */
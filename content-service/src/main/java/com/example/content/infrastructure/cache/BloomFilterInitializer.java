@@ -0,0 +1,90 @@
+package com.example.content.infrastructure.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.cache.penetration.CachePenetrationGuard;
+import com.example.content.application.service.ArticleService;
+import com.example.content.application.service.TopicService;
+import com.example.content.domain.repository.ArticleRepository;
+import com.example.content.infrastructure.mapper.TopicMapper;
+import com.example.content.infrastructure.po.TopicPO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * 布隆过滤器初始化
+ * <p>
+ * 应用启动后在后台线程中按ID分页重建文章和专题的布隆过滤器，不阻塞启动；
+ * 重建完成前布隆过滤器不做拦截，只依赖空值标记
+ * </p>
+ * <p>
+ * 配置说明：
+ * <ul>
+ *   <li>content.bloom.rebuild-on-startup：启动时是否重建，默认 true；
+ *       多实例部署时可以只在一个实例上开启</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class BloomFilterInitializer implements CommandLineRunner {
+
+    /** 缓存穿透防护（未启用 Redis 时为 null） */
+    @Autowired(required = false)
+    private CachePenetrationGuard penetrationGuard;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private TopicMapper topicMapper;
+
+    /** 启动时是否重建 */
+    @Value("${content.bloom.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    /**
+     * 应用启动后在后台重建布隆过滤器
+     *
+     * @param args 启动参数
+     */
+    @Override
+    public void run(String... args) {
+        if (penetrationGuard == null || !rebuildOnStartup) {
+            log.info("跳过布隆过滤器初始化");
+            return;
+        }
+        Thread thread = new Thread(this::rebuildAll, "bloom-filter-init");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 重建文章和专题的布隆过滤器
+     */
+    private void rebuildAll() {
+        try {
+            penetrationGuard.rebuild(ArticleService.BLOOM_ENTITY_TYPE,
+                    (lastId, pageSize) -> articleRepository.findIdsAfter((Long) lastId, pageSize));
+        } catch (Exception e) {
+            log.error("文章布隆过滤器初始化失败", e);
+        }
+        try {
+            penetrationGuard.rebuild(TopicService.BLOOM_ENTITY_TYPE,
+                    (lastId, pageSize) -> topicMapper.selectObjs(new LambdaQueryWrapper<TopicPO>()
+                            .select(TopicPO::getId)
+                            .eq(TopicPO::getDeleted, 0)
+                            .gt(lastId != null, TopicPO::getId, lastId)
+                            .orderByAsc(TopicPO::getId)
+                            .last("limit " + pageSize)));
+        } catch (Exception e) {
+            log.error("专题布隆过滤器初始化失败", e);
+        }
+    }
+}
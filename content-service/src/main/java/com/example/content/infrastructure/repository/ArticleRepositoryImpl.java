@@ -1,6 +1,8 @@
 package com.example.content.infrastructure.repository;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.cache.annotation.CacheEvictKey;
+import com.example.cache.annotation.CachedResult;
 import com.example.content.domain.model.Article;
 import com.example.content.domain.repository.ArticleRepository;
 import com.example.content.infrastructure.mapper.ArticleMapper;
@@ -10,6 +12,7 @@ import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -31,6 +34,24 @@ public class ArticleRepositoryImpl implements ArticleRepository {
         return poToDomain(po);
     }
     
+    @Override
+    @CachedResult(key = "article:#{#id}", ttl = 5, unit = TimeUnit.MINUTES)
+    public Article findCachedById(Long id) {
+        return findById(id);
+    }
+    
+    @Override
+    public List<Long> findIdsAfter(Long afterId, int limit) {
+        LambdaQueryWrapper<ArticlePO> wrapper = new LambdaQueryWrapper<ArticlePO>()
+                .select(ArticlePO::getId)
+                .gt(afterId != null, ArticlePO::getId, afterId)
+                .orderByAsc(ArticlePO::getId)
+                .last("limit " + limit);
+        return articleMapper.selectList(wrapper).stream()
+                .map(ArticlePO::getId)
+                .collect(Collectors.toList());
+    }
+    
     @Override
     public List<Article> findByCondition(Long userId, Long categoryId, String publishStatus, String title, Integer status, String orderBy, String order) {
         List<ArticlePO> pos = articleMapper.findByCondition(userId, categoryId, publishStatus, title, status, orderBy, order);
@@ -38,6 +59,7 @@ public class ArticleRepositoryImpl implements ArticleRepository {
     }
     
     @Override
+    @CacheEvictKey(key = "article:#{#result.id}")
     public Article save(Article article) {
         ArticlePO po = domainToPo(article);
         if (article.getId() == null) {
@@ -49,6 +71,7 @@ public class ArticleRepositoryImpl implements ArticleRepository {
     }
     
     @Override
+    @CacheEvictKey(key = "article:#{#id}")
     public void delete(Long id) {
         articleMapper.deleteById(id);
     }
@@ -59,21 +82,25 @@ public class ArticleRepositoryImpl implements ArticleRepository {
     }
     
     @Override
+    @CacheEvictKey(key = "article:#{#id}")
     public void incrementLikeCount(Long id) {
         articleMapper.incrementLikeCount(id);
     }
     
     @Override
+    @CacheEvictKey(key = "article:#{#id}")
     public void decrementLikeCount(Long id) {
         articleMapper.decrementLikeCount(id);
     }
     
     @Override
+    @CacheEvictKey(key = "article:#{#id}")
     public void incrementCommentCount(Long id) {
         articleMapper.incrementCommentCount(id);
     }
     
     @Override
+    @CacheEvictKey(key = "article:#{#id}")
     public void decrementCommentCount(Long id) {
         articleMapper.decrementCommentCount(id);
     }
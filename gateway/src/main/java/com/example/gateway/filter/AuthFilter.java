@@ -1,5 +1,6 @@
 package com.example.gateway.filter;
 
+import com.example.sso.ReactiveSSOService;
 import com.example.sso.SSOService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,7 +31,7 @@ import java.util.List;
  * <ul>
  *   <li>白名单检查：白名单路径直接放行，无需认证</li>
  *   <li>Token 提取：从请求头 Authorization 中提取 Bearer Token</li>
- *   <li>Token 验证：使用 SSO 服务验证 Token 的有效性</li>
+ *   <li>Token 验证：优先使用响应式 SSO 服务验证 Token，Redis 访问不阻塞 Netty 事件循环线程</li>
  *   <li>用户信息传递：将用户ID和 Token 添加到请求头，传递给下游服务</li>
  * </ul>
  * </p>
@@ -57,6 +58,10 @@ public class AuthFilter implements GlobalFilter, Ordered {
     @Autowired(required = false)
     private SSOService ssoService;
 
+    /** 响应式 SSO 服务（可选，存在时优先使用，不阻塞事件循环线程） */
+    @Autowired(required = false)
+    private ReactiveSSOService reactiveSSOService;
+
     /** 白名单路径，这些路径不需要认证即可访问 */
     private static final List<String> WHITE_LIST = Arrays.asList(
             "/api/auth/login",           // 登录接口
@@ -86,7 +91,7 @@ public class AuthFilter implements GlobalFilter, Ordered {
         }
 
         // 如果 SSO 服务未配置，跳过认证
-        if (ssoService == null) {
+        if (ssoService == null && reactiveSSOService == null) {
             log.warn("SSO 服务未配置，跳过认证: path={}", path);
             return chain.filter(exchange);
         }
@@ -98,6 +103,17 @@ public class AuthFilter implements GlobalFilter, Ordered {
             return unauthorized(exchange.getResponse(), "未提供认证Token");
         }
 
+        // 验证 Token（响应式，验证通过后再继续过滤器链）
+        if (reactiveSSOService != null) {
+            return reactiveSSOService.authenticate(token)
+                    .map(userId -> forward(exchange, chain, token, userId))
+                    .switchIfEmpty(Mono.fromSupplier(() -> {
+                        log.warn("Token 验证失败: path={}", path);
+                        return unauthorized(exchange.getResponse(), "Token无效或已过期");
+                    }))
+                    .flatMap(next -> next);
+        }
+
         // 验证 Token
         try {
             if (!ssoService.validateToken(token)) {
@@ -107,21 +123,34 @@ public class AuthFilter implements GlobalFilter, Ordered {
 
             // 从 Token 中提取用户ID
             Long userId = ssoService.getUserIdFromToken(token);
-            log.debug("Token 验证成功: path={}, userId={}", path, userId);
-
-            // 将用户信息添加到请求头，传递给下游服务
-            ServerHttpRequest modifiedRequest = request.mutate()
-                    .header("X-User-Id", String.valueOf(userId))
-                    .header("X-Token", token)
-                    .build();
-
-            return chain.filter(exchange.mutate().request(modifiedRequest).build());
+            return forward(exchange, chain, token, userId);
         } catch (Exception e) {
             log.error("Token 验证异常: path={}", path, e);
             return unauthorized(exchange.getResponse(), "Token验证失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 认证通过，将用户信息添加到请求头后继续过滤器链
+     * 
+     * @param exchange 请求交换对象
+     * @param chain 过滤器链
+     * @param token Token 字符串
+     * @param userId 用户ID
+     * @return Mono<Void>
+     */
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, String token, Long userId) {
+        log.debug("Token 验证成功: path={}, userId={}", exchange.getRequest().getURI().getPath(), userId);
+
+        // 将用户信息添加到请求头，传递给下游服务
+        ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
+                .header("X-User-Id", String.valueOf(userId))
+                .header("X-Token", token)
+                .build();
+
+        return chain.filter(exchange.mutate().request(modifiedRequest).build());
+    }
+
     /**
      * 检查路径是否在白名单中
      * 
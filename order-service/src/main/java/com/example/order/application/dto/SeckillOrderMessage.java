@@ -0,0 +1,58 @@
+package com.example.order.application.dto;
+
+import lombok.Data;
+
+/**
+ * 秒杀订单消息
+ * <p>
+ * 秒杀服务在秒杀成功后发送到秒杀订单主题，由 {@link com.example.order.interfaces.consumer.SeckillOrderConsumer} 消费，
+ * 批量创建订单
+ * </p>
+ * <p>
+ * 说明：
+ * <ul>
+ *   <li>消息为 JSON，字段与秒杀服务的 SeckillOrderMessage 保持一致</li>
+ *   <li>订单号由秒杀服务生成，作为幂等键</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Data
+public class SeckillOrderMessage {
+
+    /**
+     * 订单号
+     */
+    private String orderNo;
+
+    /**
+     * 活动ID
+     */
+    private Long activityId;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 商品ID
+     * <p>
+     * 秒杀服务不知道活动对应的商品时为 null
+     * </p>
+     */
+    private Long productId;
+
+    /**
+     * 购买数量
+     */
+    private Integer quantity;
+
+    /**
+     * 秒杀成功时间（毫秒时间戳）
+     */
+    private Long seckillTime;
+}
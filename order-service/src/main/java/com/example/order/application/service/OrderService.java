@@ -3,6 +3,7 @@ package com.example.order.application.service;
 import com.example.common.exception.BusinessException;
 import com.example.message.MessageProducer;
 import com.example.order.application.dto.OrderDTO;
+import com.example.order.application.dto.SeckillOrderMessage;
 import com.example.order.domain.model.Order;
 import com.example.order.domain.repository.OrderRepository;
 import io.seata.spring.annotation.GlobalTransactional;
@@ -14,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -128,6 +130,49 @@ public class OrderService {
         }
     }
 
+    /**
+     * 批量创建秒杀订单（本地事务）
+     * <p>
+     * 由秒杀订单消费者按批调用，一批订单在同一个本地事务中用一条多行 INSERT 写入：
+     * <ul>
+     *   <li>订单状态为 1-待支付，数量取消息中的数量（默认 1）</li>
+     *   <li>金额由支付环节根据活动价格确定，创建时为 0</li>
+     *   <li>消息中没有商品ID时记为 0，备注中记录活动ID</li>
+     *   <li>订单号已存在的订单跳过，消息重复消费不会重复创建订单</li>
+     * </ul>
+     * 不使用分布式事务，也不逐条发送订单创建消息
+     * </p>
+     * 
+     * @param messages 秒杀订单消息列表，不能为 null
+     * @return 新创建的订单数量
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int createSeckillOrders(List<SeckillOrderMessage> messages) {
+        Assert.notNull(messages, "秒杀订单消息列表不能为空");
+        
+        try {
+            List<Order> orders = new ArrayList<>(messages.size());
+            for (SeckillOrderMessage message : messages) {
+                Order order = new Order();
+                order.setOrderNo(message.getOrderNo());
+                order.setUserId(message.getUserId());
+                order.setProductId(message.getProductId() != null ? message.getProductId() : 0L);
+                order.setQuantity(message.getQuantity() != null ? message.getQuantity() : 1);
+                order.setAmount(BigDecimal.ZERO);
+                order.setStatus(1);
+                order.setRemark("秒杀活动: " + message.getActivityId());
+                orders.add(order);
+            }
+            
+            int created = orderRepository.saveBatch(orders);
+            log.info("批量创建秒杀订单成功: count={}, created={}", orders.size(), created);
+            return created;
+        } catch (Exception e) {
+            log.error("批量创建秒杀订单失败: count={}", messages.size(), e);
+            throw new BusinessException("批量创建秒杀订单失败: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * 根据ID查询订单
      * 
@@ -0,0 +1,250 @@
+package com.example.order.application.service;
+
+import com.example.order.application.dto.SeckillOrderMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 秒杀订单批量写入
+ * <p>
+ * 秒杀时订单消息集中到达，逐条 INSERT 会让 MySQL 成为瓶颈。消费线程把订单提交给批量写入器后等待写入结果，
+ * 写入线程把同时到达的订单凑成一批（最多 batch-size 条，或等待 linger-millis 毫秒），
+ * 通过 {@link OrderService#createSeckillOrders} 在一个本地事务中用一条多行 INSERT 写入，再唤醒这一批的消费线程
+ * </p>
+ * <p>
+ * 说明：
+ * <ul>
+ *   <li>消费线程等到订单写入后才返回，消息在订单落库后才确认；写入失败或超时时抛出异常，由 RocketMQ 重新投递</li>
+ *   <li>整批写入失败时逐条重试，只有写入失败的订单对应的消息重新投递</li>
+ *   <li>一批最多包含同时等待的消费线程数量的订单，消费线程数需要不小于 batch-size 才能凑满一批</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 配置说明：
+ * <ul>
+ *   <li>seckill.order.batch-size：每批最多写入的订单数，默认 100</li>
+ *   <li>seckill.order.linger-millis：凑批的最长等待时间（毫秒），默认 20</li>
+ *   <li>seckill.order.writer-threads：写入线程数，默认 2</li>
+ *   <li>seckill.order.timeout-millis：消费线程等待写入结果的最长时间（毫秒），默认 10000</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 注意：只有配置了 rocketmq.name-server 时才会创建此 Bean
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "rocketmq.name-server")
+public class SeckillOrderBatcher implements InitializingBean, DisposableBean {
+
+    /** 订单应用服务 */
+    private final OrderService orderService;
+
+    /** 每批最多写入的订单数 */
+    private final int batchSize;
+
+    /** 凑批的最长等待时间（纳秒） */
+    private final long lingerNanos;
+
+    /** 写入线程数 */
+    private final int writerThreads;
+
+    /** 消费线程等待写入结果的最长时间（毫秒） */
+    private final long timeoutMillis;
+
+    /** 等待写入的订单 */
+    private final BlockingQueue<PendingOrder> queue;
+
+    /** 写入线程 */
+    private ExecutorService writers;
+
+    /** 是否运行中 */
+    private volatile boolean running;
+
+    /**
+     * 构造秒杀订单批量写入
+     *
+     * @param orderService 订单应用服务
+     * @param batchSize 每批最多写入的订单数
+     * @param lingerMillis 凑批的最长等待时间（毫秒）
+     * @param writerThreads 写入线程数
+     * @param timeoutMillis 消费线程等待写入结果的最长时间（毫秒）
+     */
+    public SeckillOrderBatcher(OrderService orderService,
+                               @Value("${seckill.order.batch-size:100}") int batchSize,
+                               @Value("${seckill.order.linger-millis:20}") long lingerMillis,
+                               @Value("${seckill.order.writer-threads:2}") int writerThreads,
+                               @Value("${seckill.order.timeout-millis:10000}") long timeoutMillis) {
+        if (batchSize <= 0 || writerThreads <= 0) {
+            throw new IllegalArgumentException("批量大小和写入线程数必须大于0");
+        }
+        this.orderService = orderService;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.writerThreads = writerThreads;
+        this.timeoutMillis = timeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(batchSize * writerThreads * 4);
+    }
+
+    /**
+     * 启动写入线程
+     */
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        AtomicInteger index = new AtomicInteger();
+        writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "seckill-order-writer-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < writerThreads; i++) {
+            writers.execute(this::writeLoop);
+        }
+        log.info("秒杀订单批量写入已启动: batchSize={}, lingerMillis={}, writerThreads={}",
+                batchSize, TimeUnit.NANOSECONDS.toMillis(lingerNanos), writerThreads);
+    }
+
+    /**
+     * 应用关闭时停止写入线程，尚未写入的订单以失败结束（消息会重新投递）
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writers.shutdown();
+        if (!writers.awaitTermination(5, TimeUnit.SECONDS)) {
+            writers.shutdownNow();
+        }
+        List<PendingOrder> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (PendingOrder pending : remaining) {
+            pending.future.completeExceptionally(new IllegalStateException("订单服务正在关闭"));
+        }
+    }
+
+    /**
+     * 写入一个秒杀订单，阻塞到订单所在的批次写入完成
+     *
+     * @param message 秒杀订单消息
+     * @throws IllegalStateException 如果写入失败、超时或线程被中断
+     */
+    public void write(SeckillOrderMessage message) {
+        PendingOrder pending = new PendingOrder(message);
+        try {
+            if (!running || !queue.offer(pending, timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("秒杀订单写入队列已满: orderNo=" + message.getOrderNo());
+            }
+            pending.future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待秒杀订单写入被中断: orderNo=" + message.getOrderNo(), e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("等待秒杀订单写入超时: orderNo=" + message.getOrderNo(), e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("秒杀订单写入失败: orderNo=" + message.getOrderNo(), e.getCause());
+        }
+    }
+
+    /**
+     * 写入线程：凑批并写入
+     */
+    private void writeLoop() {
+        while (running) {
+            try {
+                PendingOrder first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingOrder> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0) {
+                        break;
+                    }
+                    PendingOrder next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("秒杀订单写入线程异常", e);
+            }
+        }
+    }
+
+    /**
+     * 写入一批订单，整批失败时逐条重试
+     */
+    private void flush(List<PendingOrder> batch) {
+        List<SeckillOrderMessage> messages = new ArrayList<>(batch.size());
+        for (PendingOrder pending : batch) {
+            messages.add(pending.message);
+        }
+        try {
+            orderService.createSeckillOrders(messages);
+            for (PendingOrder pending : batch) {
+                pending.future.complete(null);
+            }
+            return;
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(e);
+                return;
+            }
+            log.warn("批量写入秒杀订单失败，逐条重试: count={}", batch.size(), e);
+        }
+        for (PendingOrder pending : batch) {
+            try {
+                orderService.createSeckillOrders(Collections.singletonList(pending.message));
+                pending.future.complete(null);
+            } catch (Exception e) {
+                pending.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * 等待写入的订单
+     */
+    private static final class PendingOrder {
+
+        /** 秒杀订单消息 */
+        private final SeckillOrderMessage message;
+
+        /** 写入结果 */
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingOrder(SeckillOrderMessage message) {
+            this.message = message;
+        }
+    }
+}
@@ -43,6 +43,17 @@ public interface OrderRepository {
      */
     Order save(Order order);
 
+    /**
+     * 批量新增订单
+     * <p>
+     * 一次多行插入，订单号已存在的订单跳过（幂等）；未设置ID的订单会先生成ID
+     * </p>
+     * 
+     * @param orders 订单领域模型列表，不能为 null
+     * @return 新插入的订单数量
+     */
+    int saveBatch(List<Order> orders);
+
     /**
      * 根据ID查询订单
      * <p>
@@ -2,6 +2,7 @@ package com.example.order.infrastructure.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.order.infrastructure.po.OrderPO;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
@@ -18,6 +19,7 @@ import java.util.List;
  * <ul>
  *   <li>继承 BaseMapper，提供基础的 CRUD 操作</li>
  *   <li>使用 @Select 注解定义自定义查询</li>
+ *   <li>使用 @Insert 注解定义多行插入，用于批量创建订单</li>
  *   <li>所有查询都包含逻辑删除条件（deleted = 0）</li>
  * </ul>
  * </p>
@@ -60,5 +62,27 @@ public interface OrderMapper extends BaseMapper<OrderPO> {
      */
     @Select("SELECT * FROM t_order WHERE user_id = #{userId} AND deleted = 0 ORDER BY create_time DESC")
     List<OrderPO> selectByUserId(@Param("userId") Long userId);
-}
 
+    /**
+     * 批量插入订单
+     * <p>
+     * 一条 INSERT 语句插入多行，一次网络往返；订单号（唯一键）已存在的行保持不变，
+     * 重复插入同一个订单号不会报错，保证消息重复消费时的幂等性
+     * </p>
+     * <p>
+     * 注意：不经过 MyBatis Plus 的主键生成，调用方需要预先设置 id；
+     * create_time、update_time、deleted 使用数据库默认值
+     * </p>
+     * 
+     * @param orders 订单持久化对象列表，不能为空列表
+     * @return 影响的行数（MySQL 中新插入的行计 1，已存在的行计 0）
+     */
+    @Insert("<script>"
+            + "INSERT INTO t_order (id, order_no, user_id, product_id, quantity, amount, status, remark) VALUES "
+            + "<foreach collection='orders' item='o' separator=','>"
+            + "(#{o.id}, #{o.orderNo}, #{o.userId}, #{o.productId}, #{o.quantity}, #{o.amount}, #{o.status}, #{o.remark})"
+            + "</foreach>"
+            + " ON DUPLICATE KEY UPDATE id = id"
+            + "</script>")
+    int insertBatch(@Param("orders") List<OrderPO> orders);
+}
@@ -1,5 +1,6 @@
 package com.example.order.infrastructure.repository;
 
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
 import com.example.order.domain.model.Order;
 import com.example.order.domain.repository.OrderRepository;
 import com.example.order.infrastructure.mapper.OrderMapper;
@@ -9,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -75,6 +77,36 @@ public class OrderRepositoryImpl implements OrderRepository {
         }
     }
 
+    /**
+     * 批量新增订单
+     * 
+     * @param orders 订单领域模型列表
+     * @return 新插入的订单数量
+     */
+    @Override
+    public int saveBatch(List<Order> orders) {
+        Assert.notNull(orders, "订单列表不能为空");
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        
+        try {
+            List<OrderPO> pos = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                if (order.getId() == null) {
+                    order.setId(IdWorker.getId());
+                }
+                pos.add(convertToPO(order));
+            }
+            int inserted = orderMapper.insertBatch(pos);
+            log.debug("批量新增订单成功: count={}, inserted={}", pos.size(), inserted);
+            return inserted;
+        } catch (Exception e) {
+            log.error("批量新增订单失败: count={}", orders.size(), e);
+            throw new RuntimeException("批量新增订单失败: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * 根据ID查询订单
      * 
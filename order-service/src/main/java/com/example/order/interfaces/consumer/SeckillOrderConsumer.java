@@ -0,0 +1,73 @@
+package com.example.order.interfaces.consumer;
+
+import com.alibaba.fastjson2.JSON;
+import com.example.order.application.dto.SeckillOrderMessage;
+import com.example.order.application.service.SeckillOrderBatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.spring.annotation.ConsumeMode;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 秒杀订单消息消费者
+ * <p>
+ * 消费秒杀服务发送的秒杀订单消息，交给 {@link SeckillOrderBatcher} 与其他消费线程的订单合并成一批写入数据库，
+ * 订单落库后才确认消息
+ * </p>
+ * <p>
+ * 说明：
+ * <ul>
+ *   <li>主题由 seckill.order.topic 配置（默认 seckill-order-topic），消费组由 seckill.order.consumer-group 配置</li>
+ *   <li>并发消费，消费线程数为 64，同时等待的消费线程越多，每批写入的订单越多</li>
+ *   <li>写入失败时抛出异常，消息重新投递；订单号是唯一键，重复消费不会重复创建订单</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 注意：只有配置了 rocketmq.name-server 时才会创建此 Bean
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "rocketmq.name-server")
+@RocketMQMessageListener(
+    topic = "${seckill.order.topic:seckill-order-topic}",
+    consumerGroup = "${seckill.order.consumer-group:seckill-order-consumer-group}",
+    consumeMode = ConsumeMode.CONCURRENTLY,
+    consumeThreadNumber = 64
+)
+public class SeckillOrderConsumer implements RocketMQListener<String> {
+
+    /** 秒杀订单批量写入 */
+    private final SeckillOrderBatcher seckillOrderBatcher;
+
+    /**
+     * 消费秒杀订单消息
+     * 
+     * @param message 消息内容（JSON 字符串）
+     */
+    @Override
+    public void onMessage(String message) {
+        SeckillOrderMessage order = JSON.parseObject(message, SeckillOrderMessage.class);
+        if (order == null || order.getOrderNo() == null || order.getUserId() == null) {
+            log.warn("忽略无效的秒杀订单消息: message={}", message);
+            return;
+        }
+        
+        try {
+            seckillOrderBatcher.write(order);
+            log.debug("秒杀订单已写入: orderNo={}", order.getOrderNo());
+        } catch (Exception e) {
+            log.error("秒杀订单写入失败: orderNo={}", order.getOrderNo(), e);
+            // 抛出异常会导致消息重新投递
+            throw new RuntimeException("秒杀订单写入失败: " + e.getMessage(), e);
+        }
+    }
+}
@@ -17,9 +17,10 @@ import org.springframework.context.annotation.ComponentScan;
  * <ul>
  *   <li>秒杀下单：支持高并发的秒杀下单功能</li>
  *   <li>库存管理：使用 Redis 缓存管理秒杀库存</li>
- *   <li>分布式锁：使用分布式锁防止超卖</li>
+ *   <li>原子扣减：使用 Redis Lua 脚本原子扣减库存，防止超卖</li>
  *   <li>限流保护：使用限流组件保护系统</li>
  *   <li>防重复下单：防止用户重复参与秒杀</li>
+ *   <li>异步下单：秒杀成功后通过消息队列通知订单服务批量创建订单，立即返回处理中状态</li>
  * </ul>
  * </p>
  * <p>
@@ -33,7 +34,7 @@ import org.springframework.context.annotation.ComponentScan;
  * <p>
  * 配置说明：
  * <ul>
- *   <li>扫描 seckill、cache、lock、ratelimit 包，加载相关组件</li>
+ *   <li>扫描 seckill、cache、lock、ratelimit、message 包，加载相关组件</li>
  *   <li>Nacos 可选，如果未启动可以注释相关注解</li>
  *   <li>Redis 必需，用于库存管理和分布式锁</li>
  * </ul>
@@ -44,7 +45,7 @@ import org.springframework.context.annotation.ComponentScan;
  * @since 1.0.0
  */
 @SpringBootApplication
-@ComponentScan(basePackages = {"com.example.seckill", "com.example.cache", "com.example.lock", "com.example.ratelimit", "com.example.common"})
+@ComponentScan(basePackages = {"com.example.seckill", "com.example.cache", "com.example.lock", "com.example.ratelimit", "com.example.message", "com.example.common"})
 public class SeckillApplication {
     
     /**
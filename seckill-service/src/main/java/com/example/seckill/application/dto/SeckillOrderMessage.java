@@ -0,0 +1,57 @@
+package com.example.seckill.application.dto;
+
+import lombok.Data;
+
+/**
+ * 秒杀订单消息
+ * <p>
+ * 秒杀成功后发送到秒杀订单主题，由订单服务批量消费并创建订单
+ * </p>
+ * <p>
+ * 说明：
+ * <ul>
+ *   <li>消息序列化为 JSON，字段与订单服务的 SeckillOrderMessage 保持一致</li>
+ *   <li>订单号在秒杀时生成并作为幂等键，订单服务重复消费同一条消息不会重复创建订单</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Data
+public class SeckillOrderMessage {
+
+    /**
+     * 订单号
+     */
+    private String orderNo;
+
+    /**
+     * 活动ID
+     */
+    private Long activityId;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 商品ID
+     * <p>
+     * 取自活动注册表，活动没有登记时为 null
+     * </p>
+     */
+    private Long productId;
+
+    /**
+     * 购买数量
+     */
+    private Integer quantity;
+
+    /**
+     * 秒杀成功时间（毫秒时间戳）
+     */
+    private Long seckillTime;
+}
@@ -23,6 +23,9 @@ import lombok.Data;
  * 
  * // 失败结果
  * SeckillResult result = SeckillResult.fail("库存不足");
+ * 
+ * // 排队中
+ * SeckillResult result = SeckillResult.queued(ticket);
  * </pre>
  * </p>
  * 
@@ -33,6 +36,12 @@ import lombok.Data;
 @Data
 public class SeckillResult {
     
+    /** 订单状态：处理中（订单已提交到消息队列，等待订单服务创建） */
+    public static final String ORDER_PENDING = "PENDING";
+    
+    /** 订单状态：排队中（请求已进入准入队列，尚未执行秒杀） */
+    public static final String ORDER_QUEUED = "QUEUED";
+    
     /**
      * 是否成功
      * <p>
@@ -65,6 +74,23 @@ public class SeckillResult {
      */
     private String orderNo;
     
+    /**
+     * 订单状态
+     * <p>
+     * 秒杀成功时为 {@link #ORDER_PENDING}：秒杀请求只扣减库存并提交订单消息，不等待订单落库，
+     * 客户端可以稍后按订单号查询订单；请求进入准入队列时为 {@link #ORDER_QUEUED}
+     * </p>
+     */
+    private String orderStatus;
+    
+    /**
+     * 排队凭证
+     * <p>
+     * 请求进入准入队列时返回，客户端通过 GET /api/seckill/result/{ticket} 查询秒杀结果
+     * </p>
+     */
+    private String ticket;
+    
     /**
      * 创建成功结果
      * 
@@ -75,9 +101,25 @@ public class SeckillResult {
     public static SeckillResult success(Long remainingStock, String orderNo) {
         SeckillResult result = new SeckillResult();
         result.setSuccess(true);
-        result.setMessage("秒杀成功");
+        result.setMessage("秒杀成功，订单处理中");
         result.setRemainingStock(remainingStock);
         result.setOrderNo(orderNo);
+        result.setOrderStatus(ORDER_PENDING);
+        return result;
+    }
+    
+    /**
+     * 创建排队中结果
+     * 
+     * @param ticket 排队凭证
+     * @return 排队中结果对象
+     */
+    public static SeckillResult queued(String ticket) {
+        SeckillResult result = new SeckillResult();
+        result.setSuccess(true);
+        result.setMessage("排队中，请稍后查询结果");
+        result.setOrderStatus(ORDER_QUEUED);
+        result.setTicket(ticket);
         return result;
     }
     
@@ -0,0 +1,483 @@
+package com.example.seckill.application.service;
+
+import com.example.cache.codec.ValueCodec;
+import com.example.seckill.domain.model.SeckillActivity;
+import com.example.seckill.domain.model.SeckillActivityState;
+import com.example.seckill.domain.service.SeckillDomainService;
+import com.example.seckill.infrastructure.cache.SeckillCacheKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 秒杀活动注册表
+ * <p>
+ * 秒杀请求需要知道活动是否在进行中。注册表把活动信息保存在本节点内存中的一个不可变快照里，
+ * 活动状态由定时任务在活动开始时间和结束时间到达时切换，秒杀请求只需要一次 volatile 读取，
+ * 不比较时间、不访问 Redis 和数据库
+ * </p>
+ * <p>
+ * 工作方式：
+ * <ul>
+ *   <li>活动信息保存在 {@link SeckillCacheKeys#activity}（活动结束 24 小时后过期），活动ID记录在 {@link SeckillCacheKeys#activityIds} 集合中，
+ *       应用启动时按集合批量读取全部活动；不使用 SCAN，Redis 集群模式下同样可以加载</li>
+ *   <li>活动信息直接通过主 Redis 模板读写，不经过二级缓存和只读副本，收到变化消息后读到的一定是最新的活动</li>
+ *   <li>每次变化都重新构建快照并整体替换，读取时不需要加锁</li>
+ *   <li>快照构建后，按最近的开始时间或结束时间安排下一次状态切换，到点后重新计算所有活动的状态（{@link SeckillDomainService#resolveState}）</li>
+ *   <li>保存活动后通过 Redis 发布订阅通知其他节点（消息格式为 CHANGED:{活动ID}:{节点ID}），其他节点重新读取该活动</li>
+ *   <li>发布订阅不保证送达，每隔 seckill.activity.reload-seconds 秒（默认 60 秒）重新加载全部活动，同时从集合中移除已过期的活动ID；
+ *       重新加载在锁外读取 Redis，读取期间保存或收到变化消息的活动保留内存中的版本（按修改次数判断）</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 配置说明：
+ * <ul>
+ *   <li>seckill.activity.channel：活动变化消息频道，默认 seckill:activity:events</li>
+ *   <li>seckill.activity.reload-seconds：重新加载全部活动的间隔（秒），默认 60</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 注意：没有登记的活动（只初始化了库存）{@link #getState} 返回 null，秒杀时不检查活动状态，与原来的行为一致；
+ * 未配置 Redis 时活动只保存在本节点
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+public class SeckillActivityRegistry implements MessageListener, InitializingBean, DisposableBean {
+
+    /** 消息类型：活动变化 */
+    private static final String CHANGED = "CHANGED";
+
+    /** 活动信息在结束后保留的时间（小时） */
+    private static final long RETAIN_HOURS_AFTER_END = 24;
+
+    /** 当前节点ID，用于忽略自己发布的消息 */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** 秒杀领域服务 */
+    private final SeckillDomainService seckillDomainService;
+
+    /** 消息频道 */
+    private final String channel;
+
+    /** 重新加载全部活动的间隔（秒） */
+    private final long reloadSeconds;
+
+    /** Redis 连接工厂（未配置 Redis 时为 null） */
+    private final RedisConnectionFactory connectionFactory;
+
+    /** Redis 模板（未配置 Redis 时为 null，活动只保存在本节点） */
+    @Autowired(required = false)
+    private RedisTemplate<String, Object> redisTemplate;
+
+    /** 活动信息（活动ID → 活动），只在持有本对象锁时修改 */
+    private final Map<Long, SeckillActivity> activities = new HashMap<>();
+
+    /** 活动信息的修改次数，只在持有本对象锁时修改 */
+    private long generation;
+
+    /** 配置了 Redis 时记录各活动最近一次修改时的 {@link #generation}，重新加载时保留加载期间修改过的活动 */
+    private final Map<Long, Long> changedAt = new HashMap<>();
+
+    /** 活动快照，每次变化整体替换 */
+    private volatile Map<Long, Entry> snapshot = Collections.emptyMap();
+
+    /** 状态切换和重新加载的定时任务 */
+    private ScheduledExecutorService scheduler;
+
+    /** 下一次状态切换 */
+    private ScheduledFuture<?> nextTransition;
+
+    /** 消息监听容器 */
+    private RedisMessageListenerContainer container;
+
+    /**
+     * 构造秒杀活动注册表
+     *
+     * @param seckillDomainService 秒杀领域服务
+     * @param channel 活动变化消息频道
+     * @param reloadSeconds 重新加载全部活动的间隔（秒）
+     * @param connectionFactoryProvider Redis 连接工厂
+     */
+    public SeckillActivityRegistry(SeckillDomainService seckillDomainService,
+                                   @Value("${seckill.activity.channel:seckill:activity:events}") String channel,
+                                   @Value("${seckill.activity.reload-seconds:60}") long reloadSeconds,
+                                   ObjectProvider<RedisConnectionFactory> connectionFactoryProvider) {
+        this.seckillDomainService = seckillDomainService;
+        this.channel = channel;
+        this.reloadSeconds = reloadSeconds;
+        this.connectionFactory = connectionFactoryProvider.getIfAvailable();
+    }
+
+    /**
+     * 加载全部活动，启动定时任务并订阅活动变化消息
+     */
+    @Override
+    public void afterPropertiesSet() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seckill-activity-registry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reloadAll();
+        if (redisTemplate != null && reloadSeconds > 0) {
+            scheduler.scheduleWithFixedDelay(this::reloadAll, reloadSeconds, reloadSeconds, TimeUnit.SECONDS);
+        }
+        if (connectionFactory == null) {
+            log.info("未配置 Redis，活动变化只在本节点生效");
+            return;
+        }
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(this, new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        container.start();
+        log.info("活动变化消息订阅成功: channel={}", channel);
+    }
+
+    /**
+     * 应用关闭时停止定时任务并取消订阅
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (container != null) {
+            container.destroy();
+        }
+    }
+
+    /**
+     * 获取活动当前的状态
+     *
+     * @param activityId 活动ID
+     * @return 活动状态；活动没有登记时返回 null
+     */
+    public SeckillActivityState getState(Long activityId) {
+        Entry entry = snapshot.get(activityId);
+        return entry != null ? entry.state : null;
+    }
+
+    /**
+     * 获取活动的商品ID
+     *
+     * @param activityId 活动ID
+     * @return 商品ID；活动没有登记时返回 null
+     */
+    public Long getProductId(Long activityId) {
+        Entry entry = snapshot.get(activityId);
+        return entry != null ? entry.productId : null;
+    }
+
+    /**
+     * 获取活动信息
+     *
+     * @param activityId 活动ID
+     * @return 活动信息的副本（状态为当前状态）；活动没有登记时返回 null
+     */
+    public SeckillActivity getActivity(Long activityId) {
+        Entry entry = snapshot.get(activityId);
+        if (entry == null) {
+            return null;
+        }
+        SeckillActivity activity = copy(entry.activity);
+        activity.setStatus(entry.state.getCode());
+        return activity;
+    }
+
+    /**
+     * 登记或更新活动，并通知其他节点
+     * <p>
+     * 取消活动时把状态设置为 3（已取消），提前结束时设置为 2（已结束）；其他状态由开始时间和结束时间决定
+     * </p>
+     *
+     * @param activity 秒杀活动，活动ID、开始时间和结束时间不能为空，结束时间必须晚于开始时间
+     */
+    public void save(SeckillActivity activity) {
+        Assert.notNull(activity, "活动对象不能为空");
+        Assert.notNull(activity.getId(), "活动ID不能为空");
+        Assert.notNull(activity.getStartTime(), "活动开始时间不能为空");
+        Assert.notNull(activity.getEndTime(), "活动结束时间不能为空");
+        Assert.isTrue(activity.getEndTime().isAfter(activity.getStartTime()), "活动结束时间必须晚于开始时间");
+
+        SeckillActivity saved = copy(activity);
+        if (redisTemplate != null) {
+            long ttlSeconds = Math.max(TimeUnit.HOURS.toSeconds(1),
+                    Duration.between(LocalDateTime.now(), saved.getEndTime()).getSeconds()
+                            + TimeUnit.HOURS.toSeconds(RETAIN_HOURS_AFTER_END));
+            // 先写活动信息再记录活动ID，重新加载时集合中的ID总能读到活动（过期的除外）
+            redisTemplate.opsForValue().set(SeckillCacheKeys.activity(saved.getId()), saved, ttlSeconds, TimeUnit.SECONDS);
+            redisTemplate.opsForSet().add(SeckillCacheKeys.activityIds(), saved.getId());
+        }
+        update(saved.getId(), saved);
+        publish(saved.getId());
+        log.info("登记秒杀活动: activityId={}, startTime={}, endTime={}, state={}",
+                saved.getId(), saved.getStartTime(), saved.getEndTime(), getState(saved.getId()));
+    }
+
+    /**
+     * 处理其他节点发布的活动变化消息：重新读取该活动
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length < 3 || !CHANGED.equals(parts[0]) || nodeId.equals(parts[2])) {
+                return;
+            }
+            Long activityId = Long.valueOf(parts[1]);
+            update(activityId, load(Collections.singletonList(activityId)).get(0));
+            log.debug("收到活动变化消息: activityId={}, state={}", activityId, getState(activityId));
+        } catch (Exception e) {
+            log.warn("处理活动变化消息失败", e);
+        }
+    }
+
+    /**
+     * 通过主 Redis 模板批量读取活动
+     *
+     * @param activityIds 活动ID列表
+     * @return 与活动ID一一对应的活动信息，不存在（已过期）时为 null
+     */
+    @SuppressWarnings("unchecked")
+    private List<SeckillActivity> load(List<Long> activityIds) {
+        if (redisTemplate == null) {
+            return Collections.nCopies(activityIds.size(), null);
+        }
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+        byte[][] rawKeys = new byte[activityIds.size()][];
+        for (int i = 0; i < rawKeys.length; i++) {
+            rawKeys[i] = keySerializer.serialize(SeckillCacheKeys.activity(activityIds.get(i)));
+        }
+        List<byte[]> raws = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.stringCommands().mGet(rawKeys));
+        List<SeckillActivity> result = new ArrayList<>(activityIds.size());
+        for (int i = 0; i < activityIds.size(); i++) {
+            result.add(raws != null && i < raws.size() ? decode(raws.get(i)) : null);
+        }
+        return result;
+    }
+
+    /**
+     * 解码活动信息，按模板的值编解码器还原为 {@link SeckillActivity}
+     */
+    private SeckillActivity decode(byte[] raw) {
+        if (raw == null) {
+            return null;
+        }
+        RedisSerializer<?> serializer = redisTemplate.getValueSerializer();
+        Object value = serializer instanceof ValueCodec
+                ? ((ValueCodec) serializer).deserialize(raw, SeckillActivity.class)
+                : serializer.deserialize(raw);
+        return value instanceof SeckillActivity ? (SeckillActivity) value : null;
+    }
+
+    /**
+     * 按活动ID集合重新加载全部活动，并移除已过期活动的ID
+     */
+    private void reloadAll() {
+        if (redisTemplate == null) {
+            return;
+        }
+        long startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+        }
+        try {
+            Set<Object> members = redisTemplate.opsForSet().members(SeckillCacheKeys.activityIds());
+            List<Long> activityIds = new ArrayList<>();
+            if (members != null) {
+                for (Object member : members) {
+                    activityIds.add(Long.valueOf(member.toString()));
+                }
+            }
+            Map<Long, SeckillActivity> loaded = new HashMap<>();
+            List<Object> expired = new ArrayList<>();
+            if (!activityIds.isEmpty()) {
+                List<SeckillActivity> values = load(activityIds);
+                for (int i = 0; i < activityIds.size(); i++) {
+                    SeckillActivity activity = values.get(i);
+                    if (activity != null && activity.getId() != null) {
+                        loaded.put(activity.getId(), activity);
+                    } else {
+                        expired.add(activityIds.get(i));
+                    }
+                }
+            }
+            if (!expired.isEmpty()) {
+                redisTemplate.opsForSet().remove(SeckillCacheKeys.activityIds(), expired.toArray());
+                // 移除期间其他节点可能重新登记了同一个活动，活动信息存在时把ID加回集合
+                for (Object activityId : expired) {
+                    if (Boolean.TRUE.equals(redisTemplate.hasKey(SeckillCacheKeys.activity((Long) activityId)))) {
+                        redisTemplate.opsForSet().add(SeckillCacheKeys.activityIds(), activityId);
+                    }
+                }
+            }
+            synchronized (this) {
+                // 读取期间 save 或变化消息修改过的活动以内存中的为准，读到的可能是修改之前的
+                for (Map.Entry<Long, Long> changed : changedAt.entrySet()) {
+                    if (changed.getValue() > startGeneration) {
+                        SeckillActivity current = activities.get(changed.getKey());
+                        if (current != null) {
+                            loaded.put(changed.getKey(), current);
+                        } else {
+                            loaded.remove(changed.getKey());
+                        }
+                    }
+                }
+                changedAt.clear();
+                activities.clear();
+                activities.putAll(loaded);
+                rebuild();
+            }
+            log.debug("重新加载秒杀活动: count={}, expired={}", loaded.size(), expired.size());
+        } catch (Exception e) {
+            log.error("加载秒杀活动失败，继续使用当前快照", e);
+        }
+    }
+
+    /**
+     * 更新一个活动并重新构建快照
+     *
+     * @param activityId 活动ID
+     * @param activity 活动信息，为 null 时移除
+     */
+    private synchronized void update(Long activityId, SeckillActivity activity) {
+        generation++;
+        if (redisTemplate != null) {
+            changedAt.put(activityId, generation);
+        }
+        if (activity == null) {
+            activities.remove(activityId);
+        } else {
+            activities.put(activityId, activity);
+        }
+        rebuild();
+    }
+
+    /**
+     * 按当前时间计算所有活动的状态，替换快照，并安排下一次状态切换
+     */
+    private synchronized void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Entry> entries = new HashMap<>(activities.size() * 2);
+        LocalDateTime next = null;
+        for (SeckillActivity activity : activities.values()) {
+            SeckillActivityState state = seckillDomainService.resolveState(activity, now);
+            entries.put(activity.getId(), new Entry(activity, state));
+            LocalDateTime boundary = state == SeckillActivityState.NOT_STARTED ? activity.getStartTime()
+                    : state == SeckillActivityState.ACTIVE ? activity.getEndTime() : null;
+            if (boundary != null && (next == null || boundary.isBefore(next))) {
+                next = boundary;
+            }
+        }
+        Map<Long, Entry> previous = snapshot;
+        snapshot = Collections.unmodifiableMap(entries);
+        for (Entry entry : entries.values()) {
+            Entry old = previous.get(entry.activity.getId());
+            if (old != null && old.state != entry.state) {
+                log.info("秒杀活动状态切换: activityId={}, {} -> {}", entry.activity.getId(), old.state, entry.state);
+            }
+        }
+        schedule(next);
+    }
+
+    /**
+     * 安排下一次状态切换（取消已安排的切换）
+     *
+     * @param boundary 最近的开始时间或结束时间，为 null 时不安排
+     */
+    private void schedule(LocalDateTime boundary) {
+        if (nextTransition != null) {
+            nextTransition.cancel(false);
+            nextTransition = null;
+        }
+        if (boundary == null || scheduler == null || scheduler.isShutdown()) {
+            return;
+        }
+        // 结束时间当刻仍属于进行中，晚 1 毫秒切换
+        long delay = boundary.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + 1 - System.currentTimeMillis();
+        nextTransition = scheduler.schedule(this::rebuild, Math.max(0L, delay), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 通知其他节点活动发生变化，失败时只记录日志（其他节点会在重新加载时更新）
+     */
+    private void publish(Long activityId) {
+        if (connectionFactory == null) {
+            return;
+        }
+        byte[] body = (CHANGED + ":" + activityId + ":" + nodeId).getBytes(StandardCharsets.UTF_8);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.publish(channel.getBytes(StandardCharsets.UTF_8), body);
+        } catch (Exception e) {
+            log.warn("发布活动变化消息失败: activityId={}", activityId, e);
+        }
+    }
+
+    /**
+     * 复制活动信息，快照中的活动不会被外部修改
+     */
+    private static SeckillActivity copy(SeckillActivity activity) {
+        SeckillActivity copy = new SeckillActivity();
+        BeanUtils.copyProperties(activity, copy);
+        return copy;
+    }
+
+    /**
+     * 快照中的一个活动
+     */
+    private static final class Entry {
+
+        /** 活动信息 */
+        private final SeckillActivity activity;
+
+        /** 商品ID */
+        private final Long productId;
+
+        /** 构建快照时的活动状态 */
+        private final SeckillActivityState state;
+
+        private Entry(SeckillActivity activity, SeckillActivityState state) {
+            this.activity = activity;
+            this.productId = activity.getProductId();
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.example.seckill.application.service;
+
+import com.example.cache.CacheService;
+import com.example.common.exception.BusinessException;
+import com.example.seckill.application.dto.SeckillResult;
+import com.example.seckill.domain.model.SeckillActivityState;
+import com.example.seckill.infrastructure.cache.SeckillCacheKeys;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 秒杀准入服务
+ * <p>
+ * 秒杀开始的瞬间请求数远大于库存，每个请求都占用一个 Web 线程执行到 Redis，线程堆积、排在后面的用户等待很久才得到失败结果。
+ * 开启准入队列后，秒杀请求先经过本节点内存中的准入检查：
+ * <ol>
+ *   <li>活动已登记且不在进行中时直接拒绝（见 {@link SeckillActivityRegistry}），开始前的请求不占用名额</li>
+ *   <li>每个活动有一个准入名额，等于剩余库存 × seckill.admission.factor（不超过 max-pending），
+ *       名额按剩余库存每秒刷新一次</li>
+ *   <li>正在排队和执行的请求数已达到名额时直接拒绝，只是一次原子变量的比较，不访问 Redis，也不占用线程</li>
+ *   <li>准入的请求交给少量工作线程执行 {@link SeckillService#seckill}，Web 线程立即返回排队凭证</li>
+ *   <li>客户端通过 GET /api/seckill/result/{ticket} 查询秒杀结果</li>
+ * </ol>
+ * </p>
+ * <p>
+ * 结果保存：
+ * <ul>
+ *   <li>排队中和最终结果都保存在本节点的本地缓存中，seckill.admission.result-ttl-seconds 秒后过期</li>
+ *   <li>配置了缓存服务时同时写入 {@link SeckillCacheKeys#admissionResult}，客户端轮询到其他节点也能查到结果</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 配置说明：
+ * <ul>
+ *   <li>seckill.admission.enabled：是否开启，默认 false（秒杀请求同步执行）</li>
+ *   <li>seckill.admission.factor：准入名额与剩余库存的倍数，默认 2</li>
+ *   <li>seckill.admission.max-pending：单个活动的最大准入名额，默认 10000；也是工作线程队列的长度，
+ *       所有活动合计排队的请求超过该值时直接拒绝</li>
+ *   <li>seckill.admission.max-activities：本节点最多记录多少个活动的准入名额，默认 1000；
+ *       超过后或 10 分钟没有请求的活动被移除，下次请求时按剩余库存重新计算</li>
+ *   <li>seckill.admission.workers：工作线程数，默认 8</li>
+ *   <li>seckill.admission.result-ttl-seconds：秒杀结果保存时间（秒），默认 300</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 注意：名额按本节点计算，多个节点时每个节点都可以准入 剩余库存 × factor 个请求；
+ * 库存初始化后最多 1 秒才会按新库存放行
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+public class SeckillAdmissionService implements InitializingBean, DisposableBean {
+
+    /** 准入名额的刷新间隔（毫秒） */
+    private static final long CAPACITY_REFRESH_MILLIS = 1000;
+
+    /** 活动多久没有请求后移除准入名额（分钟） */
+    private static final long GATE_IDLE_MINUTES = 10;
+
+    /** 是否开启 */
+    @Value("${seckill.admission.enabled:false}")
+    private boolean enabled;
+
+    /** 准入名额与剩余库存的倍数 */
+    @Value("${seckill.admission.factor:2}")
+    private double factor;
+
+    /** 单个活动的最大准入名额 */
+    @Value("${seckill.admission.max-pending:10000}")
+    private long maxPending;
+
+    /** 最多记录准入名额的活动数 */
+    @Value("${seckill.admission.max-activities:1000}")
+    private long maxActivities;
+
+    /** 工作线程数 */
+    @Value("${seckill.admission.workers:8}")
+    private int workerThreads;
+
+    /** 秒杀结果保存时间（秒） */
+    @Value("${seckill.admission.result-ttl-seconds:300}")
+    private long resultTtlSeconds;
+
+    /** 秒杀应用服务 */
+    @Autowired
+    private SeckillService seckillService;
+
+    /** 秒杀活动注册表 */
+    @Autowired
+    private SeckillActivityRegistry activityRegistry;
+
+    /** 缓存服务（未配置时秒杀结果只保存在本节点） */
+    @Autowired(required = false)
+    private CacheService cacheService;
+
+    /** 各活动的准入名额（活动ID来自请求，数量有上限，长时间没有请求时移除） */
+    private Cache<Long, Gate> gates;
+
+    /** 秒杀结果（排队凭证 → 结果） */
+    private Cache<String, SeckillResult> results;
+
+    /** 工作线程 */
+    private ThreadPoolExecutor workers;
+
+    /**
+     * 开启时启动工作线程
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        if (workerThreads <= 0 || factor <= 0) {
+            throw new IllegalArgumentException("准入队列的工作线程数和倍数必须大于0");
+        }
+        results = Caffeine.newBuilder()
+                .expireAfterWrite(resultTtlSeconds, TimeUnit.SECONDS)
+                .build();
+        gates = Caffeine.newBuilder()
+                .maximumSize(maxActivities)
+                .expireAfterAccess(GATE_IDLE_MINUTES, TimeUnit.MINUTES)
+                .build();
+        AtomicInteger index = new AtomicInteger();
+        // 各活动的名额之外再限制所有活动合计的排队数量
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>((int) Math.min(Integer.MAX_VALUE, maxPending)), runnable -> {
+                    Thread thread = new Thread(runnable, "seckill-admission-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        log.info("秒杀准入队列已开启: factor={}, maxPending={}, workers={}", factor, maxPending, workerThreads);
+    }
+
+    /**
+     * 应用关闭时停止工作线程
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (workers == null) {
+            return;
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * 是否开启
+     *
+     * @return true 表示秒杀请求进入准入队列异步执行
+     */
+    public boolean isEnabled() {
+        return workers != null;
+    }
+
+    /**
+     * 提交秒杀请求
+     * <p>
+     * 名额已满时立即返回失败结果；准入时交给工作线程执行，返回带排队凭证的排队中结果
+     * </p>
+     *
+     * @param activityId 活动ID，不能为 null
+     * @param userId 用户ID，不能为 null
+     * @return 排队中结果或失败结果
+     */
+    public SeckillResult submit(Long activityId, Long userId) {
+        Assert.notNull(activityId, "活动ID不能为空");
+        Assert.notNull(userId, "用户ID不能为空");
+
+        SeckillActivityState state = activityRegistry.getState(activityId);
+        if (state != null && state != SeckillActivityState.ACTIVE) {
+            return SeckillResult.fail(state.getDescription());
+        }
+
+        Gate gate = gate(activityId);
+        long capacity = gate.capacity;
+        if (capacity <= 0) {
+            return SeckillResult.fail("库存不足");
+        }
+        if (!gate.tryEnter(capacity)) {
+            log.debug("秒杀排队人数已满，直接拒绝: activityId={}, userId={}, capacity={}", activityId, userId, capacity);
+            return SeckillResult.fail("当前排队人数过多，请稍后重试");
+        }
+
+        String ticket = UUID.randomUUID().toString().replace("-", "");
+        SeckillResult queued = SeckillResult.queued(ticket);
+        save(ticket, queued);
+        try {
+            workers.execute(() -> process(gate, ticket, activityId, userId));
+        } catch (RejectedExecutionException e) {
+            gate.pending.decrementAndGet();
+            log.warn("秒杀工作线程队列已满或已关闭，拒绝请求: activityId={}, userId={}", activityId, userId);
+            SeckillResult fail = SeckillResult.fail("系统繁忙，请稍后重试");
+            save(ticket, fail);
+            return fail;
+        }
+        log.debug("秒杀请求已排队: activityId={}, userId={}, ticket={}", activityId, userId, ticket);
+        return queued;
+    }
+
+    /**
+     * 查询秒杀结果
+     *
+     * @param ticket 排队凭证，不能为空
+     * @return 秒杀结果；凭证不存在或已过期时返回 null
+     */
+    public SeckillResult getResult(String ticket) {
+        Assert.hasText(ticket, "排队凭证不能为空");
+
+        SeckillResult result = results != null ? results.getIfPresent(ticket) : null;
+        if (result != null || cacheService == null) {
+            return result;
+        }
+        try {
+            return cacheService.get(SeckillCacheKeys.admissionResult(ticket), SeckillResult.class);
+        } catch (Exception e) {
+            log.error("查询秒杀结果失败: ticket={}", ticket, e);
+            return null;
+        }
+    }
+
+    /**
+     * 工作线程执行秒杀并保存结果
+     */
+    private void process(Gate gate, String ticket, Long activityId, Long userId) {
+        SeckillResult result;
+        try {
+            result = seckillService.seckill(activityId, userId);
+        } catch (BusinessException e) {
+            log.warn("排队秒杀业务异常: activityId={}, userId={}, message={}", activityId, userId, e.getMessage());
+            result = SeckillResult.fail(e.getMessage());
+        } catch (Exception e) {
+            log.error("排队秒杀异常: activityId={}, userId={}", activityId, userId, e);
+            result = SeckillResult.fail("秒杀失败: " + e.getMessage());
+        } finally {
+            gate.pending.decrementAndGet();
+        }
+        result.setTicket(ticket);
+        save(ticket, result);
+    }
+
+    /**
+     * 保存秒杀结果到本地缓存和缓存服务
+     */
+    private void save(String ticket, SeckillResult result) {
+        results.put(ticket, result);
+        if (cacheService == null) {
+            return;
+        }
+        try {
+            cacheService.set(SeckillCacheKeys.admissionResult(ticket), result, resultTtlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.error("保存秒杀结果失败，只能在本节点查询: ticket={}", ticket, e);
+        }
+    }
+
+    /**
+     * 获取活动的准入名额，不存在时按剩余库存创建
+     * <p>
+     * 剩余库存在写入名额表之前读取，不在名额表的锁内访问 Redis；
+     * 并发创建时只保留先写入的一个
+     * </p>
+     */
+    private Gate gate(Long activityId) {
+        Gate gate = gates.getIfPresent(activityId);
+        if (gate != null) {
+            refresh(activityId, gate);
+            return gate;
+        }
+        Gate created = new Gate(capacity(activityId));
+        Gate existing = gates.asMap().putIfAbsent(activityId, created);
+        return existing != null ? existing : created;
+    }
+
+    /**
+     * 每秒按剩余库存刷新一次准入名额，同时只有一个线程刷新
+     */
+    private void refresh(Long activityId, Gate gate) {
+        long now = System.currentTimeMillis();
+        long last = gate.refreshedAt.get();
+        if (now - last >= CAPACITY_REFRESH_MILLIS && gate.refreshedAt.compareAndSet(last, now)) {
+            gate.capacity = capacity(activityId);
+        }
+    }
+
+    /**
+     * 按剩余库存计算准入名额
+     */
+    private long capacity(Long activityId) {
+        long remaining = seckillService.getRemainingStock(activityId);
+        return Math.min(maxPending, (long) Math.ceil(remaining * factor));
+    }
+
+    /**
+     * 一个活动的准入名额
+     */
+    private static final class Gate {
+
+        /** 正在排队和执行的请求数 */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        /** 最近一次刷新时间 */
+        private final AtomicLong refreshedAt = new AtomicLong(System.currentTimeMillis());
+
+        /** 准入名额 */
+        private volatile long capacity;
+
+        private Gate(long capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * 名额未满时占用一个名额
+         */
+        private boolean tryEnter(long capacity) {
+            while (true) {
+                int current = pending.get();
+                if (current >= capacity) {
+                    return false;
+                }
+                if (pending.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
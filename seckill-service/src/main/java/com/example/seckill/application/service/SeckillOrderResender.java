@@ -0,0 +1,158 @@
+package com.example.seckill.application.service;
+
+import com.example.cache.CacheService;
+import com.example.message.MessageProducer;
+import com.example.seckill.application.dto.SeckillOrderMessage;
+import com.example.seckill.infrastructure.cache.SeckillCacheKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 秒杀订单消息补发
+ * <p>
+ * 同步发送超时或抛出异常时，Broker 可能已经保存了消息，发送结果是不确定的：
+ * 此时撤销秒杀（补回库存、清除参与记录）会让同一件库存再卖一次，订单服务收到原消息后就会超卖。
+ * 因此发送失败时不撤销，库存扣减和参与记录保留，订单消息记录到 {@link SeckillCacheKeys#unsentOrder}，
+ * 由定时任务补发：
+ * <ul>
+ *   <li>每 seckill.order.resend-seconds 秒（默认 10 秒）遍历待补发的订单，发送成功后删除记录</li>
+ *   <li>发送失败时保留记录，本轮停止（Broker 大概率仍不可用），下一轮继续</li>
+ *   <li>订单号是订单服务的幂等键，原消息已经送达时补发的消息不会重复创建订单；多个节点同时补发同一个订单也没有影响</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 注意：记录保留 {@link #RETAIN_HOURS} 小时，与订单详情一致；超过该时间仍未补发成功，
+ * 或记录本身写入失败（错误日志中包含订单消息）的订单需要按日志和订单详情人工对账
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class SeckillOrderResender implements InitializingBean, DisposableBean {
+
+    /** 待补发订单的保留时间（小时） */
+    public static final long RETAIN_HOURS = 24;
+
+    /** 遍历待补发订单时每批的数量 */
+    private static final int SCAN_BATCH_SIZE = 100;
+
+    /** 秒杀订单消息主题 */
+    private final String orderTopic;
+
+    /** 补发间隔（秒） */
+    private final long resendSeconds;
+
+    /** 缓存服务（未配置时无法记录待补发的订单） */
+    @Autowired(required = false)
+    private CacheService cacheService;
+
+    /** 消息生产者（未配置 RocketMQ 时为 null，不需要补发） */
+    @Autowired(required = false)
+    private MessageProducer messageProducer;
+
+    /** 补发的定时任务 */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * 构造秒杀订单消息补发
+     *
+     * @param orderTopic 秒杀订单消息主题
+     * @param resendSeconds 补发间隔（秒），0 表示不启动定时任务
+     */
+    public SeckillOrderResender(@Value("${seckill.order.topic:seckill-order-topic}") String orderTopic,
+                                @Value("${seckill.order.resend-seconds:10}") long resendSeconds) {
+        this.orderTopic = orderTopic;
+        this.resendSeconds = resendSeconds;
+    }
+
+    /**
+     * 配置了消息生产者时启动补发任务
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (messageProducer == null || resendSeconds <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seckill-order-resender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::resendAll, resendSeconds, resendSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 应用关闭时停止补发任务，未补发的订单留给其他节点或下次启动
+     */
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 记录发送失败的订单消息
+     *
+     * @param message 订单消息
+     */
+    public void record(SeckillOrderMessage message) {
+        if (cacheService == null) {
+            log.error("CacheService未配置，无法记录待补发的秒杀订单，需要人工对账: {}", message);
+            return;
+        }
+        try {
+            cacheService.set(SeckillCacheKeys.unsentOrder(message.getOrderNo()), message, RETAIN_HOURS, TimeUnit.HOURS);
+            log.warn("秒杀订单消息待补发: orderNo={}", message.getOrderNo());
+        } catch (Exception e) {
+            log.error("记录待补发的秒杀订单失败，需要人工对账: {}", message, e);
+        }
+    }
+
+    /**
+     * 补发所有待补发的订单消息
+     *
+     * @return 本次补发成功的数量
+     */
+    public int resendAll() {
+        if (cacheService == null || messageProducer == null) {
+            return 0;
+        }
+        int resent = 0;
+        try (CloseableIterator<String> keys = cacheService.scan(SeckillCacheKeys.unsentOrderPattern(), SCAN_BATCH_SIZE)) {
+            while (keys.hasNext()) {
+                String key = keys.next();
+                SeckillOrderMessage message = cacheService.get(key, SeckillOrderMessage.class);
+                if (message == null) {
+                    continue;
+                }
+                try {
+                    messageProducer.send(orderTopic, "create", message);
+                } catch (Exception e) {
+                    log.warn("补发秒杀订单消息失败，稍后重试: orderNo={}, error={}", message.getOrderNo(), e.getMessage());
+                    break;
+                }
+                cacheService.delete(key);
+                resent++;
+            }
+        } catch (Exception e) {
+            log.error("补发秒杀订单消息异常", e);
+        }
+        if (resent > 0) {
+            log.info("已补发秒杀订单消息: count={}", resent);
+        }
+        return resent;
+    }
+}
@@ -2,14 +2,24 @@ package com.example.seckill.application.service;
 
 import com.example.cache.CacheService;
 import com.example.common.exception.BusinessException;
-import com.example.lock.annotation.DistributedLockAnnotation;
-import com.example.ratelimit.annotation.RateLimit;
+import com.example.message.MessageProducer;
+import com.example.ratelimit.RateLimitService;
+import com.example.seckill.application.dto.SeckillOrderMessage;
 import com.example.seckill.application.dto.SeckillResult;
+import com.example.seckill.domain.model.SeckillActivityState;
+import com.example.seckill.infrastructure.cache.SeckillCacheKeys;
+import com.example.seckill.infrastructure.cache.SeckillParticipants;
+import com.example.seckill.infrastructure.cache.SeckillSoldOutFlags;
+import com.example.seckill.infrastructure.cache.SeckillStockBuckets;
+import com.example.seckill.infrastructure.cache.SeckillStockScript;
+import com.example.seckill.infrastructure.cache.SeckillStockShards;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import java.util.Collections;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -22,19 +32,31 @@ import java.util.concurrent.TimeUnit;
  * 职责说明：
  * <ul>
  *   <li>接收秒杀请求，执行秒杀逻辑</li>
- *   <li>使用分布式锁防止超卖</li>
+ *   <li>拒绝未开始、已结束或已取消的活动（活动状态由 {@link SeckillActivityRegistry} 定时计算）</li>
+ *   <li>使用 Lua 脚本原子扣减库存，防止超卖</li>
  *   <li>使用限流保护系统</li>
  *   <li>管理秒杀库存（使用 Redis 缓存）</li>
- *   <li>防止用户重复参与秒杀</li>
+ *   <li>防止用户重复参与秒杀（参与记录保存在每个活动一个的位图中，见 {@link SeckillParticipants}）</li>
+ *   <li>秒杀成功后发送订单消息，由订单服务异步批量创建订单</li>
  * </ul>
  * </p>
  * <p>
  * 技术特性：
  * <ul>
- *   <li>分布式锁：使用 @DistributedLockAnnotation 防止并发超卖</li>
- *   <li>限流保护：使用 @RateLimit 限制请求频率</li>
+ *   <li>Lua 脚本：参与检查、库存检查、扣减库存、写入订单在 Redis 中一次原子执行（见 {@link SeckillStockScript}），
+ *       不需要分布式锁，同一活动的请求不再排队等锁</li>
+ *   <li>无锁扣减：seckill.mode=decr 时只使用 CacheService 的原子递增递减，按用户防重复，
+ *       库存扣减是唯一的串行点（未配置 Redis 时 lua 模式也使用此方式）</li>
+ *   <li>售罄标记：发现售罄后在本节点记录并广播给其他节点（见 {@link SeckillSoldOutFlags}），
+ *       售罄后的请求在内存中直接拒绝，不再访问 Redis</li>
+ *   <li>库存分桶：seckill.stock-bucket.enabled=true 时各节点批量领取库存、在本地扣减（见 {@link SeckillStockBuckets}），
+ *       降低库存 key 的热点竞争</li>
+ *   <li>库存分片：seckill.stock-shard.count 大于 1 时库存分散到多个槽位的分片 key（见 {@link SeckillStockShards}），
+ *       Redis 集群中单个活动的扣减不再集中在一个节点</li>
+ *   <li>异步下单：订单消息发送到 seckill.order.topic，秒杀请求不等待订单落库，立即返回处理中状态；
+ *       发送失败时不撤销，由 {@link SeckillOrderResender} 补发</li>
+ *   <li>限流保护：seckill.rate-limit.per-second 大于 0 时按活动限制每秒请求数（见 {@link #checkRateLimit}）</li>
  *   <li>Redis 缓存：使用 Redis 管理秒杀库存，提高性能</li>
- *   <li>原子操作：使用 Redis 的 decrement 操作保证库存扣减的原子性</li>
  * </ul>
  * </p>
  * 
@@ -46,103 +68,322 @@ import java.util.concurrent.TimeUnit;
 @Service
 public class SeckillService {
 
+    /** 订单详情过期时间（小时），用于后续处理 */
+    private static final long ORDER_DETAIL_TIMEOUT_HOURS = 24;
+
+    /** 秒杀模式：Lua 脚本 */
+    private static final String MODE_LUA = "lua";
+
+    /** 秒杀模式：无锁扣减 */
+    private static final String MODE_DECR = "decr";
+
+    /** 秒杀模式：lua（默认）或 decr */
+    @Value("${seckill.mode:" + MODE_LUA + "}")
+    private String mode;
+
+    /** 秒杀订单消息主题 */
+    @Value("${seckill.order.topic:seckill-order-topic}")
+    private String orderTopic;
+
+    /** 每个活动每秒最多处理的秒杀请求数，0 表示不限流 */
+    @Value("${seckill.rate-limit.per-second:0}")
+    private int rateLimitPerSecond;
+
     /** 缓存服务（必需，用于库存管理和订单记录） */
     @Autowired(required = false)
     private CacheService cacheService;
 
+    /** 秒杀 Lua 脚本 */
+    @Autowired
+    private SeckillStockScript seckillStockScript;
+
+    /** 秒杀活动注册表 */
+    @Autowired
+    private SeckillActivityRegistry activityRegistry;
+
+    /** 参与记录 */
+    @Autowired
+    private SeckillParticipants participants;
+
+    /** 售罄标记 */
+    @Autowired
+    private SeckillSoldOutFlags soldOutFlags;
+
+    /** 库存分桶 */
+    @Autowired
+    private SeckillStockBuckets stockBuckets;
+
+    /** 库存分片 */
+    @Autowired
+    private SeckillStockShards stockShards;
+
+    /** 限流服务（可选，seckill.rate-limit.per-second 大于 0 时使用） */
+    @Autowired(required = false)
+    private RateLimitService rateLimitService;
+
+    /** 订单消息补发 */
+    @Autowired
+    private SeckillOrderResender orderResender;
+
+    /** 消息生产者（未配置 RocketMQ 时为 null，只在缓存中记录订单详情） */
+    @Autowired(required = false)
+    private MessageProducer messageProducer;
+
     /**
      * 秒杀下单
      * <p>
      * 执行秒杀的完整流程：
      * <ol>
-     *   <li>使用分布式锁防止并发超卖</li>
-     *   <li>使用限流保护系统</li>
-     *   <li>检查用户是否已参与过该活动</li>
-     *   <li>检查库存是否充足</li>
-     *   <li>扣减库存（原子操作）</li>
+     *   <li>活动已登记且不在进行中时直接返回失败（读取活动注册表中的状态，不比较时间）</li>
+     *   <li>本节点已记录售罄标记时直接返回库存不足，不访问 Redis</li>
+     *   <li>按活动限流：开启 seckill.rate-limit.per-second 时超过每秒请求数直接拒绝；
+     *       前两步在内存中完成，被拒绝的请求不计入限流次数</li>
      *   <li>生成订单号</li>
-     *   <li>记录秒杀订单</li>
+     *   <li>执行秒杀 Lua 脚本：检查用户是否已参与、检查库存、扣减库存、标记用户参与和记录订单详情，
+     *       一次网络往返、原子执行</li>
+     *   <li>发送秒杀订单消息，返回订单处理中状态，订单由订单服务异步批量创建；发送失败时记录订单消息等待补发，不补回库存</li>
      * </ol>
+     * seckill.mode=decr、开启库存分片或分桶、未配置 Redis 时改为无锁扣减，见 {@link #seckillByDecrement}；
+     * 发现库存不足或扣减后库存为 0 时记录售罄标记并通知其他节点
      * </p>
      * <p>
      * 保护机制：
      * <ul>
-     *   <li>分布式锁：防止同一活动的并发请求导致超卖</li>
-     *   <li>限流：限制每秒请求数量，保护系统</li>
-     *   <li>防重复：检查用户是否已参与，防止重复下单</li>
+     *   <li>原子脚本：库存检查和扣减在 Redis 中串行执行，不会超卖，不需要分布式锁</li>
+     *   <li>限流：每个活动单独计数，限制每秒请求数量，保护系统</li>
+     *   <li>防重复：脚本中检查用户是否已参与，防止重复下单</li>
      * </ul>
      * </p>
      * 
      * @param activityId 活动ID，不能为 null
      * @param userId 用户ID，不能为 null
      * @return 秒杀结果，包含成功/失败状态、消息、剩余库存、订单号等信息
+     * @throws BusinessException 超过活动的每秒请求数时抛出（状态码 429）
      */
-    @DistributedLockAnnotation(key = "seckill:#{#activityId}", waitTime = 5, leaseTime = 10)
-    @RateLimit(key = "seckill:#{#activityId}", limit = 10, window = 60)
     public SeckillResult seckill(Long activityId, Long userId) {
         Assert.notNull(activityId, "活动ID不能为空");
         Assert.notNull(userId, "用户ID不能为空");
         
         // 检查缓存服务是否配置
-        if (cacheService == null) {
+        boolean useScript = !MODE_DECR.equalsIgnoreCase(mode) && !stockShards.isEnabled()
+                && !stockBuckets.isEnabled() && seckillStockScript.isAvailable();
+        if (!useScript && cacheService == null) {
             log.error("CacheService未配置，无法执行秒杀操作。请检查Redis配置。");
             return SeckillResult.fail("系统配置错误，请联系管理员");
         }
         
+        // 活动未开始、已结束或已取消时直接拒绝（未登记的活动不检查）
+        SeckillActivityState state = activityRegistry.getState(activityId);
+        if (state != null && state != SeckillActivityState.ACTIVE) {
+            log.debug("秒杀活动不在进行中，直接拒绝: activityId={}, userId={}, state={}", activityId, userId, state);
+            return SeckillResult.fail(state.getDescription());
+        }
+        
+        // 已售罄且本节点没有持有库存时直接拒绝
+        if (soldOutFlags.isSoldOut(activityId) && stockBuckets.getLocalStock(activityId) <= 0) {
+            log.debug("秒杀活动已售罄，直接拒绝: activityId={}, userId={}", activityId, userId);
+            return SeckillResult.fail("库存不足");
+        }
+        
+        // 在内存中能直接拒绝的请求不占用限流名额
+        checkRateLimit(activityId);
+        
         try {
             log.info("开始秒杀: activityId={}, userId={}", activityId, userId);
             
-            // 检查用户是否已经参与过该活动
-            String userOrderKey = "seckill:order:" + activityId + ":" + userId;
-            if (cacheService.exists(userOrderKey)) {
-                log.warn("用户已参与过该秒杀活动: activityId={}, userId={}", activityId, userId);
-                return SeckillResult.fail("您已经参与过该秒杀活动");
-            }
+            // 生成订单号
+            String orderNo = generateOrderNo(activityId, userId);
+            String detail = String.format("activityId:%d,userId:%d,orderNo:%s", activityId, userId, orderNo);
             
-            // 检查库存
-            String stockKey = "seckill:stock:" + activityId;
-            Integer stock = cacheService.get(stockKey, Integer.class);
+            // 检查参与、检查库存、扣减库存、记录订单
+            long result = useScript
+                    ? seckillStockScript.seckill(activityId, participants.key(activityId, userId),
+                            participants.offset(userId), orderNo, detail, participants.getTimeoutSeconds(),
+                            TimeUnit.HOURS.toSeconds(ORDER_DETAIL_TIMEOUT_HOURS), TimeUnit.SECONDS)
+                    : seckillByDecrement(activityId, userId, orderNo, detail);
             
-            if (stock == null || stock <= 0) {
-                log.warn("秒杀活动库存不足: activityId={}, stock={}", activityId, stock);
-                return SeckillResult.fail("库存不足");
+            if (result == SeckillStockScript.DUPLICATE) {
+                log.warn("用户已参与过该秒杀活动: activityId={}, userId={}", activityId, userId);
+                return SeckillResult.fail("您已经参与过该秒杀活动");
             }
-
-            // 扣减库存（原子操作）
-            Long newStock = cacheService.decrement(stockKey);
-            if (newStock < 0) {
-                // 库存不足，回滚
-                cacheService.increment(stockKey);
-                log.warn("秒杀活动库存不足（扣减后）: activityId={}, userId={}", activityId, userId);
+            if (result == SeckillStockScript.SOLD_OUT) {
+                log.warn("秒杀活动库存不足: activityId={}, userId={}", activityId, userId);
+                soldOutFlags.markSoldOut(activityId);
                 return SeckillResult.fail("库存不足");
             }
-
-            // 生成订单号
-            String orderNo = generateOrderNo(activityId, userId);
-            
-            // 记录秒杀订单（1小时过期，防止重复参与）
-            cacheService.set(userOrderKey, orderNo, 1, TimeUnit.HOURS);
             
-            // 记录订单详情（24小时过期，用于后续处理）
-            String orderDetailKey = "seckill:order:detail:" + orderNo;
-            cacheService.set(orderDetailKey, 
-                String.format("activityId:%d,userId:%d,orderNo:%s", activityId, userId, orderNo),
-                24, TimeUnit.HOURS);
+            // 发送订单消息；发送失败时结果不确定，不撤销本次秒杀，由补发任务重发
+            sendOrderMessage(activityId, userId, orderNo);
+            if (result == 0 && !stockShards.isEnabled()) {
+                // 分片模式下只是当前分片为 0，其他分片可能还有库存
+                soldOutFlags.markSoldOut(activityId);
+            }
 
             log.info("秒杀成功: activityId={}, userId={}, orderNo={}, remainingStock={}", 
-                activityId, userId, orderNo, newStock);
+                activityId, userId, orderNo, result);
             
-            return SeckillResult.success(newStock, orderNo);
+            return SeckillResult.success(result, orderNo);
         } catch (Exception e) {
             log.error("秒杀异常: activityId={}, userId={}", activityId, userId, e);
             return SeckillResult.fail("秒杀失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 按活动限流
+     * <p>
+     * 每个活动一个限流 key（seckill:{activityId}），活动之间互不影响；
+     * seckill.rate-limit.per-second 为 0 或未配置限流服务时不限流
+     * </p>
+     *
+     * @param activityId 活动ID
+     * @throws BusinessException 超过活动的每秒请求数时抛出（状态码 429）
+     */
+    private void checkRateLimit(Long activityId) {
+        if (rateLimitPerSecond <= 0 || rateLimitService == null) {
+            return;
+        }
+        if (!rateLimitService.slidingWindowLimit("seckill:" + activityId, rateLimitPerSecond, 1)) {
+            log.warn("秒杀请求被限流: activityId={}, limit={}/s", activityId, rateLimitPerSecond);
+            throw new BusinessException(429, "请求过于频繁，请稍后再试");
+        }
+    }
+
+    /**
+     * 无锁扣减
+     * <p>
+     * 不使用分布式锁和 Lua 脚本，只依赖 CacheService 的原子递增递减（Redis INCR/DECR 或本地计数器）：
+     * <ol>
+     *   <li>按用户占位：在参与用户位图中 SETBIT（用户ID超出位图范围时对用户秒杀订单 key 执行 SET NX），
+     *       原来未参与表示首次参与，否则为重复请求（见 {@link SeckillParticipants#mark}）</li>
+     *   <li>扣减库存（见 {@link #takeStock}），库存不足时释放用户占位</li>
+     *   <li>扣减成功后写入订单详情（订单号只记录在订单详情中）</li>
+     * </ol>
+     * 库存扣减是唯一的串行点，不同用户之间没有其他竞争；扣减失败或异常时释放占位，用户可以重试
+     * </p>
+     *
+     * @param activityId 活动ID
+     * @param userId 用户ID
+     * @param orderNo 订单号
+     * @param detail 订单详情
+     * @return 扣减后的库存；{@link SeckillStockScript#SOLD_OUT} 表示库存不足，{@link SeckillStockScript#DUPLICATE} 表示已参与
+     */
+    private long seckillByDecrement(Long activityId, Long userId, String orderNo, String detail) {
+        // 按用户占位，同一用户的并发请求只有一个继续
+        if (!participants.mark(activityId, userId)) {
+            return SeckillStockScript.DUPLICATE;
+        }
+
+        boolean taken = false;
+        try {
+            long remaining = takeStock(activityId, userId);
+            if (remaining == SeckillStockScript.SOLD_OUT) {
+                // 库存不足，释放占位
+                participants.unmark(activityId, userId);
+                return SeckillStockScript.SOLD_OUT;
+            }
+            taken = true;
+
+            // 记录订单详情
+            cacheService.set(SeckillCacheKeys.orderDetail(activityId, orderNo), detail,
+                    ORDER_DETAIL_TIMEOUT_HOURS, TimeUnit.HOURS);
+            return remaining;
+        } catch (RuntimeException e) {
+            log.warn("无锁扣减失败，补回库存并释放占位: activityId={}, userId={}, taken={}",
+                    activityId, userId, taken);
+            try {
+                if (taken) {
+                    returnStock(activityId, userId);
+                }
+                participants.unmark(activityId, userId);
+            } catch (Exception rollback) {
+                log.error("补回库存或释放占位失败: activityId={}, userId={}", activityId, userId, rollback);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 扣减一件库存
+     * <p>
+     * 开启库存分片时从用户对应的分片扣减（分片为空时尝试其他分片，优先于库存分桶）；
+     * 开启库存分桶时从本节点的桶中扣减；否则 DECR 库存 key，结果小于 0 时 INCR 补回（库存下限为 0）
+     * </p>
+     *
+     * @param activityId 活动ID
+     * @param userId 用户ID
+     * @return 扣减后的库存（分片模式下为所在分片的库存），{@link SeckillStockScript#SOLD_OUT} 表示库存不足
+     */
+    private long takeStock(Long activityId, Long userId) {
+        if (stockShards.isEnabled()) {
+            return stockShards.acquire(activityId, userId);
+        }
+        if (stockBuckets.isEnabled()) {
+            return stockBuckets.acquire(activityId);
+        }
+        String stockKey = SeckillCacheKeys.stock(activityId);
+        long remaining = cacheService.decrement(stockKey);
+        if (remaining < 0) {
+            // 补回多扣的一个
+            cacheService.increment(stockKey);
+            return SeckillStockScript.SOLD_OUT;
+        }
+        return remaining;
+    }
+
+    /**
+     * 补回 {@link #takeStock} 扣减的一件库存
+     *
+     * @param activityId 活动ID
+     * @param userId 用户ID
+     */
+    private void returnStock(Long activityId, Long userId) {
+        if (stockShards.isEnabled()) {
+            stockShards.giveBack(activityId, userId);
+        } else if (stockBuckets.isEnabled()) {
+            stockBuckets.giveBack(activityId);
+        } else {
+            cacheService.increment(SeckillCacheKeys.stock(activityId));
+        }
+    }
+
+    /**
+     * 发送秒杀订单消息
+     * <p>
+     * 未配置消息生产者时不发送，订单详情只记录在缓存中。
+     * 发送失败时（包括超时）Broker 可能已经保存了消息，不能撤销秒杀，
+     * 订单消息交给 {@link SeckillOrderResender} 记录并补发
+     * </p>
+     *
+     * @param activityId 活动ID
+     * @param userId 用户ID
+     * @param orderNo 订单号
+     */
+    private void sendOrderMessage(Long activityId, Long userId, String orderNo) {
+        if (messageProducer == null) {
+            log.debug("消息生产者未配置，跳过订单消息发送: orderNo={}", orderNo);
+            return;
+        }
+        SeckillOrderMessage message = new SeckillOrderMessage();
+        message.setOrderNo(orderNo);
+        message.setActivityId(activityId);
+        message.setUserId(userId);
+        message.setProductId(activityRegistry.getProductId(activityId));
+        message.setQuantity(1);
+        message.setSeckillTime(System.currentTimeMillis());
+        try {
+            messageProducer.send(orderTopic, "create", message);
+        } catch (Exception e) {
+            log.error("秒杀订单消息发送失败，等待补发: activityId={}, userId={}, orderNo={}", activityId, userId, orderNo, e);
+            orderResender.record(message);
+        }
+    }
+
     /**
      * 初始化秒杀活动库存
      * <p>
-     * 在秒杀活动开始前，将库存数量设置到 Redis 缓存中
+     * 在秒杀活动开始前，将库存数量设置到 Redis 缓存中（开启库存分片时平均分到各分片），
+     * 并清除各节点的售罄标记和持有的库存分桶
      * </p>
      * 
      * @param activityId 活动ID，不能为 null
@@ -160,9 +401,14 @@ public class SeckillService {
         }
         
         try {
-            String stockKey = "seckill:stock:" + activityId;
-            // 设置库存，24小时过期
-            cacheService.set(stockKey, stock, 24, TimeUnit.HOURS);
+            if (stockShards.isEnabled()) {
+                stockShards.init(activityId, stock);
+            } else {
+                String stockKey = SeckillCacheKeys.stock(activityId);
+                // 设置库存，24小时过期
+                cacheService.set(stockKey, stock, 24, TimeUnit.HOURS);
+            }
+            soldOutFlags.reset(activityId);
             log.info("初始化秒杀活动库存成功: activityId={}, stock={}", activityId, stock);
         } catch (Exception e) {
             log.error("初始化秒杀活动库存失败: activityId={}, stock={}", activityId, stock, e);
@@ -173,7 +419,11 @@ public class SeckillService {
     /**
      * 获取剩余库存
      * <p>
-     * 从 Redis 缓存中获取秒杀活动的剩余库存
+     * 从 Redis 缓存中获取秒杀活动的剩余库存；配置了 Redis 时与扣减脚本一样从主节点读取
+     * （见 {@link SeckillStockScript#read}），不读取两级缓存、热点 key 本地副本或副本节点上的旧值；
+     * 开启库存分片时为所有分片之和（一次批量读取）；
+     * 开启库存分桶时加上本节点桶内的库存（其他节点持有的库存不计入）；
+     * 本节点已记录售罄标记时直接返回 0
      * </p>
      * 
      * @param activityId 活动ID，不能为 null
@@ -187,10 +437,22 @@ public class SeckillService {
             return 0L;
         }
         
+        long localStock = stockBuckets.getLocalStock(activityId);
+        if (soldOutFlags.isSoldOut(activityId) && localStock <= 0) {
+            return 0L;
+        }
+        
         try {
-            String stockKey = "seckill:stock:" + activityId;
-            Integer stock = cacheService.get(stockKey, Integer.class);
-            Long remainingStock = stock != null ? stock.longValue() : 0L;
+            Long remainingStock;
+            if (stockShards.isEnabled()) {
+                remainingStock = stockShards.remaining(activityId);
+            } else {
+                String stockKey = SeckillCacheKeys.stock(activityId);
+                Number stock = seckillStockScript.isAvailable()
+                        ? seckillStockScript.read(Collections.singletonList(stockKey)).get(0)
+                        : cacheService.get(stockKey, Integer.class);
+                remainingStock = (stock != null ? stock.longValue() : 0L) + localStock;
+            }
             log.debug("获取剩余库存: activityId={}, remainingStock={}", activityId, remainingStock);
             return remainingStock;
         } catch (Exception e) {
@@ -202,7 +464,8 @@ public class SeckillService {
     /**
      * 检查用户是否已参与
      * <p>
-     * 检查指定用户是否已经参与过指定秒杀活动
+     * 检查指定用户是否已经参与过指定秒杀活动：读取参与用户位图中的一位（GETBIT），
+     * 用户ID超出位图范围时检查用户秒杀订单 key 是否存在
      * </p>
      * 
      * @param activityId 活动ID，不能为 null
@@ -219,8 +482,7 @@ public class SeckillService {
         }
         
         try {
-            String userOrderKey = "seckill:order:" + activityId + ":" + userId;
-            boolean participated = cacheService.exists(userOrderKey);
+            boolean participated = participants.contains(activityId, userId);
             log.debug("检查用户是否已参与: activityId={}, userId={}, participated={}", 
                     activityId, userId, participated);
             return participated;
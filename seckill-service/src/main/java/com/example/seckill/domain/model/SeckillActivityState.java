@@ -0,0 +1,79 @@
+package com.example.seckill.domain.model;
+
+/**
+ * 秒杀活动状态
+ * <p>
+ * 与 {@link SeckillActivity#getStatus()} 的取值一一对应：
+ * <ul>
+ *   <li>NOT_STARTED(0)：未开始</li>
+ *   <li>ACTIVE(1)：进行中</li>
+ *   <li>ENDED(2)：已结束</li>
+ *   <li>CANCELLED(3)：已取消</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public enum SeckillActivityState {
+
+    /** 未开始 */
+    NOT_STARTED(0, "活动未开始"),
+
+    /** 进行中 */
+    ACTIVE(1, "活动进行中"),
+
+    /** 已结束 */
+    ENDED(2, "活动已结束"),
+
+    /** 已取消 */
+    CANCELLED(3, "活动已取消");
+
+    /** 状态码 */
+    private final int code;
+
+    /** 状态说明 */
+    private final String description;
+
+    SeckillActivityState(int code, String description) {
+        this.code = code;
+        this.description = description;
+    }
+
+    /**
+     * 获取状态码
+     *
+     * @return 状态码
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * 获取状态说明
+     *
+     * @return 状态说明
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 根据状态码获取状态
+     *
+     * @param code 状态码
+     * @return 对应的状态，未知状态码返回 null
+     */
+    public static SeckillActivityState of(Integer code) {
+        if (code == null) {
+            return null;
+        }
+        for (SeckillActivityState state : values()) {
+            if (state.code == code) {
+                return state;
+            }
+        }
+        return null;
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.seckill.domain.service;
 
 import com.example.seckill.domain.model.SeckillActivity;
+import com.example.seckill.domain.model.SeckillActivityState;
+
+import java.time.LocalDateTime;
 
 /**
  * 秒杀领域服务接口
@@ -11,6 +14,7 @@ import com.example.seckill.domain.model.SeckillActivity;
  * 职责说明：
  * <ul>
  *   <li>活动有效性检查：检查活动状态、时间等</li>
+ *   <li>活动状态计算：根据状态和时间计算活动在某一时刻的状态</li>
  *   <li>库存管理：检查库存、扣减库存等</li>
  *   <li>业务规则验证：验证业务规则是否满足</li>
  * </ul>
@@ -30,15 +34,35 @@ import com.example.seckill.domain.model.SeckillActivity;
  */
 public interface SeckillDomainService {
     
+    /**
+     * 计算活动在指定时刻的状态
+     * <p>
+     * 计算规则：
+     * <ul>
+     *   <li>状态为 3（已取消）或 2（已结束）时保持不变，不再随时间变化</li>
+     *   <li>否则按时间计算：早于开始时间为未开始，晚于结束时间为已结束，其余为进行中
+     *       （开始时间和结束时间都属于进行中，未设置的一端不限制）</li>
+     * </ul>
+     * 只做计算，不记录日志，可以在定时任务中对所有活动调用
+     * </p>
+     * 
+     * @param activity 秒杀活动，不能为 null
+     * @param time 时刻，不能为 null
+     * @return 活动状态
+     */
+    SeckillActivityState resolveState(SeckillActivity activity, LocalDateTime time);
+    
     /**
      * 检查活动是否有效
      * <p>
      * 验证活动的有效性，包括：
      * <ul>
      *   <li>活动对象不为 null</li>
-     *   <li>活动状态为 1（进行中）</li>
+     *   <li>活动未被取消或提前结束</li>
      *   <li>当前时间在活动时间范围内</li>
      * </ul>
+     * 即当前时刻的状态（{@link #resolveState}）为进行中；
+     * 秒杀请求中不调用此方法，而是读取活动注册表中定时计算好的状态
      * </p>
      * 
      * @param activity 秒杀活动，不能为 null
@@ -1,6 +1,7 @@
 package com.example.seckill.domain.service.impl;
 
 import com.example.seckill.domain.model.SeckillActivity;
+import com.example.seckill.domain.model.SeckillActivityState;
 import com.example.seckill.domain.service.SeckillDomainService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -17,6 +18,7 @@ import java.time.LocalDateTime;
  * 功能说明：
  * <ul>
  *   <li>活动有效性检查：验证活动状态和时间</li>
+ *   <li>活动状态计算：根据状态和时间计算活动状态</li>
  *   <li>库存管理：检查库存、扣减库存</li>
  *   <li>业务规则验证：验证业务规则是否满足</li>
  * </ul>
@@ -30,6 +32,33 @@ import java.time.LocalDateTime;
 @Service
 public class SeckillDomainServiceImpl implements SeckillDomainService {
     
+    /**
+     * 计算活动在指定时刻的状态
+     * 
+     * @param activity 秒杀活动
+     * @param time 时刻
+     * @return 活动状态
+     */
+    @Override
+    public SeckillActivityState resolveState(SeckillActivity activity, LocalDateTime time) {
+        Assert.notNull(activity, "活动对象不能为空");
+        Assert.notNull(time, "时刻不能为空");
+        
+        // 取消和提前结束由管理员设置，不随时间变化
+        SeckillActivityState status = SeckillActivityState.of(activity.getStatus());
+        if (status == SeckillActivityState.CANCELLED || status == SeckillActivityState.ENDED) {
+            return status;
+        }
+        
+        if (activity.getStartTime() != null && time.isBefore(activity.getStartTime())) {
+            return SeckillActivityState.NOT_STARTED;
+        }
+        if (activity.getEndTime() != null && time.isAfter(activity.getEndTime())) {
+            return SeckillActivityState.ENDED;
+        }
+        return SeckillActivityState.ACTIVE;
+    }
+    
     /**
      * 检查活动是否有效
      * 
@@ -43,28 +72,9 @@ public class SeckillDomainServiceImpl implements SeckillDomainService {
             return false;
         }
         
-        // 检查活动状态：必须为 1（进行中）
-        if (activity.getStatus() == null || activity.getStatus() != 1) {
-            log.warn("活动状态无效: activityId={}, status={}", activity.getId(), activity.getStatus());
-            return false;
-        }
-        
-        // 检查时间：当前时间必须在活动时间范围内
-        LocalDateTime now = LocalDateTime.now();
-        if (activity.getStartTime() != null && now.isBefore(activity.getStartTime())) {
-            log.warn("活动未开始: activityId={}, startTime={}, now={}", 
-                    activity.getId(), activity.getStartTime(), now);
-            return false;
-        }
-        
-        if (activity.getEndTime() != null && now.isAfter(activity.getEndTime())) {
-            log.warn("活动已结束: activityId={}, endTime={}, now={}", 
-                    activity.getId(), activity.getEndTime(), now);
-            return false;
-        }
-        
-        log.debug("活动有效: activityId={}", activity.getId());
-        return true;
+        SeckillActivityState state = resolveState(activity, LocalDateTime.now());
+        log.debug("活动状态: activityId={}, state={}", activity.getId(), state);
+        return state == SeckillActivityState.ACTIVE;
     }
     
     /**
@@ -75,16 +85,8 @@ public class SeckillDomainServiceImpl implements SeckillDomainService {
      */
     @Override
     public boolean isActivityActive(SeckillActivity activity) {
-        if (!isActivityValid(activity)) {
-            return false;
-        }
-        
-        LocalDateTime now = LocalDateTime.now();
-        boolean active = (activity.getStartTime() == null || !now.isBefore(activity.getStartTime()))
-                && (activity.getEndTime() == null || !now.isAfter(activity.getEndTime()));
-        
-        log.debug("活动是否进行中: activityId={}, active={}", activity.getId(), active);
-        return active;
+        // 有效性检查已包含时间范围检查
+        return isActivityValid(activity);
     }
     
     /**
@@ -0,0 +1,137 @@
+package com.example.seckill.infrastructure.cache;
+
+/**
+ * 秒杀缓存 key
+ * <p>
+ * 同一个活动的 key 都以活动ID作为 Redis hash tag（花括号中的部分），
+ * 在 Redis 集群中落在同一个槽位，可以在同一个 Lua 脚本中原子操作；
+ * 库存分片 key 的 hash tag 包含分片序号，不同分片分散在不同的槽位
+ * </p>
+ * <p>
+ * key 格式：
+ * <ul>
+ *   <li>seckill:stock:{activityId}：活动库存</li>
+ *   <li>seckill:stock:{activityId:shard}：活动库存分片（开启库存分片时使用）</li>
+ *   <li>seckill:participants:{activityId}：参与用户位图（用户ID作为位偏移量，防重复参与）</li>
+ *   <li>seckill:order:{activityId}:userId：用户秒杀订单号（用户ID超出位图范围时防重复参与）</li>
+ *   <li>seckill:order:detail:{activityId}:orderNo：订单详情</li>
+ *   <li>seckill:order:unsent:orderNo：发送失败、等待补发的订单消息</li>
+ *   <li>seckill:result:ticket：排队秒杀的处理结果（开启准入队列时使用）</li>
+ *   <li>seckill:activity:{activityId}：活动信息（活动注册表启动时加载）</li>
+ *   <li>seckill:activity:ids：已登记的活动ID集合（活动注册表按集合加载活动，不使用 SCAN）</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class SeckillCacheKeys {
+
+    private SeckillCacheKeys() {
+    }
+
+    /**
+     * 活动库存 key
+     *
+     * @param activityId 活动ID
+     * @return 库存 key
+     */
+    public static String stock(Long activityId) {
+        return "seckill:stock:{" + activityId + "}";
+    }
+
+    /**
+     * 活动信息 key
+     *
+     * @param activityId 活动ID
+     * @return 活动信息 key
+     */
+    public static String activity(Long activityId) {
+        return "seckill:activity:{" + activityId + "}";
+    }
+
+    /**
+     * 已登记的活动ID集合 key
+     *
+     * @return 活动ID集合 key
+     */
+    public static String activityIds() {
+        return "seckill:activity:ids";
+    }
+
+    /**
+     * 活动库存分片 key
+     * <p>
+     * Redis 只使用第一对花括号计算槽位，分片序号必须放在同一对花括号中，写成 {activityId}:{shard} 时所有分片仍在同一个槽位
+     * </p>
+     *
+     * @param activityId 活动ID
+     * @param shard 分片序号
+     * @return 库存分片 key
+     */
+    public static String stockShard(Long activityId, int shard) {
+        return "seckill:stock:{" + activityId + ":" + shard + "}";
+    }
+
+    /**
+     * 参与用户位图 key
+     *
+     * @param activityId 活动ID
+     * @return 参与用户位图 key
+     */
+    public static String participants(Long activityId) {
+        return "seckill:participants:{" + activityId + "}";
+    }
+
+    /**
+     * 用户秒杀订单 key
+     *
+     * @param activityId 活动ID
+     * @param userId 用户ID
+     * @return 用户秒杀订单 key
+     */
+    public static String userOrder(Long activityId, Long userId) {
+        return "seckill:order:{" + activityId + "}:" + userId;
+    }
+
+    /**
+     * 订单详情 key
+     *
+     * @param activityId 活动ID
+     * @param orderNo 订单号
+     * @return 订单详情 key
+     */
+    public static String orderDetail(Long activityId, String orderNo) {
+        return "seckill:order:detail:{" + activityId + "}:" + orderNo;
+    }
+
+    /**
+     * 待补发订单消息 key
+     *
+     * @param orderNo 订单号
+     * @return 待补发订单消息 key
+     */
+    public static String unsentOrder(String orderNo) {
+        return "seckill:order:unsent:" + orderNo;
+    }
+
+    /**
+     * 待补发订单消息 key 的匹配模式
+     *
+     * @return 匹配所有待补发订单消息 key 的模式
+     */
+    public static String unsentOrderPattern() {
+        return "seckill:order:unsent:*";
+    }
+
+    /**
+     * 排队秒杀结果 key
+     *
+     * @param ticket 排队凭证
+     * @return 排队秒杀结果 key
+     */
+    public static String admissionResult(String ticket) {
+        return "seckill:result:" + ticket;
+    }
+}
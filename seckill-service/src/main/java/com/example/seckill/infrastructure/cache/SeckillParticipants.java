@@ -0,0 +1,181 @@
+package com.example.seckill.infrastructure.cache;
+
+import com.example.cache.CacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 秒杀参与记录
+ * <p>
+ * 原来每个参与的用户都有一个 key（seckill:order:{activityId}:userId），大促时有几百万个小 key，
+ * 每个 key 都有 key 对象和过期时间的固定开销。现在每个活动只有一个位图 {@link SeckillCacheKeys#participants}，
+ * 用户ID作为位偏移量：
+ * <ul>
+ *   <li>标记参与：SETBIT 返回原来的位，一次操作完成检查和标记</li>
+ *   <li>检查参与：GETBIT</li>
+ *   <li>每个用户只占 1 位，一千万个用户ID范围的位图约 1.2MB</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 位图大小由最大的用户ID决定，以下情况仍使用每个用户一个 key：
+ * <ul>
+ *   <li>用户ID不小于 seckill.participant.bitmap-max-user-id（默认 1 亿，位图最大约 12MB）；
+ *       雪花算法生成的用户ID远大于此值，不适合使用位图</li>
+ *   <li>未配置 Redis（只有本地缓存）</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 位图与活动库存 key 使用同一个 hash tag，可以在秒杀 Lua 脚本中与库存一起原子操作（见 {@link #key} 和 {@link #offset}）；
+ * 每次有新用户参与时刷新位图的过期时间
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class SeckillParticipants {
+
+    /** 参与记录过期时间（小时），防止重复参与 */
+    private static final long TIMEOUT_HOURS = 1;
+
+    /** Redis 位图的最大位偏移量 */
+    private static final long MAX_BITMAP_OFFSET = (1L << 32) - 1;
+
+    /**
+     * 标记参与脚本
+     * <p>
+     * KEYS[1] 位图 key；ARGV[1] 用户ID，ARGV[2] 过期时间（秒）；返回原来的位，1 表示已参与
+     * </p>
+     */
+    private static final RedisScript<Long> MARK_SCRIPT = new DefaultRedisScript<>(
+            "local previous = redis.call('setbit', KEYS[1], ARGV[1], 1)\n"
+                    + "if previous == 0 then redis.call('expire', KEYS[1], ARGV[2]) end\n"
+                    + "return previous",
+            Long.class);
+
+    /** 使用位图的用户ID上限（不含） */
+    private final long bitmapMaxUserId;
+
+    /** Redis 模板（未配置 Redis 时为 null） */
+    @Autowired(required = false)
+    private RedisTemplate<String, Object> redisTemplate;
+
+    /** 缓存服务（每个用户一个 key 时使用） */
+    @Autowired(required = false)
+    private CacheService cacheService;
+
+    /**
+     * 构造秒杀参与记录
+     *
+     * @param bitmapMaxUserId 使用位图的用户ID上限（不含），0 表示不使用位图
+     */
+    public SeckillParticipants(@Value("${seckill.participant.bitmap-max-user-id:100000000}") long bitmapMaxUserId) {
+        this.bitmapMaxUserId = Math.min(bitmapMaxUserId, MAX_BITMAP_OFFSET + 1);
+    }
+
+    /**
+     * 参与记录的过期时间（秒）
+     *
+     * @return 过期时间（秒）
+     */
+    public long getTimeoutSeconds() {
+        return TimeUnit.HOURS.toSeconds(TIMEOUT_HOURS);
+    }
+
+    /**
+     * 用户的参与记录 key
+     *
+     * @param activityId 活动ID
+     * @param userId 用户ID
+     * @return 使用位图时为活动的位图 key，否则为用户秒杀订单 key
+     */
+    public String key(Long activityId, Long userId) {
+        return useBitmap(userId) ? SeckillCacheKeys.participants(activityId) : SeckillCacheKeys.userOrder(activityId, userId);
+    }
+
+    /**
+     * 用户在位图中的偏移量
+     *
+     * @param userId 用户ID
+     * @return 使用位图时为用户ID，否则为 -1
+     */
+    public long offset(Long userId) {
+        return useBitmap(userId) ? userId : -1L;
+    }
+
+    /**
+     * 标记用户参与
+     * <p>
+     * 使用位图时执行 SETBIT 脚本；用户ID超出位图范围时对用户秒杀订单 key 执行 SET NX EX，写入和过期时间一次完成。
+     * 用户秒杀订单 key 也可能是秒杀 Lua 脚本写入的订单号（不是整数），所以不使用 INCR
+     * </p>
+     *
+     * @param activityId 活动ID
+     * @param userId 用户ID
+     * @return true 表示首次参与，false 表示已参与过
+     */
+    public boolean mark(Long activityId, Long userId) {
+        if (useBitmap(userId)) {
+            Long previous = redisTemplate.execute(MARK_SCRIPT,
+                    Collections.singletonList(SeckillCacheKeys.participants(activityId)), userId, getTimeoutSeconds());
+            return previous != null && previous == 0;
+        }
+        String userOrderKey = SeckillCacheKeys.userOrder(activityId, userId);
+        if (redisTemplate != null) {
+            return Boolean.TRUE.equals(
+                    redisTemplate.opsForValue().setIfAbsent(userOrderKey, 1, getTimeoutSeconds(), TimeUnit.SECONDS));
+        }
+        // 未配置 Redis 时只有本地缓存，递增和设置过期时间都在本进程内完成
+        Long claims = cacheService.increment(userOrderKey);
+        if (claims == null || claims > 1) {
+            return false;
+        }
+        cacheService.expire(userOrderKey, TIMEOUT_HOURS, TimeUnit.HOURS);
+        return true;
+    }
+
+    /**
+     * 清除用户的参与记录（秒杀失败或撤销时调用，用户可以重试）
+     *
+     * @param activityId 活动ID
+     * @param userId 用户ID
+     */
+    public void unmark(Long activityId, Long userId) {
+        if (useBitmap(userId)) {
+            redisTemplate.opsForValue().setBit(SeckillCacheKeys.participants(activityId), userId, false);
+        } else {
+            cacheService.delete(SeckillCacheKeys.userOrder(activityId, userId));
+        }
+    }
+
+    /**
+     * 检查用户是否已参与
+     *
+     * @param activityId 活动ID
+     * @param userId 用户ID
+     * @return true 表示已参与
+     */
+    public boolean contains(Long activityId, Long userId) {
+        if (useBitmap(userId)) {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().getBit(SeckillCacheKeys.participants(activityId), userId));
+        }
+        return cacheService != null && cacheService.exists(SeckillCacheKeys.userOrder(activityId, userId));
+    }
+
+    /**
+     * 是否使用位图记录该用户
+     */
+    private boolean useBitmap(Long userId) {
+        return redisTemplate != null && userId >= 0 && userId < bitmapMaxUserId;
+    }
+}
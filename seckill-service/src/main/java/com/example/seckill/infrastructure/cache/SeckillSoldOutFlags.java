@@ -0,0 +1,219 @@
+package com.example.seckill.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 秒杀售罄标记
+ * <p>
+ * 活动售罄后，后续请求仍然要访问一次 Redis 才能知道库存为 0。某个节点发现售罄后在本地记录售罄标记，
+ * 并通过 Redis 发布订阅通知其他节点；各节点在内存中直接拒绝售罄活动的请求，售罄后的流量不再访问 Redis
+ * </p>
+ * <p>
+ * 消息格式为 {类型}:{活动ID}:{节点ID}，类型包括：
+ * <ul>
+ *   <li>SOLD_OUT：活动售罄，各节点记录售罄标记</li>
+ *   <li>AVAILABLE：有库存被归还（例如库存分桶回收了剩余库存），各节点清除售罄标记</li>
+ *   <li>RESET：活动库存被重新初始化，各节点清除售罄标记，并丢弃本节点持有的库存分桶</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 说明：
+ * <ul>
+ *   <li>发布订阅不保证送达，售罄标记在 seckill.sold-out.ttl-seconds 秒（默认 5 秒）后过期，
+ *       过期后的第一个请求重新访问 Redis 确认；丢失 AVAILABLE 或 RESET 消息时最多误拒绝这么长时间</li>
+ *   <li>消息频道由 seckill.sold-out.channel 配置，默认 seckill:stock:events</li>
+ *   <li>未配置 Redis 时只在本节点记录售罄标记</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class SeckillSoldOutFlags implements MessageListener, InitializingBean, DisposableBean {
+
+    /** 消息类型：售罄 */
+    private static final String SOLD_OUT = "SOLD_OUT";
+
+    /** 消息类型：有库存被归还 */
+    private static final String AVAILABLE = "AVAILABLE";
+
+    /** 消息类型：库存重新初始化 */
+    private static final String RESET = "RESET";
+
+    /** 当前节点ID，用于忽略自己发布的消息 */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** 售罄的活动 */
+    private final Cache<Long, Boolean> soldOut;
+
+    /** 消息频道 */
+    private final String channel;
+
+    /** Redis 连接工厂（未配置 Redis 时为 null） */
+    private final RedisConnectionFactory connectionFactory;
+
+    /** 消息监听容器 */
+    private RedisMessageListenerContainer container;
+
+    /** 库存重新初始化回调，参数为活动ID */
+    private volatile Consumer<Long> resetHandler = activityId -> { };
+
+    /**
+     * 构造秒杀售罄标记
+     *
+     * @param ttlSeconds 售罄标记的有效期（秒）
+     * @param channel 消息频道
+     * @param connectionFactoryProvider Redis 连接工厂
+     */
+    public SeckillSoldOutFlags(@Value("${seckill.sold-out.ttl-seconds:5}") long ttlSeconds,
+                               @Value("${seckill.sold-out.channel:seckill:stock:events}") String channel,
+                               ObjectProvider<RedisConnectionFactory> connectionFactoryProvider) {
+        this.soldOut = Caffeine.newBuilder()
+                .maximumSize(10000)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+        this.channel = channel;
+        this.connectionFactory = connectionFactoryProvider.getIfAvailable();
+    }
+
+    /**
+     * 订阅消息频道
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (connectionFactory == null) {
+            log.info("未配置 Redis，售罄标记只在本节点生效");
+            return;
+        }
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(this, new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        container.start();
+        log.info("售罄消息订阅成功: channel={}", channel);
+    }
+
+    /**
+     * 应用关闭时取消订阅
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (container != null) {
+            container.destroy();
+        }
+    }
+
+    /**
+     * 设置库存重新初始化回调
+     *
+     * @param resetHandler 回调，参数为活动ID
+     */
+    public void setResetHandler(Consumer<Long> resetHandler) {
+        this.resetHandler = resetHandler;
+    }
+
+    /**
+     * 活动是否已售罄
+     *
+     * @param activityId 活动ID
+     * @return true 表示本节点记录了售罄标记
+     */
+    public boolean isSoldOut(Long activityId) {
+        return soldOut.getIfPresent(activityId) != null;
+    }
+
+    /**
+     * 记录售罄标记并通知其他节点
+     *
+     * @param activityId 活动ID
+     */
+    public void markSoldOut(Long activityId) {
+        // 并发请求同时发现售罄时只通知一次
+        if (soldOut.asMap().put(activityId, Boolean.TRUE) == null) {
+            log.info("秒杀活动已售罄: activityId={}", activityId);
+            publish(SOLD_OUT, activityId);
+        }
+    }
+
+    /**
+     * 清除售罄标记并通知其他节点（有库存被归还时调用）
+     *
+     * @param activityId 活动ID
+     */
+    public void markAvailable(Long activityId) {
+        soldOut.invalidate(activityId);
+        publish(AVAILABLE, activityId);
+    }
+
+    /**
+     * 清除售罄标记并通知其他节点丢弃库存分桶（库存重新初始化时调用）
+     *
+     * @param activityId 活动ID
+     */
+    public void reset(Long activityId) {
+        soldOut.invalidate(activityId);
+        resetHandler.accept(activityId);
+        publish(RESET, activityId);
+    }
+
+    /**
+     * 处理其他节点发布的消息
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length < 3 || nodeId.equals(parts[2])) {
+                return;
+            }
+            Long activityId = Long.valueOf(parts[1]);
+            if (SOLD_OUT.equals(parts[0])) {
+                soldOut.put(activityId, Boolean.TRUE);
+            } else if (AVAILABLE.equals(parts[0])) {
+                soldOut.invalidate(activityId);
+            } else if (RESET.equals(parts[0])) {
+                soldOut.invalidate(activityId);
+                resetHandler.accept(activityId);
+            }
+            log.debug("收到售罄消息: type={}, activityId={}", parts[0], activityId);
+        } catch (Exception e) {
+            log.warn("处理售罄消息失败", e);
+        }
+    }
+
+    /**
+     * 发布消息，失败时只记录日志（其他节点的售罄标记会自然过期）
+     */
+    private void publish(String type, Long activityId) {
+        if (connectionFactory == null) {
+            return;
+        }
+        byte[] body = (type + ":" + activityId + ":" + nodeId).getBytes(StandardCharsets.UTF_8);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.publish(channel.getBytes(StandardCharsets.UTF_8), body);
+        } catch (Exception e) {
+            log.warn("发布售罄消息失败: type={}, activityId={}", type, activityId, e);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.seckill.infrastructure.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 秒杀库存分桶
+ * <p>
+ * 所有节点的请求都扣减同一个库存 key，是整个秒杀的热点。开启分桶后，每个节点一次从库存 key 中领取一批库存（一个桶），
+ * 桶内的扣减只是本地原子变量的 CAS，桶空了才再访问一次 Redis 领取下一批；
+ * 库存 key 的访问次数约为原来的 1/bucket-size
+ * </p>
+ * <p>
+ * 剩余库存的回收：
+ * <ul>
+ *   <li>桶超过 seckill.stock-bucket.idle-seconds 秒（默认 5 秒）没有扣减时，把剩余库存归还给库存 key，
+ *       并清除各节点的售罄标记，其他节点可以继续领取</li>
+ *   <li>应用关闭时归还所有剩余库存</li>
+ *   <li>库存重新初始化时各节点直接丢弃持有的桶（库存 key 已被覆盖，不再归还）</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 配置说明：
+ * <ul>
+ *   <li>seckill.stock-bucket.enabled：是否开启，默认 false，需要配置 Redis</li>
+ *   <li>seckill.stock-bucket.size：每次领取的库存数量，默认 50</li>
+ *   <li>seckill.stock-bucket.idle-seconds：空闲多久后归还剩余库存（秒），默认 5</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 注意：库存 key 只记录未被领取的库存，节点持有的库存对其他节点不可见；
+ * 桶的大小决定了售卖结束时各节点之间最多相差多少库存，库存很少的活动不需要开启。
+ * 节点异常退出时持有的库存无法归还，最多少卖 节点数 × bucket-size 件
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class SeckillStockBuckets implements InitializingBean, DisposableBean {
+
+    /** 是否开启 */
+    private final boolean enabled;
+
+    /** 每次领取的库存数量 */
+    private final long bucketSize;
+
+    /** 空闲多久后归还剩余库存（毫秒） */
+    private final long idleMillis;
+
+    /** 秒杀 Lua 脚本 */
+    private final SeckillStockScript seckillStockScript;
+
+    /** 售罄标记 */
+    private final SeckillSoldOutFlags soldOutFlags;
+
+    /** 各活动在本节点持有的桶 */
+    private final Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /** 回收剩余库存的定时任务 */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * 构造秒杀库存分桶
+     *
+     * @param enabled 是否开启
+     * @param bucketSize 每次领取的库存数量
+     * @param idleSeconds 空闲多久后归还剩余库存（秒）
+     * @param seckillStockScript 秒杀 Lua 脚本
+     * @param soldOutFlags 售罄标记
+     */
+    public SeckillStockBuckets(@Value("${seckill.stock-bucket.enabled:false}") boolean enabled,
+                               @Value("${seckill.stock-bucket.size:50}") long bucketSize,
+                               @Value("${seckill.stock-bucket.idle-seconds:5}") long idleSeconds,
+                               SeckillStockScript seckillStockScript,
+                               SeckillSoldOutFlags soldOutFlags) {
+        if (bucketSize <= 0) {
+            throw new IllegalArgumentException("库存分桶大小必须大于0: " + bucketSize);
+        }
+        this.enabled = enabled;
+        this.bucketSize = bucketSize;
+        this.idleMillis = TimeUnit.SECONDS.toMillis(idleSeconds);
+        this.seckillStockScript = seckillStockScript;
+        this.soldOutFlags = soldOutFlags;
+    }
+
+    /**
+     * 开启时启动回收任务
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        if (!seckillStockScript.isAvailable()) {
+            log.warn("未配置 Redis，库存分桶不生效");
+            return;
+        }
+        soldOutFlags.setResetHandler(this::discard);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seckill-stock-bucket");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000L, idleMillis / 2);
+        scheduler.scheduleWithFixedDelay(this::reclaimIdle, period, period, TimeUnit.MILLISECONDS);
+        log.info("秒杀库存分桶已开启: bucketSize={}, idleSeconds={}", bucketSize, idleMillis / 1000);
+    }
+
+    /**
+     * 应用关闭时归还所有剩余库存
+     */
+    @Override
+    public void destroy() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        for (Map.Entry<Long, Bucket> entry : buckets.entrySet()) {
+            reclaim(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * 是否开启
+     *
+     * @return true 表示开启且已配置 Redis
+     */
+    public boolean isEnabled() {
+        return scheduler != null;
+    }
+
+    /**
+     * 获取本节点持有的活动库存
+     *
+     * @param activityId 活动ID
+     * @return 桶内剩余库存，没有桶时返回 0
+     */
+    public long getLocalStock(Long activityId) {
+        Bucket bucket = buckets.get(activityId);
+        return bucket != null ? bucket.available.get() : 0L;
+    }
+
+    /**
+     * 扣减一件库存
+     * <p>
+     * 优先从本节点的桶中扣减，桶空时从库存 key 领取下一批（同一活动同时只有一个线程领取）
+     * </p>
+     *
+     * @param activityId 活动ID
+     * @return 扣减后的剩余库存（本节点桶内剩余 + 最近一次领取后库存 key 的剩余，为估算值）；
+     *         {@link SeckillStockScript#SOLD_OUT} 表示库存不足
+     */
+    public long acquire(Long activityId) {
+        Bucket bucket = buckets.computeIfAbsent(activityId, id -> new Bucket());
+        bucket.lastAccess = System.currentTimeMillis();
+        while (true) {
+            long available = bucket.available.get();
+            if (available > 0) {
+                if (bucket.available.compareAndSet(available, available - 1)) {
+                    return available - 1 + bucket.remaining;
+                }
+                continue;
+            }
+            synchronized (bucket) {
+                if (bucket.available.get() > 0) {
+                    continue;
+                }
+                long[] allocated = seckillStockScript.allocate(activityId, bucketSize);
+                bucket.remaining = allocated[1];
+                if (allocated[0] <= 0) {
+                    return SeckillStockScript.SOLD_OUT;
+                }
+                bucket.available.addAndGet(allocated[0]);
+                log.debug("领取库存: activityId={}, count={}, remaining={}", activityId, allocated[0], allocated[1]);
+            }
+        }
+    }
+
+    /**
+     * 把扣减的一件库存放回本节点的桶（扣减后下单失败时调用）
+     *
+     * @param activityId 活动ID
+     */
+    public void giveBack(Long activityId) {
+        buckets.computeIfAbsent(activityId, id -> new Bucket()).available.incrementAndGet();
+    }
+
+    /**
+     * 归还空闲桶的剩余库存
+     */
+    private void reclaimIdle() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Long, Bucket> entry : buckets.entrySet()) {
+            Bucket bucket = entry.getValue();
+            if (now - bucket.lastAccess >= idleMillis) {
+                reclaim(entry.getKey(), bucket);
+            }
+        }
+    }
+
+    /**
+     * 把桶内的剩余库存归还给库存 key，并清除各节点的售罄标记
+     */
+    private void reclaim(Long activityId, Bucket bucket) {
+        long leftover = bucket.available.getAndSet(0);
+        if (leftover <= 0) {
+            return;
+        }
+        try {
+            long stock = seckillStockScript.release(activityId, leftover);
+            if (stock < 0) {
+                log.warn("库存 key 不存在，丢弃剩余库存: activityId={}, leftover={}", activityId, leftover);
+                return;
+            }
+            bucket.remaining = stock;
+            soldOutFlags.markAvailable(activityId);
+            log.info("归还剩余库存: activityId={}, leftover={}, stock={}", activityId, leftover, stock);
+        } catch (Exception e) {
+            // 归还失败时放回桶内，下次再试
+            bucket.available.addAndGet(leftover);
+            log.error("归还剩余库存失败: activityId={}, leftover={}", activityId, leftover, e);
+        }
+    }
+
+    /**
+     * 丢弃本节点持有的桶（库存重新初始化时调用）
+     */
+    private void discard(Long activityId) {
+        Bucket bucket = buckets.remove(activityId);
+        if (bucket != null) {
+            long leftover = bucket.available.getAndSet(0);
+            log.info("库存已重新初始化，丢弃本节点持有的库存: activityId={}, leftover={}", activityId, leftover);
+        }
+    }
+
+    /**
+     * 本节点持有的一个活动的库存
+     */
+    private static final class Bucket {
+
+        /** 桶内剩余库存 */
+        private final AtomicLong available = new AtomicLong();
+
+        /** 最近一次领取或归还后库存 key 的剩余库存 */
+        private volatile long remaining;
+
+        /** 最近一次扣减时间 */
+        private volatile long lastAccess = System.currentTimeMillis();
+    }
+}
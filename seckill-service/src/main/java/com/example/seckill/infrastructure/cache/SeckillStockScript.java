@@ -0,0 +1,251 @@
+package com.example.seckill.infrastructure.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 秒杀 Lua 脚本
+ * <p>
+ * 在 Redis 服务端一次原子执行秒杀的全部缓存操作，只需要一次网络往返，不需要分布式锁：
+ * <ol>
+ *   <li>检查用户是否已参与（参与用户位图中的位，或用户秒杀订单 key 是否存在，见 {@link SeckillParticipants}）</li>
+ *   <li>检查库存是否充足</li>
+ *   <li>扣减库存</li>
+ *   <li>标记用户参与（设置位图中的位，或写入用户秒杀订单号）</li>
+ *   <li>写入订单详情</li>
+ * </ol>
+ * </p>
+ * <p>
+ * 脚本的 SHA1 在创建时计算一次，执行时使用 EVALSHA，Redis 中没有缓存脚本（NOSCRIPT）时
+ * 由 RedisTemplate 自动改用 EVAL 并加载脚本
+ * </p>
+ * <p>
+ * 参数通过 RedisTemplate 的值编解码器编码，写入的订单号和订单详情可以通过 CacheService 读取；
+ * 库存由 CacheService 写入整数，脚本中按数字读取
+ * </p>
+ * <p>
+ * 开启库存分桶（{@link SeckillStockBuckets}）时，还通过 {@link #allocate} 和 {@link #release}
+ * 从库存 key 中批量领取库存、归还剩余库存；开启库存分片（{@link SeckillStockShards}）时通过 {@link #decrement}
+ * 扣减单个分片（只涉及一个 key，分片可以位于不同的槽位）
+ * </p>
+ * <p>
+ * 注意：只有配置了 Redis（存在 RedisTemplate）时才能执行，否则 {@link #isAvailable()} 返回 false
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class SeckillStockScript {
+
+    /** 返回值：库存不足或库存未初始化 */
+    public static final long SOLD_OUT = -1L;
+
+    /** 返回值：用户已参与过该活动 */
+    public static final long DUPLICATE = -2L;
+
+    /**
+     * 秒杀脚本
+     * <p>
+     * KEYS[1] 库存 key，KEYS[2] 参与记录 key（参与用户位图或用户秒杀订单 key），KEYS[3] 订单详情 key；
+     * ARGV[1] 订单号，ARGV[2] 参与记录过期时间（秒），ARGV[3] 订单详情，ARGV[4] 订单详情过期时间（秒），
+     * ARGV[5] 用户在位图中的偏移量（-1 表示 KEYS[2] 是用户秒杀订单 key）；
+     * 返回扣减后的库存，-1 表示库存不足，-2 表示已参与
+     * </p>
+     */
+    private static final RedisScript<Long> SECKILL_SCRIPT = new DefaultRedisScript<>(
+            "local offset = tonumber(ARGV[5])\n"
+                    + "if offset >= 0 then\n"
+                    + "  if redis.call('getbit', KEYS[2], offset) == 1 then return -2 end\n"
+                    + "elseif redis.call('exists', KEYS[2]) == 1 then return -2 end\n"
+                    + "local stock = tonumber(redis.call('get', KEYS[1]))\n"
+                    + "if stock == nil or stock <= 0 then return -1 end\n"
+                    + "local remaining = redis.call('decr', KEYS[1])\n"
+                    + "if offset >= 0 then\n"
+                    + "  redis.call('setbit', KEYS[2], offset, 1)\n"
+                    + "  redis.call('expire', KEYS[2], ARGV[2])\n"
+                    + "else\n"
+                    + "  redis.call('set', KEYS[2], ARGV[1], 'EX', ARGV[2])\n"
+                    + "end\n"
+                    + "redis.call('set', KEYS[3], ARGV[3], 'EX', ARGV[4])\n"
+                    + "return remaining",
+            Long.class);
+
+    /**
+     * 领取库存脚本
+     * <p>
+     * KEYS[1] 库存 key；ARGV[1] 最多领取的数量；
+     * 返回 {领取到的数量, 领取后的库存}，库存不足时只领取剩余部分，库存为 0 或未初始化时返回 {0, 0}
+     * </p>
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ALLOCATE_SCRIPT = new DefaultRedisScript<>(
+            "local stock = tonumber(redis.call('get', KEYS[1]))\n"
+                    + "if stock == nil or stock <= 0 then return {0, 0} end\n"
+                    + "local take = math.min(stock, tonumber(ARGV[1]))\n"
+                    + "return {take, redis.call('decrby', KEYS[1], take)}",
+            List.class);
+
+    /**
+     * 扣减单个库存 key 的脚本
+     * <p>
+     * KEYS[1] 库存 key；返回扣减后的库存，库存为 0 或未初始化时不扣减，返回 -1
+     * </p>
+     */
+    private static final RedisScript<Long> DECREMENT_SCRIPT = new DefaultRedisScript<>(
+            "local stock = tonumber(redis.call('get', KEYS[1]))\n"
+                    + "if stock == nil or stock <= 0 then return -1 end\n"
+                    + "return redis.call('decr', KEYS[1])",
+            Long.class);
+
+    /**
+     * 归还库存脚本
+     * <p>
+     * KEYS[1] 库存 key；ARGV[1] 归还的数量；
+     * 返回归还后的库存，库存 key 不存在（已过期或被删除）时不归还，返回 -1
+     * </p>
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 0 then return -1 end\n"
+                    + "return redis.call('incrby', KEYS[1], ARGV[1])",
+            Long.class);
+
+    /** Redis 模板（未配置 Redis 时为 null） */
+    @Autowired(required = false)
+    private RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * 是否可以执行脚本
+     *
+     * @return true 表示已配置 Redis
+     */
+    public boolean isAvailable() {
+        return redisTemplate != null;
+    }
+
+    /**
+     * 执行秒杀脚本
+     *
+     * @param activityId 活动ID
+     * @param participantKey 参与记录 key（{@link SeckillParticipants#key}）
+     * @param participantOffset 用户在位图中的偏移量（{@link SeckillParticipants#offset}）
+     * @param orderNo 订单号
+     * @param detail 订单详情
+     * @param participantTimeout 参与记录过期时间
+     * @param detailTimeout 订单详情过期时间
+     * @param unit 过期时间单位
+     * @return 扣减后的库存；{@link #SOLD_OUT} 表示库存不足，{@link #DUPLICATE} 表示已参与
+     */
+    public long seckill(Long activityId, String participantKey, long participantOffset, String orderNo, String detail,
+                        long participantTimeout, long detailTimeout, TimeUnit unit) {
+        try {
+            Long result = redisTemplate.execute(SECKILL_SCRIPT,
+                    Arrays.asList(SeckillCacheKeys.stock(activityId), participantKey,
+                            SeckillCacheKeys.orderDetail(activityId, orderNo)),
+                    orderNo, unit.toSeconds(participantTimeout), detail, unit.toSeconds(detailTimeout),
+                    participantOffset);
+            if (result == null) {
+                throw new IllegalStateException("秒杀脚本没有返回结果: activityId=" + activityId);
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("执行秒杀脚本失败: activityId={}, participantKey={}", activityId, participantKey, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 库存大于 0 时扣减一件
+     *
+     * @param stockKey 库存 key
+     * @return 扣减后的库存；{@link #SOLD_OUT} 表示库存不足
+     */
+    public long decrement(String stockKey) {
+        try {
+            Long result = redisTemplate.execute(DECREMENT_SCRIPT, Collections.singletonList(stockKey));
+            if (result == null) {
+                throw new IllegalStateException("扣减库存脚本没有返回结果: key=" + stockKey);
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("扣减库存失败: key={}", stockKey, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 从活动库存中领取一批库存
+     *
+     * @param activityId 活动ID
+     * @param count 最多领取的数量
+     * @return 长度为 2 的数组：领取到的数量（库存不足时为 0）、领取后的库存
+     */
+    public long[] allocate(Long activityId, long count) {
+        try {
+            List<?> result = redisTemplate.execute(ALLOCATE_SCRIPT,
+                    Collections.singletonList(SeckillCacheKeys.stock(activityId)), count);
+            if (result == null || result.size() < 2) {
+                throw new IllegalStateException("领取库存脚本没有返回结果: activityId=" + activityId);
+            }
+            return new long[] {((Number) result.get(0)).longValue(), ((Number) result.get(1)).longValue()};
+        } catch (Exception e) {
+            log.error("领取库存失败: activityId={}, count={}", activityId, count, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 从主节点读取库存
+     * <p>
+     * 与脚本一样通过主 RedisTemplate 读取，不经过缓存服务的两级缓存、热点 key 本地副本和副本读取，
+     * 读到的总是当前库存；多个 key 时一次 MGET
+     * </p>
+     *
+     * @param stockKeys 库存 key 列表
+     * @return 与 stockKeys 一一对应的库存，key 不存在时为 null
+     */
+    public List<Long> read(List<String> stockKeys) {
+        try {
+            List<Object> values = redisTemplate.opsForValue().multiGet(stockKeys);
+            List<Long> stocks = new ArrayList<>(stockKeys.size());
+            for (int i = 0; i < stockKeys.size(); i++) {
+                Object value = values != null ? values.get(i) : null;
+                stocks.add(value != null ? Long.valueOf(value.toString()) : null);
+            }
+            return stocks;
+        } catch (Exception e) {
+            log.error("读取库存失败: keys={}", stockKeys, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 把未使用的库存归还给活动库存
+     *
+     * @param activityId 活动ID
+     * @param count 归还的数量
+     * @return 归还后的库存，库存 key 不存在时返回 -1
+     */
+    public long release(Long activityId, long count) {
+        try {
+            Long result = redisTemplate.execute(RELEASE_SCRIPT,
+                    Collections.singletonList(SeckillCacheKeys.stock(activityId)), count);
+            return result != null ? result : -1L;
+        } catch (Exception e) {
+            log.error("归还库存失败: activityId={}, count={}", activityId, count, e);
+            throw e;
+        }
+    }
+}
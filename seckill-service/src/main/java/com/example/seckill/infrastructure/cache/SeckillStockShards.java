@@ -0,0 +1,203 @@
+package com.example.seckill.infrastructure.cache;
+
+import com.example.cache.CacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 秒杀库存分片
+ * <p>
+ * 一个活动的所有扣减都落在同一个库存 key 上，在 Redis 集群中只能用到一个槽位所在节点的一个 CPU。
+ * 开启分片后，初始化库存时把库存平均分到 N 个分片 key（{@link SeckillCacheKeys#stockShard}）中，
+ * 分片 key 位于不同的槽位，扣减压力分散到集群的多个节点
+ * </p>
+ * <p>
+ * 扣减规则：
+ * <ul>
+ *   <li>按用户ID的哈希选择分片，同一用户总是先访问同一个分片</li>
+ *   <li>分片库存为 0 时依次尝试后面的分片，所有分片都为 0 才返回库存不足</li>
+ *   <li>单个分片的扣减是一个只涉及一个 key 的 Lua 脚本（库存大于 0 才扣减），不会扣成负数；
+ *       未配置 Redis 时使用 CacheService 的 DECR，结果小于 0 时 INCR 补回</li>
+ *   <li>剩余库存是所有分片之和，通过 CacheService 的批量读取一次网络往返取回</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 配置说明：
+ * <ul>
+ *   <li>seckill.stock-shard.count：分片数量，默认 0（不分片），大于 1 时开启</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 注意：
+ * <ul>
+ *   <li>分片数量需要在初始化库存前确定，修改后需要重新初始化库存</li>
+ *   <li>库存接近售罄时，一次请求最多访问所有分片；活动售罄后由售罄标记在内存中拒绝请求</li>
+ *   <li>分片的扣减与用户占位、订单详情不在同一个槽位，不能放在同一个 Lua 脚本中，开启后按无锁扣减的流程执行</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class SeckillStockShards implements InitializingBean {
+
+    /** 库存过期时间（小时） */
+    private static final long STOCK_TIMEOUT_HOURS = 24;
+
+    /** 分片数量 */
+    private final int shardCount;
+
+    /** 秒杀 Lua 脚本 */
+    private final SeckillStockScript seckillStockScript;
+
+    /** 缓存服务（未配置缓存时为 null） */
+    @Autowired(required = false)
+    private CacheService cacheService;
+
+    /** 是否开启 */
+    private boolean enabled;
+
+    /**
+     * 构造秒杀库存分片
+     *
+     * @param shardCount 分片数量
+     * @param seckillStockScript 秒杀 Lua 脚本
+     */
+    public SeckillStockShards(@Value("${seckill.stock-shard.count:0}") int shardCount,
+                              SeckillStockScript seckillStockScript) {
+        this.shardCount = shardCount;
+        this.seckillStockScript = seckillStockScript;
+    }
+
+    /**
+     * 检查是否可以开启
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (shardCount <= 1) {
+            return;
+        }
+        if (cacheService == null) {
+            log.warn("CacheService未配置，库存分片不生效");
+            return;
+        }
+        enabled = true;
+        log.info("秒杀库存分片已开启: shardCount={}", shardCount);
+    }
+
+    /**
+     * 是否开启
+     *
+     * @return true 表示分片数量大于 1 且已配置缓存服务
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 初始化库存，平均分到各分片（余数分给前面的分片），24 小时过期
+     *
+     * @param activityId 活动ID
+     * @param stock 库存数量
+     */
+    public void init(Long activityId, int stock) {
+        Map<String, Integer> values = new LinkedHashMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            int shardStock = stock / shardCount + (shard < stock % shardCount ? 1 : 0);
+            values.put(SeckillCacheKeys.stockShard(activityId, shard), shardStock);
+        }
+        cacheService.multiSet(values, STOCK_TIMEOUT_HOURS, TimeUnit.HOURS);
+        log.info("初始化库存分片: activityId={}, stock={}, shardCount={}", activityId, stock, shardCount);
+    }
+
+    /**
+     * 扣减一件库存
+     *
+     * @param activityId 活动ID
+     * @param userId 用户ID，用于选择分片
+     * @return 扣减后所在分片的剩余库存；{@link SeckillStockScript#SOLD_OUT} 表示所有分片都没有库存
+     */
+    public long acquire(Long activityId, Long userId) {
+        int home = home(userId);
+        for (int i = 0; i < shardCount; i++) {
+            String shardKey = SeckillCacheKeys.stockShard(activityId, (home + i) % shardCount);
+            long remaining = decrement(shardKey);
+            if (remaining >= 0) {
+                return remaining;
+            }
+        }
+        return SeckillStockScript.SOLD_OUT;
+    }
+
+    /**
+     * 补回一件库存（扣减后下单失败时调用），补回到用户对应的分片
+     *
+     * @param activityId 活动ID
+     * @param userId 用户ID
+     */
+    public void giveBack(Long activityId, Long userId) {
+        cacheService.increment(SeckillCacheKeys.stockShard(activityId, home(userId)));
+    }
+
+    /**
+     * 获取剩余库存（所有分片之和）
+     * <p>
+     * 配置了 Redis 时通过 {@link SeckillStockScript#read} 从主节点读取，不读取两级缓存、热点 key 本地副本或副本节点上的旧值
+     * </p>
+     *
+     * @param activityId 活动ID
+     * @return 剩余库存
+     */
+    public long remaining(Long activityId) {
+        List<String> keys = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            keys.add(SeckillCacheKeys.stockShard(activityId, shard));
+        }
+        List<? extends Number> stocks = seckillStockScript.isAvailable()
+                ? seckillStockScript.read(keys)
+                : cacheService.multiGet(keys, Integer.class);
+        long total = 0;
+        for (Number stock : stocks) {
+            if (stock != null && stock.longValue() > 0) {
+                total += stock.longValue();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 库存大于 0 时扣减一个分片
+     */
+    private long decrement(String shardKey) {
+        if (seckillStockScript.isAvailable()) {
+            return seckillStockScript.decrement(shardKey);
+        }
+        long remaining = cacheService.decrement(shardKey);
+        if (remaining < 0) {
+            // 补回多扣的一个
+            cacheService.increment(shardKey);
+            return SeckillStockScript.SOLD_OUT;
+        }
+        return remaining;
+    }
+
+    /**
+     * 用户对应的分片
+     */
+    private int home(Long userId) {
+        // 乘以黄金分割常数打散连续的用户ID
+        return Math.floorMod(Long.hashCode(userId * 0x9E3779B97F4A7C15L), shardCount);
+    }
+}
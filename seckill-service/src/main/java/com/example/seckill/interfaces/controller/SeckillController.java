@@ -2,13 +2,20 @@ package com.example.seckill.interfaces.controller;
 
 import com.example.common.exception.BusinessException;
 import com.example.common.result.Result;
+import com.example.seckill.application.dto.SeckillActivityDTO;
 import com.example.seckill.application.dto.SeckillResult;
+import com.example.seckill.application.service.SeckillActivityRegistry;
+import com.example.seckill.application.service.SeckillAdmissionService;
 import com.example.seckill.application.service.SeckillService;
+import com.example.seckill.domain.model.SeckillActivity;
+import com.example.seckill.domain.model.SeckillActivityState;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 
@@ -20,7 +27,10 @@ import javax.validation.constraints.Positive;
  * <p>
  * 功能说明：
  * <ul>
- *   <li>秒杀下单：执行秒杀操作</li>
+ *   <li>秒杀下单：执行秒杀操作（开启准入队列时排队执行，返回排队凭证）</li>
+ *   <li>查询秒杀结果：按排队凭证查询排队秒杀的结果</li>
+ *   <li>登记活动：登记活动的商品和起止时间，各节点按时间切换活动状态</li>
+ *   <li>查询活动：查询活动信息和当前状态</li>
  *   <li>初始化库存：在活动开始前初始化库存</li>
  *   <li>查询库存：查询活动的剩余库存</li>
  *   <li>检查参与：检查用户是否已参与活动</li>
@@ -51,10 +61,17 @@ public class SeckillController {
     /** 秒杀应用服务 */
     private final SeckillService seckillService;
 
+    /** 秒杀准入服务 */
+    private final SeckillAdmissionService seckillAdmissionService;
+
+    /** 秒杀活动注册表 */
+    private final SeckillActivityRegistry seckillActivityRegistry;
+
     /**
      * 秒杀下单
      * <p>
-     * 执行秒杀操作，包含分布式锁和限流保护
+     * 执行秒杀操作，包含限流保护；开启准入队列时名额已满的请求直接失败，
+     * 准入的请求排队执行并返回排队凭证，通过 {@link #getResult} 查询结果
      * </p>
      * 
      * @param activityId 活动ID，必须大于 0
@@ -68,11 +85,13 @@ public class SeckillController {
         try {
             log.info("收到秒杀请求: activityId={}, userId={}", activityId, userId);
             
-            SeckillResult result = seckillService.seckill(activityId, userId);
+            SeckillResult result = seckillAdmissionService.isEnabled()
+                    ? seckillAdmissionService.submit(activityId, userId)
+                    : seckillService.seckill(activityId, userId);
             
             if (result.getSuccess()) {
-                log.info("秒杀成功: activityId={}, userId={}, orderNo={}", 
-                        activityId, userId, result.getOrderNo());
+                log.info("秒杀成功: activityId={}, userId={}, orderNo={}, ticket={}", 
+                        activityId, userId, result.getOrderNo(), result.getTicket());
                 return Result.success(result);
             } else {
                 log.warn("秒杀失败: activityId={}, userId={}, message={}", 
@@ -89,6 +108,87 @@ public class SeckillController {
         }
     }
 
+    /**
+     * 查询秒杀结果
+     * <p>
+     * 按排队凭证查询排队秒杀的结果：orderStatus 为 QUEUED 表示仍在排队，
+     * 否则 success 表示秒杀是否成功
+     * </p>
+     * 
+     * @param ticket 排队凭证，不能为空
+     * @return 秒杀结果
+     */
+    @GetMapping("/result/{ticket}")
+    public Result<SeckillResult> getResult(
+            @PathVariable @NotBlank(message = "排队凭证不能为空") String ticket) {
+        try {
+            SeckillResult result = seckillAdmissionService.getResult(ticket);
+            if (result == null) {
+                return Result.error("排队凭证不存在或已过期");
+            }
+            log.debug("查询秒杀结果: ticket={}, success={}, orderStatus={}", 
+                    ticket, result.getSuccess(), result.getOrderStatus());
+            return Result.success(result);
+        } catch (Exception e) {
+            log.error("查询秒杀结果异常: ticket={}", ticket, e);
+            return Result.error("查询秒杀结果失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 登记或更新秒杀活动
+     * <p>
+     * 登记后各节点在开始时间和结束时间到达时切换活动状态，开始前和结束后的秒杀请求直接失败；
+     * status 传 3 取消活动，传 2 提前结束活动
+     * </p>
+     * 
+     * @param activityDTO 秒杀活动，活动ID、开始时间和结束时间不能为空
+     * @return 登记后的活动信息
+     */
+    @PostMapping("/activity")
+    public Result<SeckillActivityDTO> saveActivity(@RequestBody SeckillActivityDTO activityDTO) {
+        try {
+            log.info("登记秒杀活动: activityId={}, startTime={}, endTime={}", 
+                    activityDTO.getId(), activityDTO.getStartTime(), activityDTO.getEndTime());
+            
+            SeckillActivity activity = new SeckillActivity();
+            BeanUtils.copyProperties(activityDTO, activity);
+            seckillActivityRegistry.save(activity);
+            
+            return Result.success(toDTO(seckillActivityRegistry.getActivity(activity.getId())));
+        } catch (IllegalArgumentException e) {
+            log.warn("登记秒杀活动参数错误: activityId={}, message={}", activityDTO.getId(), e.getMessage());
+            return Result.error(e.getMessage());
+        } catch (Exception e) {
+            log.error("登记秒杀活动异常: activityId={}", activityDTO.getId(), e);
+            return Result.error("登记活动失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 查询秒杀活动
+     * <p>
+     * 返回活动信息、当前状态和剩余库存
+     * </p>
+     * 
+     * @param activityId 活动ID，必须大于 0
+     * @return 活动信息
+     */
+    @GetMapping("/activity/{activityId}")
+    public Result<SeckillActivityDTO> getActivity(
+            @PathVariable @NotNull(message = "活动ID不能为空") @Positive(message = "活动ID必须大于0") Long activityId) {
+        try {
+            SeckillActivity activity = seckillActivityRegistry.getActivity(activityId);
+            if (activity == null) {
+                return Result.error("活动不存在");
+            }
+            return Result.success(toDTO(activity));
+        } catch (Exception e) {
+            log.error("查询秒杀活动异常: activityId={}", activityId, e);
+            return Result.error("查询活动失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 初始化秒杀活动库存
      * <p>
@@ -166,5 +266,18 @@ public class SeckillController {
             return Result.error("检查失败: " + e.getMessage());
         }
     }
-}
 
+    /**
+     * 转换为活动 DTO，剩余库存取自缓存
+     * 
+     * @param activity 秒杀活动（状态为当前状态）
+     * @return 活动 DTO
+     */
+    private SeckillActivityDTO toDTO(SeckillActivity activity) {
+        SeckillActivityDTO dto = new SeckillActivityDTO();
+        BeanUtils.copyProperties(activity, dto);
+        dto.setRemainingStock(seckillService.getRemainingStock(activity.getId()).intValue());
+        dto.setIsActive(SeckillActivityState.of(activity.getStatus()) == SeckillActivityState.ACTIVE);
+        return dto;
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.demo;
+
+import com.example.cache.CacheService;
+import com.example.cache.annotation.CacheEvictKey;
+import com.example.cache.annotation.CachedResult;
+import com.example.cache.aspect.CacheAnnotationAspect;
+import com.example.cache.impl.CaffeineCacheService;
+import com.example.cache.offheap.OffHeapStore;
+import com.example.cache.support.RefreshAhead;
+import com.example.cache.support.VariableExpiry;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * 缓存注解测试类
+ * <p>
+ * 用 AspectJ 代理包装查询服务，以本地缓存作为后端，验证 {@link CachedResult} 和 {@link CacheEvictKey}：
+ * <ul>
+ *   <li>key 模板支持参数名、#p0/#a0 和 #result，结果按 ttl 写入缓存，第二次调用不执行方法</li>
+ *   <li>condition 不满足时不走缓存</li>
+ *   <li>方法执行后（或执行前）删除一个或多个 key</li>
+ *   <li>方法的受检异常原样抛出；缓存不可用时直接执行方法</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class CacheAnnotationTest {
+
+    /** 本地缓存服务 */
+    private CaffeineCacheService cacheService;
+
+    /** 被代理的查询服务 */
+    private ProductQuery target;
+
+    /** 代理后的查询服务 */
+    private ProductQuery query;
+
+    @BeforeEach
+    public void setUp() {
+        cacheService = new CaffeineCacheService(
+                Caffeine.newBuilder().maximumSize(1000).expireAfter(new VariableExpiry<String, Object>(1, TimeUnit.HOURS)).build(),
+                new RefreshAhead(false, 1.0, 1, 10, 100),
+                new DefaultListableBeanFactory().getBeanProvider(OffHeapStore.class), 1000, 3600);
+        target = new ProductQuery();
+        query = proxy(target, cacheService);
+    }
+
+    /**
+     * 测试按参数名生成 key 并缓存结果
+     */
+    @Test
+    public void testCachedByParameterName() {
+        assertEquals("product-1", query.find(1L));
+        assertEquals("product-1", query.find(1L));
+        assertEquals(1, target.invocations.get());
+
+        assertEquals("product-1", cacheService.get("product:1", String.class));
+        long ttl = cacheService.ttl("product:1", TimeUnit.SECONDS);
+        assertTrue(ttl > 0 && ttl <= 60, "应按注解的 ttl 写入: " + ttl);
+    }
+
+    /**
+     * 测试 #p0/#a0 和泛型返回值
+     */
+    @Test
+    public void testIndexedParameters() {
+        assertEquals(Arrays.asList("a", "b"), query.tags(7L, "zh"));
+        assertEquals(Arrays.asList("a", "b"), query.tags(7L, "zh"));
+        assertEquals(1, target.invocations.get());
+        assertEquals(Arrays.asList("a", "b"), cacheService.get("product:tags:7:zh", List.class));
+    }
+
+    /**
+     * 测试 condition 不满足时不走缓存
+     */
+    @Test
+    public void testConditionSkipsCache() {
+        query.find(-1L);
+        query.find(-1L);
+
+        assertEquals(2, target.invocations.get());
+        assertFalse(cacheService.exists("product:-1"));
+    }
+
+    /**
+     * 测试方法执行后删除多个 key，以及按 #result 删除
+     */
+    @Test
+    public void testEvictAfterInvocation() {
+        cacheService.set("product:1", "old");
+        cacheService.set("product:list", "old");
+        cacheService.set("product:2", "old");
+
+        query.update(1L);
+        assertFalse(cacheService.exists("product:1"));
+        assertFalse(cacheService.exists("product:list"));
+
+        assertEquals(2L, query.create("new"));
+        assertFalse(cacheService.exists("product:2"));
+    }
+
+    /**
+     * 测试执行前删除：方法抛出异常时 key 也已被删除
+     */
+    @Test
+    public void testEvictBeforeInvocation() {
+        cacheService.set("product:3", "old");
+
+        assertThrows(IllegalStateException.class, () -> query.remove(3L));
+        assertFalse(cacheService.exists("product:3"));
+    }
+
+    /**
+     * 测试方法的受检异常原样抛出，且不写入缓存
+     */
+    @Test
+    public void testCheckedExceptionPropagates() {
+        assertThrows(IOException.class, () -> query.load(5L));
+        assertFalse(cacheService.exists("product:file:5"));
+    }
+
+    /**
+     * 测试缓存不可用时直接执行方法
+     */
+    @Test
+    public void testCacheUnavailable() throws Exception {
+        CacheService broken = Mockito.mock(CacheService.class);
+        Mockito.when(broken.getOrLoad(anyString(), any(Type.class), anyLong(), any(TimeUnit.class), any()))
+                .thenThrow(new RedisConnectionFailureException("redis down"));
+        ProductQuery direct = proxy(target, broken);
+
+        assertEquals("product-1", direct.find(1L));
+        assertEquals(1, target.invocations.get());
+        assertNull(cacheService.get("product:1", String.class));
+    }
+
+    /**
+     * 创建带缓存注解切面代理的查询服务
+     */
+    private static ProductQuery proxy(ProductQuery target, CacheService cacheService) {
+        CacheAnnotationAspect aspect = new CacheAnnotationAspect();
+        ReflectionTestUtils.setField(aspect, "cacheService", cacheService);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    /**
+     * 被代理的查询服务，记录方法实际执行次数
+     */
+    public static class ProductQuery {
+
+        /** 方法实际执行次数 */
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        @CachedResult(key = "product:#{#id}", ttl = 60, condition = "#id > 0")
+        public String find(Long id) {
+            invocations.incrementAndGet();
+            return "product-" + id;
+        }
+
+        @CachedResult(key = "product:tags:#{#p0}:#{#a1}")
+        public List<String> tags(Long id, String locale) {
+            invocations.incrementAndGet();
+            return Arrays.asList("a", "b");
+        }
+
+        @CachedResult(key = "product:file:#{#id}")
+        public String load(Long id) throws IOException {
+            throw new IOException("file missing");
+        }
+
+        @CacheEvictKey(key = {"product:#{#id}", "product:list"})
+        public void update(Long id) {
+            invocations.incrementAndGet();
+        }
+
+        @CacheEvictKey(key = "product:#{#result}")
+        public long create(String name) {
+            return 2L;
+        }
+
+        @CacheEvictKey(key = "product:#{#id}", beforeInvocation = true)
+        public void remove(Long id) {
+            throw new IllegalStateException("referenced by orders");
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.demo;
+
+import com.example.cache.impl.RedisCacheService;
+import com.example.cache.support.SingleFlight;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 缓存加载测试类
+ * <p>
+ * 验证缓存未命中时的请求合并和跨节点加载租约（租约部分使用嵌入式 Redis）：
+ * <ul>
+ *   <li>单飞执行器：同一个 key 的并发调用只执行一次加载，异常传给所有等待者，结束后可以重新加载</li>
+ *   <li>getOrLoad：同一个 key 的并发未命中只调用一次加载回调</li>
+ *   <li>租约释放：加载成功或失败后都删除自己持有的租约</li>
+ *   <li>租约等待：其他节点持有租约时轮询缓存，拿到对方写入的值，不调用加载回调</li>
+ *   <li>租约兜底：等到租约过期仍没有值，或租约提前释放但缓存仍为空时，自行加载</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class CacheLoadTest {
+
+    /** 并发线程数 */
+    private static final int THREADS = 8;
+
+    /** 嵌入式 Redis */
+    private static EmbeddedRedis redis;
+
+    /** Redis 缓存服务 */
+    private RedisCacheService cacheService;
+
+    /** 测试线程池 */
+    private ExecutorService executor;
+
+    @BeforeAll
+    public static void startRedis() throws IOException {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    public static void stopRedis() throws IOException {
+        redis.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        redis.flushAll();
+        cacheService = redis.cacheService();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 测试单飞执行器合并并发加载
+     */
+    @Test
+    public void testSingleFlightLoadsOnce() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        AtomicInteger loads = new AtomicInteger();
+
+        List<String> results = concurrently(() -> singleFlight.execute("product:1", () -> {
+            loads.incrementAndGet();
+            Thread.sleep(200);
+            return "value";
+        }));
+
+        assertEquals(1, loads.get());
+        results.forEach(result -> assertEquals("value", result));
+    }
+
+    /**
+     * 测试单飞执行器的异常传递
+     * <p>
+     * 加载失败时所有等待者收到同一个异常；失败结束后同一个 key 可以重新加载
+     * </p>
+     */
+    @Test
+    public void testSingleFlightFailurePropagates() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return singleFlight.execute("product:1", () -> {
+                    loads.incrementAndGet();
+                    Thread.sleep(200);
+                    throw new IllegalStateException("db down");
+                });
+            }));
+        }
+        start.countDown();
+        for (Future<String> future : futures) {
+            ExecutionException e = assertThrows(ExecutionException.class, future::get);
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(1, loads.get());
+
+        assertEquals("value", singleFlight.execute("product:1", () -> "value"));
+    }
+
+    /**
+     * 测试 getOrLoad 并发未命中只加载一次，结果写入 Redis
+     */
+    @Test
+    public void testGetOrLoadLoadsOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+
+        List<String> results = concurrently(() -> cacheService.getOrLoad("product:1", String.class, 60, TimeUnit.SECONDS, () -> {
+            loads.incrementAndGet();
+            Thread.sleep(200);
+            return "value";
+        }));
+
+        assertEquals(1, loads.get());
+        results.forEach(result -> assertEquals("value", result));
+        assertEquals("value", redis.template().opsForValue().get("product:1"));
+    }
+
+    /**
+     * 测试租约在加载成功和失败后都被释放
+     */
+    @Test
+    public void testLeaseReleased() {
+        enableLease(3000);
+
+        assertEquals("value", cacheService.getOrLoad("product:1", String.class, 60, TimeUnit.SECONDS, () -> "value"));
+        assertFalse(redis.template().hasKey("cache:lease:product:1"));
+
+        assertThrows(RuntimeException.class, () -> cacheService.getOrLoad("product:2", String.class, 60, TimeUnit.SECONDS, () -> {
+            throw new IllegalStateException("db down");
+        }));
+        assertFalse(redis.template().hasKey("cache:lease:product:2"));
+    }
+
+    /**
+     * 测试其他节点持有租约时等待其加载结果
+     * <p>
+     * 模拟另一个节点抢到租约，200ms 后写入缓存并释放租约：本节点拿到对方的值，不调用加载回调
+     * </p>
+     */
+    @Test
+    public void testWaitForLeaseHolder() throws Exception {
+        enableLease(3000);
+        redis.template().opsForValue().set("cache:lease:product:1", "other-node", 3000, TimeUnit.MILLISECONDS);
+        executor.submit(() -> {
+            Thread.sleep(200);
+            redis.template().opsForValue().set("product:1", "remote", 60, TimeUnit.SECONDS);
+            redis.template().delete("cache:lease:product:1");
+            return null;
+        });
+        AtomicInteger loads = new AtomicInteger();
+
+        String value = cacheService.getOrLoad("product:1", String.class, 60, TimeUnit.SECONDS, () -> {
+            loads.incrementAndGet();
+            return "local";
+        });
+
+        assertEquals("remote", value);
+        assertEquals(0, loads.get());
+    }
+
+    /**
+     * 测试租约超时后自行加载
+     * <p>
+     * 另一个节点持有租约但一直没有写入缓存：本节点最多等待一个租约时长，然后自己加载并写入缓存
+     * </p>
+     */
+    @Test
+    public void testLeaseTimeoutFallsBackToLoad() {
+        enableLease(300);
+        redis.template().opsForValue().set("cache:lease:product:1", "other-node", 10, TimeUnit.SECONDS);
+        AtomicInteger loads = new AtomicInteger();
+
+        long start = System.currentTimeMillis();
+        String value = cacheService.getOrLoad("product:1", String.class, 60, TimeUnit.SECONDS, () -> {
+            loads.incrementAndGet();
+            return "local";
+        });
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals("local", value);
+        assertEquals(1, loads.get());
+        assertTrue(elapsed >= 300, "应等满租约时长: " + elapsed);
+        assertEquals("local", redis.template().opsForValue().get("product:1"));
+    }
+
+    /**
+     * 测试租约提前释放但缓存仍为空时，不再等待，立即自行加载
+     */
+    @Test
+    public void testLeaseReleasedWithoutValue() throws Exception {
+        enableLease(3000);
+        redis.template().opsForValue().set("cache:lease:product:1", "other-node", 3000, TimeUnit.MILLISECONDS);
+        executor.submit(() -> {
+            Thread.sleep(100);
+            redis.template().delete("cache:lease:product:1");
+            return null;
+        });
+
+        long start = System.currentTimeMillis();
+        String value = cacheService.getOrLoad("product:1", String.class, 60, TimeUnit.SECONDS, () -> "local");
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals("local", value);
+        assertTrue(elapsed < 3000, "租约释放后不应等满租约时长: " + elapsed);
+    }
+
+    /**
+     * 开启加载租约
+     *
+     * @param leaseMillis 租约时长（毫秒）
+     */
+    private void enableLease(long leaseMillis) {
+        ReflectionTestUtils.setField(cacheService, "leaseEnabled", true);
+        ReflectionTestUtils.setField(cacheService, "leaseMillis", leaseMillis);
+    }
+
+    /**
+     * 多个线程同时执行同一个任务
+     *
+     * @param task 任务
+     * @return 各线程的结果
+     */
+    private <T> List<T> concurrently(Callable<T> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(10, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+}
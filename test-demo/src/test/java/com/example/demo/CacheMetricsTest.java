@@ -0,0 +1,161 @@
+package com.example.demo;
+
+import com.example.cache.CacheService;
+import com.example.cache.impl.CaffeineCacheService;
+import com.example.cache.metrics.CacheMetrics;
+import com.example.cache.metrics.CacheMetricsAspect;
+import com.example.cache.offheap.OffHeapStore;
+import com.example.cache.support.RefreshAhead;
+import com.example.cache.support.VariableExpiry;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 缓存指标测试类
+ * <p>
+ * 用 SimpleMeterRegistry 和 AspectJ 代理包装本地缓存服务，验证指标名称和标签：
+ * <ul>
+ *   <li>读取按 layer/prefix/result 记录命中和未命中，getOrLoad 没有回源时计为命中</li>
+ *   <li>操作耗时按 layer/operation/prefix/outcome 记录，加载回调耗时单独记录，失败计入 failure</li>
+ *   <li>前缀取 key 的前两段，遇到以数字开头的段提前结束，超过数量上限后归入 other</li>
+ *   <li>关闭指标时不注册任何指标</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class CacheMetricsTest {
+
+    /** 本地缓存服务的 layer 标签 */
+    private static final String LAYER = "caffeine";
+
+    /**
+     * 测试读取命中率和操作耗时的标签
+     */
+    @Test
+    public void testGetAndLoadTags() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        CacheService cacheService = instrumented(registry, true, 200);
+
+        cacheService.set("product:detail:1", "p1", 60, TimeUnit.SECONDS);
+        assertEquals("p1", cacheService.get("product:detail:1", String.class));
+        assertNull(cacheService.get("product:detail:2", String.class));
+        assertEquals("p3", cacheService.getOrLoad("product:detail:3", String.class, 60, TimeUnit.SECONDS, () -> "p3"));
+        assertEquals("p3", cacheService.getOrLoad("product:detail:3", String.class, 60, TimeUnit.SECONDS, () -> "reload"));
+        cacheService.multiGet(Arrays.asList("product:detail:1", "product:detail:4"), String.class);
+
+        assertEquals(3, gets(registry, "product:detail", "hit"));
+        assertEquals(3, gets(registry, "product:detail", "miss"));
+        assertEquals(0.5, registry.get("cache.service.hit.ratio")
+                .tag("layer", LAYER).tag("prefix", "product:detail").gauge().value(), 0.0001);
+        assertEquals(1, registry.get("cache.service.loads")
+                .tag("layer", LAYER).tag("prefix", "product:detail").tag("outcome", "success").timer().count());
+        assertEquals(2, operations(registry, "get", "product:detail", "success"));
+        assertEquals(1, operations(registry, "set", "product:detail", "success"));
+        assertEquals(2, operations(registry, "getOrLoad", "product:detail", "success"));
+    }
+
+    /**
+     * 测试加载失败的标签
+     */
+    @Test
+    public void testFailureOutcome() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        CacheService cacheService = instrumented(registry, true, 200);
+
+        assertThrows(RuntimeException.class, () -> cacheService.getOrLoad("product:detail:1", String.class,
+                60, TimeUnit.SECONDS, () -> {
+                    throw new IllegalStateException("db down");
+                }));
+
+        assertEquals(1, operations(registry, "getOrLoad", "product:detail", "failure"));
+        assertEquals(1, registry.get("cache.service.loads")
+                .tag("layer", LAYER).tag("prefix", "product:detail").tag("outcome", "failure").timer().count());
+    }
+
+    /**
+     * 测试前缀提取和数量上限
+     */
+    @Test
+    public void testPrefixCardinality() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        CacheService cacheService = instrumented(registry, true, 2);
+
+        cacheService.get("seckill:1001:stock", String.class);
+        cacheService.get("user:profile:7", String.class);
+        cacheService.get("order:detail:9", String.class);
+        cacheService.get("counter", String.class);
+
+        assertEquals(1, gets(registry, "seckill", "miss"));
+        assertEquals(1, gets(registry, "user:profile", "miss"));
+        assertEquals(1, gets(registry, "other", "miss"));
+        assertEquals(1, gets(registry, "default", "miss"));
+        assertNull(registry.find("cache.service.gets").tag("prefix", "order:detail").counter());
+    }
+
+    /**
+     * 测试关闭指标
+     */
+    @Test
+    public void testDisabled() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        CacheService cacheService = instrumented(registry, false, 200);
+
+        cacheService.set("product:detail:1", "p1", 60, TimeUnit.SECONDS);
+        assertNotNull(cacheService.get("product:detail:1", String.class));
+
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    /**
+     * 创建带指标切面代理的本地缓存服务
+     *
+     * @param registry 指标注册表
+     * @param enabled 是否开启指标
+     * @param maxPrefixes 前缀数量上限
+     * @return 代理后的缓存服务
+     */
+    private static CacheService instrumented(MeterRegistry registry, boolean enabled, int maxPrefixes) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", registry);
+        CacheMetrics metrics = new CacheMetrics(beanFactory.getBeanProvider(MeterRegistry.class), enabled, 2, maxPrefixes, false);
+        CaffeineCacheService target = new CaffeineCacheService(
+                Caffeine.newBuilder().maximumSize(1000).expireAfter(new VariableExpiry<String, Object>(1, TimeUnit.HOURS)).build(),
+                new RefreshAhead(false, 1.0, 1, 10, 100), beanFactory.getBeanProvider(OffHeapStore.class), 1000, 3600);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new CacheMetricsAspect(metrics));
+        return factory.getProxy();
+    }
+
+    /**
+     * 读取次数
+     */
+    private static long gets(MeterRegistry registry, String prefix, String result) {
+        return (long) registry.get("cache.service.gets")
+                .tag("layer", LAYER).tag("prefix", prefix).tag("result", result).counter().count();
+    }
+
+    /**
+     * 操作耗时的记录次数
+     */
+    private static long operations(MeterRegistry registry, String operation, String prefix, String outcome) {
+        return registry.get("cache.service.operations")
+                .tag("layer", LAYER).tag("operation", operation).tag("prefix", prefix).tag("outcome", outcome)
+                .timer().count();
+    }
+}
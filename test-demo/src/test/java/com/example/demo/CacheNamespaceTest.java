@@ -0,0 +1,139 @@
+package com.example.demo;
+
+import com.example.cache.impl.RedisCacheService;
+import com.example.cache.namespace.CacheNamespaceManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 缓存命名空间测试类
+ * <p>
+ * 两个命名空间管理器共用一个嵌入式 Redis，模拟两个节点，验证按版本号整体失效：
+ * <ul>
+ *   <li>key 的格式为 {命名空间}:{版本号}:{key}，版本号首次使用时初始化并保存在 Redis</li>
+ *   <li>失效后本节点立即使用新版本号，旧版本的条目不再可达；其他节点在本地版本缓存过期后切换</li>
+ *   <li>版本号丢失后重新以时间戳初始化，不会与丢失前的版本号重复</li>
+ *   <li>没有缓存服务时版本号固定为 0</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class CacheNamespaceTest {
+
+    /** 本地版本缓存时间（毫秒） */
+    private static final long LOCAL_TTL_MILLIS = 200;
+
+    /** 嵌入式 Redis */
+    private static EmbeddedRedis redis;
+
+    /** Redis 缓存服务 */
+    private RedisCacheService cacheService;
+
+    /** 节点 A */
+    private CacheNamespaceManager nodeA;
+
+    /** 节点 B */
+    private CacheNamespaceManager nodeB;
+
+    @BeforeAll
+    public static void startRedis() throws IOException {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    public static void stopRedis() throws IOException {
+        redis.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        redis.flushAll();
+        cacheService = redis.cacheService();
+        nodeA = manager(cacheService);
+        nodeB = manager(cacheService);
+    }
+
+    /**
+     * 测试 key 格式和版本号初始化
+     */
+    @Test
+    public void testKeyFormat() {
+        long version = nodeA.version("product");
+
+        assertEquals("product:" + version + ":1", nodeA.key("product", 1));
+        assertEquals(nodeA.key("product", 1), nodeB.key("product", 1));
+        assertEquals(Long.valueOf(version), cacheService.get("cache:ns:product", Long.class));
+    }
+
+    /**
+     * 测试失效后切换版本
+     */
+    @Test
+    public void testInvalidateBumpsVersion() throws InterruptedException {
+        String before = nodeA.key("product", 1);
+        nodeB.key("product", 1);
+        cacheService.set(before, "old", 60, TimeUnit.SECONDS);
+
+        long version = nodeA.invalidate("product");
+
+        String after = nodeA.key("product", 1);
+        assertNotEquals(before, after);
+        assertEquals("product:" + version + ":1", after);
+        assertNull(cacheService.get(after, String.class));
+        // 其他节点在本地版本缓存过期前仍使用旧版本，过期后切换
+        assertEquals(before, nodeB.key("product", 1));
+        Thread.sleep(LOCAL_TTL_MILLIS * 2);
+        assertEquals(after, nodeB.key("product", 1));
+
+        // 其他命名空间不受影响
+        assertEquals(nodeA.key("order", 1), nodeB.key("order", 1));
+    }
+
+    /**
+     * 测试版本号丢失后重新初始化
+     */
+    @Test
+    public void testLostVersionReinitialized() throws InterruptedException {
+        long version = nodeA.invalidate("product");
+        redis.template().delete("cache:ns:product");
+        Thread.sleep(5);
+
+        long reinitialized = nodeA.invalidate("product");
+
+        assertTrue(reinitialized > version, "重新初始化的版本号应大于丢失前的版本号: " + version + " -> " + reinitialized);
+    }
+
+    /**
+     * 测试没有缓存服务时版本号固定为 0
+     */
+    @Test
+    public void testWithoutCacheService() {
+        CacheNamespaceManager manager = new CacheNamespaceManager(LOCAL_TTL_MILLIS, 100);
+
+        assertEquals("product:0:1", manager.key("product", 1));
+        assertEquals(0L, manager.invalidate("product"));
+    }
+
+    /**
+     * 创建使用给定缓存服务的命名空间管理器
+     */
+    private static CacheNamespaceManager manager(RedisCacheService cacheService) {
+        CacheNamespaceManager manager = new CacheNamespaceManager(LOCAL_TTL_MILLIS, 100);
+        ReflectionTestUtils.setField(manager, "cacheService", cacheService);
+        return manager;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.demo;
+
+import com.example.cache.penetration.CachePenetrationGuard;
+import com.example.cache.penetration.RedisBloomFilter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 缓存穿透防护测试类
+ * <p>
+ * 使用嵌入式 Redis 验证布隆过滤器和空值标记：
+ * <ul>
+ *   <li>布隆过滤器构建前不拦截；加载结果为 null 时写入带过期时间的空值标记，重复查询不再调用加载回调</li>
+ *   <li>分页重建后已有ID全部判断为可能存在，不存在的ID误判率接近配置值，被拦截时不调用加载回调</li>
+ *   <li>登记新增实体后不再被拦截，并清除其空值标记</li>
+ *   <li>重建期间登记的实体在重建完成后仍然存在</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class CachePenetrationTest {
+
+    /** 实体类型 */
+    private static final String ARTICLE = "article";
+
+    /** 已存在的实体数量 */
+    private static final int EXISTING = 1200;
+
+    /** 嵌入式 Redis */
+    private static EmbeddedRedis redis;
+
+    /** 穿透防护，空值标记 60 秒，预期 2000 个实体，误判率 1%，每页 500 */
+    private CachePenetrationGuard guard;
+
+    @BeforeAll
+    public static void startRedis() throws IOException {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    public static void stopRedis() throws IOException {
+        redis.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        redis.flushAll();
+        guard = new CachePenetrationGuard(redis.template(), 60, 2000, 0.01, 500);
+    }
+
+    /**
+     * 测试空值标记
+     * <p>
+     * 布隆过滤器尚未构建时不拦截；第一次查询不存在的ID写入空值标记，之后的查询直接返回 null
+     * </p>
+     */
+    @Test
+    public void testNullMarker() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(guard.load(ARTICLE, 42, () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        long ttl = redis.template().getExpire("cache:null:article:42", TimeUnit.SECONDS);
+        assertTrue(ttl > 0 && ttl <= 60, "空值标记应带过期时间: " + ttl);
+
+        assertNull(guard.load(ARTICLE, 42, () -> {
+            loads.incrementAndGet();
+            return "article-42";
+        }));
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * 测试分页重建和拦截
+     */
+    @Test
+    public void testRebuildAndReject() {
+        assertEquals(EXISTING, guard.rebuild(ARTICLE, (lastId, pageSize) -> page(lastId, pageSize, EXISTING)));
+        RedisBloomFilter filter = guard.bloomFilter(ARTICLE);
+
+        for (int id = 1; id <= EXISTING; id++) {
+            assertTrue(filter.mightContain(String.valueOf(id)), "已存在的ID不能被判断为不存在: " + id);
+        }
+        int falsePositives = 0;
+        for (int id = 100001; id <= 101000; id++) {
+            if (filter.mightContain(String.valueOf(id))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 1000 * 0.03, "误判率应接近配置值: " + falsePositives);
+
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals("article-7", guard.load(ARTICLE, 7, () -> {
+            loads.incrementAndGet();
+            return "article-7";
+        }));
+        for (int id = 200001; id <= 200100; id++) {
+            guard.load(ARTICLE, id, () -> {
+                loads.incrementAndGet();
+                return null;
+            });
+        }
+        assertTrue(loads.get() - 1 < 10, "不存在的ID应几乎全部被拦截: " + (loads.get() - 1));
+    }
+
+    /**
+     * 测试登记新增实体
+     * <p>
+     * 重建后新增的ID先被拦截，登记后可以正常加载；已有ID的空值标记在登记时被清除
+     * </p>
+     */
+    @Test
+    public void testMarkExists() {
+        guard.rebuild(ARTICLE, (lastId, pageSize) -> page(lastId, pageSize, EXISTING));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(guard.load(ARTICLE, 300000, () -> {
+            loads.incrementAndGet();
+            return "article-300000";
+        }));
+        assertEquals(0, loads.get());
+        guard.markExists(ARTICLE, 300000);
+        assertEquals("article-300000", guard.load(ARTICLE, 300000, () -> {
+            loads.incrementAndGet();
+            return "article-300000";
+        }));
+        assertEquals(1, loads.get());
+
+        // 数据库中暂时查不到，写入空值标记；随后写入数据库并登记
+        assertNull(guard.load(ARTICLE, 5, () -> null));
+        assertTrue(redis.template().hasKey("cache:null:article:5"));
+        guard.markExists(ARTICLE, 5);
+        assertFalse(redis.template().hasKey("cache:null:article:5"));
+        assertEquals("article-5", guard.load(ARTICLE, 5, () -> "article-5"));
+    }
+
+    /**
+     * 测试重建期间登记的实体
+     * <p>
+     * 拉取第二页时登记一个新实体，重建完成替换位图后该实体仍被判断为可能存在
+     * </p>
+     */
+    @Test
+    public void testMarkExistsDuringRebuild() {
+        guard.rebuild(ARTICLE, (lastId, pageSize) -> {
+            if (lastId != null) {
+                guard.markExists(ARTICLE, 400000);
+            }
+            return page(lastId, pageSize, EXISTING);
+        });
+
+        assertTrue(guard.bloomFilter(ARTICLE).mightContain("400000"));
+    }
+
+    /**
+     * 按升序分页返回 1..total 的ID
+     */
+    private static List<?> page(Object lastId, int pageSize, int total) {
+        int from = lastId == null ? 1 : ((Integer) lastId) + 1;
+        if (from > total) {
+            return Collections.emptyList();
+        }
+        List<Integer> ids = new ArrayList<>(pageSize);
+        for (int id = from; id <= total && ids.size() < pageSize; id++) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
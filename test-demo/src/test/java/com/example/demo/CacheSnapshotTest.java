@@ -0,0 +1,209 @@
+package com.example.demo;
+
+import com.example.cache.codec.ValueCodec;
+import com.example.cache.offheap.OffHeapStore;
+import com.example.cache.snapshot.CacheSnapshotFile;
+import com.example.cache.snapshot.CacheSnapshotManager;
+import com.example.cache.support.VariableExpiry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 本地缓存快照测试类
+ * <p>
+ * 在临时目录中验证快照文件和快照的写入、恢复：
+ * <ul>
+ *   <li>快照文件的写入和读取往返，文件不存在时返回 null</li>
+ *   <li>内容被改动或格式不正确时读取失败</li>
+ *   <li>恢复时跳过剩余过期时间不足、不在快照范围内的条目，不覆盖已有的值，过旧的快照整体跳过</li>
+ *   <li>应用关闭时写入最后一次快照</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class CacheSnapshotTest {
+
+    /** 临时快照目录 */
+    @TempDir
+    Path dir;
+
+    /**
+     * 测试快照文件往返
+     */
+    @Test
+    public void testFileRoundTrip() throws IOException {
+        Path path = dir.resolve("local.snapshot");
+        assertNull(CacheSnapshotFile.read(path));
+
+        List<CacheSnapshotFile.Entry> entries = Arrays.asList(
+                new CacheSnapshotFile.Entry("product:1", 1700000000000L, "java.lang.String", utf8("\"商品1\"")),
+                new CacheSnapshotFile.Entry("product:2", 0L, "java.lang.Integer", utf8("42")));
+        CacheSnapshotFile.write(path, 1699999999000L, entries);
+
+        CacheSnapshotFile.Snapshot snapshot = CacheSnapshotFile.read(path);
+        assertEquals(1699999999000L, snapshot.getCreatedAt());
+        assertEquals(2, snapshot.getEntries().size());
+        for (int i = 0; i < entries.size(); i++) {
+            CacheSnapshotFile.Entry expected = entries.get(i);
+            CacheSnapshotFile.Entry actual = snapshot.getEntries().get(i);
+            assertEquals(expected.getKey(), actual.getKey());
+            assertEquals(expected.getExpireAt(), actual.getExpireAt());
+            assertEquals(expected.getType(), actual.getType());
+            assertArrayEquals(expected.getValue(), actual.getValue());
+        }
+        assertTrue(Files.notExists(dir.resolve("local.snapshot.tmp")));
+    }
+
+    /**
+     * 测试校验失败
+     * <p>
+     * 改动最后一个字节后 CRC 不匹配；改动文件头后格式不正确；截断后长度不正确
+     * </p>
+     */
+    @Test
+    public void testCorruptedFileRejected() throws IOException {
+        Path path = dir.resolve("local.snapshot");
+        CacheSnapshotFile.write(path, System.currentTimeMillis(), Collections.singletonList(
+                new CacheSnapshotFile.Entry("product:1", 0L, "java.lang.String", utf8("\"商品1\""))));
+        byte[] original = Files.readAllBytes(path);
+
+        byte[] flipped = original.clone();
+        flipped[flipped.length - 1] ^= 0x01;
+        Files.write(path, flipped);
+        IOException e = assertThrows(IOException.class, () -> CacheSnapshotFile.read(path));
+        assertTrue(e.getMessage().contains("校验"));
+
+        byte[] badMagic = original.clone();
+        badMagic[0] ^= 0x01;
+        Files.write(path, badMagic);
+        assertThrows(IOException.class, () -> CacheSnapshotFile.read(path));
+
+        Files.write(path, Arrays.copyOf(original, 10));
+        assertThrows(IOException.class, () -> CacheSnapshotFile.read(path));
+    }
+
+    /**
+     * 测试快照和恢复
+     * <p>
+     * 只快照 product: 前缀；剩余 300ms 的条目低于 1 秒的最小剩余时间，恢复时跳过；
+     * 恢复时目标缓存中已有的 key 保留新值，恢复的条目保留剩余过期时间
+     * </p>
+     */
+    @Test
+    public void testSnapshotAndRestore() {
+        CacheSnapshotManager manager = manager(3600, "product:");
+        Cache<String, Object> source = cache();
+        source.policy().expireVariably().get().put("product:1", "商品1", 60, TimeUnit.SECONDS);
+        source.policy().expireVariably().get().put("product:2", "商品2", 60, TimeUnit.SECONDS);
+        source.policy().expireVariably().get().put("product:3", "商品3", 300, TimeUnit.MILLISECONDS);
+        source.policy().expireVariably().get().put("session:1", "会话", 60, TimeUnit.SECONDS);
+
+        assertEquals(3, manager.snapshot("local", source));
+
+        Cache<String, Object> target = cache();
+        target.put("product:2", "新值");
+        assertEquals(1, manager.restore("local", target));
+
+        assertEquals("商品1", target.getIfPresent("product:1"));
+        assertEquals("新值", target.getIfPresent("product:2"));
+        assertNull(target.getIfPresent("product:3"));
+        assertNull(target.getIfPresent("session:1"));
+        long remaining = target.policy().expireVariably().get().getExpiresAfter("product:1", TimeUnit.MILLISECONDS).getAsLong();
+        assertTrue(remaining > 1000 && remaining <= 60000, "恢复的条目应保留剩余过期时间: " + remaining);
+    }
+
+    /**
+     * 测试过旧的快照整体跳过
+     */
+    @Test
+    public void testStaleSnapshotSkipped() throws IOException {
+        long createdAt = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2);
+        CacheSnapshotFile.write(dir.resolve("local.snapshot"), createdAt, Collections.singletonList(
+                new CacheSnapshotFile.Entry("product:1", 0L, "java.lang.String", utf8("\"商品1\""))));
+
+        Cache<String, Object> target = cache();
+        assertEquals(0, manager(3600, "").restore("local", target));
+        assertNull(target.getIfPresent("product:1"));
+    }
+
+    /**
+     * 测试关闭时写入最后一次快照
+     */
+    @Test
+    public void testDestroyWritesFinalSnapshot() throws IOException {
+        Cache<String, Object> cache = cache();
+        CacheSnapshotManager manager = manager(cache, 3600, "");
+        manager.afterSingletonsInstantiated();
+        cache.policy().expireVariably().get().put("product:1", "商品1", 60, TimeUnit.SECONDS);
+
+        manager.destroy();
+
+        CacheSnapshotFile.Snapshot snapshot = CacheSnapshotFile.read(dir.resolve("local.snapshot"));
+        assertEquals(1, snapshot.getEntries().size());
+        assertEquals("product:1", snapshot.getEntries().get(0).getKey());
+    }
+
+    /**
+     * 创建没有注册本地缓存的快照管理器，用于直接调用 snapshot/restore
+     */
+    private CacheSnapshotManager manager(long maxAgeSeconds, String includePrefixes) {
+        CacheSnapshotManager manager = manager(null, maxAgeSeconds, includePrefixes);
+        manager.afterSingletonsInstantiated();
+        return manager;
+    }
+
+    /**
+     * 创建快照管理器：每个缓存最多 100 条，恢复条目的最小剩余过期时间 1 秒
+     */
+    @SuppressWarnings("unchecked")
+    private CacheSnapshotManager manager(Cache<String, Object> localCache, long maxAgeSeconds, String includePrefixes) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        if (localCache != null) {
+            beanFactory.registerSingleton("localCache", localCache);
+        }
+        ObjectProvider<Cache<String, Object>> cacheProvider =
+                (ObjectProvider<Cache<String, Object>>) (ObjectProvider<?>) beanFactory.getBeanProvider(Cache.class);
+        return new CacheSnapshotManager(cacheProvider, beanFactory.getBeanProvider(ValueCodec.class),
+                beanFactory.getBeanProvider(OffHeapStore.class), dir.toString(), 3600, 100, maxAgeSeconds, 1000,
+                includePrefixes);
+    }
+
+    /**
+     * 创建可变过期时间的 Caffeine 缓存
+     */
+    private static Cache<String, Object> cache() {
+        return Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfter(new VariableExpiry<String, Object>(1, TimeUnit.HOURS))
+                .build();
+    }
+
+    /**
+     * UTF-8 字节
+     */
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
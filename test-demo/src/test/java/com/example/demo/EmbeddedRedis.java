@@ -0,0 +1,187 @@
+package com.example.demo;
+
+import com.example.cache.config.RedisConfig;
+import com.example.cache.hotkey.HotKeyDetector;
+import com.example.cache.impl.RedisCacheService;
+import com.example.cache.metrics.CacheMetrics;
+import com.example.cache.support.RefreshAhead;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 嵌入式 Redis 测试支持
+ * <p>
+ * 在本机空闲端口启动 redis-server，并按生产配置（{@link RedisConfig}）创建 RedisTemplate，
+ * 用于验证 Lua 脚本、加载租约等必须由真实 Redis 执行的逻辑：
+ * <ul>
+ *   <li>{@link #start()} 启动单机 Redis，{@link #template()} 返回连接它的 RedisTemplate</li>
+ *   <li>{@link #context(Map)} 按给定配置创建只包含 RedisConfig 的 Spring 容器，用于验证集群、哨兵等拓扑</li>
+ *   <li>{@link #cacheService()} 组装关闭了提前刷新、热点 key 和指标的 RedisCacheService</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 关闭时依次关闭创建过的容器和 Redis 进程
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class EmbeddedRedis implements AutoCloseable {
+
+    /** 单机 Redis 进程 */
+    private final RedisServer server;
+
+    /** 单机 Redis 端口 */
+    private final int port;
+
+    /** 创建过的 Spring 容器，关闭时统一关闭 */
+    private final List<AnnotationConfigApplicationContext> contexts = new ArrayList<>();
+
+    /** 连接单机 Redis 的 RedisTemplate */
+    private final RedisTemplate<String, Object> template;
+
+    private EmbeddedRedis(RedisServer server, int port) {
+        this.server = server;
+        this.port = port;
+        this.template = template(context(Collections.<String, Object>emptyMap()));
+    }
+
+    /**
+     * 在空闲端口启动单机 Redis
+     *
+     * @return 嵌入式 Redis
+     * @throws IOException 启动失败
+     */
+    public static EmbeddedRedis start() throws IOException {
+        int port = freePort();
+        RedisServer server = RedisServer.newRedisServer().bind("127.0.0.1").port(port).build();
+        server.start();
+        return new EmbeddedRedis(server, port);
+    }
+
+    /**
+     * 获取一个空闲端口
+     *
+     * @return 端口
+     */
+    public static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 单机 Redis 端口
+     *
+     * @return 端口
+     */
+    public int port() {
+        return port;
+    }
+
+    /**
+     * 连接单机 Redis 的 RedisTemplate
+     *
+     * @return RedisTemplate
+     */
+    public RedisTemplate<String, Object> template() {
+        return template;
+    }
+
+    /**
+     * 按给定配置创建只包含 RedisConfig 的 Spring 容器
+     * <p>
+     * 未指定 spring.redis.host/port 时连接本实例的单机 Redis
+     * </p>
+     *
+     * @param properties 配置项
+     * @return 已刷新的 Spring 容器
+     */
+    public AnnotationConfigApplicationContext context(Map<String, Object> properties) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.redis.host", "127.0.0.1")
+                .withProperty("spring.redis.port", String.valueOf(port));
+        properties.forEach((name, value) -> environment.setProperty(name, String.valueOf(value)));
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setEnvironment(environment);
+        // 与 Spring Boot 一致，支持 2s、30s 这类 Duration 配置
+        context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+        context.register(RedisConfig.class);
+        context.refresh();
+        contexts.add(context);
+        return context;
+    }
+
+    /**
+     * 组装 RedisCacheService，关闭提前刷新、热点 key 和指标，租约默认关闭
+     *
+     * @return RedisCacheService
+     */
+    public RedisCacheService cacheService() {
+        return cacheService(new RefreshAhead(false, 1.0, 1, 10, 100),
+                new HotKeyDetector(false, 1.0, 1000, 1000, 64, 10, 10, 1000, new String[0]));
+    }
+
+    /**
+     * 用给定的提前刷新和热点 key 组件组装 RedisCacheService
+     *
+     * @param refreshAhead 提前刷新
+     * @param hotKeyDetector 热点 key 探测
+     * @return RedisCacheService
+     */
+    public RedisCacheService cacheService(RefreshAhead refreshAhead, HotKeyDetector hotKeyDetector) {
+        CacheMetrics metrics = new CacheMetrics(
+                new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class), false, 2, 200, false);
+        RedisCacheService service = new RedisCacheService(template, refreshAhead, hotKeyDetector, metrics);
+        ReflectionTestUtils.setField(service, "leaseMillis", 3000L);
+        ReflectionTestUtils.setField(service, "leasePollMillis", 50L);
+        return service;
+    }
+
+    /**
+     * 清空单机 Redis 的所有数据
+     */
+    public void flushAll() {
+        template.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    /**
+     * 从容器中取出 RedisTemplate
+     *
+     * @param context Spring 容器
+     * @return RedisTemplate
+     */
+    @SuppressWarnings("unchecked")
+    public static RedisTemplate<String, Object> template(AnnotationConfigApplicationContext context) {
+        return (RedisTemplate<String, Object>) context.getBean("redisTemplate");
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (AnnotationConfigApplicationContext context : contexts) {
+            context.close();
+        }
+        server.stop();
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.demo;
+
+import com.example.cache.hotkey.HotKeyDetector;
+import com.example.cache.impl.RedisCacheService;
+import com.example.cache.support.RefreshAhead;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 热点 key 测试类
+ * <p>
+ * 采样率取 1 使计数确定，验证热点 key 的探测和本地提升：
+ * <ul>
+ *   <li>窗口内访问次数达到阈值后才成为热点，只有热点 key 的值会被提升到本地</li>
+ *   <li>排除前缀的 key 即使是热点也不提升</li>
+ *   <li>本地副本在 local-ttl-millis 后过期，失效时立即删除</li>
+ *   <li>窗口切换后计数清零</li>
+ *   <li>RedisCacheService 对热点 key 读本地副本，写入和删除时清除本地副本（使用嵌入式 Redis）</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class HotKeyTest {
+
+    /** 热点阈值 */
+    private static final int THRESHOLD = 5;
+
+    /**
+     * 测试达到阈值后提升
+     */
+    @Test
+    public void testPromoteAfterThreshold() {
+        HotKeyDetector detector = detector(10000, 1000);
+
+        accessTimes(detector, "product:1", THRESHOLD - 1);
+        detector.promote("product:1", "value");
+        assertNull(detector.access("product:1"), "未达到阈值不应提升");
+
+        detector.promote("product:1", "value");
+        assertEquals("value", detector.access("product:1"));
+
+        // 冷 key 不提升
+        detector.access("product:2");
+        detector.promote("product:2", "cold");
+        assertNull(detector.access("product:2"));
+
+        List<HotKeyDetector.HotKey> hotKeys = detector.getHotKeys();
+        assertEquals(1, hotKeys.size());
+        assertEquals("product:1", hotKeys.get(0).getKey());
+        assertTrue(hotKeys.get(0).getEstimatedCount() >= THRESHOLD);
+        assertTrue(hotKeys.get(0).isPromoted());
+    }
+
+    /**
+     * 测试排除前缀和失效
+     */
+    @Test
+    public void testExcludeAndInvalidate() {
+        HotKeyDetector detector = new HotKeyDetector(true, 1.0, 10000, THRESHOLD, 1024, 10, 10, 1000,
+                new String[] {"seckill:stock:"});
+
+        accessTimes(detector, "seckill:stock:1", THRESHOLD);
+        detector.promote("seckill:stock:1", 100);
+        assertNull(detector.access("seckill:stock:1"), "排除前缀的 key 不应提升");
+
+        accessTimes(detector, "product:1", THRESHOLD);
+        detector.promote("product:1", "value");
+        detector.invalidate("product:1");
+        assertNull(detector.access("product:1"));
+    }
+
+    /**
+     * 测试本地副本过期
+     */
+    @Test
+    public void testLocalCopyExpires() throws InterruptedException {
+        HotKeyDetector detector = detector(10000, 100);
+
+        accessTimes(detector, "product:1", THRESHOLD);
+        detector.promote("product:1", "value");
+        assertEquals("value", detector.access("product:1"));
+
+        Thread.sleep(200);
+        assertNull(detector.access("product:1"));
+    }
+
+    /**
+     * 测试窗口切换后计数清零
+     */
+    @Test
+    public void testWindowRotation() throws InterruptedException {
+        HotKeyDetector detector = detector(100, 1000);
+
+        accessTimes(detector, "product:1", THRESHOLD - 1);
+        Thread.sleep(200);
+        accessTimes(detector, "product:1", THRESHOLD - 1);
+        detector.promote("product:1", "value");
+
+        assertNull(detector.access("product:1"), "跨窗口的访问不应累计");
+    }
+
+    /**
+     * 测试 RedisCacheService 的热点 key 读写
+     * <p>
+     * 成为热点后的读取返回本地副本（直接改 Redis 不影响读取）；通过缓存服务写入或删除后本地副本被清除
+     * </p>
+     */
+    @Test
+    public void testRedisCacheServiceServesLocalCopy() throws IOException {
+        try (EmbeddedRedis redis = EmbeddedRedis.start()) {
+            RedisCacheService cacheService = redis.cacheService(new RefreshAhead(false, 1.0, 1, 10, 100), detector(10000, 10000));
+            cacheService.set("product:1", "v1", 60, TimeUnit.SECONDS);
+            for (int i = 0; i < THRESHOLD; i++) {
+                assertEquals("v1", cacheService.get("product:1", String.class));
+            }
+
+            redis.template().opsForValue().set("product:1", "changed-outside");
+            assertEquals("v1", cacheService.get("product:1", String.class));
+
+            cacheService.set("product:1", "v2", 60, TimeUnit.SECONDS);
+            assertEquals("v2", cacheService.get("product:1", String.class));
+
+            cacheService.delete("product:1");
+            assertNull(cacheService.get("product:1", String.class));
+        }
+    }
+
+    /**
+     * 创建采样率 1、阈值 5 的探测器
+     *
+     * @param windowMillis 统计窗口（毫秒）
+     * @param localTtlMillis 本地副本过期时间（毫秒）
+     * @return 热点 key 探测器
+     */
+    private static HotKeyDetector detector(long windowMillis, long localTtlMillis) {
+        return new HotKeyDetector(true, 1.0, windowMillis, THRESHOLD, 1024, 10, 10, localTtlMillis, new String[0]);
+    }
+
+    /**
+     * 访问指定次数
+     */
+    private static void accessTimes(HotKeyDetector detector, String key, int times) {
+        for (int i = 0; i < times; i++) {
+            detector.access(key);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo;
+
+import com.example.cache.impl.CaffeineCacheService;
+import com.example.cache.offheap.OffHeapStore;
+import com.example.cache.support.RefreshAhead;
+import com.example.cache.support.VariableExpiry;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 本地缓存测试类
+ * <p>
+ * 验证本地缓存服务中计数器与普通缓存条目的一致性：decrement 后库存保存在计数单元中，
+ * 批量读取、批量判断存在和批量写入与单 key 操作的行为相同
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class LocalCacheTest {
+
+    /** 本地缓存服务 */
+    private CaffeineCacheService cacheService;
+
+    @BeforeEach
+    public void setUp() {
+        cacheService = new CaffeineCacheService(
+                Caffeine.newBuilder().maximumSize(1000).expireAfter(new VariableExpiry<String, Object>(1, TimeUnit.HOURS)).build(),
+                new RefreshAhead(false, 1.0, 1, 10, 100),
+                new DefaultListableBeanFactory().getBeanProvider(OffHeapStore.class), 1000, 3600);
+    }
+
+    /**
+     * 测试批量读取和批量判断存在包含计数器
+     */
+    @Test
+    public void testMultiGetAndExistsSeeCounters() {
+        cacheService.set("seckill:stock:1", 10, 60, TimeUnit.SECONDS);
+        assertEquals(Long.valueOf(9), cacheService.decrement("seckill:stock:1"));
+
+        assertEquals(Arrays.asList(9, null),
+                cacheService.multiGet(Arrays.asList("seckill:stock:1", "seckill:stock:2"), Integer.class));
+        assertEquals(Arrays.asList(true, false),
+                cacheService.multiExists(Arrays.asList("seckill:stock:1", "seckill:stock:2")));
+        assertEquals(Integer.valueOf(9), cacheService.get("seckill:stock:1", Integer.class));
+    }
+
+    /**
+     * 测试批量写入覆盖计数器
+     * <p>
+     * 与 set 一致，批量写入后旧的计数单元被删除，之后的读取和递增都基于新值
+     * </p>
+     */
+    @Test
+    public void testMultiSetReplacesCounters() {
+        cacheService.set("seckill:stock:1", 10, 60, TimeUnit.SECONDS);
+        cacheService.decrement("seckill:stock:1");
+
+        cacheService.multiSet(Collections.singletonMap("seckill:stock:1", 100), 60, TimeUnit.SECONDS);
+
+        assertEquals(Collections.singletonList(100),
+                cacheService.multiGet(Collections.singletonList("seckill:stock:1"), Integer.class));
+        assertEquals(Long.valueOf(101), cacheService.increment("seckill:stock:1"));
+    }
+}
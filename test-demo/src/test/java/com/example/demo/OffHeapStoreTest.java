@@ -0,0 +1,99 @@
+package com.example.demo;
+
+import com.example.cache.codec.ValueCodec;
+import com.example.cache.offheap.OffHeapStore;
+import com.example.cache.offheap.OffHeapValue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 堆外存储测试类
+ * <p>
+ * 不依赖 Redis，直接验证堆外存储的写入、读取、释放和容量不足时的淘汰
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class OffHeapStoreTest {
+
+    /**
+     * 测试堆外存储的写入、读取和释放
+     * <p>
+     * 编码后不小于 min-value-bytes 的值写入堆外，读取时解码为相同的值；小值保存在堆内；
+     * 释放后块归还给存储，再次读取返回 null
+     * </p>
+     */
+    @Test
+    public void testOffHeapStoreAndRetire() {
+        OffHeapStore store = offHeapStore();
+        String text = repeat("a", 3000);
+
+        Object stored = store.store("article:1", text);
+        assertTrue(stored instanceof OffHeapValue);
+        OffHeapValue value = (OffHeapValue) stored;
+        assertEquals(text, store.load(value, String.class));
+        assertEquals(1, store.getEntryCount());
+        assertEquals(value.getLength(), store.getStoredBytes());
+
+        assertSame("small", store.store("article:2", "small"));
+
+        value.retire();
+        assertNull(value.read());
+        assertEquals(0, store.getEntryCount());
+        assertEquals(0, store.getStoredBytes());
+    }
+
+    /**
+     * 测试堆外容量不足时的淘汰
+     * <p>
+     * 1MB 容量、1KB 块：写入 1100 个各占一块的值，超出的部分按 CLOCK 淘汰并通知回调，
+     * 未淘汰的值仍能正确读取；超过总容量的值退回堆内
+     * </p>
+     */
+    @Test
+    public void testOffHeapEviction() {
+        OffHeapStore store = offHeapStore();
+        AtomicInteger evicted = new AtomicInteger();
+        store.setEvictionHandler((key, value) -> evicted.incrementAndGet());
+
+        OffHeapValue last = null;
+        for (int i = 0; i < 1100; i++) {
+            last = (OffHeapValue) store.store("article:" + i, repeat(String.valueOf(i % 10), 600));
+        }
+        assertTrue(evicted.get() >= 76);
+        assertEquals(evicted.get(), store.getEvictionCount());
+        assertEquals(repeat("9", 600), store.load(last, String.class));
+
+        String huge = repeat("b", 2 * 1024 * 1024);
+        assertSame(huge, store.store("article:huge", huge));
+        assertEquals(1, store.getRejectionCount());
+    }
+
+    /**
+     * 创建 1MB 容量、1KB 块、不小于 512 字节写入堆外的存储
+     */
+    private OffHeapStore offHeapStore() {
+        return new OffHeapStore(1, 1024, 512, new DefaultListableBeanFactory().getBeanProvider(ValueCodec.class));
+    }
+
+    /**
+     * 重复字符串
+     */
+    private static String repeat(String text, int times) {
+        StringBuilder builder = new StringBuilder(text.length() * times);
+        for (int i = 0; i < times; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.example.demo;
+
+import com.example.common.exception.BusinessException;
+import com.example.ratelimit.RateLimitService;
+import com.example.ratelimit.annotation.RateLimit;
+import com.example.ratelimit.aspect.RateLimitAspect;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 限流切面测试类
+ * <p>
+ * 验证 {@link RateLimitAspect} 解析限流 key：
+ * <ul>
+ *   <li>模板 key（"seckill:#{#activityId}"）按参数名、#p0 或 #args[0] 取参数值，模板外的文字原样保留</li>
+ *   <li>整个 key 是表达式（"#userId"）时直接取值</li>
+ *   <li>不含表达式的 key 原样使用</li>
+ *   <li>限流服务拒绝时抛出 429</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class RateLimitAspectTest {
+
+    /** 限流服务 */
+    private RateLimitService rateLimitService;
+
+    /** 带限流注解的代理对象 */
+    private LimitedApi api;
+
+    @BeforeEach
+    public void setUp() {
+        rateLimitService = mock(RateLimitService.class);
+        when(rateLimitService.slidingWindowLimit(anyString(), anyInt(), anyInt())).thenReturn(true);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new LimitedApi());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new RateLimitAspect(rateLimitService));
+        api = factory.getProxy();
+    }
+
+    /**
+     * 测试模板 key
+     */
+    @Test
+    public void testTemplateKey() {
+        api.byName(1001L, 7L);
+        api.byIndex(1002L);
+        api.byArgs(1003L);
+
+        verify(rateLimitService).slidingWindowLimit("seckill:1001:user:7", 10, 60);
+        verify(rateLimitService).slidingWindowLimit("seckill:1002", 10, 60);
+        verify(rateLimitService).slidingWindowLimit("seckill:1003", 10, 60);
+    }
+
+    /**
+     * 测试表达式 key 和固定 key
+     */
+    @Test
+    public void testExpressionAndLiteralKey() {
+        api.expression(42L);
+        api.literal();
+
+        verify(rateLimitService).slidingWindowLimit("42", 5, 1);
+        verify(rateLimitService).slidingWindowLimit("api:login", 100, 60);
+    }
+
+    /**
+     * 测试限流拒绝
+     */
+    @Test
+    public void testRejected() {
+        when(rateLimitService.slidingWindowLimit("seckill:1001", 10, 60)).thenReturn(false);
+
+        BusinessException e = assertThrows(BusinessException.class, () -> api.byIndex(1001L));
+        assertEquals(Integer.valueOf(429), e.getCode());
+        assertEquals("seckill:1002", api.byIndex(1002L));
+    }
+
+    /**
+     * 带限流注解的接口
+     */
+    public static class LimitedApi {
+
+        @RateLimit(key = "seckill:#{#activityId}:user:#{#userId}", limit = 10, window = 60)
+        public String byName(Long activityId, Long userId) {
+            return "seckill:" + activityId;
+        }
+
+        @RateLimit(key = "seckill:#{#p0}", limit = 10, window = 60)
+        public String byIndex(Long activityId) {
+            return "seckill:" + activityId;
+        }
+
+        @RateLimit(key = "seckill:#{#args[0]}", limit = 10, window = 60)
+        public String byArgs(Long activityId) {
+            return "seckill:" + activityId;
+        }
+
+        @RateLimit(key = "#userId", limit = 5, window = 1)
+        public void expression(Long userId) {
+        }
+
+        @RateLimit(key = "api:login")
+        public void literal() {
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.demo;
+
+import com.example.cache.config.RedisConfig;
+import com.example.cache.hotkey.HotKeyDetector;
+import com.example.cache.impl.RedisCacheService;
+import com.example.cache.metrics.CacheMetrics;
+import com.example.cache.support.RefreshAhead;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisSentinel;
+import redis.embedded.RedisServer;
+import redis.embedded.RedisShardedCluster;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Redis 部署拓扑测试类
+ * <p>
+ * 在本机启动单机、哨兵（主 + 副本 + 哨兵）和三分片集群，用 {@link RedisConfig} 按 spring.redis.* 配置连接：
+ * <ul>
+ *   <li>单机：读写正常，不创建副本读取的 Bean</li>
+ *   <li>哨兵：通过哨兵找到主节点；read-from=replicaPreferred 时副本模板的读取发往副本，主模板仍读主节点</li>
+ *   <li>集群：读写分布到各分片，keys/scan 遍历所有主节点</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class RedisTopologyTest {
+
+    /** 哨兵监控的主节点名称 */
+    private static final String MASTER_NAME = "mymaster";
+
+    /** 单机 Redis，同时提供 {@link EmbeddedRedis#context(Map)} */
+    private static EmbeddedRedis redis;
+
+    /** 哨兵模式的主节点 */
+    private static RedisServer master;
+
+    /** 哨兵模式的副本节点 */
+    private static RedisServer replica;
+
+    /** 哨兵 */
+    private static RedisSentinel sentinel;
+
+    /** 三分片集群 */
+    private static RedisShardedCluster cluster;
+
+    /** 主节点端口 */
+    private static int masterPort;
+
+    /** 副本节点端口 */
+    private static int replicaPort;
+
+    /** 哨兵端口 */
+    private static int sentinelPort;
+
+    @BeforeAll
+    public static void startRedis() throws Exception {
+        redis = EmbeddedRedis.start();
+
+        masterPort = EmbeddedRedis.freePort();
+        replicaPort = EmbeddedRedis.freePort();
+        sentinelPort = EmbeddedRedis.freePort();
+        master = RedisServer.newRedisServer().bind("127.0.0.1").port(masterPort).build();
+        master.start();
+        replica = RedisServer.newRedisServer().bind("127.0.0.1").port(replicaPort)
+                .slaveOf("127.0.0.1", masterPort)
+                .setting("replica-read-only no")
+                .build();
+        replica.start();
+        sentinel = RedisSentinel.newRedisSentinel().bind("127.0.0.1").port(sentinelPort)
+                .masterName(MASTER_NAME).masterPort(masterPort).quorumSize(1).build();
+        sentinel.start();
+
+        cluster = RedisShardedCluster.newRedisCluster().ephemeral()
+                .shard("shard-a", 0).shard("shard-b", 0).shard("shard-c", 0)
+                .build();
+        cluster.start();
+        // 分片之间交换槽位信息需要一点时间，所有节点都认为集群可用后再开始测试
+        for (int port : cluster.serverPorts()) {
+            waitFor(() -> command(port, RedisCommands::clusterInfo).contains("cluster_state:ok"));
+        }
+    }
+
+    @AfterAll
+    public static void stopRedis() throws IOException {
+        redis.close();
+        cluster.stop();
+        sentinel.stop();
+        replica.stop();
+        master.stop();
+    }
+
+    /**
+     * 测试单机模式
+     */
+    @Test
+    public void testStandalone() {
+        AnnotationConfigApplicationContext context = redis.context(new HashMap<>());
+        RedisTemplate<String, Object> template = EmbeddedRedis.template(context);
+
+        template.opsForValue().set("topology:standalone", "ok");
+        assertEquals("ok", template.opsForValue().get("topology:standalone"));
+        assertFalse(context.containsBean(RedisConfig.REPLICA_REDIS_TEMPLATE));
+    }
+
+    /**
+     * 测试哨兵模式和副本读取
+     * <p>
+     * 副本开启了 replica-read-only no，复制完成后直接在副本上写入一个不同的值：
+     * 副本模板读到副本上的值，主模板和 RedisCacheService 的 getOrLoad 读到主节点的值，
+     * RedisCacheService 的 get 走副本
+     * </p>
+     */
+    @Test
+    public void testSentinelReplicaRead() throws Exception {
+        waitFor(() -> replicationUp(replicaPort));
+        waitFor(() -> sentinelKnowsReplica());
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.redis.sentinel.master", MASTER_NAME);
+        properties.put("spring.redis.sentinel.nodes", "127.0.0.1:" + sentinelPort);
+        properties.put("cache.redis.read-from", "replicaPreferred");
+        AnnotationConfigApplicationContext context = redis.context(properties);
+        RedisTemplate<String, Object> primary = EmbeddedRedis.template(context);
+        @SuppressWarnings("unchecked")
+        RedisTemplate<String, Object> replicaTemplate =
+                (RedisTemplate<String, Object>) context.getBean(RedisConfig.REPLICA_REDIS_TEMPLATE);
+
+        primary.opsForValue().set("topology:sentinel", "from-master");
+        waitFor(() -> "\"from-master\"".equals(command(replicaPort, c -> c.get("topology:sentinel"))));
+        command(replicaPort, c -> c.set("topology:sentinel", "\"from-replica\""));
+
+        assertEquals("from-master", primary.opsForValue().get("topology:sentinel"));
+        assertEquals("from-replica", replicaTemplate.opsForValue().get("topology:sentinel"));
+
+        RedisCacheService cacheService = cacheService(primary);
+        ReflectionTestUtils.setField(cacheService, "replicaRedisTemplate", replicaTemplate);
+        assertEquals("from-replica", cacheService.get("topology:sentinel", String.class));
+        assertEquals("from-master", cacheService.getOrLoad("topology:sentinel", String.class, 60,
+                java.util.concurrent.TimeUnit.SECONDS, () -> "loaded"));
+    }
+
+    /**
+     * 测试集群模式的读写和跨节点遍历
+     */
+    @Test
+    public void testClusterScanAllMasters() {
+        String nodes = cluster.serverPorts().stream()
+                .map(port -> "127.0.0.1:" + port)
+                .collect(Collectors.joining(","));
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.redis.cluster.nodes", nodes);
+        AnnotationConfigApplicationContext context = redis.context(properties);
+        RedisTemplate<String, Object> template = EmbeddedRedis.template(context);
+        RedisCacheService cacheService = cacheService(template);
+
+        Set<String> written = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            cacheService.set("topology:cluster:" + i, i);
+            written.add("topology:cluster:" + i);
+        }
+        assertEquals(Integer.valueOf(42), cacheService.get("topology:cluster:42", Integer.class));
+        // 100 个 key 分布在三个分片上
+        for (int port : cluster.serverPorts()) {
+            assertTrue(command(port, RedisCommands::dbsize) > 0, "每个分片都应有数据: port=" + port);
+        }
+
+        assertEquals(written, cacheService.keys("topology:cluster:*"));
+        Set<String> scanned = new HashSet<>();
+        try (CloseableIterator<String> cursor = cacheService.scan("topology:cluster:*", 10)) {
+            cursor.forEachRemaining(scanned::add);
+        }
+        assertEquals(written, scanned);
+    }
+
+    /**
+     * 组装使用给定模板的 RedisCacheService
+     */
+    private static RedisCacheService cacheService(RedisTemplate<String, Object> template) {
+        CacheMetrics metrics = new CacheMetrics(
+                new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class), false, 2, 200, false);
+        return new RedisCacheService(template, new RefreshAhead(false, 1.0, 1, 10, 100),
+                new HotKeyDetector(false, 1.0, 1000, 1000, 64, 10, 10, 1000, new String[0]), metrics);
+    }
+
+    /**
+     * 副本是否已完成与主节点的同步
+     */
+    private static boolean replicationUp(int port) {
+        return command(port, c -> c.info("replication")).contains("master_link_status:up");
+    }
+
+    /**
+     * 哨兵是否已发现副本
+     */
+    private static boolean sentinelKnowsReplica() {
+        RedisClient client = RedisClient.create(RedisURI.create("127.0.0.1", sentinelPort));
+        try {
+            return !client.connectSentinel().sync().slaves(MASTER_NAME).isEmpty();
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    /**
+     * 直接连接指定节点执行命令
+     */
+    private static <T> T command(int port, java.util.function.Function<RedisCommands<String, String>, T> action) {
+        RedisClient client = RedisClient.create(RedisURI.create("127.0.0.1", port));
+        try (StatefulRedisConnection<String, String> connection = client.connect()) {
+            return action.apply(connection.sync());
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    /**
+     * 等待条件成立，最多 20 秒
+     */
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 20000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待超时");
+            Thread.sleep(100);
+        }
+    }
+}
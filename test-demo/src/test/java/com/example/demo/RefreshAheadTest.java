@@ -0,0 +1,167 @@
+package com.example.demo;
+
+import com.example.cache.hotkey.HotKeyDetector;
+import com.example.cache.impl.RedisCacheService;
+import com.example.cache.support.RefreshAhead;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 提前刷新测试类
+ * <p>
+ * 验证 XFetch 概率提前刷新：
+ * <ul>
+ *   <li>未开启或没有加载耗时记录时不刷新；剩余时间越接近 0 越容易刷新</li>
+ *   <li>剩余时间约等于一次加载耗时时，刷新概率约为 1/e</li>
+ *   <li>同一个 key 同时只有一个刷新任务，队列已满时放弃刷新</li>
+ *   <li>RedisCacheService 命中时返回旧值，并在后台用新值覆盖（使用嵌入式 Redis）</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class RefreshAheadTest {
+
+    /** 概率判断的采样次数 */
+    private static final int SAMPLES = 4000;
+
+    /**
+     * 测试刷新判断的边界
+     */
+    @Test
+    public void testShouldRefreshBounds() throws Exception {
+        RefreshAhead disabled = new RefreshAhead(false, 1.0, 1, 10, 100);
+        disabled.load("product:1", () -> "value");
+        assertFalse(disabled.shouldRefresh("product:1", 0));
+
+        RefreshAhead refreshAhead = new RefreshAhead(true, 1.0, 1, 10, 100);
+        // 没有加载耗时记录
+        assertFalse(refreshAhead.shouldRefresh("product:1", 0));
+
+        refreshAhead.load("product:1", () -> {
+            Thread.sleep(20);
+            return "value";
+        });
+        // 不过期或不存在
+        assertFalse(refreshAhead.shouldRefresh("product:1", -1));
+        assertFalse(refreshAhead.shouldRefresh("product:1", -2));
+        // 已到期必然刷新，远未到期几乎不刷新
+        assertEquals(SAMPLES, count(refreshAhead, "product:1", 0));
+        assertEquals(0, count(refreshAhead, "product:1", TimeUnit.HOURS.toMillis(1)));
+    }
+
+    /**
+     * 测试 XFetch 刷新概率
+     * <p>
+     * 剩余时间等于加载耗时 delta 时，刷新概率为 P(-ln(r) >= ttl/delta) = e^(-ttl/delta)；
+     * 加载耗时实测在 100ms 以上，概率落在 [e^-1, 1) 附近，且明显高于剩余时间为 5 倍 delta 时
+     * </p>
+     */
+    @Test
+    public void testRefreshProbability() throws Exception {
+        RefreshAhead refreshAhead = new RefreshAhead(true, 1.0, 1, 10, 100);
+        refreshAhead.load("product:1", () -> {
+            Thread.sleep(100);
+            return "value";
+        });
+
+        double near = (double) count(refreshAhead, "product:1", 100) / SAMPLES;
+        double far = (double) count(refreshAhead, "product:1", 500) / SAMPLES;
+
+        assertTrue(near > 0.25 && near < 0.8, "剩余时间约等于加载耗时时的刷新概率: " + near);
+        assertTrue(far < near, "剩余时间越长刷新概率越低: near=" + near + ", far=" + far);
+    }
+
+    /**
+     * 测试同一个 key 只提交一个刷新任务，队列已满时放弃
+     */
+    @Test
+    public void testRefreshAsyncDeduplicatesAndRejects() throws Exception {
+        RefreshAhead refreshAhead = new RefreshAhead(true, 1.0, 1, 1, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        // 占住唯一的线程
+        refreshAhead.refreshAsync("product:1", () -> {
+            release.await();
+            return runs.incrementAndGet();
+        });
+        // 同一个 key 正在刷新，忽略
+        refreshAhead.refreshAsync("product:1", runs::incrementAndGet);
+        // 进入队列
+        refreshAhead.refreshAsync("product:2", runs::incrementAndGet);
+        // 队列已满，放弃
+        refreshAhead.refreshAsync("product:3", runs::incrementAndGet);
+
+        release.countDown();
+        waitFor(() -> runs.get() == 2);
+        Thread.sleep(100);
+        assertEquals(2, runs.get());
+
+        // 放弃后没有残留的刷新标记，可以再次提交
+        CountDownLatch done = new CountDownLatch(1);
+        refreshAhead.refreshAsync("product:3", () -> {
+            done.countDown();
+            return null;
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 测试 RedisCacheService 的后台提前刷新
+     * <p>
+     * beta 取很大的值使命中必然触发刷新：命中时立即返回旧值，后台加载的新值随后写入 Redis
+     * </p>
+     */
+    @Test
+    public void testGetOrLoadRefreshesInBackground() throws Exception {
+        try (EmbeddedRedis redis = EmbeddedRedis.start()) {
+            RefreshAhead refreshAhead = new RefreshAhead(true, 1.0E9, 1, 10, 100);
+            RedisCacheService cacheService = redis.cacheService(refreshAhead,
+                    new HotKeyDetector(false, 1.0, 1000, 1000, 64, 10, 10, 1000, new String[0]));
+            AtomicInteger version = new AtomicInteger();
+
+            assertEquals("v1", cacheService.getOrLoad("product:1", String.class, 60, TimeUnit.SECONDS,
+                    () -> "v" + version.incrementAndGet()));
+            assertEquals("v1", cacheService.getOrLoad("product:1", String.class, 60, TimeUnit.SECONDS,
+                    () -> "v" + version.incrementAndGet()));
+
+            waitFor(() -> "v2".equals(redis.template().opsForValue().get("product:1")));
+            assertEquals(2, version.get());
+        }
+    }
+
+    /**
+     * 统计多次采样中判断为需要刷新的次数
+     */
+    private int count(RefreshAhead refreshAhead, String key, long ttlMillis) {
+        int refreshes = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            if (refreshAhead.shouldRefresh(key, ttlMillis)) {
+                refreshes++;
+            }
+        }
+        return refreshes;
+    }
+
+    /**
+     * 等待条件成立，最多 5 秒
+     */
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待超时");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.demo;
+
+import com.example.seckill.application.service.SeckillActivityRegistry;
+import com.example.seckill.domain.model.SeckillActivity;
+import com.example.seckill.domain.model.SeckillActivityState;
+import com.example.seckill.domain.service.impl.SeckillDomainServiceImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+/**
+ * 秒杀活动注册表测试类
+ * <p>
+ * 在嵌入式 Redis 上验证 {@link SeckillActivityRegistry} 的重新加载：
+ * <ul>
+ *   <li>重新加载读到其他节点登记的活动，并计算状态</li>
+ *   <li>重新加载在锁外读取 Redis，读取期间保存的活动不会被读取之前的结果覆盖或移除</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class SeckillActivityRegistryTest {
+
+    /** 嵌入式 Redis */
+    private static EmbeddedRedis redis;
+
+    /** 读取活动ID集合的回调，在读取之后执行，模拟重新加载期间的并发修改 */
+    private Runnable afterMembers;
+
+    /** 活动注册表 */
+    private SeckillActivityRegistry registry;
+
+    @BeforeAll
+    public static void startRedis() throws IOException {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    public static void stopRedis() throws IOException {
+        redis.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        redis.flushAll();
+        registry = registry();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        registry.destroy();
+    }
+
+    /**
+     * 测试重新加载其他节点登记的活动
+     */
+    @Test
+    public void testReloadActivitiesFromOtherNode() throws Exception {
+        SeckillActivityRegistry otherNode = registry();
+        try {
+            otherNode.save(activity(1L, -1, 1));
+            otherNode.save(activity(2L, 1, 2));
+        } finally {
+            otherNode.destroy();
+        }
+        assertNull(registry.getState(1L));
+
+        ReflectionTestUtils.invokeMethod(registry, "reloadAll");
+        assertEquals(SeckillActivityState.ACTIVE, registry.getState(1L));
+        assertEquals(SeckillActivityState.NOT_STARTED, registry.getState(2L));
+    }
+
+    /**
+     * 测试重新加载期间保存的活动
+     * <p>
+     * 重新加载读取活动ID集合之后，本节点保存了新活动 2，并把活动 1 改为已取消（活动信息已写入 Redis，
+     * 但读取的ID集合中没有活动 2）：重新加载完成后两者都保留保存后的状态，没有被读取之前的结果覆盖
+     * </p>
+     */
+    @Test
+    public void testSaveDuringReloadIsKept() {
+        registry.save(activity(1L, -1, 1));
+        afterMembers = () -> {
+            SeckillActivity cancelled = activity(1L, -1, 1);
+            cancelled.setStatus(SeckillActivityState.CANCELLED.getCode());
+            registry.save(cancelled);
+            registry.save(activity(2L, -1, 1));
+        };
+
+        ReflectionTestUtils.invokeMethod(registry, "reloadAll");
+        afterMembers = null;
+        assertEquals(SeckillActivityState.CANCELLED, registry.getState(1L));
+        assertEquals(SeckillActivityState.ACTIVE, registry.getState(2L));
+
+        // 下一次重新加载读到最新的ID集合和活动信息，结果相同
+        ReflectionTestUtils.invokeMethod(registry, "reloadAll");
+        assertEquals(SeckillActivityState.CANCELLED, registry.getState(1L));
+        assertEquals(SeckillActivityState.ACTIVE, registry.getState(2L));
+    }
+
+    /**
+     * 组装活动注册表，读取活动ID集合后执行 {@link #afterMembers}
+     */
+    @SuppressWarnings("unchecked")
+    private SeckillActivityRegistry registry() {
+        RedisTemplate<String, Object> template = spy(redis.template());
+        SetOperations<String, Object> setOperations = spy(redis.template().opsForSet());
+        doReturn(setOperations).when(template).opsForSet();
+        doAnswer(invocation -> {
+            Object members = invocation.callRealMethod();
+            Runnable callback = afterMembers;
+            if (callback != null) {
+                callback.run();
+            }
+            return members;
+        }).when(setOperations).members(any());
+
+        SeckillActivityRegistry created = new SeckillActivityRegistry(new SeckillDomainServiceImpl(),
+                "seckill:activity:events", 0, new DefaultListableBeanFactory().getBeanProvider(RedisConnectionFactory.class));
+        ReflectionTestUtils.setField(created, "redisTemplate", template);
+        created.afterPropertiesSet();
+        return created;
+    }
+
+    /**
+     * 创建活动
+     *
+     * @param id 活动ID
+     * @param startHours 开始时间相对当前的小时数
+     * @param endHours 结束时间相对当前的小时数
+     */
+    private static SeckillActivity activity(Long id, int startHours, int endHours) {
+        SeckillActivity activity = new SeckillActivity();
+        activity.setId(id);
+        activity.setProductId(100L + id);
+        activity.setStartTime(LocalDateTime.now().plusHours(startHours));
+        activity.setEndTime(LocalDateTime.now().plusHours(endHours));
+        return activity;
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.demo;
+
+import com.example.cache.CacheService;
+import com.example.cache.impl.CaffeineCacheService;
+import com.example.cache.offheap.OffHeapStore;
+import com.example.cache.support.RefreshAhead;
+import com.example.cache.support.VariableExpiry;
+import com.example.common.exception.BusinessException;
+import com.example.seckill.application.dto.SeckillResult;
+import com.example.seckill.application.service.SeckillActivityRegistry;
+import com.example.seckill.application.service.SeckillAdmissionService;
+import com.example.seckill.application.service.SeckillService;
+import com.example.seckill.domain.model.SeckillActivityState;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 秒杀准入队列测试类
+ * <p>
+ * 使用 Mock 的秒杀服务控制执行时机，验证 {@link SeckillAdmissionService} 的行为：
+ * <ul>
+ *   <li>名额等于剩余库存 × factor，名额已满、库存为 0、活动不在进行中时直接拒绝，不执行秒杀</li>
+ *   <li>准入的请求立即返回排队凭证，执行完成后按凭证查询到最终结果，名额随之释放</li>
+ *   <li>结果同时写入缓存服务，在其他节点也能按凭证查询</li>
+ *   <li>秒杀抛出业务异常（如限流）时凭证的结果为失败</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class SeckillAdmissionTest {
+
+    /** 活动ID */
+    private static final Long ACTIVITY_ID = 3001L;
+
+    /** 秒杀服务 */
+    private SeckillService seckillService;
+
+    /** 活动注册表 */
+    private SeckillActivityRegistry activityRegistry;
+
+    /** 缓存服务，模拟多个节点共享的 Redis */
+    private CacheService cacheService;
+
+    /** 准入服务 */
+    private SeckillAdmissionService admissionService;
+
+    @BeforeEach
+    public void setUp() {
+        seckillService = mock(SeckillService.class);
+        activityRegistry = mock(SeckillActivityRegistry.class);
+        cacheService = new CaffeineCacheService(Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfter(new VariableExpiry<String, Object>(1, TimeUnit.HOURS))
+                .build(), new RefreshAhead(false, 1.0, 1, 10, 100),
+                new DefaultListableBeanFactory().getBeanProvider(OffHeapStore.class), 1000, 3600);
+        admissionService = admissionService(true);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        admissionService.destroy();
+    }
+
+    /**
+     * 测试名额已满时直接拒绝
+     * <p>
+     * 剩余库存 2、factor 1：秒杀阻塞时前 2 个请求排队，第 3 个直接拒绝；
+     * 放行后按凭证查询到成功结果，名额释放，新的请求可以再次排队
+     * </p>
+     */
+    @Test
+    public void testRejectWhenFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(seckillService.getRemainingStock(ACTIVITY_ID)).thenReturn(2L);
+        when(seckillService.seckill(eq(ACTIVITY_ID), anyLong())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return SeckillResult.success(1L, "SK-" + invocation.getArgument(1));
+        });
+
+        SeckillResult first = admissionService.submit(ACTIVITY_ID, 1L);
+        SeckillResult second = admissionService.submit(ACTIVITY_ID, 2L);
+        SeckillResult rejected = admissionService.submit(ACTIVITY_ID, 3L);
+        assertQueued(first);
+        assertQueued(second);
+        assertFalse(rejected.getSuccess());
+        assertEquals("当前排队人数过多，请稍后重试", rejected.getMessage());
+        assertNull(rejected.getTicket());
+        verify(seckillService, never()).seckill(ACTIVITY_ID, 3L);
+        assertEquals(SeckillResult.ORDER_QUEUED, admissionService.getResult(first.getTicket()).getOrderStatus());
+
+        release.countDown();
+        SeckillResult done = poll(first.getTicket());
+        assertTrue(done.getSuccess());
+        assertEquals("SK-1", done.getOrderNo());
+        assertEquals(first.getTicket(), done.getTicket());
+        assertEquals("SK-2", poll(second.getTicket()).getOrderNo());
+
+        assertQueued(admissionService.submit(ACTIVITY_ID, 3L));
+    }
+
+    /**
+     * 测试库存为 0 和活动不在进行中时直接拒绝
+     */
+    @Test
+    public void testRejectWithoutStockOrWhenInactive() {
+        when(seckillService.getRemainingStock(ACTIVITY_ID)).thenReturn(0L);
+        SeckillResult soldOut = admissionService.submit(ACTIVITY_ID, 1L);
+        assertFalse(soldOut.getSuccess());
+        assertEquals("库存不足", soldOut.getMessage());
+
+        Long notStarted = ACTIVITY_ID + 1;
+        when(activityRegistry.getState(notStarted)).thenReturn(SeckillActivityState.NOT_STARTED);
+        SeckillResult inactive = admissionService.submit(notStarted, 1L);
+        assertFalse(inactive.getSuccess());
+        assertEquals(SeckillActivityState.NOT_STARTED.getDescription(), inactive.getMessage());
+
+        verify(seckillService, never()).seckill(anyLong(), anyLong());
+        verify(seckillService, never()).getRemainingStock(notStarted);
+    }
+
+    /**
+     * 测试在其他节点查询结果和业务异常
+     * <p>
+     * 秒杀抛出 429 时结果为失败并带有异常消息；没有本地结果的节点从缓存服务查到同一个结果；不存在的凭证返回 null
+     * </p>
+     */
+    @Test
+    public void testPollFromOtherNode() throws Exception {
+        when(seckillService.getRemainingStock(ACTIVITY_ID)).thenReturn(10L);
+        when(seckillService.seckill(ACTIVITY_ID, 1L)).thenThrow(new BusinessException(429, "请求过于频繁，请稍后再试"));
+
+        SeckillResult queued = admissionService.submit(ACTIVITY_ID, 1L);
+        assertQueued(queued);
+        SeckillResult limited = poll(queued.getTicket());
+        assertFalse(limited.getSuccess());
+        assertEquals("请求过于频繁，请稍后再试", limited.getMessage());
+
+        SeckillAdmissionService otherNode = admissionService(false);
+        SeckillResult fromOtherNode = otherNode.getResult(queued.getTicket());
+        assertNotNull(fromOtherNode);
+        assertFalse(fromOtherNode.getSuccess());
+        assertEquals(queued.getTicket(), fromOtherNode.getTicket());
+        assertNull(otherNode.getResult("unknown-ticket"));
+    }
+
+    /**
+     * 组装准入服务
+     *
+     * @param enabled 是否开启准入队列（未开启的节点只能查询结果）
+     * @return 准入服务
+     */
+    private SeckillAdmissionService admissionService(boolean enabled) {
+        SeckillAdmissionService service = new SeckillAdmissionService();
+        ReflectionTestUtils.setField(service, "enabled", enabled);
+        ReflectionTestUtils.setField(service, "factor", 1.0);
+        ReflectionTestUtils.setField(service, "maxPending", 100L);
+        ReflectionTestUtils.setField(service, "maxActivities", 100L);
+        ReflectionTestUtils.setField(service, "workerThreads", 2);
+        ReflectionTestUtils.setField(service, "resultTtlSeconds", 60L);
+        ReflectionTestUtils.setField(service, "seckillService", seckillService);
+        ReflectionTestUtils.setField(service, "activityRegistry", activityRegistry);
+        ReflectionTestUtils.setField(service, "cacheService", cacheService);
+        service.afterPropertiesSet();
+        return service;
+    }
+
+    /**
+     * 断言请求已排队
+     */
+    private static void assertQueued(SeckillResult result) {
+        assertTrue(result.getSuccess(), result.getMessage());
+        assertEquals(SeckillResult.ORDER_QUEUED, result.getOrderStatus());
+        assertNotNull(result.getTicket());
+    }
+
+    /**
+     * 轮询秒杀结果，直到不再是排队中
+     */
+    private SeckillResult poll(String ticket) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            SeckillResult result = admissionService.getResult(ticket);
+            if (result != null && !SeckillResult.ORDER_QUEUED.equals(result.getOrderStatus())) {
+                return result;
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "等待秒杀结果超时");
+            Thread.sleep(20);
+        }
+    }
+}
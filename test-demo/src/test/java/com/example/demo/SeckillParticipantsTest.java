@@ -0,0 +1,165 @@
+package com.example.demo;
+
+import com.example.cache.impl.RedisCacheService;
+import com.example.seckill.infrastructure.cache.SeckillCacheKeys;
+import com.example.seckill.infrastructure.cache.SeckillParticipants;
+import com.example.seckill.infrastructure.cache.SeckillStockScript;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 秒杀参与记录测试类
+ * <p>
+ * 在嵌入式 Redis 上验证 {@link SeckillParticipants}：
+ * <ul>
+ *   <li>位图：标记（MARK_SCRIPT 的 SETBIT）、重复标记、清除、检查，首次标记时设置过期时间</li>
+ *   <li>用户ID不小于位图上限时改用用户秒杀订单 key：SET NX EX 的写入和过期时间、重复标记、清除、检查</li>
+ *   <li>与秒杀 Lua 脚本共用参与记录：脚本中 GETBIT/EXISTS 看到 mark 写入的记录，
+ *       mark 看到脚本写入的记录（包括写入了订单号的用户秒杀订单 key）</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class SeckillParticipantsTest {
+
+    /** 活动ID */
+    private static final Long ACTIVITY_ID = 4001L;
+
+    /** 使用位图的用户ID上限（不含） */
+    private static final long BITMAP_MAX_USER_ID = 1000;
+
+    /** 嵌入式 Redis */
+    private static EmbeddedRedis redis;
+
+    /** Redis 模板 */
+    private static RedisTemplate<String, Object> template;
+
+    /** 缓存服务 */
+    private static RedisCacheService cacheService;
+
+    /** 参与记录 */
+    private SeckillParticipants participants;
+
+    @BeforeAll
+    public static void startRedis() throws IOException {
+        redis = EmbeddedRedis.start();
+        template = redis.template();
+        cacheService = redis.cacheService();
+    }
+
+    @AfterAll
+    public static void stopRedis() throws IOException {
+        redis.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        redis.flushAll();
+        participants = new SeckillParticipants(BITMAP_MAX_USER_ID);
+        ReflectionTestUtils.setField(participants, "redisTemplate", template);
+        ReflectionTestUtils.setField(participants, "cacheService", cacheService);
+    }
+
+    /**
+     * 测试位图的标记、重复标记、清除和检查
+     */
+    @Test
+    public void testBitmap() {
+        Long userId = 42L;
+        String bitmap = SeckillCacheKeys.participants(ACTIVITY_ID);
+        assertEquals(bitmap, participants.key(ACTIVITY_ID, userId));
+        assertEquals(42L, participants.offset(userId));
+        assertFalse(participants.contains(ACTIVITY_ID, userId));
+
+        assertTrue(participants.mark(ACTIVITY_ID, userId));
+        assertTrue(template.opsForValue().getBit(bitmap, userId));
+        long ttl = template.getExpire(bitmap);
+        assertTrue(ttl > 0 && ttl <= participants.getTimeoutSeconds(), "ttl=" + ttl);
+        assertTrue(participants.contains(ACTIVITY_ID, userId));
+        assertFalse(participants.mark(ACTIVITY_ID, userId));
+
+        // 其他用户不受影响，位图中只有对应的位
+        assertFalse(participants.contains(ACTIVITY_ID, userId + 1));
+        assertFalse(participants.contains(ACTIVITY_ID + 1, userId));
+
+        participants.unmark(ACTIVITY_ID, userId);
+        assertFalse(participants.contains(ACTIVITY_ID, userId));
+        assertTrue(participants.mark(ACTIVITY_ID, userId));
+    }
+
+    /**
+     * 测试用户ID达到位图上限时改用用户秒杀订单 key
+     * <p>
+     * 上限本身和更大的用户ID都使用用户秒杀订单 key：第一次写入并设置过期时间，之后为重复；不写入位图
+     * </p>
+     */
+    @Test
+    public void testUserOrderKeyFallback() {
+        assertEquals(BITMAP_MAX_USER_ID - 1, participants.offset(BITMAP_MAX_USER_ID - 1));
+        for (Long userId : new Long[] {BITMAP_MAX_USER_ID, BITMAP_MAX_USER_ID * 1000}) {
+            String userOrderKey = SeckillCacheKeys.userOrder(ACTIVITY_ID, userId);
+            assertEquals(userOrderKey, participants.key(ACTIVITY_ID, userId));
+            assertEquals(-1L, participants.offset(userId));
+            assertFalse(participants.contains(ACTIVITY_ID, userId));
+
+            assertTrue(participants.mark(ACTIVITY_ID, userId));
+            long ttl = template.getExpire(userOrderKey);
+            assertTrue(ttl > 0 && ttl <= participants.getTimeoutSeconds(), "ttl=" + ttl);
+            assertTrue(participants.contains(ACTIVITY_ID, userId));
+            assertFalse(participants.mark(ACTIVITY_ID, userId));
+
+            participants.unmark(ACTIVITY_ID, userId);
+            assertFalse(participants.contains(ACTIVITY_ID, userId));
+        }
+        assertFalse(template.hasKey(SeckillCacheKeys.participants(ACTIVITY_ID)));
+    }
+
+    /**
+     * 测试与秒杀 Lua 脚本共用参与记录
+     * <p>
+     * mark 写入的位和用户秒杀订单 key 使脚本返回已参与；脚本 SETBIT/SET 写入的记录 contains 和 mark 都能看到；
+     * unmark 之后脚本可以再次扣减
+     * </p>
+     */
+    @Test
+    public void testSharedWithSeckillScript() {
+        SeckillStockScript script = new SeckillStockScript();
+        ReflectionTestUtils.setField(script, "redisTemplate", template);
+        cacheService.set(SeckillCacheKeys.stock(ACTIVITY_ID), 10, 1, TimeUnit.HOURS);
+
+        for (Long userId : new Long[] {7L, BITMAP_MAX_USER_ID + 7}) {
+            assertTrue(participants.mark(ACTIVITY_ID, userId));
+            assertEquals(SeckillStockScript.DUPLICATE, seckill(script, userId));
+            participants.unmark(ACTIVITY_ID, userId);
+
+            long remaining = seckill(script, userId);
+            assertTrue(remaining >= 0, "remaining=" + remaining);
+            assertTrue(participants.contains(ACTIVITY_ID, userId));
+            assertFalse(participants.mark(ACTIVITY_ID, userId));
+        }
+        assertEquals(Long.valueOf(8), cacheService.get(SeckillCacheKeys.stock(ACTIVITY_ID), Long.class));
+    }
+
+    /**
+     * 按秒杀服务的参数执行秒杀脚本
+     */
+    private long seckill(SeckillStockScript script, Long userId) {
+        String orderNo = "order-" + userId;
+        return script.seckill(ACTIVITY_ID, participants.key(ACTIVITY_ID, userId), participants.offset(userId),
+                orderNo, "detail-" + orderNo, participants.getTimeoutSeconds(), 1800, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.demo;
+
+import com.example.cache.impl.RedisCacheService;
+import com.example.seckill.infrastructure.cache.SeckillCacheKeys;
+import com.example.seckill.infrastructure.cache.SeckillParticipants;
+import com.example.seckill.infrastructure.cache.SeckillStockScript;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 秒杀 Lua 脚本测试类
+ * <p>
+ * 在嵌入式 Redis 上执行 {@link SeckillStockScript#seckill}，验证脚本的返回值和写入的数据：
+ * <ul>
+ *   <li>扣减：返回扣减后的库存，写入参与记录和订单详情，并设置过期时间</li>
+ *   <li>库存不足：库存为 0 或未初始化时返回 {@link SeckillStockScript#SOLD_OUT}，不写入任何数据</li>
+ *   <li>已参与：返回 {@link SeckillStockScript#DUPLICATE}，不扣减库存</li>
+ *   <li>位图分支（GETBIT/SETBIT）和用户秒杀订单 key 分支（EXISTS/SET）</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class SeckillScriptTest {
+
+    /** 活动ID */
+    private static final Long ACTIVITY_ID = 2001L;
+
+    /** 使用位图的用户ID上限，不小于该值的用户使用用户秒杀订单 key */
+    private static final long BITMAP_MAX_USER_ID = 1000;
+
+    /** 嵌入式 Redis */
+    private static EmbeddedRedis redis;
+
+    /** Redis 模板 */
+    private static RedisTemplate<String, Object> template;
+
+    /** 缓存服务，写入库存并读取脚本写入的值 */
+    private static RedisCacheService cacheService;
+
+    /** 秒杀脚本 */
+    private SeckillStockScript script;
+
+    /** 参与记录，提供参与记录 key 和位偏移量 */
+    private SeckillParticipants participants;
+
+    @BeforeAll
+    public static void startRedis() throws IOException {
+        redis = EmbeddedRedis.start();
+        template = redis.template();
+        cacheService = redis.cacheService();
+    }
+
+    @AfterAll
+    public static void stopRedis() throws IOException {
+        redis.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        redis.flushAll();
+        script = new SeckillStockScript();
+        ReflectionTestUtils.setField(script, "redisTemplate", template);
+        participants = new SeckillParticipants(BITMAP_MAX_USER_ID);
+        ReflectionTestUtils.setField(participants, "redisTemplate", template);
+        ReflectionTestUtils.setField(participants, "cacheService", cacheService);
+    }
+
+    /**
+     * 测试位图分支的扣减和库存不足
+     * <p>
+     * 库存 2：两个用户依次返回 1、0，位图中对应的位被设置并带有过期时间，订单详情写入；
+     * 第三个用户返回库存不足，位没有设置，库存保持 0
+     * </p>
+     */
+    @Test
+    public void testBitmapDecrementAndSoldOut() {
+        cacheService.set(SeckillCacheKeys.stock(ACTIVITY_ID), 2, 1, TimeUnit.HOURS);
+
+        assertEquals(1L, seckill(1L, "order-1"));
+        assertEquals(0L, seckill(2L, "order-2"));
+        assertEquals(SeckillStockScript.SOLD_OUT, seckill(3L, "order-3"));
+
+        String bitmap = SeckillCacheKeys.participants(ACTIVITY_ID);
+        assertTrue(template.opsForValue().getBit(bitmap, 1));
+        assertTrue(template.opsForValue().getBit(bitmap, 2));
+        assertFalse(template.opsForValue().getBit(bitmap, 3));
+        assertTrue(template.getExpire(bitmap) > 0);
+        assertEquals(detail(1L, "order-1"),
+                cacheService.get(SeckillCacheKeys.orderDetail(ACTIVITY_ID, "order-1"), String.class));
+        assertTrue(template.getExpire(SeckillCacheKeys.orderDetail(ACTIVITY_ID, "order-1")) > 0);
+        assertFalse(cacheService.exists(SeckillCacheKeys.orderDetail(ACTIVITY_ID, "order-3")));
+        assertEquals(Long.valueOf(0), cacheService.get(SeckillCacheKeys.stock(ACTIVITY_ID), Long.class));
+    }
+
+    /**
+     * 测试位图分支的重复参与
+     * <p>
+     * 同一用户第二次执行返回已参与，库存不变，不写入第二个订单详情
+     * </p>
+     */
+    @Test
+    public void testBitmapDuplicate() {
+        cacheService.set(SeckillCacheKeys.stock(ACTIVITY_ID), 5, 1, TimeUnit.HOURS);
+
+        assertEquals(4L, seckill(7L, "order-1"));
+        assertEquals(SeckillStockScript.DUPLICATE, seckill(7L, "order-2"));
+        assertEquals(Long.valueOf(4), cacheService.get(SeckillCacheKeys.stock(ACTIVITY_ID), Long.class));
+        assertFalse(cacheService.exists(SeckillCacheKeys.orderDetail(ACTIVITY_ID, "order-2")));
+
+        // 库存不足时先返回已参与：检查参与记录在检查库存之前
+        cacheService.set(SeckillCacheKeys.stock(ACTIVITY_ID), 0, 1, TimeUnit.HOURS);
+        assertEquals(SeckillStockScript.DUPLICATE, seckill(7L, "order-3"));
+    }
+
+    /**
+     * 测试用户秒杀订单 key 分支
+     * <p>
+     * 用户ID超出位图范围：脚本把订单号写入用户秒杀订单 key 并设置过期时间，不修改位图；
+     * 再次执行返回已参与，库存不变
+     * </p>
+     */
+    @Test
+    public void testUserOrderKeyBranch() {
+        Long userId = BITMAP_MAX_USER_ID + 5;
+        assertEquals(-1L, participants.offset(userId));
+        cacheService.set(SeckillCacheKeys.stock(ACTIVITY_ID), 3, 1, TimeUnit.HOURS);
+
+        assertEquals(2L, seckill(userId, "order-1"));
+        String userOrderKey = SeckillCacheKeys.userOrder(ACTIVITY_ID, userId);
+        assertEquals("order-1", cacheService.get(userOrderKey, String.class));
+        assertTrue(template.getExpire(userOrderKey) > 0);
+        assertFalse(template.hasKey(SeckillCacheKeys.participants(ACTIVITY_ID)));
+
+        assertEquals(SeckillStockScript.DUPLICATE, seckill(userId, "order-2"));
+        assertEquals(Long.valueOf(2), cacheService.get(SeckillCacheKeys.stock(ACTIVITY_ID), Long.class));
+        assertEquals("order-1", cacheService.get(userOrderKey, String.class));
+    }
+
+    /**
+     * 测试库存未初始化
+     * <p>
+     * 库存 key 不存在时两个分支都返回库存不足，不写入参与记录，也不会创建库存 key
+     * </p>
+     */
+    @Test
+    public void testUninitializedStock() {
+        Long userId = BITMAP_MAX_USER_ID + 1;
+
+        assertEquals(SeckillStockScript.SOLD_OUT, seckill(1L, "order-1"));
+        assertEquals(SeckillStockScript.SOLD_OUT, seckill(userId, "order-2"));
+
+        assertFalse(template.hasKey(SeckillCacheKeys.stock(ACTIVITY_ID)));
+        assertFalse(template.hasKey(SeckillCacheKeys.participants(ACTIVITY_ID)));
+        assertNull(cacheService.get(SeckillCacheKeys.userOrder(ACTIVITY_ID, userId), String.class));
+    }
+
+    /**
+     * 按秒杀服务的参数执行秒杀脚本
+     */
+    private long seckill(Long userId, String orderNo) {
+        return script.seckill(ACTIVITY_ID, participants.key(ACTIVITY_ID, userId), participants.offset(userId),
+                orderNo, detail(userId, orderNo), participants.getTimeoutSeconds(), 1800, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 订单详情
+     */
+    private static String detail(Long userId, String orderNo) {
+        return String.format("activityId:%d,userId:%d,orderNo:%s", ACTIVITY_ID, userId, orderNo);
+    }
+}
@@ -0,0 +1,484 @@
+package com.example.demo;
+
+import com.example.cache.CacheService;
+import com.example.cache.impl.CaffeineCacheService;
+import com.example.cache.offheap.OffHeapStore;
+import com.example.cache.support.RefreshAhead;
+import com.example.cache.support.VariableExpiry;
+import com.example.common.exception.BusinessException;
+import com.example.ratelimit.RateLimitService;
+import com.example.message.MessageProducer;
+import com.example.seckill.application.dto.SeckillOrderMessage;
+import com.example.seckill.application.dto.SeckillResult;
+import com.example.seckill.application.service.SeckillActivityRegistry;
+import com.example.seckill.application.service.SeckillOrderResender;
+import com.example.seckill.application.service.SeckillService;
+import com.example.seckill.domain.model.SeckillActivity;
+import com.example.seckill.domain.model.SeckillActivityState;
+import com.example.seckill.domain.service.impl.SeckillDomainServiceImpl;
+import com.example.seckill.infrastructure.cache.SeckillCacheKeys;
+import com.example.seckill.infrastructure.cache.SeckillParticipants;
+import com.example.seckill.infrastructure.cache.SeckillSoldOutFlags;
+import com.example.seckill.infrastructure.cache.SeckillStockBuckets;
+import com.example.seckill.infrastructure.cache.SeckillStockScript;
+import com.example.seckill.infrastructure.cache.SeckillStockShards;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 秒杀库存测试类
+ * <p>
+ * 不依赖 Redis，使用 Caffeine 本地缓存组装秒杀服务，验证无锁扣减路径的库存语义：
+ * <ul>
+ *   <li>售罄下限：库存扣到 0 后继续秒杀全部失败，库存不会变成负数（顺序和并发）</li>
+ *   <li>防重复下单：同一用户重复秒杀只扣减一次库存，售罄失败的用户不留下参与记录</li>
+ *   <li>按活动限流：每个活动使用自己的限流 key，超过每秒请求数时抛出 429，未开启时不调用限流服务；
+ *       售罄和不在进行中的请求在限流之前拒绝</li>
+ *   <li>库存分片：所有分片售罄后才失败，剩余库存为各分片之和</li>
+ *   <li>库存分桶：按批领取库存、桶空后继续领取、关闭时归还剩余库存</li>
+ *   <li>订单消息发送失败：不补回库存、不清除参与记录，订单消息记录下来由补发任务重发</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 说明：Lua 脚本需要 Redis 执行，见 {@link SeckillScriptTest}；
+ * 库存分桶使用的领取和归还脚本由 {@link InMemoryStockScript} 按脚本语义在内存中模拟
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class SeckillStockTest {
+
+    /** 活动ID */
+    private static final Long ACTIVITY_ID = 1001L;
+
+    /** 库存分桶每次领取的数量 */
+    private static final long BUCKET_SIZE = 4;
+
+    /** 本地缓存服务 */
+    private CacheService cacheService;
+
+    /** 售罄标记 */
+    private SeckillSoldOutFlags soldOutFlags;
+
+    /** 库存分桶（脚本可用时开启，测试结束时关闭） */
+    private SeckillStockBuckets stockBuckets;
+
+    @BeforeEach
+    public void setUp() {
+        Cache<String, Object> cache = Caffeine.newBuilder()
+                .maximumSize(10000)
+                .expireAfter(new VariableExpiry<String, Object>(1, TimeUnit.HOURS))
+                .build();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        cacheService = new CaffeineCacheService(cache, new RefreshAhead(false, 1.0, 1, 10, 100),
+                beanFactory.getBeanProvider(OffHeapStore.class), 100000, 3600);
+        soldOutFlags = new SeckillSoldOutFlags(5, "seckill:stock:events",
+                beanFactory.getBeanProvider(RedisConnectionFactory.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (stockBuckets != null) {
+            stockBuckets.destroy();
+        }
+    }
+
+    /**
+     * 测试售罄下限
+     * <p>
+     * 库存 3，5 个用户依次秒杀：前 3 个成功，剩余库存依次为 2、1、0，后 2 个返回库存不足，库存 key 保持 0
+     * </p>
+     */
+    @Test
+    public void testSoldOutFloor() {
+        SeckillService seckillService = seckillService(new SeckillStockScript(), 0);
+        seckillService.initStock(ACTIVITY_ID, 3);
+
+        for (long userId = 1; userId <= 3; userId++) {
+            SeckillResult result = seckillService.seckill(ACTIVITY_ID, userId);
+            assertTrue(result.getSuccess(), result.getMessage());
+            assertEquals(Long.valueOf(3 - userId), result.getRemainingStock());
+        }
+        for (long userId = 4; userId <= 5; userId++) {
+            SeckillResult result = seckillService.seckill(ACTIVITY_ID, userId);
+            assertFalse(result.getSuccess());
+            assertEquals("库存不足", result.getMessage());
+        }
+        assertEquals(Long.valueOf(0), cacheService.get(SeckillCacheKeys.stock(ACTIVITY_ID), Long.class));
+        assertEquals(Long.valueOf(0), seckillService.getRemainingStock(ACTIVITY_ID));
+    }
+
+    /**
+     * 测试并发秒杀不超卖
+     * <p>
+     * 库存 10，50 个用户同时秒杀：恰好 10 个成功，库存 key 保持 0
+     * </p>
+     */
+    @Test
+    public void testConcurrentSoldOutFloor() throws Exception {
+        SeckillService seckillService = seckillService(new SeckillStockScript(), 0);
+        seckillService.initStock(ACTIVITY_ID, 10);
+
+        assertEquals(10, concurrentSeckill(seckillService, 50));
+        assertEquals(Long.valueOf(0), cacheService.get(SeckillCacheKeys.stock(ACTIVITY_ID), Long.class));
+    }
+
+    /**
+     * 测试防重复下单
+     * <p>
+     * 同一用户第二次秒杀返回已参与且不扣减库存；售罄时失败的用户没有参与记录，补充库存后可以重试
+     * </p>
+     */
+    @Test
+    public void testIdempotentReentry() {
+        SeckillService seckillService = seckillService(new SeckillStockScript(), 0);
+        seckillService.initStock(ACTIVITY_ID, 2);
+
+        assertTrue(seckillService.seckill(ACTIVITY_ID, 1L).getSuccess());
+        SeckillResult duplicate = seckillService.seckill(ACTIVITY_ID, 1L);
+        assertFalse(duplicate.getSuccess());
+        assertEquals("您已经参与过该秒杀活动", duplicate.getMessage());
+        assertTrue(seckillService.hasParticipated(ACTIVITY_ID, 1L));
+        assertEquals(Long.valueOf(1), seckillService.getRemainingStock(ACTIVITY_ID));
+
+        assertTrue(seckillService.seckill(ACTIVITY_ID, 2L).getSuccess());
+        SeckillResult soldOut = seckillService.seckill(ACTIVITY_ID, 3L);
+        assertFalse(soldOut.getSuccess());
+        assertEquals("库存不足", soldOut.getMessage());
+        assertFalse(seckillService.hasParticipated(ACTIVITY_ID, 3L));
+
+        seckillService.initStock(ACTIVITY_ID, 1);
+        assertTrue(seckillService.seckill(ACTIVITY_ID, 3L).getSuccess());
+        assertEquals(Long.valueOf(0), seckillService.getRemainingStock(ACTIVITY_ID));
+    }
+
+    /**
+     * 测试按活动限流
+     * <p>
+     * 每秒 5 次：两个活动分别使用 seckill:{activityId} 作为限流 key；限流服务拒绝时抛出 429，不扣减库存；
+     * 每秒请求数为 0 时不调用限流服务
+     * </p>
+     */
+    @Test
+    public void testRateLimitPerActivity() {
+        Long otherActivityId = ACTIVITY_ID + 1;
+        RateLimitService rateLimitService = mock(RateLimitService.class);
+        when(rateLimitService.slidingWindowLimit("seckill:" + ACTIVITY_ID, 5, 1)).thenReturn(true);
+        when(rateLimitService.slidingWindowLimit("seckill:" + otherActivityId, 5, 1)).thenReturn(false);
+        SeckillService seckillService = seckillService(new SeckillStockScript(), 0);
+        ReflectionTestUtils.setField(seckillService, "rateLimitService", rateLimitService);
+        ReflectionTestUtils.setField(seckillService, "rateLimitPerSecond", 5);
+        seckillService.initStock(ACTIVITY_ID, 10);
+        seckillService.initStock(otherActivityId, 10);
+
+        assertTrue(seckillService.seckill(ACTIVITY_ID, 1L).getSuccess());
+        BusinessException limited = assertThrows(BusinessException.class,
+                () -> seckillService.seckill(otherActivityId, 1L));
+        assertEquals(Integer.valueOf(429), limited.getCode());
+        assertEquals(Long.valueOf(10), seckillService.getRemainingStock(otherActivityId));
+
+        SeckillService unlimited = seckillService(new SeckillStockScript(), 0);
+        RateLimitService unused = mock(RateLimitService.class);
+        ReflectionTestUtils.setField(unlimited, "rateLimitService", unused);
+        assertTrue(unlimited.seckill(otherActivityId, 2L).getSuccess());
+        verify(unused, never()).slidingWindowLimit(anyString(), anyInt(), anyInt());
+        verify(rateLimitService).slidingWindowLimit(eq("seckill:" + ACTIVITY_ID), eq(5), eq(1));
+    }
+
+    /**
+     * 测试售罄和未开始的请求不占用限流名额
+     * <p>
+     * 本节点已记录售罄标记、活动不在进行中时直接拒绝，不调用限流服务
+     * </p>
+     */
+    @Test
+    public void testRejectedBeforeRateLimit() {
+        RateLimitService rateLimitService = mock(RateLimitService.class);
+        SeckillService seckillService = seckillService(new SeckillStockScript(), 0);
+        ReflectionTestUtils.setField(seckillService, "rateLimitService", rateLimitService);
+        ReflectionTestUtils.setField(seckillService, "rateLimitPerSecond", 5);
+        soldOutFlags.markSoldOut(ACTIVITY_ID);
+
+        SeckillResult soldOut = seckillService.seckill(ACTIVITY_ID, 1L);
+        assertFalse(soldOut.getSuccess());
+        assertEquals("库存不足", soldOut.getMessage());
+
+        SeckillActivityRegistry activityRegistry =
+                (SeckillActivityRegistry) ReflectionTestUtils.getField(seckillService, "activityRegistry");
+        SeckillActivity activity = new SeckillActivity();
+        activity.setId(ACTIVITY_ID + 1);
+        activity.setStartTime(LocalDateTime.now().plusHours(1));
+        activity.setEndTime(LocalDateTime.now().plusHours(2));
+        activityRegistry.save(activity);
+        SeckillResult notStarted = seckillService.seckill(ACTIVITY_ID + 1, 1L);
+        assertFalse(notStarted.getSuccess());
+        assertEquals(SeckillActivityState.NOT_STARTED.getDescription(), notStarted.getMessage());
+
+        verify(rateLimitService, never()).slidingWindowLimit(anyString(), anyInt(), anyInt());
+    }
+
+    /**
+     * 测试库存分片的售罄下限
+     * <p>
+     * 4 个分片共 10 件库存：依次卖出 3 件后剩余库存为 7（各分片之和，未配置 Redis 时从本地计数器读取）；
+     * 再有 30 个用户同时秒杀，恰好 7 个成功，所有分片都保持 0
+     * </p>
+     */
+    @Test
+    public void testShardedSoldOutFloor() throws Exception {
+        SeckillService seckillService = seckillService(new SeckillStockScript(), 4);
+        seckillService.initStock(ACTIVITY_ID, 10);
+        assertEquals(Long.valueOf(10), seckillService.getRemainingStock(ACTIVITY_ID));
+
+        for (long userId = 101; userId <= 103; userId++) {
+            assertTrue(seckillService.seckill(ACTIVITY_ID, userId).getSuccess());
+        }
+        assertEquals(Long.valueOf(7), seckillService.getRemainingStock(ACTIVITY_ID));
+
+        assertEquals(7, concurrentSeckill(seckillService, 30));
+        for (int shard = 0; shard < 4; shard++) {
+            assertEquals(Long.valueOf(0),
+                    cacheService.get(SeckillCacheKeys.stockShard(ACTIVITY_ID, shard), Long.class));
+        }
+        assertEquals(Long.valueOf(0), seckillService.getRemainingStock(ACTIVITY_ID));
+    }
+
+    /**
+     * 测试库存分桶的领取
+     * <p>
+     * 库存 10，每桶 4 件：依次领取 4、4、2 件，10 个用户全部成功，第 11 个返回库存不足
+     * </p>
+     */
+    @Test
+    public void testBucketAllocate() {
+        InMemoryStockScript script = new InMemoryStockScript(cacheService);
+        SeckillService seckillService = seckillService(script, 0);
+        seckillService.initStock(ACTIVITY_ID, 10);
+
+        assertTrue(seckillService.seckill(ACTIVITY_ID, 1L).getSuccess());
+        assertEquals(3L, stockBuckets.getLocalStock(ACTIVITY_ID));
+        assertEquals(Long.valueOf(6), cacheService.get(SeckillCacheKeys.stock(ACTIVITY_ID), Long.class));
+
+        for (long userId = 2; userId <= 10; userId++) {
+            assertTrue(seckillService.seckill(ACTIVITY_ID, userId).getSuccess());
+        }
+        SeckillResult soldOut = seckillService.seckill(ACTIVITY_ID, 11L);
+        assertFalse(soldOut.getSuccess());
+        assertEquals("库存不足", soldOut.getMessage());
+        assertEquals(3, script.allocations.get());
+        assertEquals(0L, stockBuckets.getLocalStock(ACTIVITY_ID));
+        assertEquals(Long.valueOf(0), cacheService.get(SeckillCacheKeys.stock(ACTIVITY_ID), Long.class));
+        assertEquals(Long.valueOf(0), seckillService.getRemainingStock(ACTIVITY_ID));
+    }
+
+    /**
+     * 测试库存分桶的归还
+     * <p>
+     * 扣减一件后放回桶内，桶内仍为 4 件；关闭时把桶内剩余库存全部归还给库存 key
+     * </p>
+     */
+    @Test
+    public void testBucketRelease() {
+        InMemoryStockScript script = new InMemoryStockScript(cacheService);
+        stockBuckets = new SeckillStockBuckets(true, BUCKET_SIZE, 60, script, soldOutFlags);
+        stockBuckets.afterPropertiesSet();
+        cacheService.set(SeckillCacheKeys.stock(ACTIVITY_ID), 10, 24, TimeUnit.HOURS);
+
+        assertEquals(9L, stockBuckets.acquire(ACTIVITY_ID));
+        assertEquals(3L, stockBuckets.getLocalStock(ACTIVITY_ID));
+        stockBuckets.giveBack(ACTIVITY_ID);
+        assertEquals(4L, stockBuckets.getLocalStock(ACTIVITY_ID));
+
+        stockBuckets.destroy();
+        stockBuckets = null;
+        assertEquals(10L, cacheService.get(SeckillCacheKeys.stock(ACTIVITY_ID), Number.class).longValue());
+    }
+
+    /**
+     * 测试订单消息发送失败
+     * <p>
+     * 同步发送抛出异常时 Broker 可能已经保存了消息：秒杀仍然成功，库存和参与记录保留，订单消息记录为待补发；
+     * 补发成功后删除记录，再次补发没有消息
+     * </p>
+     */
+    @Test
+    public void testSendFailureKeepsSeckill() {
+        MessageProducer messageProducer = mock(MessageProducer.class);
+        doThrow(new RuntimeException("发送超时")).doNothing()
+                .when(messageProducer).send(eq("seckill-order-topic"), eq("create"), any());
+        SeckillService seckillService = seckillService(new SeckillStockScript(), 0);
+        ReflectionTestUtils.setField(seckillService, "messageProducer", messageProducer);
+        SeckillOrderResender orderResender =
+                (SeckillOrderResender) ReflectionTestUtils.getField(seckillService, "orderResender");
+        ReflectionTestUtils.setField(orderResender, "messageProducer", messageProducer);
+        seckillService.initStock(ACTIVITY_ID, 1);
+
+        SeckillResult result = seckillService.seckill(ACTIVITY_ID, 1L);
+        assertTrue(result.getSuccess(), result.getMessage());
+        assertEquals(SeckillResult.ORDER_PENDING, result.getOrderStatus());
+        assertEquals(Long.valueOf(0), seckillService.getRemainingStock(ACTIVITY_ID));
+        assertTrue(seckillService.hasParticipated(ACTIVITY_ID, 1L));
+        assertFalse(seckillService.seckill(ACTIVITY_ID, 2L).getSuccess());
+        SeckillOrderMessage unsent = cacheService.get(SeckillCacheKeys.unsentOrder(result.getOrderNo()),
+                SeckillOrderMessage.class);
+        assertEquals(Long.valueOf(1), unsent.getUserId());
+
+        assertEquals(1, orderResender.resendAll());
+        ArgumentCaptor<SeckillOrderMessage> sent = ArgumentCaptor.forClass(SeckillOrderMessage.class);
+        verify(messageProducer, times(2)).send(eq("seckill-order-topic"), eq("create"), sent.capture());
+        assertEquals(result.getOrderNo(), sent.getValue().getOrderNo());
+        assertFalse(cacheService.exists(SeckillCacheKeys.unsentOrder(result.getOrderNo())));
+        assertEquals(0, orderResender.resendAll());
+    }
+
+    /**
+     * 组装不依赖 Redis 的秒杀服务
+     *
+     * @param script 秒杀脚本
+     * @param shardCount 库存分片数量，0 表示不分片
+     * @return 秒杀服务
+     */
+    private SeckillService seckillService(SeckillStockScript script, int shardCount) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        SeckillParticipants participants = new SeckillParticipants(100000000L);
+        ReflectionTestUtils.setField(participants, "cacheService", cacheService);
+        SeckillStockShards stockShards = new SeckillStockShards(shardCount, script);
+        ReflectionTestUtils.setField(stockShards, "cacheService", cacheService);
+        stockShards.afterPropertiesSet();
+        SeckillActivityRegistry activityRegistry = new SeckillActivityRegistry(new SeckillDomainServiceImpl(), "seckill:activity:events", 60,
+                beanFactory.getBeanProvider(RedisConnectionFactory.class));
+
+        SeckillService seckillService = new SeckillService();
+        ReflectionTestUtils.setField(seckillService, "mode", "decr");
+        ReflectionTestUtils.setField(seckillService, "orderTopic", "seckill-order-topic");
+        ReflectionTestUtils.setField(seckillService, "cacheService", cacheService);
+        ReflectionTestUtils.setField(seckillService, "seckillStockScript", script);
+        ReflectionTestUtils.setField(seckillService, "activityRegistry", activityRegistry);
+        ReflectionTestUtils.setField(seckillService, "participants", participants);
+        ReflectionTestUtils.setField(seckillService, "soldOutFlags", soldOutFlags);
+        stockBuckets = new SeckillStockBuckets(script.isAvailable(), BUCKET_SIZE, 60, script, soldOutFlags);
+        stockBuckets.afterPropertiesSet();
+        ReflectionTestUtils.setField(seckillService, "stockBuckets", stockBuckets);
+        ReflectionTestUtils.setField(seckillService, "stockShards", stockShards);
+        SeckillOrderResender orderResender = new SeckillOrderResender("seckill-order-topic", 0);
+        ReflectionTestUtils.setField(orderResender, "cacheService", cacheService);
+        ReflectionTestUtils.setField(seckillService, "orderResender", orderResender);
+        return seckillService;
+    }
+
+    /**
+     * 不同用户同时秒杀
+     *
+     * @return 成功的次数
+     */
+    private int concurrentSeckill(SeckillService seckillService, int users) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<SeckillResult>> futures = new ArrayList<>(users);
+            for (long userId = 1; userId <= users; userId++) {
+                long id = userId;
+                futures.add(executor.submit((Callable<SeckillResult>) () -> seckillService.seckill(ACTIVITY_ID, id)));
+            }
+            int succeeded = 0;
+            for (Future<SeckillResult> future : futures) {
+                if (future.get(10, TimeUnit.SECONDS).getSuccess()) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 按 Lua 脚本语义在本地缓存上模拟领取和归还库存
+     */
+    private static final class InMemoryStockScript extends SeckillStockScript {
+
+        /** 本地缓存服务 */
+        private final CacheService cacheService;
+
+        /** 领取到库存的次数 */
+        private final AtomicInteger allocations = new AtomicInteger();
+
+        private InMemoryStockScript(CacheService cacheService) {
+            this.cacheService = cacheService;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public synchronized long[] allocate(Long activityId, long count) {
+            String stockKey = SeckillCacheKeys.stock(activityId);
+            Number stock = cacheService.get(stockKey, Number.class);
+            if (stock == null || stock.longValue() <= 0) {
+                return new long[] {0, 0};
+            }
+            long take = Math.min(stock.longValue(), count);
+            long remaining = stock.longValue() - take;
+            cacheService.set(stockKey, remaining, 24, TimeUnit.HOURS);
+            allocations.incrementAndGet();
+            return new long[] {take, remaining};
+        }
+
+        @Override
+        public List<Long> read(List<String> stockKeys) {
+            List<Long> stocks = new ArrayList<>(stockKeys.size());
+            for (String stockKey : stockKeys) {
+                Number stock = cacheService.get(stockKey, Number.class);
+                stocks.add(stock != null ? stock.longValue() : null);
+            }
+            return stocks;
+        }
+
+        @Override
+        public synchronized long release(Long activityId, long count) {
+            String stockKey = SeckillCacheKeys.stock(activityId);
+            Number stock = cacheService.get(stockKey, Number.class);
+            if (stock == null) {
+                return -1L;
+            }
+            long released = stock.longValue() + count;
+            cacheService.set(stockKey, released, 24, TimeUnit.HOURS);
+            return released;
+        }
+    }
+}
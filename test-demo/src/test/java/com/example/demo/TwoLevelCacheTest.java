@@ -0,0 +1,106 @@
+package com.example.demo;
+
+import com.example.cache.impl.TwoLevelCacheService;
+import com.github.benmanes.caffeine.cache.Policy;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 两级缓存测试类
+ * <p>
+ * 使用嵌入式 Redis 作为 L2，验证回填 L1 时的过期时间：
+ * <ul>
+ *   <li>getOrLoad 命中 L2 中剩余过期时间较短的旧值时，L1 不会比 L2 活得更久</li>
+ *   <li>getOrLoad 调用加载回调时，L1 过期时间不超过调用方给的 timeout</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class TwoLevelCacheTest {
+
+    /** 嵌入式 Redis */
+    private static EmbeddedRedis redis;
+
+    /** 两级缓存服务，L1 默认过期 60 秒 */
+    private TwoLevelCacheService cacheService;
+
+    @BeforeAll
+    public static void startRedis() throws IOException {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    public static void stopRedis() throws IOException {
+        redis.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        redis.flushAll();
+        cacheService = new TwoLevelCacheService(redis.cacheService(), redis.template(), 1000, 60, "cache:near:invalidate");
+    }
+
+    /**
+     * 测试 getOrLoad 按 L2 剩余过期时间回填 L1
+     * <p>
+     * L2 中的值只剩 2 秒，调用方 timeout 为 60 秒：返回 L2 的值，L1 过期时间不超过 2 秒
+     * </p>
+     */
+    @Test
+    public void testGetOrLoadBackfillCappedByRemoteTtl() throws Exception {
+        redis.template().opsForValue().set("product:1", "cached", 2, TimeUnit.SECONDS);
+
+        String value = cacheService.getOrLoad("product:1", String.class, 60, TimeUnit.SECONDS, () -> "loaded");
+
+        assertEquals("cached", value);
+        long localMillis = localExpiresAfter("product:1");
+        assertTrue(localMillis > 0 && localMillis <= 2000, "L1 过期时间应不超过 L2 剩余过期时间: " + localMillis);
+    }
+
+    /**
+     * 测试 getOrLoad 加载后按调用方 timeout 回填 L1
+     */
+    @Test
+    public void testGetOrLoadBackfillCappedByCallerTimeout() throws Exception {
+        String value = cacheService.getOrLoad("product:2", String.class, 5, TimeUnit.SECONDS, () -> "loaded");
+
+        assertEquals("loaded", value);
+        long localMillis = localExpiresAfter("product:2");
+        assertTrue(localMillis > 0 && localMillis <= 5000, "L1 过期时间应不超过调用方 timeout: " + localMillis);
+        long remoteMillis = redis.template().getExpire("product:2", TimeUnit.MILLISECONDS);
+        assertTrue(remoteMillis > 0 && remoteMillis <= 5000);
+    }
+
+    /**
+     * 测试加载回调返回 null 时不回填 L1
+     */
+    @Test
+    public void testGetOrLoadNullNotBackfilled() throws Exception {
+        assertNull(cacheService.getOrLoad("product:3", String.class, 5, TimeUnit.SECONDS, () -> null));
+        assertNull(cacheService.getLocalCache().getIfPresent("product:3"));
+    }
+
+    /**
+     * 读取 L1 条目的剩余过期时间
+     *
+     * @param key 缓存键
+     * @return 剩余过期时间（毫秒），条目不存在时返回 -1
+     */
+    private long localExpiresAfter(String key) {
+        Policy.VarExpiration<String, Object> expiration =
+                cacheService.getLocalCache().policy().expireVariably().orElseThrow(IllegalStateException::new);
+        return expiration.getExpiresAfter(key, TimeUnit.MILLISECONDS).orElse(-1L);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demo;
+
+import com.example.cache.codec.CompactValueCodec;
+import com.example.cache.codec.JsonValueCodec;
+import com.example.cache.codec.ValueCodec;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 缓存值编解码测试类
+ * <p>
+ * 验证 JSON 和紧凑二进制两种编解码器：
+ * <ul>
+ *   <li>整数编码为 ASCII 十进制文本，Redis INCR/DECR 和 Lua 脚本修改后仍能解码</li>
+ *   <li>紧凑编解码器的对象往返、压缩和对 JSON 数据的兼容</li>
+ *   <li>经 RedisTemplate 写入的整数可以被真实 Redis 的 INCRBY 修改（使用嵌入式 Redis）</li>
+ * </ul>
+ * </p>
+ *
+ * @author system
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class ValueCodecTest {
+
+    /** JSON 编解码器 */
+    private final ValueCodec jsonCodec = new JsonValueCodec();
+
+    /** 紧凑二进制编解码器，压缩阈值 256 字节 */
+    private final ValueCodec compactCodec = new CompactValueCodec(256, new String[] {"com.example"}, null);
+
+    /**
+     * 测试整数按 ASCII 十进制往返
+     * <p>
+     * 两种编解码器对 Integer、Long 的编码都与 Redis 计数器的格式相同；
+     * 模拟 INCR 后写回的文本，仍然可以解码为 Integer 和 Long
+     * </p>
+     */
+    @Test
+    public void testIntegerAsAsciiRoundTrip() {
+        for (ValueCodec codec : Arrays.asList(jsonCodec, compactCodec)) {
+            assertArrayEquals(ascii("42"), codec.serialize(42));
+            assertArrayEquals(ascii("-7"), codec.serialize(-7L));
+            assertArrayEquals(ascii(String.valueOf(Long.MAX_VALUE)), codec.serialize(Long.MAX_VALUE));
+
+            assertEquals(Integer.valueOf(42), codec.deserialize(codec.serialize(42), Integer.class));
+            assertEquals(Long.valueOf(Long.MAX_VALUE), codec.deserialize(codec.serialize(Long.MAX_VALUE), Long.class));
+
+            // Redis 执行 INCR 后的值
+            long incremented = Long.parseLong(new String(codec.serialize(42), StandardCharsets.US_ASCII)) + 1;
+            byte[] raw = ascii(String.valueOf(incremented));
+            assertEquals(Integer.valueOf(43), codec.deserialize(raw, Integer.class));
+            assertEquals(Long.valueOf(43), codec.deserialize(raw, Long.class));
+        }
+    }
+
+    /**
+     * 测试紧凑编解码器的对象往返
+     * <p>
+     * 小对象不压缩、大对象压缩后更小，都能还原；切换编解码器前写入的 JSON 数据仍然可以读取
+     * </p>
+     */
+    @Test
+    public void testCompactRoundTrip() {
+        Map<String, Object> small = new LinkedHashMap<>();
+        small.put("activityId", 1001);
+        small.put("name", "秒杀活动");
+        assertEquals(small, compactCodec.deserialize(compactCodec.serialize(small), Map.class));
+
+        Map<String, Object> large = new LinkedHashMap<>();
+        large.put("content", repeat("秒杀活动说明", 200));
+        byte[] compressed = compactCodec.serialize(large);
+        assertTrue(compressed.length < jsonCodec.serialize(large).length);
+        assertEquals(large, compactCodec.deserialize(compressed, Map.class));
+
+        assertEquals(small, compactCodec.deserialize(jsonCodec.serialize(small), Map.class));
+    }
+
+    /**
+     * 测试编码后的整数可以直接被 Redis 计数命令修改
+     * <p>
+     * 通过按生产配置创建的 RedisTemplate 写入整数，INCRBY 成功执行，读回的值为修改后的整数
+     * </p>
+     */
+    @Test
+    public void testRedisIncrementOnEncodedInteger() throws IOException {
+        try (EmbeddedRedis redis = EmbeddedRedis.start()) {
+            redis.template().opsForValue().set("seckill:stock:1", 42);
+
+            assertEquals(Long.valueOf(40), redis.template().opsForValue().increment("seckill:stock:1", -2));
+            assertEquals(40, ((Number) redis.template().opsForValue().get("seckill:stock:1")).intValue());
+        }
+    }
+
+    /**
+     * 重复字符串
+     */
+    private static String repeat(String text, int times) {
+        StringBuilder builder = new StringBuilder(text.length() * times);
+        for (int i = 0; i < times; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * ASCII 字节
+     */
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -40,6 +40,9 @@ public class RoleService {
     
     /** 角色权限关联仓储 */
     private final RolePermissionRepository rolePermissionRepository;
+    
+    /** 用户服务，用于清除用户角色和权限缓存 */
+    private final UserService userService;
 
     /**
      * 获取角色列表
@@ -177,7 +180,11 @@ public class RoleService {
                 existingRole.setStatus(role.getStatus());
             }
             
-            return roleRepository.save(existingRole);
+            Role saved = roleRepository.save(existingRole);
+            
+            // 角色编码、状态可能影响所有拥有该角色的用户
+            userService.clearAllRoleCache();
+            return saved;
         } catch (BusinessException e) {
             throw e;
         } catch (Exception e) {
@@ -197,6 +204,7 @@ public class RoleService {
         try {
             // 直接执行删除操作，不依赖findById（避免逻辑删除拦截器影响）
             roleRepository.delete(id);
+            userService.clearAllRoleCache();
             log.info("删除角色操作完成: roleId={}", id);
         } catch (BusinessException e) {
             throw e;
@@ -461,6 +469,9 @@ public class RoleService {
                 rp.setPermissionId(permissionId);
                 rolePermissionRepository.save(rp);
             }
+            
+            // 所有拥有该角色的用户的权限都已变化，一次失效全部用户权限缓存
+            userService.clearAllPermissionCache();
         } catch (Exception e) {
             log.error("分配角色权限失败: roleId={}", roleId, e);
             throw new BusinessException("分配角色权限失败: " + e.getMessage());
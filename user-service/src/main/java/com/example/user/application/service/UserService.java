@@ -1,8 +1,8 @@
 package com.example.user.application.service;
 
-import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.TypeReference;
 import com.example.cache.CacheService;
+import com.example.cache.namespace.CacheNamespaceManager;
 import com.example.common.exception.BusinessException;
 import com.example.user.domain.model.Permission;
 import com.example.user.domain.model.Role;
@@ -12,10 +12,10 @@ import com.example.user.domain.repository.UserRoleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -53,6 +53,18 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserService {
 
+    /** 用户角色缓存命名空间 */
+    private static final String ROLE_CACHE_NAMESPACE = "user:roles";
+    
+    /** 用户权限缓存命名空间 */
+    private static final String PERMISSION_CACHE_NAMESPACE = "user:permissions";
+    
+    /** 角色列表类型，用于从缓存中还原泛型列表 */
+    private static final Type ROLE_LIST_TYPE = new TypeReference<List<Role>>() {}.getType();
+    
+    /** 权限列表类型，用于从缓存中还原泛型列表 */
+    private static final Type PERMISSION_LIST_TYPE = new TypeReference<List<Permission>>() {}.getType();
+
     /** 用户角色关联仓储 */
     private final UserRoleRepository userRoleRepository;
     
@@ -66,9 +78,9 @@ public class UserService {
     @Autowired(required = false)
     private CacheService cacheService;
     
-    /** Redis 模板（可选，用于直接访问 Redis） */
+    /** 缓存命名空间版本（可选，用于成组失效用户角色和权限缓存） */
     @Autowired(required = false)
-    private RedisTemplate<String, Object> redisTemplate;
+    private CacheNamespaceManager cacheNamespaceManager;
 
     /**
      * 获取用户角色
@@ -79,7 +91,7 @@ public class UserService {
      * 缓存策略：
      * <ul>
      *   <li>如果缓存服务可用，优先从缓存获取</li>
-     *   <li>缓存不存在时，从数据库查询并缓存结果</li>
+     *   <li>缓存不存在时，从数据库查询并缓存结果，并发请求只查询一次数据库</li>
      *   <li>缓存过期时间：30分钟</li>
      * </ul>
      * </p>
@@ -91,37 +103,13 @@ public class UserService {
         Assert.notNull(userId, "用户ID不能为空");
         
         try {
-            // 尝试从缓存获取
-            if (cacheService != null && redisTemplate != null) {
-                String cacheKey = "user:roles:" + userId;
-                Object cachedValue = redisTemplate.opsForValue().get(cacheKey);
-                if (cachedValue != null) {
-                    try {
-                        // 使用 FastJSON2 的 TypeReference 正确转换泛型类型
-                        List<Role> cachedRoles = JSON.parseObject(
-                            JSON.toJSONString(cachedValue),
-                            new TypeReference<List<Role>>() {}
-                        );
-                        if (cachedRoles != null && !cachedRoles.isEmpty()) {
-                            log.debug("从缓存获取用户角色: userId={}, count={}", userId, cachedRoles.size());
-                            return cachedRoles;
-                        }
-                    } catch (Exception e) {
-                        log.warn("从缓存解析用户角色失败，清除缓存: userId={}", userId, e);
-                        // 清除损坏的缓存
-                        cacheService.delete(cacheKey);
-                    }
-                }
-            }
-            
-            // 从数据库查询
-            List<Role> roles = userRoleRepository.findRolesByUserId(userId);
-            
-            // 缓存结果
-            if (cacheService != null && roles != null && !roles.isEmpty()) {
-                String cacheKey = "user:roles:" + userId;
-                cacheService.set(cacheKey, roles, 30, TimeUnit.MINUTES);
-                log.debug("缓存用户角色: userId={}, count={}", userId, roles.size());
+            // 缓存未命中时只有一个请求查询数据库，其他并发请求共享查询结果
+            List<Role> roles;
+            if (cacheService != null) {
+                roles = cacheService.getOrLoad(cacheKey(ROLE_CACHE_NAMESPACE, userId), ROLE_LIST_TYPE,
+                        30, TimeUnit.MINUTES, () -> userRoleRepository.findRolesByUserId(userId));
+            } else {
+                roles = userRoleRepository.findRolesByUserId(userId);
             }
             
             log.info("获取用户角色成功: userId={}, count={}", userId, roles != null ? roles.size() : 0);
@@ -149,7 +137,7 @@ public class UserService {
      * 缓存策略：
      * <ul>
      *   <li>如果缓存服务可用，优先从缓存获取</li>
-     *   <li>缓存不存在时，从数据库查询并缓存结果</li>
+     *   <li>缓存不存在时，从数据库查询并缓存结果，并发请求只查询一次数据库</li>
      *   <li>缓存过期时间：30分钟</li>
      * </ul>
      * </p>
@@ -161,58 +149,53 @@ public class UserService {
         Assert.notNull(userId, "用户ID不能为空");
         
         try {
-            // 尝试从缓存获取
-            if (cacheService != null && redisTemplate != null) {
-                String cacheKey = "user:permissions:" + userId;
-                Object cachedValue = redisTemplate.opsForValue().get(cacheKey);
-                if (cachedValue != null) {
-                    try {
-                        // 使用 FastJSON2 的 TypeReference 正确转换泛型类型
-                        List<Permission> cachedPermissions = JSON.parseObject(
-                            JSON.toJSONString(cachedValue),
-                            new TypeReference<List<Permission>>() {}
-                        );
-                        if (cachedPermissions != null && !cachedPermissions.isEmpty()) {
-                            log.debug("从缓存获取用户权限: userId={}, count={}", userId, cachedPermissions.size());
-                            return cachedPermissions;
-                        }
-                    } catch (Exception e) {
-                        log.warn("从缓存解析用户权限失败，清除缓存: userId={}", userId, e);
-                        // 清除损坏的缓存
-                        cacheService.delete(cacheKey);
-                    }
-                }
+            // 缓存未命中时只有一个请求查询数据库，其他并发请求共享查询结果
+            List<Permission> permissions;
+            if (cacheService != null) {
+                permissions = cacheService.getOrLoad(cacheKey(PERMISSION_CACHE_NAMESPACE, userId), PERMISSION_LIST_TYPE,
+                        30, TimeUnit.MINUTES, () -> loadUserPermissions(userId));
+            } else {
+                permissions = loadUserPermissions(userId);
             }
             
-            // 1. 查询用户的所有角色
-            List<Role> roles = getUserRoles(userId);
-            
-            // 2. 查询每个角色的所有权限
-            Set<Permission> permissionSet = roles.stream()
-                    .flatMap(role -> {
-                        List<Permission> permissions = rolePermissionRepository.findPermissionsByRoleId(role.getId());
-                        return permissions != null ? permissions.stream() : java.util.stream.Stream.empty();
-                    })
-                    .collect(Collectors.toSet()); // 使用 Set 去重
-            
-            List<Permission> permissions = permissionSet.stream()
-                    .collect(Collectors.toList());
-            
-            // 缓存结果
-            if (cacheService != null && !permissions.isEmpty()) {
-                String cacheKey = "user:permissions:" + userId;
-                cacheService.set(cacheKey, permissions, 30, TimeUnit.MINUTES);
-                log.debug("缓存用户权限: userId={}, count={}", userId, permissions.size());
-            }
-            
-            log.info("获取用户权限成功: userId={}, count={}", userId, permissions.size());
-            return permissions;
+            log.info("获取用户权限成功: userId={}, count={}", userId, permissions != null ? permissions.size() : 0);
+            return permissions != null ? permissions : java.util.Collections.emptyList();
         } catch (Exception e) {
             log.error("获取用户权限失败: userId={}", userId, e);
             throw new BusinessException("获取用户权限失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 从数据库加载用户权限
+     * <p>
+     * 查询逻辑：
+     * <ol>
+     *   <li>查询用户的所有角色</li>
+     *   <li>查询每个角色的所有权限</li>
+     *   <li>合并所有权限并去重</li>
+     * </ol>
+     * </p>
+     * 
+     * @param userId 用户ID
+     * @return 权限列表
+     */
+    private List<Permission> loadUserPermissions(Long userId) {
+        // 1. 查询用户的所有角色
+        List<Role> roles = getUserRoles(userId);
+        
+        // 2. 查询每个角色的所有权限
+        Set<Permission> permissionSet = roles.stream()
+                .flatMap(role -> {
+                    List<Permission> permissions = rolePermissionRepository.findPermissionsByRoleId(role.getId());
+                    return permissions != null ? permissions.stream() : java.util.stream.Stream.empty();
+                })
+                .collect(Collectors.toSet()); // 使用 Set 去重
+        
+        return permissionSet.stream()
+                .collect(Collectors.toList());
+    }
+
     /**
      * 检查用户是否有权限
      * <p>
@@ -321,8 +304,8 @@ public class UserService {
         
         if (cacheService != null) {
             try {
-                String roleCacheKey = "user:roles:" + userId;
-                String permissionCacheKey = "user:permissions:" + userId;
+                String roleCacheKey = cacheKey(ROLE_CACHE_NAMESPACE, userId);
+                String permissionCacheKey = cacheKey(PERMISSION_CACHE_NAMESPACE, userId);
                 cacheService.delete(roleCacheKey);
                 cacheService.delete(permissionCacheKey);
                 log.debug("清除用户角色和权限缓存: userId={}", userId);
@@ -331,5 +314,54 @@ public class UserService {
             }
         }
     }
+    
+    /**
+     * 清除所有用户的权限缓存
+     * <p>
+     * 角色的权限发生变化时调用，通过递增命名空间版本号一次失效，不遍历 key
+     * </p>
+     */
+    public void clearAllPermissionCache() {
+        invalidateNamespace(PERMISSION_CACHE_NAMESPACE);
+    }
+    
+    /**
+     * 清除所有用户的角色和权限缓存
+     * <p>
+     * 角色被修改或删除时调用，通过递增命名空间版本号一次失效，不遍历 key
+     * </p>
+     */
+    public void clearAllRoleCache() {
+        invalidateNamespace(ROLE_CACHE_NAMESPACE);
+        invalidateNamespace(PERMISSION_CACHE_NAMESPACE);
+    }
+    
+    /**
+     * 生成缓存 key，启用命名空间版本时嵌入版本号
+     * 
+     * @param namespace 命名空间
+     * @param userId 用户ID
+     * @return 缓存 key
+     */
+    private String cacheKey(String namespace, Long userId) {
+        return cacheNamespaceManager != null
+                ? cacheNamespaceManager.key(namespace, userId)
+                : namespace + ":" + userId;
+    }
+    
+    /**
+     * 递增命名空间版本号，失败时只记录日志（旧缓存在过期时间内仍可能被读取）
+     * 
+     * @param namespace 命名空间
+     */
+    private void invalidateNamespace(String namespace) {
+        if (cacheNamespaceManager == null) {
+            return;
+        }
+        try {
+            cacheNamespaceManager.invalidate(namespace);
+        } catch (Exception e) {
+            log.warn("清除缓存命名空间失败: namespace={}", namespace, e);
+        }
+    }
 }
-